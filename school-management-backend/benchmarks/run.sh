@@ -0,0 +1,29 @@
+#!/usr/bin/env bash
+# Builds the benchmarks and runs JMH, writing results to results/<short commit>[-dirty].json so runs
+# on different commits can be compared:
+#
+#   ./run.sh                                   all benchmarks
+#   ./run.sh SerializationBenchmark -p size=10000
+#   ./run.sh compare results/abc1234.json results/def5678.json
+#   ./run.sh sizes [rows]                      encoded sizes of the EncodingBenchmark payloads
+#
+# JMH forks benchmark JVMs from java.class.path, hence the explicit classpath instead of exec:java.
+set -euo pipefail
+cd "$(dirname "$0")"
+
+mvn -B -q package -DskipTests dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+CLASSPATH="target/classes:$(cat target/classpath.txt)"
+
+if [ "${1:-}" = "compare" ]; then
+    exec java -cp "$CLASSPATH" com.schoolmgmt.benchmarks.CompareResults "$2" "$3"
+fi
+if [ "${1:-}" = "sizes" ]; then
+    exec java -cp "$CLASSPATH" com.schoolmgmt.benchmarks.PayloadSizes "${@:2}"
+fi
+
+COMMIT=$(git rev-parse --short HEAD)
+if ! git diff --quiet HEAD -- ..; then
+    COMMIT="$COMMIT-dirty"
+fi
+mkdir -p results
+exec java -cp "$CLASSPATH" org.openjdk.jmh.Main "$@" -rf json -rff "results/$COMMIT.json"
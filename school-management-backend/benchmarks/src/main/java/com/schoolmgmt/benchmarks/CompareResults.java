@@ -0,0 +1,58 @@
+package com.schoolmgmt.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Prints a side-by-side comparison of two JMH JSON result files (see run.sh), matching benchmarks
+ * by name and parameters. For time-per-operation modes a negative change is an improvement.
+ */
+public final class CompareResults {
+
+    private CompareResults() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: CompareResults <baseline.json> <candidate.json>");
+            System.exit(2);
+        }
+        Map<String, JsonNode> baseline = load(new File(args[0]));
+        Map<String, JsonNode> candidate = load(new File(args[1]));
+
+        System.out.printf("%-70s %14s %14s %9s %s%n", "benchmark", "baseline", "candidate", "change", "unit");
+        for (Map.Entry<String, JsonNode> entry : candidate.entrySet()) {
+            JsonNode after = entry.getValue().get("primaryMetric");
+            JsonNode before = baseline.containsKey(entry.getKey()) ? baseline.get(entry.getKey()).get("primaryMetric") : null;
+            double afterScore = after.get("score").asDouble();
+            if (before == null) {
+                System.out.printf("%-70s %14s %14.3f %9s %s%n", entry.getKey(), "-", afterScore, "new", after.get("scoreUnit").asText());
+                continue;
+            }
+            double beforeScore = before.get("score").asDouble();
+            double change = (afterScore - beforeScore) / beforeScore * 100.0;
+            System.out.printf("%-70s %14.3f %14.3f %+8.1f%% %s%n", entry.getKey(), beforeScore, afterScore, change,
+                    after.get("scoreUnit").asText());
+        }
+    }
+
+    private static Map<String, JsonNode> load(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(result.get("benchmark").asText()
+                    .replace("com.schoolmgmt.benchmarks.", ""));
+            JsonNode params = result.get("params");
+            if (params != null) {
+                params.fields().forEachRemaining(param -> key.append(' ').append(param.getKey()).append('=')
+                        .append(param.getValue().asText()));
+            }
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,130 @@
+package com.schoolmgmt.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.schoolmgmt.teacherstaff.model.Teacher;
+import com.sms.student.dto.EnrollmentView;
+import com.sms.student.dto.StudentSummary;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding and decoding the list endpoints' payloads as JSON, CBOR (served on Accept: application/cbor) and
+ * Smile (for comparison), each with and without gzip at the level Tomcat compresses with. The encoded sizes
+ * are reported by {@link PayloadSizes} rather than by the measurements.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EncodingBenchmark {
+
+    public enum Format {
+        JSON(new JsonFactory()), CBOR(new CBORFactory()), SMILE(new SmileFactory());
+
+        private final JsonFactory factory;
+
+        Format(JsonFactory factory) {
+            this.factory = factory;
+        }
+    }
+
+    public enum Payload {
+        STUDENT_SUMMARIES(StudentSummary.class), ENROLLMENT_VIEWS(EnrollmentView.class), TEACHERS(Teacher.class);
+
+        private final Class<?> elementType;
+
+        Payload(Class<?> elementType) {
+            this.elementType = elementType;
+        }
+    }
+
+    @Param({"10000"})
+    private int size;
+
+    @Param
+    private Payload payload;
+
+    @Param
+    private Format format;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    private List<?> rows;
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = mapper(format);
+        JavaType listType = listType(mapper, payload);
+        writer = mapper.writerFor(listType);
+        reader = mapper.readerFor(listType);
+        rows = rows(payload, size);
+        encoded = encode();
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return write(writer, rows, gzip);
+    }
+
+    @Benchmark
+    public List<?> decode() throws IOException {
+        try (InputStream in = gzip ? new GZIPInputStream(new ByteArrayInputStream(encoded), 8 * 1024)
+                : new ByteArrayInputStream(encoded)) {
+            return reader.readValue(in);
+        }
+    }
+
+    // Configured as the services configure their converters (Boot's spring.jackson defaults, UUIDs as strings)
+    static ObjectMapper mapper(Format format) {
+        return Jackson2ObjectMapperBuilder.json()
+                .factory(format.factory.copy())
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .serializerByType(UUID.class, ToStringSerializer.instance)
+                .build();
+    }
+
+    static JavaType listType(ObjectMapper mapper, Payload payload) {
+        return mapper.getTypeFactory().constructCollectionType(List.class, payload.elementType);
+    }
+
+    static List<?> rows(Payload payload, int size) {
+        return switch (payload) {
+            case STUDENT_SUMMARIES -> Fixtures.students(size).stream().map(StudentSummary::from).toList();
+            case ENROLLMENT_VIEWS -> Fixtures.enrollments(size).stream().map(EnrollmentView::from).toList();
+            case TEACHERS -> Fixtures.teachers(size);
+        };
+    }
+
+    static byte[] write(ObjectWriter writer, List<?> rows, boolean gzip) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        try (OutputStream out = gzip ? new GZIPOutputStream(bytes, 8 * 1024) : bytes) {
+            writer.writeValue(out, rows);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,64 @@
+package com.schoolmgmt.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.sms.student.model.EnrollmentStatus;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The three ways an EnrollmentStatus is mapped from text: JPA's EnumType.STRING (Enum.valueOf),
+ * Spring MVC request-parameter binding (ConversionService) and JSON bodies (Jackson).
+ * Each invocation maps every status once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnrollmentStatusBenchmark {
+
+    private String[] names;
+    private String[] jsonValues;
+    private ConversionService conversionService;
+    private ObjectReader reader;
+
+    @Setup
+    public void setUp() {
+        EnrollmentStatus[] statuses = EnrollmentStatus.values();
+        names = new String[statuses.length];
+        jsonValues = new String[statuses.length];
+        for (int i = 0; i < statuses.length; i++) {
+            names[i] = statuses[i].name();
+            jsonValues[i] = '"' + statuses[i].name() + '"';
+        }
+        conversionService = DefaultConversionService.getSharedInstance();
+        reader = Jackson2ObjectMapperBuilder.json().build().readerFor(EnrollmentStatus.class);
+    }
+
+    @Benchmark
+    public void enumValueOf(Blackhole blackhole) {
+        for (String name : names) {
+            blackhole.consume(EnrollmentStatus.valueOf(name));
+        }
+    }
+
+    @Benchmark
+    public void conversionService(Blackhole blackhole) {
+        for (String name : names) {
+            blackhole.consume(conversionService.convert(name, EnrollmentStatus.class));
+        }
+    }
+
+    @Benchmark
+    public void jackson(Blackhole blackhole) throws Exception {
+        for (String json : jsonValues) {
+            blackhole.consume(reader.readValue(json));
+        }
+    }
+}
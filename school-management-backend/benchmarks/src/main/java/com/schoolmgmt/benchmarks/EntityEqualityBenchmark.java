@@ -0,0 +1,60 @@
+package com.schoolmgmt.benchmarks;
+
+import com.sms.student.model.Enrollment;
+import com.sms.student.model.Student;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lombok-generated equals/hashCode on the @Data entities when a student carries a large enrollment
+ * collection, plus the cost of putting a student's enrollments into a hash set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityEqualityBenchmark {
+
+    @Param({"10", "1000"})
+    private int enrollmentsPerStudent;
+
+    private Student student;
+    private Student copy;
+
+    @Setup
+    public void setUp() {
+        student = withEnrollments(Fixtures.student(1));
+        copy = withEnrollments(Fixtures.student(1));
+    }
+
+    private Student withEnrollments(Student target) {
+        List<Enrollment> enrollments = new ArrayList<>(enrollmentsPerStudent);
+        for (int i = 0; i < enrollmentsPerStudent; i++) {
+            enrollments.add(Fixtures.enrollment(target, i));
+        }
+        target.setEnrollments(enrollments);
+        return target;
+    }
+
+    @Benchmark
+    public int studentHashCode() {
+        return student.hashCode();
+    }
+
+    @Benchmark
+    public boolean studentEquals() {
+        return student.equals(copy);
+    }
+
+    @Benchmark
+    public Set<Enrollment> enrollmentHashSet() {
+        return new HashSet<>(student.getEnrollments());
+    }
+}
@@ -0,0 +1,86 @@
+package com.schoolmgmt.benchmarks;
+
+import com.schoolmgmt.teacherstaff.model.Teacher;
+import com.sms.student.model.Enrollment;
+import com.sms.student.model.EnrollmentStatus;
+import com.sms.student.model.Student;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Deterministic in-memory test data shared by the benchmarks
+final class Fixtures {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 9, 1, 8, 0);
+    private static final EnrollmentStatus[] STATUSES = EnrollmentStatus.values();
+    private static final String[] SUBJECTS = {"Mathematics", "Physics", "Chemistry", "Biology", "History", "English"};
+
+    private Fixtures() {
+    }
+
+    static Student student(int i) {
+        Student student = new Student();
+        student.setId(new UUID(0x0190_0000_0000_7000L + i, 0x8000_0000_0000_0000L + i));
+        student.setName("Student " + i);
+        student.setEmail("student" + i + "@school.example");
+        student.setDob(LocalDate.of(2010, 1, 1).plusDays(i % 3650));
+        student.setAddress(i + " Example Street, Springfield");
+        student.setEnrollmentDate(NOW.minusDays(i % 1000));
+        return student;
+    }
+
+    static List<Student> students(int count) {
+        List<Student> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            students.add(student(i));
+        }
+        return students;
+    }
+
+    // Enrollments point back at their student, but the students' own collections are left unset so
+    // serializing either list does not recurse
+    static List<Enrollment> enrollments(int count) {
+        List<Enrollment> enrollments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            enrollments.add(enrollment(student(i / 8), i));
+        }
+        return enrollments;
+    }
+
+    static Enrollment enrollment(Student student, int i) {
+        Enrollment enrollment = new Enrollment();
+        enrollment.setId(new UUID(0x0191_0000_0000_7000L + i, 0x8000_0000_0000_0000L + i));
+        enrollment.setStudent(student);
+        enrollment.setClassId("CLASS-" + (i % 150));
+        enrollment.setEnrollmentDate(NOW.minusDays(i % 365));
+        enrollment.setAcademicYear(enrollment.getEnrollmentDate().getYear());
+        enrollment.setStatus(STATUSES[i % STATUSES.length]);
+        if (enrollment.getStatus() == EnrollmentStatus.COMPLETED) {
+            enrollment.setCompletionDate(NOW);
+        }
+        return enrollment;
+    }
+
+    static List<Teacher> teachers(int count) {
+        List<Teacher> teachers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            teachers.add(teacher(i));
+        }
+        return teachers;
+    }
+
+    static Teacher teacher(int i) {
+        Teacher teacher = new Teacher();
+        teacher.setId((long) i + 1);
+        teacher.setFirstName("First" + i);
+        teacher.setLastName("Last" + i);
+        teacher.setEmail("teacher" + i + "@school.example");
+        teacher.setSubject(SUBJECTS[i % SUBJECTS.length]);
+        teacher.setDateOfJoining(LocalDate.of(2015, 1, 1).plusDays(i % 3000));
+        teacher.setActive(i % 10 != 0);
+        return teacher;
+    }
+}
@@ -0,0 +1,39 @@
+package com.schoolmgmt.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.schoolmgmt.benchmarks.EncodingBenchmark.Format;
+import com.schoolmgmt.benchmarks.EncodingBenchmark.Payload;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Prints the encoded size of each {@link EncodingBenchmark} payload (see run.sh) in every format, with and
+ * without gzip, and how it compares with the same rows as plain JSON.
+ */
+public final class PayloadSizes {
+
+    private PayloadSizes() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+
+        System.out.printf("%-18s %-6s %-5s %14s %9s%n", "payload", "format", "gzip", "bytes", "vs json");
+        for (Payload payload : Payload.values()) {
+            List<?> rows = EncodingBenchmark.rows(payload, size);
+            long json = encodedSize(Format.JSON, payload, rows, false);
+            for (Format format : Format.values()) {
+                for (boolean gzip : new boolean[] {false, true}) {
+                    long bytes = encodedSize(format, payload, rows, gzip);
+                    System.out.printf("%-18s %-6s %-5s %,14d %8.1f%%%n", payload, format, gzip, bytes, bytes * 100.0 / json);
+                }
+            }
+        }
+    }
+
+    private static long encodedSize(Format format, Payload payload, List<?> rows, boolean gzip) throws IOException {
+        ObjectMapper mapper = EncodingBenchmark.mapper(format);
+        return EncodingBenchmark.write(mapper.writerFor(EncodingBenchmark.listType(mapper, payload)), rows, gzip).length;
+    }
+}
@@ -0,0 +1,115 @@
+package com.schoolmgmt.benchmarks;
+
+import com.sms.student.StudentManagementServiceApplication;
+import com.sms.student.dto.RosterEntry;
+import com.sms.student.dto.RosterExpression;
+import com.sms.student.dto.RosterPage;
+import com.sms.student.model.EnrollmentStatus;
+import com.sms.student.roster.RosterIndex;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Roster queries against the in-memory index at district scale. The enrollments are fed to the index
+ * directly rather than through the database, which would take far longer to fill than to measure.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class RosterIndexBenchmark {
+
+    @Param("200000")
+    private int students;
+
+    @Param("2000")
+    private int classes;
+
+    @Param("10")
+    private int enrollmentsPerStudent;
+
+    private ConfigurableApplicationContext context;
+    private RosterIndex rosterIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = ServiceContexts.start(StudentManagementServiceApplication.class,
+                "--students.cache.spec=maximumSize=1000");
+        rosterIndex = context.getBean(RosterIndex.class);
+
+        // Students take classes of their own grade (12 grades), mostly active, some waitlisted or dropped
+        Random random = new Random(42);
+        int classesPerGrade = classes / 12;
+        List<RosterEntry> entries = new ArrayList<>(students * enrollmentsPerStudent);
+        for (int s = 0; s < students; s++) {
+            UUID studentId = new UUID(0, s);
+            int grade = s * 12 / students;
+            for (int e = 0; e < enrollmentsPerStudent; e++) {
+                int roll = random.nextInt(100);
+                EnrollmentStatus status = roll < 90 ? EnrollmentStatus.ACTIVE
+                        : roll < 95 ? EnrollmentStatus.WAITLISTED : EnrollmentStatus.DROPPED;
+                entries.add(new RosterEntry(studentId, classId(grade * classesPerGrade + random.nextInt(classesPerGrade)), status));
+            }
+        }
+        rosterIndex.apply(entries);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private static String classId(int index) {
+        return "CLASS-" + index;
+    }
+
+    private String randomClassId() {
+        return classId(ThreadLocalRandom.current().nextInt(classes / 12 * 12));
+    }
+
+    @Benchmark
+    public long countOneClass() {
+        return rosterIndex.query(RosterExpression.inClasses(List.of(randomClassId()), null), 0, null).count();
+    }
+
+    @Benchmark
+    public long activeInOneNotTheOther() {
+        int a = ThreadLocalRandom.current().nextInt(classes / 12);
+        return rosterIndex.query(new RosterExpression(null, null, null, null, List.of(
+                RosterExpression.inClasses(List.of(classId(a)), List.of(EnrollmentStatus.ACTIVE)),
+                RosterExpression.inClasses(List.of(classId(a + 1)), null))), 0, null).count();
+    }
+
+    @Benchmark
+    public long inBothClasses() {
+        int a = ThreadLocalRandom.current().nextInt(classes / 12);
+        return rosterIndex.query(new RosterExpression(null, null, null, List.of(
+                RosterExpression.inClasses(List.of(classId(a)), null),
+                RosterExpression.inClasses(List.of(classId(a + 1)), null)), null), 0, null).count();
+    }
+
+    // Roughly a whole grade: tens of thousands of students
+    @Benchmark
+    public long activeInAnyOfFortyClasses() {
+        int first = ThreadLocalRandom.current().nextInt(classes / 12 - 40);
+        List<String> classIds = new ArrayList<>(40);
+        for (int c = first; c < first + 40; c++) {
+            classIds.add(classId(c));
+        }
+        return rosterIndex.query(RosterExpression.inClasses(classIds, List.of(EnrollmentStatus.ACTIVE)), 0, null).count();
+    }
+
+    @Benchmark
+    public RosterPage firstHundredOfAClass() {
+        return rosterIndex.query(RosterExpression.inClasses(List.of(randomClassId()), null), 100, null);
+    }
+}
@@ -0,0 +1,73 @@
+package com.schoolmgmt.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.schoolmgmt.teacherstaff.model.Teacher;
+import com.sms.student.dto.EnrollmentView;
+import com.sms.student.dto.StudentSummary;
+import com.sms.student.model.Enrollment;
+import com.sms.student.model.Student;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the list payloads, with the ObjectMapper configured the way Spring Boot
+ * configures it for the controllers. Entity lists are measured next to the DTOs the endpoints now return.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private ObjectWriter writer;
+    private List<Student> students;
+    private List<StudentSummary> studentSummaries;
+    private List<Enrollment> enrollments;
+    private List<EnrollmentView> enrollmentViews;
+    private List<Teacher> teachers;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = mapper.writer();
+        students = Fixtures.students(size);
+        studentSummaries = students.stream().map(StudentSummary::from).toList();
+        enrollments = Fixtures.enrollments(size);
+        enrollmentViews = enrollments.stream().map(EnrollmentView::from).toList();
+        teachers = Fixtures.teachers(size);
+    }
+
+    @Benchmark
+    public byte[] studentEntities() throws Exception {
+        return writer.writeValueAsBytes(students);
+    }
+
+    @Benchmark
+    public byte[] studentSummaries() throws Exception {
+        return writer.writeValueAsBytes(studentSummaries);
+    }
+
+    @Benchmark
+    public byte[] enrollmentEntities() throws Exception {
+        return writer.writeValueAsBytes(enrollments);
+    }
+
+    @Benchmark
+    public byte[] enrollmentViews() throws Exception {
+        return writer.writeValueAsBytes(enrollmentViews);
+    }
+
+    @Benchmark
+    public byte[] teacherEntities() throws Exception {
+        return writer.writeValueAsBytes(teachers);
+    }
+}
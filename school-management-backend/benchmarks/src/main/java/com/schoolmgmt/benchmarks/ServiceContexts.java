@@ -0,0 +1,35 @@
+package com.schoolmgmt.benchmarks;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Boots a service's Spring context (no web server) against a private in-memory H2 database
+final class ServiceContexts {
+
+    private ServiceContexts() {
+    }
+
+    static ConfigurableApplicationContext start(Class<?> application, String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:" + application.getSimpleName()
+                        + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.sql.init.mode=never",
+                "--spring.jpa.open-in-view=false",
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=500",
+                "--spring.jpa.properties.hibernate.order_inserts=true",
+                "--logging.level.root=warn"));
+        args.addAll(List.of(extraArgs));
+        return new SpringApplicationBuilder(application)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(String[]::new));
+    }
+}
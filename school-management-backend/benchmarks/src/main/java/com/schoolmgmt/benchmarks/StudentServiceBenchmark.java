@@ -0,0 +1,107 @@
+package com.schoolmgmt.benchmarks;
+
+import com.sms.student.StudentManagementServiceApplication;
+import com.sms.student.dto.CursorPage;
+import com.sms.student.dto.EnrollmentRequest;
+import com.sms.student.dto.EnrollmentView;
+import com.sms.student.dto.StudentDetail;
+import com.sms.student.dto.StudentSummary;
+import com.sms.student.model.Student;
+import com.sms.student.paging.StudentSortField;
+import com.sms.student.repository.StudentRepository;
+import com.sms.student.service.StudentService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StudentService read and write paths against an embedded H2 database. Absolute numbers are not
+ * PostgreSQL numbers; compare runs with each other to see whether a change helps or hurts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentServiceBenchmark {
+
+    @Param("1000")
+    private int students;
+
+    @Param("20")
+    private int enrollmentsPerStudent;
+
+    private ConfigurableApplicationContext context;
+    private StudentService studentService;
+    private StudentRepository studentRepository;
+    private TransactionTemplate transactionTemplate;
+    private List<UUID> studentIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = ServiceContexts.start(StudentManagementServiceApplication.class,
+                "--students.cache.spec=maximumSize=100000,expireAfterWrite=10m");
+        studentService = context.getBean(StudentService.class);
+        studentRepository = context.getBean(StudentRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        studentIds = new ArrayList<>(students);
+        List<EnrollmentRequest> enrollments = new ArrayList<>(students * enrollmentsPerStudent);
+        for (int i = 0; i < students; i++) {
+            Student student = Fixtures.student(i);
+            student.setId(null);
+            UUID id = studentService.createStudent(student).id();
+            studentIds.add(id);
+            for (int c = 0; c < enrollmentsPerStudent; c++) {
+                enrollments.add(new EnrollmentRequest(id, "CLASS-" + c));
+            }
+        }
+        studentService.enrollStudentsInClasses(enrollments);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private UUID randomStudentId() {
+        return studentIds.get(ThreadLocalRandom.current().nextInt(studentIds.size()));
+    }
+
+    @Benchmark
+    public StudentDetail getStudentByIdCached() {
+        return studentService.getStudentById(randomStudentId());
+    }
+
+    @Benchmark
+    public StudentDetail getStudentByIdUncached() {
+        UUID id = randomStudentId();
+        return transactionTemplate.execute(status ->
+                studentRepository.findWithEnrollmentsById(id).map(StudentDetail::from).orElseThrow());
+    }
+
+    @Benchmark
+    public List<EnrollmentView> getEnrollmentsByStudent() {
+        return studentService.getEnrollmentsByStudent(randomStudentId());
+    }
+
+    @Benchmark
+    public CursorPage<StudentSummary> getAllStudentsFirstPage() {
+        return studentService.getAllStudents(null, 50, StudentSortField.NAME, Sort.Direction.ASC);
+    }
+
+    @Benchmark
+    public StudentDetail updateStudent() {
+        int index = ThreadLocalRandom.current().nextInt(studentIds.size());
+        // Same values the student was seeded with, so the unique email never collides
+        return studentService.updateStudent(studentIds.get(index), Fixtures.student(index), null);
+    }
+}
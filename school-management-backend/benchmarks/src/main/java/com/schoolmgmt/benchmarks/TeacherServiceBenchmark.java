@@ -0,0 +1,78 @@
+package com.schoolmgmt.benchmarks;
+
+import com.schoolmgmt.teacherstaff.TeacherstaffApplication;
+import com.schoolmgmt.teacherstaff.dto.TeacherDetail;
+import com.schoolmgmt.teacherstaff.model.Teacher;
+import com.schoolmgmt.teacherstaff.service.TeacherService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TeacherService read and write paths against an embedded H2 database. Compare runs with each other;
+ * absolute numbers are not PostgreSQL numbers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TeacherServiceBenchmark {
+
+    @Param("500")
+    private int teachers;
+
+    private ConfigurableApplicationContext context;
+    private TeacherService teacherService;
+    private List<Teacher> saved;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = ServiceContexts.start(TeacherstaffApplication.class,
+                "--teachers.cache.spec=maximumSize=100000,expireAfterWrite=10m");
+        teacherService = context.getBean(TeacherService.class);
+
+        saved = new ArrayList<>(teachers);
+        for (int i = 0; i < teachers; i++) {
+            Teacher teacher = Fixtures.teacher(i);
+            teacher.setId(null);
+            saved.add(teacherService.createTeacher(teacher));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private Teacher randomTeacher() {
+        return saved.get(ThreadLocalRandom.current().nextInt(saved.size()));
+    }
+
+    @Benchmark
+    public List<Teacher> getAllTeachers() {
+        return teacherService.getAllTeachers();
+    }
+
+    @Benchmark
+    public Optional<TeacherDetail> getTeacherById() {
+        return teacherService.getTeacherById(randomTeacher().getId());
+    }
+
+    @Benchmark
+    public Optional<TeacherDetail> getTeacherByEmail() {
+        return teacherService.getTeacherByEmail(randomTeacher().getEmail());
+    }
+
+    @Benchmark
+    public Optional<Teacher> updateTeacher() {
+        Teacher teacher = randomTeacher();
+        return teacherService.updateTeacher(teacher.getId(), teacher, null);
+    }
+}
@@ -2,8 +2,10 @@ package com.schoolmgmt.curriculum;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class CurriculumApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,19 @@
+package com.schoolmgmt.curriculum.config;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.info.Info;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class OpenApiConfig {
+
+	@Bean
+	public OpenAPI curriculumOpenAPI() {
+		return new OpenAPI()
+				.info(new Info()
+						.title("Course Curriculum API")
+						.version("1.0")
+						.description("APIs for managing courses, their prerequisites, and enrollment eligibility, and for building weekly timetables."));
+	}
+}
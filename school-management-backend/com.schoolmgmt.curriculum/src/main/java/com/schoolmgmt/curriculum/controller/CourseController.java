@@ -0,0 +1,139 @@
+package com.schoolmgmt.curriculum.controller;
+
+import com.schoolmgmt.curriculum.dto.EligibilityRequest;
+import com.schoolmgmt.curriculum.dto.EligibilityResult;
+import com.schoolmgmt.curriculum.model.Course;
+import com.schoolmgmt.curriculum.service.CourseService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/courses")
+@Tag(name = "Courses", description = "Courses, their prerequisites, and enrollment eligibility")
+public class CourseController {
+
+	@Autowired
+	private CourseService courseService;
+
+	@Operation(summary = "Get all courses", description = "Every course, ordered by code.")
+	@ApiResponse(responseCode = "200", description = "Courses",
+			content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = Course.class))))
+	@GetMapping
+	public List<Course> getAllCourses() {
+		return courseService.getAllCourses();
+	}
+
+	@Operation(summary = "Get a course by its code")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Course found",
+					content = @Content(mediaType = "application/json", schema = @Schema(implementation = Course.class))),
+			@ApiResponse(responseCode = "404", description = "Course not found")
+	})
+	@GetMapping("/{code}")
+	public Course getCourse(@Parameter(description = "Course code") @PathVariable String code) {
+		return courseService.getCourse(code);
+	}
+
+	@Operation(summary = "Create a course",
+			description = "The code is the classId students are enrolled into by the student service, and cannot be changed later.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "201", description = "Course created",
+					content = @Content(mediaType = "application/json", schema = @Schema(implementation = Course.class))),
+			@ApiResponse(responseCode = "400", description = "Invalid input"),
+			@ApiResponse(responseCode = "409", description = "A course with this code already exists")
+	})
+	@PostMapping
+	public ResponseEntity<Course> createCourse(@Valid @RequestBody Course course) {
+		return new ResponseEntity<>(courseService.createCourse(course), HttpStatus.CREATED);
+	}
+
+	@Operation(summary = "Update a course's title and description")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Course updated",
+					content = @Content(mediaType = "application/json", schema = @Schema(implementation = Course.class))),
+			@ApiResponse(responseCode = "404", description = "Course not found")
+	})
+	@PutMapping("/{code}")
+	public Course updateCourse(@Parameter(description = "Course code") @PathVariable String code, @Valid @RequestBody Course course) {
+		return courseService.updateCourse(code, course);
+	}
+
+	@Operation(summary = "Delete a course", description = "Courses that required it no longer do.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "204", description = "Course deleted"),
+			@ApiResponse(responseCode = "404", description = "Course not found")
+	})
+	@DeleteMapping("/{code}")
+	public ResponseEntity<Void> deleteCourse(@Parameter(description = "Course code") @PathVariable String code) {
+		courseService.deleteCourse(code);
+		return ResponseEntity.noContent().build();
+	}
+
+	@Operation(summary = "Get a course's prerequisites",
+			description = "Direct prerequisites, or with transitive=true everything the course requires. Ordered so each "
+					+ "course comes after the courses it requires.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Prerequisite course codes",
+					content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = String.class)))),
+			@ApiResponse(responseCode = "404", description = "Course not found")
+	})
+	@GetMapping("/{code}/prerequisites")
+	public List<String> getPrerequisites(@Parameter(description = "Course code") @PathVariable String code,
+										 @Parameter(description = "Include prerequisites of prerequisites")
+										 @RequestParam(defaultValue = "false") boolean transitive) {
+		return courseService.getPrerequisites(code, transitive);
+	}
+
+	@Operation(summary = "Make a course require another", description = "Idempotent. Rejected if it would create a cycle.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "204", description = "Prerequisite added, or already present"),
+			@ApiResponse(responseCode = "404", description = "Either course not found"),
+			@ApiResponse(responseCode = "409", description = "The prerequisite already requires the course, directly or not")
+	})
+	@PutMapping("/{code}/prerequisites/{prerequisiteCode}")
+	public ResponseEntity<Void> addPrerequisite(@Parameter(description = "Course code") @PathVariable String code,
+												@Parameter(description = "Code of the course to require") @PathVariable String prerequisiteCode) {
+		courseService.addPrerequisite(code, prerequisiteCode);
+		return ResponseEntity.noContent().build();
+	}
+
+	@Operation(summary = "Remove a prerequisite from a course")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "204", description = "Prerequisite removed"),
+			@ApiResponse(responseCode = "404", description = "Either course not found, or the course does not require the other")
+	})
+	@DeleteMapping("/{code}/prerequisites/{prerequisiteCode}")
+	public ResponseEntity<Void> removePrerequisite(@Parameter(description = "Course code") @PathVariable String code,
+												   @Parameter(description = "Code of the required course") @PathVariable String prerequisiteCode) {
+		courseService.removePrerequisite(code, prerequisiteCode);
+		return ResponseEntity.noContent().build();
+	}
+
+	@Operation(summary = "Check whether a student may enroll in a course",
+			description = "Send the codes of the courses the student has completed (the classIds of their COMPLETED enrollments). "
+					+ "The student is eligible when every prerequisite, direct or not, is among them.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Eligibility, with the prerequisites still missing",
+					content = @Content(mediaType = "application/json", schema = @Schema(implementation = EligibilityResult.class))),
+			@ApiResponse(responseCode = "400", description = "Invalid input"),
+			@ApiResponse(responseCode = "404", description = "Course not found")
+	})
+	@PostMapping("/{code}/eligibility")
+	public EligibilityResult checkEligibility(@Parameter(description = "Course code") @PathVariable String code,
+											  @Valid @RequestBody EligibilityRequest request) {
+		return courseService.checkEligibility(code, request.completed());
+	}
+}
@@ -0,0 +1,70 @@
+package com.schoolmgmt.curriculum.controller;
+
+import com.schoolmgmt.curriculum.dto.TimetableJobView;
+import com.schoolmgmt.curriculum.dto.TimetableRequest;
+import com.schoolmgmt.curriculum.service.TimetableService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/timetables")
+@Tag(name = "Timetables", description = "Weekly timetables of class sections, teachers and rooms, built by a background solver")
+public class TimetableController {
+
+	@Autowired
+	private TimetableService timetableService;
+
+	@Operation(summary = "Start building a timetable",
+			description = "Places every lesson of every section in a period and a room it fits in, with a teacher of its "
+					+ "subject, so that no teacher, room or student is in two places at once and sections avoid meeting twice "
+					+ "a day. Send active teachers as listed by the teacher service and each section's students as enrolled "
+					+ "in the student service. The search runs in the background; poll the returned job for its progress "
+					+ "and, once finished, the timetable.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "202", description = "Job queued",
+					content = @Content(mediaType = "application/json", schema = @Schema(implementation = TimetableJobView.class))),
+			@ApiResponse(responseCode = "400", description = "Invalid input, or no timetable could satisfy it"),
+			@ApiResponse(responseCode = "429", description = "Too many jobs already waiting")
+	})
+	@PostMapping
+	public ResponseEntity<TimetableJobView> submit(@Valid @RequestBody TimetableRequest request) {
+		TimetableJobView job = timetableService.submit(request);
+		return ResponseEntity.accepted().location(URI.create("/api/timetables/" + job.id())).body(job);
+	}
+
+	@Operation(summary = "Get a timetable job",
+			description = "Its state and progress, and the timetable once finished. Finished jobs are kept for an hour.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Job found",
+					content = @Content(mediaType = "application/json", schema = @Schema(implementation = TimetableJobView.class))),
+			@ApiResponse(responseCode = "404", description = "Job not found")
+	})
+	@GetMapping("/{id}")
+	public TimetableJobView getJob(@Parameter(description = "Job id") @PathVariable UUID id) {
+		return timetableService.getJob(id);
+	}
+
+	@Operation(summary = "Cancel a timetable job",
+			description = "A queued job will not run; a running one stops and keeps the best timetable found so far.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Job cancelled, or already finished",
+					content = @Content(mediaType = "application/json", schema = @Schema(implementation = TimetableJobView.class))),
+			@ApiResponse(responseCode = "404", description = "Job not found")
+	})
+	@DeleteMapping("/{id}")
+	public TimetableJobView cancelJob(@Parameter(description = "Job id") @PathVariable UUID id) {
+		return timetableService.cancelJob(id);
+	}
+}
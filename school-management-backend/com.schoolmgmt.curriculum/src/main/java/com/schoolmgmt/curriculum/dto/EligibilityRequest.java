@@ -0,0 +1,9 @@
+package com.schoolmgmt.curriculum.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+// The course codes a student has completed: the classIds of their COMPLETED enrollments in the student service
+public record EligibilityRequest(@NotNull(message = "Completed courses cannot be null") List<String> completed) {
+}
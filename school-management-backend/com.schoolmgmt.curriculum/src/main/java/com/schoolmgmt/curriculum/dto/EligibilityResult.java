@@ -0,0 +1,15 @@
+package com.schoolmgmt.curriculum.dto;
+
+import java.util.List;
+
+/**
+ * Whether a student may enroll in the course. missing lists every prerequisite, direct or not, that they
+ * have yet to complete, each after the courses it requires; graphRevision is the revision of the
+ * prerequisite graph the answer was computed from.
+ */
+public record EligibilityResult(String course, boolean eligible, List<String> missing, long graphRevision) {
+
+	public static EligibilityResult of(String course, List<String> missing, long graphRevision) {
+		return new EligibilityResult(course, missing.isEmpty(), missing, graphRevision);
+	}
+}
@@ -0,0 +1,19 @@
+package com.schoolmgmt.curriculum.dto;
+
+import java.util.List;
+
+/**
+ * A weekly timetable: every section with its teacher and the day, period (both from 1) and room of each
+ * lesson. feasible means nothing clashes: teacherClashes and roomClashes count the extra lessons a teacher
+ * or room has in a period, and studentClashes the pairs of sections sharing a student that meet in the same
+ * period. sameDayRepeats counts the lessons a section has on a day it already meets, which is allowed.
+ */
+public record Timetable(boolean feasible, int teacherClashes, int studentClashes, int roomClashes, int sameDayRepeats,
+						List<ScheduledSection> sections) {
+
+	public record ScheduledSection(String classId, String subject, Long teacherId, List<Lesson> lessons) {
+	}
+
+	public record Lesson(int day, int period, String roomId) {
+	}
+}
@@ -0,0 +1,22 @@
+package com.schoolmgmt.curriculum.dto;
+
+import com.schoolmgmt.curriculum.timetable.TimetableJobState;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A timetable job as its submitter polls it. progress is present once the job has started; timetable once
+ * it has finished, holding the best timetable found even when the job was cancelled or ran out of time.
+ */
+public record TimetableJobView(UUID id, TimetableJobState state, Instant submittedAt, Instant startedAt,
+							   Instant finishedAt, Progress progress, Timetable timetable, String error) {
+
+	/**
+	 * How far the search has got: moves tried across all workers, restarts from the best timetable so far,
+	 * and the clashes and same-day repeats left in it.
+	 */
+	public record Progress(long elapsedMillis, int workers, long iterations, long restarts,
+						   int bestClashes, int bestSameDayRepeats) {
+	}
+}
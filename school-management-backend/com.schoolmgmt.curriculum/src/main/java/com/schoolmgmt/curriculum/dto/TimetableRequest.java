@@ -0,0 +1,41 @@
+package com.schoolmgmt.curriculum.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * A week to schedule: days of periodsPerDay periods each, the rooms lessons may be held in, the teachers as
+ * listed by the teacher service (only active ones teach, each the sections of their subject), and the class
+ * sections with the students enrolled in each by the student service. timeLimitSeconds caps the search,
+ * within the service's own limit.
+ */
+public record TimetableRequest(
+		@Min(value = 1, message = "A week has at least one day") @Max(value = 7, message = "A week has at most 7 days") int days,
+		@Min(value = 1, message = "A day has at least one period") @Max(value = 24, message = "A day has at most 24 periods") int periodsPerDay,
+		@NotEmpty(message = "At least one room is required") List<@Valid @NotNull Room> rooms,
+		@NotEmpty(message = "At least one teacher is required") List<@Valid @NotNull Teacher> teachers,
+		@NotEmpty(message = "At least one section is required") List<@Valid @NotNull Section> sections,
+		@Min(value = 1, message = "Time limit must be at least one second") Integer timeLimitSeconds) {
+
+	public record Room(@NotBlank(message = "Room id cannot be empty") String id,
+					   @Min(value = 1, message = "Room capacity must be positive") int capacity) {
+	}
+
+	// active defaults to true when absent
+	public record Teacher(@NotNull(message = "Teacher id cannot be null") Long id,
+						  @NotBlank(message = "Teacher subject cannot be empty") String subject,
+						  Boolean active) {
+	}
+
+	public record Section(@NotBlank(message = "Section classId cannot be empty") String classId,
+						  @NotBlank(message = "Section subject cannot be empty") String subject,
+						  @Min(value = 1, message = "A section meets at least once a week") int periodsPerWeek,
+						  @NotNull(message = "Section studentIds cannot be null") List<@NotNull String> studentIds) {
+	}
+}
@@ -0,0 +1,11 @@
+package com.schoolmgmt.curriculum.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConflictException extends RuntimeException {
+	public ConflictException(String message) {
+		super(message);
+	}
+}
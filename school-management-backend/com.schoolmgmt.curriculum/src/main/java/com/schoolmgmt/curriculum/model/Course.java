@@ -0,0 +1,42 @@
+package com.schoolmgmt.curriculum.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+@Entity
+@Table(name = "courses")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Course {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
+	private Long id;
+
+	// The classId the student service enrolls students into; fixed once the course exists
+	@NotBlank(message = "Course code cannot be empty")
+	@Size(max = 64, message = "Course code cannot exceed 64 characters")
+	@Column(nullable = false, unique = true, updatable = false, length = 64)
+	private String code;
+
+	@NotBlank(message = "Title cannot be empty")
+	@Column(nullable = false)
+	private String title;
+
+	@Column(length = 2000)
+	private String description;
+
+	@Version
+	@ColumnDefault("0")
+	@Column(nullable = false)
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
+	private Long version;
+}
@@ -0,0 +1,30 @@
+package com.schoolmgmt.curriculum.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Single row counting committed changes to the set of courses and their prerequisites. Writers lock it, which
+ * serializes graph changes across instances (two edges that are each acyclic can close a cycle together);
+ * readers compare it with the revision of their in-memory index to notice changes made elsewhere.
+ */
+@Entity
+@Table(name = "curriculum_revision")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CurriculumRevision {
+
+	public static final int ID = 1;
+
+	@Id
+	private Integer id;
+
+	@Column(nullable = false)
+	private long revision;
+}
@@ -0,0 +1,31 @@
+package com.schoolmgmt.curriculum.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// The course requires the prerequisite to have been completed first
+@Entity
+@Table(name = "course_prerequisites",
+		uniqueConstraints = @UniqueConstraint(name = "uk_course_prerequisites_pair", columnNames = {"course_id", "prerequisite_id"}),
+		indexes = @Index(name = "idx_course_prerequisites_prerequisite", columnList = "prerequisite_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class Prerequisite {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@ManyToOne(fetch = FetchType.LAZY, optional = false)
+	@JoinColumn(name = "course_id", nullable = false)
+	private Course course;
+
+	@ManyToOne(fetch = FetchType.LAZY, optional = false)
+	@JoinColumn(name = "prerequisite_id", nullable = false)
+	private Course prerequisite;
+}
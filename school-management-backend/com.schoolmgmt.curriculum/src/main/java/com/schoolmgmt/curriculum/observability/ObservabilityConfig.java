@@ -0,0 +1,61 @@
+package com.schoolmgmt.curriculum.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Service;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+
+/**
+ * Instrumentation on top of what Actuator already meters (http.server.requests, Hikari pool, JVM/GC):
+ * SQL statements per request, slow-request SQL logging and timers on every service method. Scraped from
+ * /actuator/prometheus.
+ */
+@Configuration
+public class ObservabilityConfig {
+
+	@Bean
+	public HibernatePropertiesCustomizer sqlTraceInspector() {
+		return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlTraceInspector());
+	}
+
+	@Bean
+	RequestMetricsFilter requestMetricsFilter(MeterRegistry registry,
+			@Value("${observability.slow-request.threshold:PT0.5S}") Duration slowThreshold,
+			@Value("${observability.slow-request.min-log-interval:PT1S}") Duration minLogInterval,
+			@Value("${observability.slow-request.max-logged-statements:50}") int maxLoggedStatements) {
+		return new RequestMetricsFilter(registry, slowThreshold, minLogInterval, maxLoggedStatements);
+	}
+
+	// Outermost advice on the services, so the timers include transaction handling
+	@Bean
+	@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+	@ConditionalOnProperty(name = "observability.service-timers.enabled", matchIfMissing = true)
+	static Advisor serviceTimingAdvisor(ObjectProvider<MeterRegistry> registry) {
+		DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(new StaticMethodMatcherPointcut() {
+			@Override
+			public boolean matches(Method method, Class<?> targetClass) {
+				return AnnotatedElementUtils.hasAnnotation(targetClass, Service.class)
+						&& Modifier.isPublic(method.getModifiers())
+						&& method.getDeclaringClass() != Object.class;
+			}
+		}, new ServiceTimingInterceptor(registry));
+		advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+		return advisor;
+	}
+}
@@ -0,0 +1,92 @@
+package com.schoolmgmt.curriculum.observability;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records how many SQL statements each request prepared, per endpoint, and logs the SQL of slow requests.
+ * Latency itself is already timed by Spring's http.server.requests observation. Slow requests are sampled:
+ * at most one is logged per interval, so an overloaded instance does not also flood its log.
+ */
+class RequestMetricsFilter extends OncePerRequestFilter {
+
+	private static final Logger log = LoggerFactory.getLogger(RequestMetricsFilter.class);
+
+	private final MeterRegistry registry;
+	private final long slowThresholdNanos;
+	private final long minLogIntervalNanos;
+	private final int maxLoggedStatements;
+	private final Map<String, DistributionSummary> statementSummaries = new ConcurrentHashMap<>();
+	private final AtomicLong nextLogAt = new AtomicLong(System.nanoTime());
+
+	RequestMetricsFilter(MeterRegistry registry, Duration slowThreshold, Duration minLogInterval, int maxLoggedStatements) {
+		this.registry = registry;
+		this.slowThresholdNanos = slowThreshold.toNanos();
+		this.minLogIntervalNanos = minLogInterval.toNanos();
+		this.maxLoggedStatements = maxLoggedStatements;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		long start = System.nanoTime();
+		RequestSqlTrace trace = RequestSqlTrace.begin(maxLoggedStatements);
+		try {
+			chain.doFilter(request, response);
+		} finally {
+			RequestSqlTrace.end();
+			long elapsed = System.nanoTime() - start;
+			// Same uri tag as http.server.requests: the matched pattern, never the raw path
+			Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+			String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+			statementSummary(request.getMethod(), uri).record(trace.count());
+			if (elapsed >= slowThresholdNanos && shouldLog(start + elapsed)) {
+				logSlowRequest(request.getMethod(), uri, response.getStatus(), elapsed, trace);
+			}
+		}
+	}
+
+	private DistributionSummary statementSummary(String method, String uri) {
+		return statementSummaries.computeIfAbsent(method + ' ' + uri, key -> DistributionSummary
+				.builder("http.server.requests.sql.statements")
+				.description("SQL statements prepared while serving a request")
+				.baseUnit("statements")
+				.tag("method", method)
+				.tag("uri", uri)
+				.register(registry));
+	}
+
+	private boolean shouldLog(long now) {
+		long next = nextLogAt.get();
+		return now - next >= 0 && nextLogAt.compareAndSet(next, now + minLogIntervalNanos);
+	}
+
+	private void logSlowRequest(String method, String uri, int status, long elapsedNanos, RequestSqlTrace trace) {
+		StringBuilder message = new StringBuilder()
+				.append("Slow request ").append(method).append(' ').append(uri)
+				.append(" -> ").append(status)
+				.append(" in ").append(elapsedNanos / 1_000_000).append(" ms, ")
+				.append(trace.count()).append(" SQL statements");
+		for (String sql : trace.statements()) {
+			message.append("\n  ").append(sql);
+		}
+		if (trace.count() > trace.statements().size()) {
+			message.append("\n  ... ").append(trace.count() - trace.statements().size()).append(" more");
+		}
+		log.warn(message.toString());
+	}
+}
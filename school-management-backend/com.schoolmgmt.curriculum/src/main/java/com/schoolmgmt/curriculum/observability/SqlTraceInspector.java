@@ -0,0 +1,13 @@
+package com.schoolmgmt.curriculum.observability;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Sees every statement Hibernate prepares (a JDBC batch counts once); JdbcTemplate work such as COPY is not seen
+class SqlTraceInspector implements StatementInspector {
+
+	@Override
+	public String inspect(String sql) {
+		RequestSqlTrace.record(sql);
+		return sql;
+	}
+}
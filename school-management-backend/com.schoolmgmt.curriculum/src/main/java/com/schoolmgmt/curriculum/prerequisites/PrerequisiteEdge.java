@@ -0,0 +1,5 @@
+package com.schoolmgmt.curriculum.prerequisites;
+
+// One requirement in the graph, by course code: the course requires the prerequisite
+public record PrerequisiteEdge(String course, String prerequisite) {
+}
@@ -0,0 +1,122 @@
+package com.schoolmgmt.curriculum.prerequisites;
+
+import com.schoolmgmt.curriculum.model.CurriculumRevision;
+import com.schoolmgmt.curriculum.repository.CourseRepository;
+import com.schoolmgmt.curriculum.repository.CurriculumRevisionRepository;
+import com.schoolmgmt.curriculum.repository.PrerequisiteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The prerequisite index of this instance, loaded from the database on first use. Writes on this instance
+ * publish the index they derived once they commit; changes made by other instances are picked up when the
+ * revision in the database moves past the index's.
+ */
+@Component
+public class PrerequisiteGraph {
+
+	private static final Logger log = LoggerFactory.getLogger(PrerequisiteGraph.class);
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private PrerequisiteRepository prerequisiteRepository;
+
+	@Autowired
+	private CurriculumRevisionRepository revisionRepository;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final TransactionTemplate snapshotTemplate;
+
+	private final AtomicReference<PrerequisiteIndex> current = new AtomicReference<>();
+
+	public PrerequisiteGraph(PlatformTransactionManager transactionManager) {
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		// Courses, edges and revision read from one snapshot, so the index matches the revision it is labelled with
+		this.snapshotTemplate = new TransactionTemplate(transactionManager);
+		this.snapshotTemplate.setReadOnly(true);
+		this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+	}
+
+	// The index as of the newest revision this instance knows of
+	public PrerequisiteIndex current() {
+		PrerequisiteIndex index = current.get();
+		return index != null ? index : publish(snapshotTemplate.execute(status -> load()));
+	}
+
+	/**
+	 * For writers holding the revision lock: the index exactly at the locked revision, reloaded in the
+	 * writer's transaction if another instance has changed the graph since this one last looked.
+	 */
+	public PrerequisiteIndex currentAt(CurriculumRevision revision) {
+		PrerequisiteIndex index = current.get();
+		if (index != null && index.revision() == revision.getRevision()) {
+			return index;
+		}
+		return PrerequisiteIndex.build(revision.getRevision(), courseRepository.findAllCodes(), prerequisiteRepository.findAllEdges());
+	}
+
+	// Readers see the change once it is committed, and never if it rolls back
+	public void publishAfterCommit(PrerequisiteIndex index) {
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				publish(index);
+			}
+		});
+	}
+
+	// Catches changes made by other instances
+	@Scheduled(fixedDelayString = "${curriculum.graph.refresh-interval:PT10S}")
+	public void refresh() {
+		PrerequisiteIndex index = current.get();
+		if (index == null) {
+			return; // not loaded yet; the first reader loads it
+		}
+		long revision = revisionRepository.findRevisionById(CurriculumRevision.ID).orElse(0L);
+		if (revision != index.revision()) {
+			PrerequisiteIndex loaded = publish(snapshotTemplate.execute(status -> load()));
+			log.info("Prerequisite index reloaded at revision {} ({} courses)", loaded.revision(), loaded.size());
+		}
+	}
+
+	// The row writers lock; inserted by whichever instance starts first
+	@EventListener(ApplicationReadyEvent.class)
+	public void createRevisionRow() {
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				if (!revisionRepository.existsById(CurriculumRevision.ID)) {
+					revisionRepository.saveAndFlush(new CurriculumRevision(CurriculumRevision.ID, 0));
+				}
+			});
+		} catch (DataIntegrityViolationException e) {
+			// Another instance inserted it first
+		}
+	}
+
+	private PrerequisiteIndex load() {
+		long revision = revisionRepository.findRevisionById(CurriculumRevision.ID).orElse(0L);
+		return PrerequisiteIndex.build(revision, courseRepository.findAllCodes(), prerequisiteRepository.findAllEdges());
+	}
+
+	// Keeps the newer index, so a load that raced a local write cannot replace what that write published
+	private PrerequisiteIndex publish(PrerequisiteIndex index) {
+		return current.accumulateAndGet(index, (existing, candidate) ->
+				existing == null || candidate.revision() > existing.revision() ? candidate : existing);
+	}
+}
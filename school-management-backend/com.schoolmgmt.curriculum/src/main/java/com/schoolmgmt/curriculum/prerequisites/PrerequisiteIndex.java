@@ -0,0 +1,321 @@
+package com.schoolmgmt.curriculum.prerequisites;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable snapshot of the prerequisite graph at one revision, with the transitive closure precomputed:
+ * every course has a bit set of all the courses it requires, directly or through other prerequisites. An
+ * eligibility check is then a bit set difference, with no graph walk and no SQL.
+ * <p>
+ * Changes derive a new index rather than modifying this one, recomputing only the courses that require the
+ * changed course and sharing every other bit set. Adding a prerequisite can only extend closures, so those
+ * courses gain the new prerequisite's closure. Removing one can shrink them, so those courses are recomputed
+ * from their direct prerequisites, prerequisites first.
+ */
+public final class PrerequisiteIndex {
+
+	public static final PrerequisiteIndex EMPTY = new PrerequisiteIndex(0, Map.of(), new String[0], new BitSet[0], new BitSet[0]);
+
+	private final long revision;
+	// Course code -> slot, and slot -> code; a deleted course leaves its slot empty (null code, no bits)
+	private final Map<String, Integer> slots;
+	private final String[] codes;
+	// Per slot: the direct prerequisites, and all prerequisites. Never modified once the index is built.
+	private final BitSet[] direct;
+	private final BitSet[] closure;
+
+	private PrerequisiteIndex(long revision, Map<String, Integer> slots, String[] codes, BitSet[] direct, BitSet[] closure) {
+		this.revision = revision;
+		this.slots = slots;
+		this.codes = codes;
+		this.direct = direct;
+		this.closure = closure;
+	}
+
+	/**
+	 * Builds the index from scratch, in topological order so each course's closure is assembled from
+	 * closures already computed. Fails if the edges contain a cycle.
+	 */
+	public static PrerequisiteIndex build(long revision, Collection<String> courses, Collection<PrerequisiteEdge> edges) {
+		int size = courses.size();
+		Map<String, Integer> slots = new HashMap<>(size * 2);
+		String[] codes = new String[size];
+		BitSet[] direct = new BitSet[size];
+		BitSet[] closure = new BitSet[size];
+		for (String code : courses) {
+			codes[slots.size()] = code;
+			direct[slots.size()] = new BitSet();
+			slots.put(code, slots.size());
+		}
+
+		// Kahn's algorithm: a course is ready once all its direct prerequisites are
+		int[] pending = new int[size];
+		List<List<Integer>> dependents = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			dependents.add(new ArrayList<>());
+		}
+		for (PrerequisiteEdge edge : edges) {
+			int course = slotOf(slots, edge.course());
+			int prerequisite = slotOf(slots, edge.prerequisite());
+			if (!direct[course].get(prerequisite)) {
+				direct[course].set(prerequisite);
+				pending[course]++;
+				dependents.get(prerequisite).add(course);
+			}
+		}
+		Deque<Integer> ready = new ArrayDeque<>();
+		for (int i = 0; i < size; i++) {
+			if (pending[i] == 0) {
+				ready.add(i);
+			}
+		}
+		int done = 0;
+		while (!ready.isEmpty()) {
+			int course = ready.poll();
+			closure[course] = closureFrom(direct[course], closure);
+			done++;
+			for (int dependent : dependents.get(course)) {
+				if (--pending[dependent] == 0) {
+					ready.add(dependent);
+				}
+			}
+		}
+		if (done < size) {
+			List<String> stuck = new ArrayList<>();
+			for (int i = 0; i < size; i++) {
+				if (pending[i] > 0) {
+					stuck.add(codes[i]);
+				}
+			}
+			throw new IllegalStateException("Prerequisite graph has a cycle among " + stuck);
+		}
+		return new PrerequisiteIndex(revision, slots, codes, direct, closure);
+	}
+
+	public long revision() {
+		return revision;
+	}
+
+	public boolean contains(String course) {
+		return slots.containsKey(course);
+	}
+
+	public int size() {
+		return slots.size();
+	}
+
+	public boolean requiresDirectly(String course, String prerequisite) {
+		return direct[slot(course)].get(slot(prerequisite));
+	}
+
+	// Prerequisites in an order they can be taken in: each course after everything it requires
+	public List<String> prerequisitesOf(String course, boolean transitive) {
+		int slot = slot(course);
+		return inTakingOrder(transitive ? closure[slot] : direct[slot]);
+	}
+
+	/**
+	 * Everything the course requires, directly or not, that is not among the completed courses, in an order
+	 * it can be taken in. Empty when the student may enroll. Completed codes that are not courses are ignored.
+	 */
+	public List<String> missingPrerequisites(String course, Collection<String> completed) {
+		BitSet required = closure[slot(course)];
+		if (required.isEmpty()) {
+			return List.of();
+		}
+		BitSet missing = (BitSet) required.clone();
+		for (String code : completed) {
+			Integer slot = slots.get(code);
+			if (slot != null) {
+				missing.clear(slot);
+			}
+		}
+		return missing.isEmpty() ? List.of() : inTakingOrder(missing);
+	}
+
+	/**
+	 * The cycle that making the course require the prerequisite would close, as the chain of requirements
+	 * from the course back to itself, or empty if the graph stays acyclic.
+	 */
+	public Optional<List<String>> cycleThrough(String course, String prerequisite) {
+		int from = slot(course);
+		int to = slot(prerequisite);
+		if (from != to && !closure[to].get(from)) {
+			return Optional.empty();
+		}
+		// The prerequisite already requires the course: follow direct prerequisites that lead back to it
+		List<String> cycle = new ArrayList<>();
+		cycle.add(course);
+		int current = to;
+		while (current != from) {
+			cycle.add(codes[current]);
+			BitSet next = direct[current];
+			int step = next.get(from) ? from : -1;
+			for (int i = next.nextSetBit(0); step < 0 && i >= 0; i = next.nextSetBit(i + 1)) {
+				if (closure[i].get(from)) {
+					step = i;
+				}
+			}
+			current = step;
+		}
+		cycle.add(course);
+		return Optional.of(cycle);
+	}
+
+	public PrerequisiteIndex withCourse(String course, long revision) {
+		if (slots.containsKey(course)) {
+			throw new IllegalArgumentException("Course " + course + " is already indexed");
+		}
+		int slot = codes.length;
+		Map<String, Integer> newSlots = new HashMap<>(slots);
+		newSlots.put(course, slot);
+		String[] newCodes = Arrays.copyOf(codes, slot + 1);
+		newCodes[slot] = course;
+		BitSet[] newDirect = Arrays.copyOf(direct, slot + 1);
+		newDirect[slot] = new BitSet();
+		BitSet[] newClosure = Arrays.copyOf(closure, slot + 1);
+		newClosure[slot] = new BitSet();
+		return new PrerequisiteIndex(revision, newSlots, newCodes, newDirect, newClosure);
+	}
+
+	// Removes the course and every requirement on it; courses that required it no longer do
+	public PrerequisiteIndex withoutCourse(String course, long revision) {
+		int slot = slot(course);
+		List<Integer> affected = requiring(slot);
+		BitSet[] newDirect = direct.clone();
+		for (int dependent : affected) {
+			if (direct[dependent].get(slot)) {
+				newDirect[dependent] = (BitSet) direct[dependent].clone();
+				newDirect[dependent].clear(slot);
+			}
+		}
+		newDirect[slot] = new BitSet();
+		BitSet[] newClosure = closure.clone();
+		newClosure[slot] = new BitSet();
+		recompute(affected, newDirect, newClosure);
+
+		Map<String, Integer> newSlots = new HashMap<>(slots);
+		newSlots.remove(course);
+		String[] newCodes = codes.clone();
+		newCodes[slot] = null;
+		return new PrerequisiteIndex(revision, newSlots, newCodes, newDirect, newClosure);
+	}
+
+	// The caller checks cycleThrough first; the index cannot represent a cycle
+	public PrerequisiteIndex withPrerequisite(String course, String prerequisite, long revision) {
+		int from = slot(course);
+		int to = slot(prerequisite);
+		if (from == to || closure[to].get(from)) {
+			throw new IllegalArgumentException(course + " requiring " + prerequisite + " would create a cycle");
+		}
+		BitSet[] newDirect = direct.clone();
+		newDirect[from] = (BitSet) direct[from].clone();
+		newDirect[from].set(to);
+
+		// The course, and everything requiring it, now also requires the prerequisite and all it requires
+		BitSet gained = (BitSet) closure[to].clone();
+		gained.set(to);
+		BitSet[] newClosure = closure.clone();
+		List<Integer> affected = requiring(from);
+		affected.add(from);
+		for (int slot : affected) {
+			if (!containsAll(closure[slot], gained)) {
+				newClosure[slot] = (BitSet) closure[slot].clone();
+				newClosure[slot].or(gained);
+			}
+		}
+		return new PrerequisiteIndex(revision, slots, codes, newDirect, newClosure);
+	}
+
+	public PrerequisiteIndex withoutPrerequisite(String course, String prerequisite, long revision) {
+		int from = slot(course);
+		int to = slot(prerequisite);
+		BitSet[] newDirect = direct.clone();
+		newDirect[from] = (BitSet) direct[from].clone();
+		newDirect[from].clear(to);
+
+		// The course and everything requiring it may have required the prerequisite only through this edge
+		List<Integer> affected = requiring(from);
+		affected.add(from);
+		BitSet[] newClosure = closure.clone();
+		recompute(affected, newDirect, newClosure);
+		return new PrerequisiteIndex(revision, slots, codes, newDirect, newClosure);
+	}
+
+	// Same revision and the same closure for every course
+	boolean sameGraphAs(PrerequisiteIndex other) {
+		if (revision != other.revision || !slots.keySet().equals(other.slots.keySet())) {
+			return false;
+		}
+		for (String course : slots.keySet()) {
+			if (!prerequisitesOf(course, false).equals(other.prerequisitesOf(course, false))
+					|| !prerequisitesOf(course, true).equals(other.prerequisitesOf(course, true))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// Slots of the courses that require the given one, directly or not
+	private List<Integer> requiring(int slot) {
+		List<Integer> result = new ArrayList<>();
+		for (int i = 0; i < closure.length; i++) {
+			if (closure[i].get(slot)) {
+				result.add(i);
+			}
+		}
+		return result;
+	}
+
+	// Rebuilds the closures of the affected courses from their direct prerequisites. A course's closure is a strict
+	// superset of the closure of anything it requires, so ordering by the old closure size puts prerequisites first.
+	private void recompute(List<Integer> affected, BitSet[] newDirect, BitSet[] newClosure) {
+		affected.sort(Comparator.comparingInt(slot -> closure[slot].cardinality()));
+		for (int slot : affected) {
+			newClosure[slot] = closureFrom(newDirect[slot], newClosure);
+		}
+	}
+
+	private static BitSet closureFrom(BitSet prerequisites, BitSet[] closure) {
+		BitSet result = (BitSet) prerequisites.clone();
+		for (int i = prerequisites.nextSetBit(0); i >= 0; i = prerequisites.nextSetBit(i + 1)) {
+			result.or(closure[i]);
+		}
+		return result;
+	}
+
+	private static boolean containsAll(BitSet set, BitSet subset) {
+		BitSet outside = (BitSet) subset.clone();
+		outside.andNot(set);
+		return outside.isEmpty();
+	}
+
+	private List<String> inTakingOrder(BitSet courses) {
+		List<Integer> ordered = new ArrayList<>(courses.cardinality());
+		courses.stream().forEach(ordered::add);
+		ordered.sort(Comparator.<Integer>comparingInt(slot -> closure[slot].cardinality()).thenComparing(slot -> codes[slot]));
+		return ordered.stream().map(slot -> codes[slot]).toList();
+	}
+
+	private int slot(String course) {
+		return slotOf(slots, course);
+	}
+
+	private static int slotOf(Map<String, Integer> slots, String course) {
+		Integer slot = slots.get(course);
+		if (slot == null) {
+			throw new IllegalArgumentException("Course " + course + " is not indexed");
+		}
+		return slot;
+	}
+}
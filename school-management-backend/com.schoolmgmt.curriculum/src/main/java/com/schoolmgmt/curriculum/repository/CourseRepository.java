@@ -0,0 +1,18 @@
+package com.schoolmgmt.curriculum.repository;
+
+import com.schoolmgmt.curriculum.model.Course;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface CourseRepository extends JpaRepository<Course, Long> {
+
+	Optional<Course> findByCode(String code);
+
+	boolean existsByCode(String code);
+
+	@Query("select c.code from Course c")
+	List<String> findAllCodes();
+}
@@ -0,0 +1,20 @@
+package com.schoolmgmt.curriculum.repository;
+
+import com.schoolmgmt.curriculum.model.CurriculumRevision;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
+
+public interface CurriculumRevisionRepository extends JpaRepository<CurriculumRevision, Integer> {
+
+	// SELECT ... FOR UPDATE: held until the writing transaction ends
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select r from CurriculumRevision r where r.id = :id")
+	Optional<CurriculumRevision> lockById(Integer id);
+
+	@Query("select r.revision from CurriculumRevision r where r.id = :id")
+	Optional<Long> findRevisionById(Integer id);
+}
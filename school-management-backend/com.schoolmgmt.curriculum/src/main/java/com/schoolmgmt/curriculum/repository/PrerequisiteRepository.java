@@ -0,0 +1,24 @@
+package com.schoolmgmt.curriculum.repository;
+
+import com.schoolmgmt.curriculum.model.Course;
+import com.schoolmgmt.curriculum.model.Prerequisite;
+import com.schoolmgmt.curriculum.prerequisites.PrerequisiteEdge;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface PrerequisiteRepository extends JpaRepository<Prerequisite, Long> {
+
+	// The whole graph by code, in one query, for building the in-memory index
+	@Query("select new com.schoolmgmt.curriculum.prerequisites.PrerequisiteEdge(p.course.code, p.prerequisite.code) from Prerequisite p")
+	List<PrerequisiteEdge> findAllEdges();
+
+	Optional<Prerequisite> findByCourseAndPrerequisite(Course course, Course prerequisite);
+
+	@Modifying
+	@Query("delete from Prerequisite p where p.course = :course or p.prerequisite = :course")
+	int deleteAllInvolving(Course course);
+}
@@ -0,0 +1,150 @@
+package com.schoolmgmt.curriculum.service;
+
+import com.schoolmgmt.curriculum.dto.EligibilityResult;
+import com.schoolmgmt.curriculum.exception.ConflictException;
+import com.schoolmgmt.curriculum.exception.ResourceNotFoundException;
+import com.schoolmgmt.curriculum.model.Course;
+import com.schoolmgmt.curriculum.model.CurriculumRevision;
+import com.schoolmgmt.curriculum.model.Prerequisite;
+import com.schoolmgmt.curriculum.prerequisites.PrerequisiteGraph;
+import com.schoolmgmt.curriculum.prerequisites.PrerequisiteIndex;
+import com.schoolmgmt.curriculum.repository.CourseRepository;
+import com.schoolmgmt.curriculum.repository.CurriculumRevisionRepository;
+import com.schoolmgmt.curriculum.repository.PrerequisiteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Service
+public class CourseService {
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private PrerequisiteRepository prerequisiteRepository;
+
+	@Autowired
+	private CurriculumRevisionRepository revisionRepository;
+
+	@Autowired
+	private PrerequisiteGraph prerequisiteGraph;
+
+	@Transactional(readOnly = true)
+	public List<Course> getAllCourses() {
+		return courseRepository.findAll(Sort.by("code"));
+	}
+
+	@Transactional(readOnly = true)
+	public Course getCourse(String code) {
+		return findCourse(code);
+	}
+
+	@Transactional
+	public Course createCourse(Course course) {
+		CurriculumRevision revision = lockRevision();
+		if (courseRepository.existsByCode(course.getCode())) {
+			throw new ConflictException("Course " + course.getCode() + " already exists");
+		}
+		PrerequisiteIndex index = prerequisiteGraph.currentAt(revision);
+		course.setId(null);
+		Course saved = courseRepository.save(course);
+		revision.setRevision(revision.getRevision() + 1);
+		prerequisiteGraph.publishAfterCommit(index.withCourse(saved.getCode(), revision.getRevision()));
+		return saved;
+	}
+
+	// Title and description only; the code identifies the course to the student service
+	@Transactional
+	public Course updateCourse(String code, Course details) {
+		Course course = findCourse(code);
+		course.setTitle(details.getTitle());
+		course.setDescription(details.getDescription());
+		return courseRepository.save(course);
+	}
+
+	@Transactional
+	public void deleteCourse(String code) {
+		CurriculumRevision revision = lockRevision();
+		Course course = findCourse(code);
+		PrerequisiteIndex index = prerequisiteGraph.currentAt(revision);
+		prerequisiteRepository.deleteAllInvolving(course);
+		courseRepository.delete(course);
+		revision.setRevision(revision.getRevision() + 1);
+		prerequisiteGraph.publishAfterCommit(index.withoutCourse(code, revision.getRevision()));
+	}
+
+	// Answered from the in-memory index; no transaction and no SQL
+	public List<String> getPrerequisites(String code, boolean transitive) {
+		return indexContaining(code).prerequisitesOf(code, transitive);
+	}
+
+	// Idempotent: requiring an existing prerequisite again changes nothing
+	@Transactional
+	public void addPrerequisite(String code, String prerequisiteCode) {
+		CurriculumRevision revision = lockRevision();
+		Course course = findCourse(code);
+		Course prerequisite = findCourse(prerequisiteCode);
+		PrerequisiteIndex index = prerequisiteGraph.currentAt(revision);
+		if (index.requiresDirectly(code, prerequisiteCode)) {
+			return;
+		}
+		index.cycleThrough(code, prerequisiteCode).ifPresent(cycle -> {
+			throw new ConflictException(code + " cannot require " + prerequisiteCode + "; it would create the cycle "
+					+ String.join(" -> ", cycle));
+		});
+		prerequisiteRepository.save(new Prerequisite(null, course, prerequisite));
+		revision.setRevision(revision.getRevision() + 1);
+		prerequisiteGraph.publishAfterCommit(index.withPrerequisite(code, prerequisiteCode, revision.getRevision()));
+	}
+
+	@Transactional
+	public void removePrerequisite(String code, String prerequisiteCode) {
+		CurriculumRevision revision = lockRevision();
+		Course course = findCourse(code);
+		Course prerequisite = findCourse(prerequisiteCode);
+		Prerequisite edge = prerequisiteRepository.findByCourseAndPrerequisite(course, prerequisite)
+				.orElseThrow(() -> new ResourceNotFoundException(code + " does not require " + prerequisiteCode));
+		PrerequisiteIndex index = prerequisiteGraph.currentAt(revision);
+		prerequisiteRepository.delete(edge);
+		revision.setRevision(revision.getRevision() + 1);
+		prerequisiteGraph.publishAfterCommit(index.withoutPrerequisite(code, prerequisiteCode, revision.getRevision()));
+	}
+
+	/**
+	 * Whether a student who has completed the given courses may enroll in the course: every prerequisite,
+	 * direct or not, must be among them. Answered from the in-memory index; no transaction and no SQL.
+	 */
+	public EligibilityResult checkEligibility(String code, Collection<String> completed) {
+		PrerequisiteIndex index = indexContaining(code);
+		return EligibilityResult.of(code, index.missingPrerequisites(code, completed), index.revision());
+	}
+
+	// Serializes changes to the graph across instances until this transaction ends
+	private CurriculumRevision lockRevision() {
+		return revisionRepository.lockById(CurriculumRevision.ID)
+				.orElseThrow(() -> new IllegalStateException("curriculum_revision row is missing"));
+	}
+
+	private Course findCourse(String code) {
+		return courseRepository.findByCode(code)
+				.orElseThrow(() -> new ResourceNotFoundException("Course not found with code: " + code));
+	}
+
+	// A course this instance has not seen may have been created on another one since its last refresh
+	private PrerequisiteIndex indexContaining(String code) {
+		PrerequisiteIndex index = prerequisiteGraph.current();
+		if (!index.contains(code)) {
+			prerequisiteGraph.refresh();
+			index = prerequisiteGraph.current();
+		}
+		if (!index.contains(code)) {
+			throw new ResourceNotFoundException("Course not found with code: " + code);
+		}
+		return index;
+	}
+}
@@ -0,0 +1,136 @@
+package com.schoolmgmt.curriculum.service;
+
+import com.schoolmgmt.curriculum.dto.TimetableJobView;
+import com.schoolmgmt.curriculum.dto.TimetableRequest;
+import com.schoolmgmt.curriculum.exception.ResourceNotFoundException;
+import com.schoolmgmt.curriculum.exception.TooManyRequestsException;
+import com.schoolmgmt.curriculum.timetable.TimetableJob;
+import com.schoolmgmt.curriculum.timetable.TimetableProblem;
+import com.schoolmgmt.curriculum.timetable.TimetableSearch;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs timetable searches as background jobs, one at a time with every solver thread, and keeps each job
+ * in memory for the retention period after it finishes. Jobs belong to the instance they were submitted to.
+ */
+@Service
+public class TimetableService {
+
+	private static final Logger log = LoggerFactory.getLogger(TimetableService.class);
+
+	// Solver threads; 0 for one per core
+	@Value("${curriculum.timetable.parallelism:0}")
+	private int parallelism;
+
+	@Value("${curriculum.timetable.max-time-limit:PT55S}")
+	private Duration maxTimeLimit;
+
+	@Value("${curriculum.timetable.settle-time:PT5S}")
+	private Duration settleTime;
+
+	@Value("${curriculum.timetable.max-queued-jobs:4}")
+	private int maxQueuedJobs;
+
+	@Value("${curriculum.timetable.retention:PT1H}")
+	private Duration retention;
+
+	private final Map<UUID, TimetableJob> jobs = new ConcurrentHashMap<>();
+
+	private final AtomicInteger queued = new AtomicInteger();
+
+	private ForkJoinPool solverPool;
+
+	private ExecutorService jobRunner;
+
+	@PostConstruct
+	void start() {
+		solverPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+		jobRunner = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("timetable-jobs").daemon().factory());
+	}
+
+	@PreDestroy
+	void stop() {
+		jobs.values().forEach(TimetableJob::cancel);
+		jobRunner.shutdownNow();
+		solverPool.shutdownNow();
+	}
+
+	/**
+	 * Checks the request can be satisfied at all (a 400 otherwise) and queues the search; the job is
+	 * polled with {@link #getJob}.
+	 */
+	public TimetableJobView submit(TimetableRequest request) {
+		TimetableProblem problem = TimetableProblem.compile(request);
+		Duration timeLimit = request.timeLimitSeconds() == null ? maxTimeLimit
+				: Duration.ofSeconds(Math.min(request.timeLimitSeconds(), maxTimeLimit.toSeconds()));
+		TimetableJob job = new TimetableJob(new TimetableSearch(problem, solverPool.getParallelism(), timeLimit, settleTime,
+				ThreadLocalRandom.current().nextLong()));
+
+		if (queued.incrementAndGet() > maxQueuedJobs) {
+			queued.decrementAndGet();
+			throw new TooManyRequestsException(maxQueuedJobs + " timetable jobs are already waiting; try again once one has started");
+		}
+		jobs.put(job.getId(), job);
+		jobRunner.execute(() -> run(job));
+		log.info("Timetable job {} queued: {} sections, {} lessons a week", job.getId(), problem.sections(), problem.lessons());
+		return job.view();
+	}
+
+	public TimetableJobView getJob(UUID id) {
+		return findJob(id).view();
+	}
+
+	// A queued job will not start; a running one stops and keeps the best timetable found so far
+	public TimetableJobView cancelJob(UUID id) {
+		TimetableJob job = findJob(id);
+		job.cancel();
+		return job.view();
+	}
+
+	@Scheduled(fixedDelayString = "PT1M")
+	public void evictFinishedJobs() {
+		Instant cutoff = Instant.now().minus(retention);
+		jobs.values().removeIf(job -> job.finishedBefore(cutoff));
+	}
+
+	private void run(TimetableJob job) {
+		queued.decrementAndGet();
+		if (!job.start()) {
+			return;
+		}
+		try {
+			job.complete(job.getSearch().run(solverPool));
+			TimetableJobView view = job.view();
+			log.info("Timetable job {} {} after {} ms: {} clashes, {} same-day repeats", view.id(), view.state(),
+					view.progress().elapsedMillis(), view.progress().bestClashes(), view.progress().bestSameDayRepeats());
+		} catch (RuntimeException e) {
+			log.error("Timetable job {} failed", job.getId(), e);
+			job.fail(e.getMessage());
+		}
+	}
+
+	private TimetableJob findJob(UUID id) {
+		TimetableJob job = jobs.get(id);
+		if (job == null) {
+			throw new ResourceNotFoundException("Timetable job not found with id: " + id);
+		}
+		return job;
+	}
+}
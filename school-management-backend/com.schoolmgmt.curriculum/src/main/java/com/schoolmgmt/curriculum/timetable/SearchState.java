@@ -0,0 +1,337 @@
+package com.schoolmgmt.curriculum.timetable;
+
+import com.schoolmgmt.curriculum.dto.Timetable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * One worker's timetable: the slot and room of every lesson and the teacher of every section, with the
+ * per-slot loads of teachers, rooms and sections kept up to date so a move's effect on the clash counts is
+ * known in constant time. A section never meets twice in one slot, and a lesson is only ever given a room
+ * its section fits in. Not thread-safe.
+ */
+final class SearchState {
+
+	private final TimetableProblem problem;
+	private final int slots;
+
+	final int[] slotOf;
+	final int[] roomOf;
+	final int[] teacherOf;
+
+	// Indexed by teacher, room or section times slots plus slot
+	private final int[] teacherLoad;
+	private final int[] roomLoad;
+	private final boolean[] meets;
+	// Sections sharing a student with the section that meet in the slot
+	private final int[] clashingNeighbours;
+	// Indexed by section times days plus day
+	private final int[] lessonsOnDay;
+	private final BitSet[] occupiedRooms;
+
+	private int teacherClashes;
+	private int roomClashes;
+	private int studentClashes;
+	private int sameDayRepeats;
+
+	// One clash outweighs every same-day repeat there could be
+	private final long clashWeight;
+
+	SearchState(TimetableProblem problem) {
+		this.problem = problem;
+		this.slots = problem.slots;
+		this.slotOf = new int[problem.lessons()];
+		this.roomOf = new int[problem.lessons()];
+		this.teacherOf = new int[problem.sections()];
+		this.teacherLoad = new int[problem.teacherIds.length * slots];
+		this.roomLoad = new int[problem.roomIds.length * slots];
+		this.meets = new boolean[problem.sections() * slots];
+		this.clashingNeighbours = new int[problem.sections() * slots];
+		this.lessonsOnDay = new int[problem.sections() * problem.days];
+		this.occupiedRooms = new BitSet[slots];
+		Arrays.setAll(occupiedRooms, slot -> new BitSet(problem.roomIds.length));
+		this.clashWeight = problem.lessons() + 1L;
+		Arrays.fill(slotOf, -1);
+		Arrays.fill(roomOf, -1);
+	}
+
+	/**
+	 * A randomized greedy start: each section gets the least loaded teacher of its subject, then the lessons
+	 * of the most entangled sections are placed first, each in the slot where it clashes least.
+	 */
+	static SearchState greedy(TimetableProblem problem, SplittableRandom random) {
+		SearchState state = new SearchState(problem);
+		Integer[] order = shuffledSections(problem, random);
+
+		Arrays.sort(order, Comparator.comparingInt((Integer x) -> problem.firstLesson[x + 1] - problem.firstLesson[x]).reversed());
+		int[] load = new int[problem.teacherIds.length];
+		for (int x : order) {
+			int chosen = -1;
+			int ties = 0;
+			for (int teacher : problem.teachers[x]) {
+				if (chosen < 0 || load[teacher] < load[chosen]) {
+					chosen = teacher;
+					ties = 1;
+				} else if (load[teacher] == load[chosen] && random.nextInt(++ties) == 0) {
+					chosen = teacher;
+				}
+			}
+			state.teacherOf[x] = chosen;
+			load[chosen] += problem.firstLesson[x + 1] - problem.firstLesson[x];
+		}
+
+		order = shuffledSections(problem, random);
+		Arrays.sort(order, Comparator.comparingLong((Integer x) ->
+				(long) problem.neighbours[x].length * (problem.firstLesson[x + 1] - problem.firstLesson[x])).reversed());
+		for (int x : order) {
+			for (int lesson = problem.firstLesson[x]; lesson < problem.firstLesson[x + 1]; lesson++) {
+				int chosen = -1;
+				long chosenCost = Long.MAX_VALUE;
+				int ties = 0;
+				for (int slot = 0; slot < state.slots; slot++) {
+					if (state.meets(x, slot)) {
+						continue;
+					}
+					long cost = state.placementCost(lesson, slot, state.roomFor(lesson, slot));
+					if (cost < chosenCost) {
+						chosen = slot;
+						chosenCost = cost;
+						ties = 1;
+					} else if (cost == chosenCost && random.nextInt(++ties) == 0) {
+						chosen = slot;
+					}
+				}
+				state.place(lesson, chosen, state.roomFor(lesson, chosen));
+			}
+		}
+		return state;
+	}
+
+	private static Integer[] shuffledSections(TimetableProblem problem, SplittableRandom random) {
+		Integer[] order = new Integer[problem.sections()];
+		for (int x = 0; x < order.length; x++) {
+			int other = random.nextInt(x + 1);
+			order[x] = order[other];
+			order[other] = x;
+		}
+		return order;
+	}
+
+	long cost() {
+		return clashes() * clashWeight + sameDayRepeats;
+	}
+
+	int clashes() {
+		return teacherClashes + roomClashes + studentClashes;
+	}
+
+	int sameDayRepeats() {
+		return sameDayRepeats;
+	}
+
+	int sectionOf(int lesson) {
+		return problem.lessonSection[lesson];
+	}
+
+	boolean meets(int section, int slot) {
+		return meets[section * slots + slot];
+	}
+
+	boolean clashes(int lesson) {
+		int slot = slotOf[lesson];
+		int section = problem.lessonSection[lesson];
+		return teacherLoad[teacherOf[section] * slots + slot] > 1
+				|| roomLoad[roomOf[lesson] * slots + slot] > 1
+				|| clashingNeighbours[section * slots + slot] > 0;
+	}
+
+	boolean roomClashes(int lesson) {
+		return roomLoad[roomOf[lesson] * slots + slotOf[lesson]] > 1;
+	}
+
+	boolean teacherClashes(int lesson) {
+		return teacherLoad[teacherOf[problem.lessonSection[lesson]] * slots + slotOf[lesson]] > 1;
+	}
+
+	boolean repeatsDay(int lesson) {
+		return lessonsOnDay[problem.lessonSection[lesson] * problem.days + slotOf[lesson] / problem.periodsPerDay] > 1;
+	}
+
+	/**
+	 * The room the lesson would have in the slot: its current room if free then, else the smallest free room
+	 * the section fits in, else (every such room being taken) its current room or the smallest it fits in.
+	 */
+	int roomFor(int lesson, int slot) {
+		int current = roomOf[lesson];
+		if (current >= 0 && roomLoad[current * slots + slot] == 0) {
+			return current;
+		}
+		int free = occupiedRooms[slot].nextClearBit(problem.firstRoom[problem.lessonSection[lesson]]);
+		if (free < problem.roomIds.length) {
+			return free;
+		}
+		return current >= 0 ? current : problem.firstRoom[problem.lessonSection[lesson]];
+	}
+
+	// A free room the lesson fits in at its own slot, or -1
+	int freeRoomInPlace(int lesson) {
+		int free = occupiedRooms[slotOf[lesson]].nextClearBit(problem.firstRoom[problem.lessonSection[lesson]]);
+		return free < problem.roomIds.length ? free : -1;
+	}
+
+	// What placing an unplaced lesson would add to the cost
+	private long placementCost(int lesson, int slot, int room) {
+		int section = problem.lessonSection[lesson];
+		int clashes = (teacherLoad[teacherOf[section] * slots + slot] >= 1 ? 1 : 0)
+				+ (roomLoad[room * slots + slot] >= 1 ? 1 : 0)
+				+ clashingNeighbours[section * slots + slot];
+		int repeats = lessonsOnDay[section * problem.days + slot / problem.periodsPerDay] >= 1 ? 1 : 0;
+		return clashes * clashWeight + repeats;
+	}
+
+	// The change in cost of moving the lesson to another slot, where its section does not meet yet
+	long moveDelta(int lesson, int slot, int room) {
+		int from = slotOf[lesson];
+		int section = problem.lessonSection[lesson];
+		int teacher = teacherOf[section];
+		int clashes = (teacherLoad[teacher * slots + slot] >= 1 ? 1 : 0) - (teacherLoad[teacher * slots + from] >= 2 ? 1 : 0)
+				+ (roomLoad[room * slots + slot] >= 1 ? 1 : 0) - (roomLoad[roomOf[lesson] * slots + from] >= 2 ? 1 : 0)
+				+ clashingNeighbours[section * slots + slot] - clashingNeighbours[section * slots + from];
+		int fromDay = from / problem.periodsPerDay;
+		int toDay = slot / problem.periodsPerDay;
+		int repeats = fromDay == toDay ? 0
+				: (lessonsOnDay[section * problem.days + toDay] >= 1 ? 1 : 0) - (lessonsOnDay[section * problem.days + fromDay] >= 2 ? 1 : 0);
+		return clashes * clashWeight + repeats;
+	}
+
+	// The change in cost of the section's lessons being taught by another teacher of its subject
+	long teacherChangeDelta(int section, int teacher) {
+		int current = teacherOf[section];
+		int clashes = 0;
+		for (int lesson = problem.firstLesson[section]; lesson < problem.firstLesson[section + 1]; lesson++) {
+			int slot = slotOf[lesson];
+			clashes += (teacherLoad[teacher * slots + slot] >= 1 ? 1 : 0) - (teacherLoad[current * slots + slot] >= 2 ? 1 : 0);
+		}
+		return clashes * clashWeight;
+	}
+
+	void move(int lesson, int slot, int room) {
+		remove(lesson);
+		place(lesson, slot, room);
+	}
+
+	void changeRoom(int lesson, int room) {
+		int slot = slotOf[lesson];
+		remove(lesson);
+		place(lesson, slot, room);
+	}
+
+	void changeTeacher(int section, int teacher) {
+		int current = teacherOf[section];
+		for (int lesson = problem.firstLesson[section]; lesson < problem.firstLesson[section + 1]; lesson++) {
+			int slot = slotOf[lesson];
+			if (--teacherLoad[current * slots + slot] >= 1) {
+				teacherClashes--;
+			}
+			if (teacherLoad[teacher * slots + slot]++ >= 1) {
+				teacherClashes++;
+			}
+		}
+		teacherOf[section] = teacher;
+	}
+
+	private void place(int lesson, int slot, int room) {
+		int section = problem.lessonSection[lesson];
+		slotOf[lesson] = slot;
+		roomOf[lesson] = room;
+		if (teacherLoad[teacherOf[section] * slots + slot]++ >= 1) {
+			teacherClashes++;
+		}
+		if (roomLoad[room * slots + slot]++ >= 1) {
+			roomClashes++;
+		} else {
+			occupiedRooms[slot].set(room);
+		}
+		meets[section * slots + slot] = true;
+		studentClashes += clashingNeighbours[section * slots + slot];
+		for (int neighbour : problem.neighbours[section]) {
+			clashingNeighbours[neighbour * slots + slot]++;
+		}
+		if (lessonsOnDay[section * problem.days + slot / problem.periodsPerDay]++ >= 1) {
+			sameDayRepeats++;
+		}
+	}
+
+	private void remove(int lesson) {
+		int section = problem.lessonSection[lesson];
+		int slot = slotOf[lesson];
+		int room = roomOf[lesson];
+		if (--teacherLoad[teacherOf[section] * slots + slot] >= 1) {
+			teacherClashes--;
+		}
+		if (--roomLoad[room * slots + slot] >= 1) {
+			roomClashes--;
+		} else {
+			occupiedRooms[slot].clear(room);
+		}
+		meets[section * slots + slot] = false;
+		studentClashes -= clashingNeighbours[section * slots + slot];
+		for (int neighbour : problem.neighbours[section]) {
+			clashingNeighbours[neighbour * slots + slot]--;
+		}
+		if (--lessonsOnDay[section * problem.days + slot / problem.periodsPerDay] >= 1) {
+			sameDayRepeats--;
+		}
+		slotOf[lesson] = -1;
+	}
+
+	void copyTo(int[] slots, int[] rooms, int[] teachers) {
+		System.arraycopy(slotOf, 0, slots, 0, slotOf.length);
+		System.arraycopy(roomOf, 0, rooms, 0, roomOf.length);
+		System.arraycopy(teacherOf, 0, teachers, 0, teacherOf.length);
+	}
+
+	// Replaces this timetable with the given one
+	void load(int[] slots, int[] rooms, int[] teachers) {
+		Arrays.fill(teacherLoad, 0);
+		Arrays.fill(roomLoad, 0);
+		Arrays.fill(meets, false);
+		Arrays.fill(clashingNeighbours, 0);
+		Arrays.fill(lessonsOnDay, 0);
+		for (BitSet occupied : occupiedRooms) {
+			occupied.clear();
+		}
+		teacherClashes = 0;
+		roomClashes = 0;
+		studentClashes = 0;
+		sameDayRepeats = 0;
+		System.arraycopy(teachers, 0, teacherOf, 0, teacherOf.length);
+		for (int lesson = 0; lesson < slotOf.length; lesson++) {
+			place(lesson, slots[lesson], rooms[lesson]);
+		}
+	}
+
+	Timetable toTimetable() {
+		List<Timetable.ScheduledSection> sections = new ArrayList<>(problem.sections());
+		for (int x = 0; x < problem.sections(); x++) {
+			int[] lessons = Arrays.copyOfRange(slotOf, problem.firstLesson[x], problem.firstLesson[x + 1]);
+			int[] rooms = Arrays.copyOfRange(roomOf, problem.firstLesson[x], problem.firstLesson[x + 1]);
+			Integer[] bySlot = new Integer[lessons.length];
+			Arrays.setAll(bySlot, i -> i);
+			Arrays.sort(bySlot, Comparator.comparingInt(i -> lessons[i]));
+			List<Timetable.Lesson> scheduled = new ArrayList<>(lessons.length);
+			for (int i : bySlot) {
+				scheduled.add(new Timetable.Lesson(lessons[i] / problem.periodsPerDay + 1, lessons[i] % problem.periodsPerDay + 1,
+						problem.roomIds[rooms[i]]));
+			}
+			sections.add(new Timetable.ScheduledSection(problem.classIds[x], problem.subjects[x],
+					problem.teacherIds[teacherOf[x]], scheduled));
+		}
+		return new Timetable(clashes() == 0, teacherClashes, studentClashes, roomClashes, sameDayRepeats, sections);
+	}
+}
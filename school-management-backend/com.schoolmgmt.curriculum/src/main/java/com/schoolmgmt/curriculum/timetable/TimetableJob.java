@@ -0,0 +1,75 @@
+package com.schoolmgmt.curriculum.timetable;
+
+import com.schoolmgmt.curriculum.dto.Timetable;
+import com.schoolmgmt.curriculum.dto.TimetableJobView;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A submitted timetable problem and what has become of it. State changes are synchronized, so a job
+ * cancelled while queued is never started and one cancelled while running ends CANCELLED.
+ */
+public class TimetableJob {
+
+	private final UUID id = UUID.randomUUID();
+	private final Instant submittedAt = Instant.now();
+	private final TimetableSearch search;
+
+	private TimetableJobState state = TimetableJobState.QUEUED;
+	private Instant startedAt;
+	private Instant finishedAt;
+	private Timetable timetable;
+	private String error;
+
+	public TimetableJob(TimetableSearch search) {
+		this.search = search;
+	}
+
+	public UUID getId() {
+		return id;
+	}
+
+	public TimetableSearch getSearch() {
+		return search;
+	}
+
+	// False if the job was cancelled before it could start
+	public synchronized boolean start() {
+		if (state != TimetableJobState.QUEUED) {
+			return false;
+		}
+		state = TimetableJobState.RUNNING;
+		startedAt = Instant.now();
+		return true;
+	}
+
+	public synchronized void complete(Timetable timetable) {
+		this.timetable = timetable;
+		state = search.isCancelled() ? TimetableJobState.CANCELLED : TimetableJobState.COMPLETED;
+		finishedAt = Instant.now();
+	}
+
+	public synchronized void fail(String error) {
+		this.error = error;
+		state = TimetableJobState.FAILED;
+		finishedAt = Instant.now();
+	}
+
+	public synchronized void cancel() {
+		if (state == TimetableJobState.QUEUED) {
+			state = TimetableJobState.CANCELLED;
+			finishedAt = Instant.now();
+		}
+		search.cancel();
+	}
+
+	public synchronized boolean finishedBefore(Instant instant) {
+		return finishedAt != null && finishedAt.isBefore(instant);
+	}
+
+	public synchronized TimetableJobView view() {
+		return new TimetableJobView(id, state, submittedAt, startedAt, finishedAt,
+				startedAt != null ? search.progress() : null, timetable, error);
+	}
+}
@@ -0,0 +1,9 @@
+package com.schoolmgmt.curriculum.timetable;
+
+public enum TimetableJobState {
+	QUEUED,
+	RUNNING,
+	COMPLETED,
+	CANCELLED,
+	FAILED
+}
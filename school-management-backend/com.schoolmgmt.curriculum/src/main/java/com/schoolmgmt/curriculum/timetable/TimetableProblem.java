@@ -0,0 +1,217 @@
+package com.schoolmgmt.curriculum.timetable;
+
+import com.schoolmgmt.curriculum.dto.TimetableRequest;
+import com.schoolmgmt.curriculum.exception.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A timetable request numbered for the solver. Periods of the week are slots 0..slots-1, day by day. Rooms
+ * are in ascending capacity, so the rooms a section fits in are those from its firstRoom on. Each section
+ * has one lesson per weekly period, and knows the teachers of its subject and the other sections it shares
+ * a student with.
+ */
+public final class TimetableProblem {
+
+	final int days;
+	final int periodsPerDay;
+	final int slots;
+	final String[] roomIds;
+	final long[] teacherIds;
+	final String[] classIds;
+	final String[] subjects;
+	final int[] firstRoom;
+	final int[][] teachers;
+	final int[][] neighbours;
+	// The lessons of section x are firstLesson[x] up to firstLesson[x + 1]
+	final int[] firstLesson;
+	final int[] lessonSection;
+	// Sections meeting more often than there are days repeat a day at least this often in total
+	final int unavoidableRepeats;
+
+	private TimetableProblem(int days, int periodsPerDay, String[] roomIds, long[] teacherIds, String[] classIds,
+							 String[] subjects, int[] firstRoom, int[][] teachers, int[][] neighbours, int[] firstLesson) {
+		this.days = days;
+		this.periodsPerDay = periodsPerDay;
+		this.slots = days * periodsPerDay;
+		this.roomIds = roomIds;
+		this.teacherIds = teacherIds;
+		this.classIds = classIds;
+		this.subjects = subjects;
+		this.firstRoom = firstRoom;
+		this.teachers = teachers;
+		this.neighbours = neighbours;
+		this.firstLesson = firstLesson;
+		this.lessonSection = new int[firstLesson[classIds.length]];
+		int repeats = 0;
+		for (int x = 0; x < classIds.length; x++) {
+			Arrays.fill(lessonSection, firstLesson[x], firstLesson[x + 1], x);
+			repeats += Math.max(0, firstLesson[x + 1] - firstLesson[x] - days);
+		}
+		this.unavoidableRepeats = repeats;
+	}
+
+	/**
+	 * Numbers the request, rejecting it if no timetable could satisfy it: a section no room is big enough
+	 * for or no active teacher teaches, or more lessons than the week, the teachers of a subject, the rooms
+	 * or a student's week have periods for.
+	 */
+	public static TimetableProblem compile(TimetableRequest request) {
+		int slots = request.days() * request.periodsPerDay();
+
+		List<TimetableRequest.Room> rooms = new ArrayList<>(request.rooms());
+		rooms.sort(Comparator.comparingInt(TimetableRequest.Room::capacity));
+		String[] roomIds = new String[rooms.size()];
+		int[] capacities = new int[rooms.size()];
+		Set<String> seenRooms = new HashSet<>();
+		for (int r = 0; r < rooms.size(); r++) {
+			roomIds[r] = rooms.get(r).id();
+			capacities[r] = rooms.get(r).capacity();
+			if (!seenRooms.add(roomIds[r])) {
+				throw new BadRequestException("Room " + roomIds[r] + " is listed more than once");
+			}
+		}
+
+		List<Long> teacherIds = new ArrayList<>();
+		Map<String, List<Integer>> teachersBySubject = new HashMap<>();
+		Set<Long> seenTeachers = new HashSet<>();
+		for (TimetableRequest.Teacher teacher : request.teachers()) {
+			if (!seenTeachers.add(teacher.id())) {
+				throw new BadRequestException("Teacher " + teacher.id() + " is listed more than once");
+			}
+			if (Boolean.FALSE.equals(teacher.active())) {
+				continue;
+			}
+			teachersBySubject.computeIfAbsent(subjectKey(teacher.subject()), subject -> new ArrayList<>()).add(teacherIds.size());
+			teacherIds.add(teacher.id());
+		}
+
+		List<TimetableRequest.Section> sections = request.sections();
+		int sectionCount = sections.size();
+		String[] classIds = new String[sectionCount];
+		String[] subjects = new String[sectionCount];
+		int[] firstRoom = new int[sectionCount];
+		int[][] teachers = new int[sectionCount][];
+		int[] firstLesson = new int[sectionCount + 1];
+		List<List<String>> students = new ArrayList<>(sectionCount);
+		Map<String, Integer> periodsBySubject = new HashMap<>();
+		Set<String> seenSections = new HashSet<>();
+		for (int x = 0; x < sectionCount; x++) {
+			TimetableRequest.Section section = sections.get(x);
+			classIds[x] = section.classId();
+			subjects[x] = section.subject();
+			if (!seenSections.add(section.classId())) {
+				throw new BadRequestException("Section " + section.classId() + " is listed more than once");
+			}
+			if (section.periodsPerWeek() > slots) {
+				throw new BadRequestException("Section " + section.classId() + " meets " + section.periodsPerWeek()
+						+ " times a week, but the week has only " + slots + " periods");
+			}
+			List<Integer> subjectTeachers = teachersBySubject.get(subjectKey(section.subject()));
+			if (subjectTeachers == null) {
+				throw new BadRequestException("No active teacher teaches " + section.subject() + ", the subject of section "
+						+ section.classId());
+			}
+			teachers[x] = subjectTeachers.stream().mapToInt(Integer::intValue).toArray();
+			students.add(List.copyOf(new LinkedHashSet<>(section.studentIds())));
+			int size = students.get(x).size();
+			firstRoom[x] = firstRoomHolding(capacities, size);
+			if (firstRoom[x] == capacities.length) {
+				throw new BadRequestException("Section " + section.classId() + " has " + size
+						+ " students, but the largest room holds " + capacities[capacities.length - 1]);
+			}
+			firstLesson[x + 1] = firstLesson[x] + section.periodsPerWeek();
+			periodsBySubject.merge(subjectKey(section.subject()), section.periodsPerWeek(), Integer::sum);
+		}
+
+		periodsBySubject.forEach((subject, periods) -> {
+			int available = teachersBySubject.get(subject).size() * slots;
+			if (periods > available) {
+				throw new BadRequestException("Sections of " + subject + " meet " + periods + " times a week, but its "
+						+ teachersBySubject.get(subject).size() + " active teachers have only " + available + " periods between them");
+			}
+		});
+
+		// Sections needing the bigger rooms, biggest first: each group must fit in the periods of the rooms it fits in
+		Integer[] bySize = new Integer[sectionCount];
+		Arrays.setAll(bySize, x -> x);
+		Arrays.sort(bySize, Comparator.comparingInt((Integer x) -> firstRoom[x]).reversed());
+		int lessons = 0;
+		for (int x : bySize) {
+			lessons += firstLesson[x + 1] - firstLesson[x];
+			int available = (capacities.length - firstRoom[x]) * slots;
+			if (lessons > available) {
+				throw new BadRequestException("Sections of " + capacities[firstRoom[x]] + " or more students meet " + lessons
+						+ " times a week, but rooms that size have only " + available + " periods between them");
+			}
+		}
+
+		Map<String, List<Integer>> sectionsByStudent = new HashMap<>();
+		for (int x = 0; x < sectionCount; x++) {
+			for (String student : students.get(x)) {
+				sectionsByStudent.computeIfAbsent(student, id -> new ArrayList<>()).add(x);
+			}
+		}
+		sectionsByStudent.forEach((student, studentSections) -> {
+			int periods = studentSections.stream().mapToInt(x -> firstLesson[x + 1] - firstLesson[x]).sum();
+			if (periods > slots) {
+				throw new BadRequestException("Student " + student + " is in sections meeting " + periods
+						+ " times a week, but the week has only " + slots + " periods");
+			}
+		});
+
+		int[][] neighbours = new int[sectionCount][];
+		int[] lastSeenFrom = new int[sectionCount];
+		Arrays.fill(lastSeenFrom, -1);
+		for (int x = 0; x < sectionCount; x++) {
+			int[] found = new int[16];
+			int count = 0;
+			for (String student : students.get(x)) {
+				for (int y : sectionsByStudent.get(student)) {
+					if (y != x && lastSeenFrom[y] != x) {
+						lastSeenFrom[y] = x;
+						if (count == found.length) {
+							found = Arrays.copyOf(found, count * 2);
+						}
+						found[count++] = y;
+					}
+				}
+			}
+			neighbours[x] = Arrays.copyOf(found, count);
+		}
+
+		return new TimetableProblem(request.days(), request.periodsPerDay(), roomIds,
+				teacherIds.stream().mapToLong(Long::longValue).toArray(), classIds, subjects, firstRoom, teachers,
+				neighbours, firstLesson);
+	}
+
+	public int sections() {
+		return classIds.length;
+	}
+
+	public int lessons() {
+		return lessonSection.length;
+	}
+
+	private static int firstRoomHolding(int[] capacities, int students) {
+		int r = 0;
+		while (r < capacities.length && capacities[r] < students) {
+			r++;
+		}
+		return r;
+	}
+
+	// Teachers and sections are matched on subject regardless of case or surrounding spaces
+	private static String subjectKey(String subject) {
+		return subject.trim().toLowerCase(Locale.ROOT);
+	}
+}
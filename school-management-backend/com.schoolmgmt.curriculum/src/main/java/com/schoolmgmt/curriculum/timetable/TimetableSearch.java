@@ -0,0 +1,131 @@
+package com.schoolmgmt.curriculum.timetable;
+
+import com.schoolmgmt.curriculum.dto.Timetable;
+import com.schoolmgmt.curriculum.dto.TimetableJobView;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One solve of a timetable problem: a portfolio of tabu searches, one fork-join task per worker thread, each
+ * from its own randomized greedy start. Workers share the best timetable found so far and restart from it
+ * when their own search stalls. The search stops at the time limit, when cancelled, once no clashes and
+ * no avoidable same-day repeats are left, or once it has been without clashes and without improvement for
+ * the settle time.
+ */
+public class TimetableSearch {
+
+	private final TimetableProblem problem;
+	private final int workers;
+	private final long timeLimitNanos;
+	private final long settleNanos;
+	private final long seed;
+
+	private final LongAdder iterations = new LongAdder();
+	private final LongAdder restarts = new LongAdder();
+	private volatile long startedAt;
+	private volatile boolean cancelled;
+	private volatile boolean stopped;
+
+	// The best timetable so far, guarded by this
+	private final int[] bestSlots;
+	private final int[] bestRooms;
+	private final int[] bestTeachers;
+	private volatile long bestCost = Long.MAX_VALUE;
+	private volatile int bestClashes = -1;
+	private volatile int bestSameDayRepeats = -1;
+	private volatile long lastImprovementAt;
+
+	public TimetableSearch(TimetableProblem problem, int workers, Duration timeLimit, Duration settleTime, long seed) {
+		this.problem = problem;
+		this.workers = workers;
+		this.timeLimitNanos = timeLimit.toNanos();
+		this.settleNanos = settleTime.toNanos();
+		this.seed = seed;
+		this.bestSlots = new int[problem.lessons()];
+		this.bestRooms = new int[problem.lessons()];
+		this.bestTeachers = new int[problem.sections()];
+	}
+
+	// Runs the workers in the pool, which should have one thread per worker, and returns the best timetable found
+	public Timetable run(ForkJoinPool pool) {
+		startedAt = System.nanoTime();
+		lastImprovementAt = startedAt;
+		SplittableRandom seeds = new SplittableRandom(seed);
+		List<TimetableWorker> tasks = new ArrayList<>(workers);
+		for (int i = 0; i < workers; i++) {
+			tasks.add(new TimetableWorker(this, problem, seeds.split()));
+		}
+		pool.invoke(new RecursiveAction() {
+			@Override
+			protected void compute() {
+				invokeAll(tasks);
+			}
+		});
+		stopped = true;
+		SearchState best = new SearchState(problem);
+		synchronized (this) {
+			best.load(bestSlots, bestRooms, bestTeachers);
+		}
+		return best.toTimetable();
+	}
+
+	public void cancel() {
+		cancelled = true;
+	}
+
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	public TimetableJobView.Progress progress() {
+		long elapsed = startedAt == 0 ? 0 : Duration.ofNanos(System.nanoTime() - startedAt).toMillis();
+		return new TimetableJobView.Progress(elapsed, workers, iterations.sum(), restarts.sum(), bestClashes, bestSameDayRepeats);
+	}
+
+	boolean shouldStop() {
+		if (stopped) {
+			return true;
+		}
+		long now = System.nanoTime();
+		if (cancelled || now - startedAt >= timeLimitNanos
+				|| bestClashes == 0 && (bestSameDayRepeats <= problem.unavoidableRepeats || now - lastImprovementAt >= settleNanos)) {
+			stopped = true;
+		}
+		return stopped;
+	}
+
+	void addIterations(long count) {
+		iterations.add(count);
+	}
+
+	// Keeps the state if it is the best timetable so far
+	void offer(SearchState state) {
+		long cost = state.cost();
+		if (cost >= bestCost) {
+			return;
+		}
+		synchronized (this) {
+			if (cost < bestCost) {
+				state.copyTo(bestSlots, bestRooms, bestTeachers);
+				bestCost = cost;
+				bestClashes = state.clashes();
+				bestSameDayRepeats = state.sameDayRepeats();
+				lastImprovementAt = System.nanoTime();
+			}
+		}
+	}
+
+	// Replaces the state with the best timetable so far
+	void restartFromBest(SearchState state) {
+		synchronized (this) {
+			state.load(bestSlots, bestRooms, bestTeachers);
+		}
+		restarts.increment();
+	}
+}
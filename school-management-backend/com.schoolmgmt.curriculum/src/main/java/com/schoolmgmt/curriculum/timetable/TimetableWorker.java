@@ -0,0 +1,189 @@
+package com.schoolmgmt.curriculum.timetable;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * One tabu search of a {@link TimetableSearch}. Each step takes a lesson that clashes (or, once nothing
+ * clashes, one that repeats a day) and makes the best move for it that is not tabu: another slot, a free
+ * room in its slot, or another teacher for its section. Moving a lesson out of a slot makes moving it back
+ * tabu for a few steps, unless that would beat this worker's best. An occasional random move, and a restart
+ * from the shared best after a long stall, keep it from circling.
+ */
+final class TimetableWorker extends RecursiveAction {
+
+	private static final int CHECK_INTERVAL = 1024;
+	private static final int MIN_TABU_TENURE = 10;
+	private static final int TABU_TENURE_SPREAD = 10;
+	// One step in this many is a random move
+	private static final int RANDOM_MOVE_ODDS = 50;
+	// Steps without improving this worker's best, per lesson, before it restarts from the shared best
+	private static final int STALL_STEPS_PER_LESSON = 50;
+	// Lessons moved at random after a restart, per lesson
+	private static final int PERTURBATION_DIVISOR = 100;
+
+	private final TimetableSearch search;
+	private final TimetableProblem problem;
+	private final SplittableRandom random;
+
+	TimetableWorker(TimetableSearch search, TimetableProblem problem, SplittableRandom random) {
+		this.search = search;
+		this.problem = problem;
+		this.random = random;
+	}
+
+	@Override
+	protected void compute() {
+		SearchState state = SearchState.greedy(problem, random);
+		search.offer(state);
+
+		int slots = problem.slots;
+		long[] tabuUntil = new long[problem.lessons() * slots];
+		int[] candidates = new int[problem.lessons()];
+		int candidateCount = 0;
+		long best = state.cost();
+		long lastImprovement = 0;
+		long stallSteps = (long) STALL_STEPS_PER_LESSON * problem.lessons();
+
+		for (long step = 0; ; step++) {
+			if (step % CHECK_INTERVAL == 0) {
+				search.addIterations(step == 0 ? 0 : CHECK_INTERVAL);
+				if (search.shouldStop()) {
+					return;
+				}
+				if (step - lastImprovement > stallSteps) {
+					search.restartFromBest(state);
+					perturb(state);
+					Arrays.fill(tabuUntil, 0);
+					best = state.cost();
+					lastImprovement = step;
+					candidateCount = 0;
+				}
+			}
+
+			if (candidateCount == 0) {
+				candidateCount = collectCandidates(state, candidates);
+				if (candidateCount == 0) {
+					// Nothing clashes or repeats a day
+					search.offer(state);
+					return;
+				}
+			}
+			int pick = random.nextInt(candidateCount);
+			int lesson = candidates[pick];
+			candidates[pick] = candidates[--candidateCount];
+			boolean clashing = state.clashes(lesson);
+			if (!clashing && (state.clashes() > 0 || !state.repeatsDay(lesson))) {
+				continue; // fixed by an earlier move
+			}
+
+			move(state, lesson, clashing, tabuUntil, step, best);
+			if (state.cost() < best) {
+				best = state.cost();
+				lastImprovement = step;
+				search.offer(state);
+			}
+		}
+	}
+
+	// The lessons that clash, or once none do, those on a day their section already meets
+	private static int collectCandidates(SearchState state, int[] candidates) {
+		boolean clashing = state.clashes() > 0;
+		int count = 0;
+		for (int lesson = 0; lesson < candidates.length; lesson++) {
+			if (clashing ? state.clashes(lesson) : state.repeatsDay(lesson)) {
+				candidates[count++] = lesson;
+			}
+		}
+		return count;
+	}
+
+	private void move(SearchState state, int lesson, boolean clashing, long[] tabuUntil, long step, long best) {
+		int slots = problem.slots;
+		int section = state.sectionOf(lesson);
+		int from = state.slotOf[lesson];
+
+		if (random.nextInt(RANDOM_MOVE_ODDS) == 0) {
+			int to = random.nextInt(slots);
+			if (to != from && !state.meets(section, to)) {
+				state.move(lesson, to, state.roomFor(lesson, to));
+				tabuUntil[lesson * slots + from] = step + tenure();
+			}
+			return;
+		}
+
+		// A room clash with another room free in the same slot needs nothing else
+		if (state.roomClashes(lesson)) {
+			int room = state.freeRoomInPlace(lesson);
+			if (room >= 0) {
+				state.changeRoom(lesson, room);
+				return;
+			}
+		}
+
+		long current = state.cost();
+		long bestDelta = Long.MAX_VALUE;
+		int bestSlot = -1;
+		int bestRoom = -1;
+		int ties = 0;
+		for (int to = 0; to < slots; to++) {
+			if (to == from || state.meets(section, to)) {
+				continue;
+			}
+			int room = state.roomFor(lesson, to);
+			long delta = state.moveDelta(lesson, to, room);
+			if (tabuUntil[lesson * slots + to] > step && current + delta >= best) {
+				continue;
+			}
+			if (delta < bestDelta) {
+				bestDelta = delta;
+				bestSlot = to;
+				bestRoom = room;
+				ties = 1;
+			} else if (delta == bestDelta && random.nextInt(++ties) == 0) {
+				bestSlot = to;
+				bestRoom = room;
+			}
+		}
+
+		// A teacher clash may be better resolved by another teacher of the subject taking the section
+		if (clashing && state.teacherClashes(lesson)) {
+			int bestTeacher = -1;
+			for (int teacher : problem.teachers[section]) {
+				if (teacher == state.teacherOf[section]) {
+					continue;
+				}
+				long delta = state.teacherChangeDelta(section, teacher);
+				if (delta < bestDelta) {
+					bestDelta = delta;
+					bestTeacher = teacher;
+				}
+			}
+			if (bestTeacher >= 0) {
+				state.changeTeacher(section, bestTeacher);
+				return;
+			}
+		}
+
+		if (bestSlot >= 0) {
+			state.move(lesson, bestSlot, bestRoom);
+			tabuUntil[lesson * slots + from] = step + tenure();
+		}
+	}
+
+	private void perturb(SearchState state) {
+		int moves = Math.max(1, problem.lessons() / PERTURBATION_DIVISOR);
+		for (int i = 0; i < moves; i++) {
+			int lesson = random.nextInt(problem.lessons());
+			int to = random.nextInt(problem.slots);
+			if (to != state.slotOf[lesson] && !state.meets(state.sectionOf(lesson), to)) {
+				state.move(lesson, to, state.roomFor(lesson, to));
+			}
+		}
+	}
+
+	private int tenure() {
+		return MIN_TABU_TENURE + random.nextInt(TABU_TENURE_SPREAD);
+	}
+}
@@ -0,0 +1,150 @@
+package com.schoolmgmt.curriculum.controller;
+
+import com.schoolmgmt.curriculum.model.Course;
+import com.schoolmgmt.curriculum.model.CurriculumRevision;
+import com.schoolmgmt.curriculum.model.Prerequisite;
+import com.schoolmgmt.curriculum.prerequisites.PrerequisiteGraph;
+import com.schoolmgmt.curriculum.repository.CourseRepository;
+import com.schoolmgmt.curriculum.repository.CurriculumRevisionRepository;
+import com.schoolmgmt.curriculum.repository.PrerequisiteRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CourseControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private PrerequisiteRepository prerequisiteRepository;
+
+	@Autowired
+	private CurriculumRevisionRepository revisionRepository;
+
+	@Autowired
+	private PrerequisiteGraph prerequisiteGraph;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		for (Course course : courseRepository.findAll()) {
+			mockMvc.perform(delete("/api/courses/{code}", course.getCode())).andExpect(status().isNoContent());
+		}
+		for (String code : new String[]{"MATH-101", "MATH-201", "MATH-301", "PHYS-101"}) {
+			mockMvc.perform(post("/api/courses").contentType(MediaType.APPLICATION_JSON)
+							.content("{\"code\": \"" + code + "\", \"title\": \"" + code + "\"}"))
+					.andExpect(status().isCreated());
+		}
+		require("MATH-201", "MATH-101").andExpect(status().isNoContent());
+		require("MATH-301", "MATH-201").andExpect(status().isNoContent());
+		require("PHYS-101", "MATH-101").andExpect(status().isNoContent());
+	}
+
+	@Test
+	void eligibilityIsAnsweredFromTheIndexWithoutSql() throws Exception {
+		prerequisiteGraph.current();
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		checkEligibility("MATH-301", "[\"MATH-101\"]")
+				.andExpect(jsonPath("$.eligible").value(false))
+				.andExpect(jsonPath("$.missing", contains("MATH-201")));
+		checkEligibility("MATH-301", "[\"MATH-101\", \"MATH-201\"]")
+				.andExpect(jsonPath("$.eligible").value(true))
+				.andExpect(jsonPath("$.missing").isEmpty());
+		mockMvc.perform(get("/api/courses/{code}/prerequisites", "MATH-301").param("transitive", "true"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$", contains("MATH-101", "MATH-201")));
+
+		assertThat(statistics.getPrepareStatementCount()).isZero();
+	}
+
+	@Test
+	void cyclesAreRejectedAndRemovalsTakeEffect() throws Exception {
+		require("MATH-101", "MATH-301").andExpect(status().isConflict());
+		require("MATH-101", "MATH-101").andExpect(status().isConflict());
+		require("MATH-301", "MATH-201").andExpect(status().isNoContent());
+		require("MATH-301", "NOPE-999").andExpect(status().isNotFound());
+
+		mockMvc.perform(delete("/api/courses/{code}/prerequisites/{prerequisite}", "MATH-201", "MATH-101"))
+				.andExpect(status().isNoContent());
+		checkEligibility("MATH-301", "[\"MATH-201\"]").andExpect(jsonPath("$.eligible").value(true));
+		// Now acyclic, so allowed
+		require("MATH-101", "MATH-301").andExpect(status().isNoContent());
+
+		mockMvc.perform(delete("/api/courses/{code}", "MATH-201")).andExpect(status().isNoContent());
+		checkEligibility("MATH-301", "[]").andExpect(jsonPath("$.eligible").value(true));
+		checkEligibility("MATH-201", "[]").andExpect(status().isNotFound());
+	}
+
+	@Test
+	void changesMadeByAnotherInstanceArePickedUp() throws Exception {
+		long revision = prerequisiteGraph.current().revision();
+
+		// What another instance's write leaves in the database: a new edge and a bumped revision
+		transactionTemplate.executeWithoutResult(status -> {
+			CurriculumRevision row = revisionRepository.lockById(CurriculumRevision.ID).orElseThrow();
+			prerequisiteRepository.save(new Prerequisite(null, courseRepository.findByCode("PHYS-101").orElseThrow(),
+					courseRepository.findByCode("MATH-201").orElseThrow()));
+			row.setRevision(row.getRevision() + 1);
+		});
+		checkEligibility("PHYS-101", "[\"MATH-101\"]").andExpect(jsonPath("$.eligible").value(true));
+
+		prerequisiteGraph.refresh();
+		checkEligibility("PHYS-101", "[\"MATH-101\"]")
+				.andExpect(jsonPath("$.eligible").value(false))
+				.andExpect(jsonPath("$.missing", contains("MATH-201")))
+				.andExpect(jsonPath("$.graphRevision").value(revision + 1));
+
+		// A stale index is reloaded under the lock before a write is checked against it: the edge only the
+		// database knows about would close the cycle
+		transactionTemplate.executeWithoutResult(status -> {
+			CurriculumRevision row = revisionRepository.lockById(CurriculumRevision.ID).orElseThrow();
+			prerequisiteRepository.save(new Prerequisite(null, courseRepository.findByCode("MATH-301").orElseThrow(),
+					courseRepository.findByCode("PHYS-101").orElseThrow()));
+			row.setRevision(row.getRevision() + 1);
+		});
+		require("PHYS-101", "MATH-301").andExpect(status().isConflict());
+	}
+
+	private ResultActions require(String course, String prerequisite) throws Exception {
+		return mockMvc.perform(put("/api/courses/{code}/prerequisites/{prerequisite}", course, prerequisite));
+	}
+
+	private ResultActions checkEligibility(String course, String completed) throws Exception {
+		return mockMvc.perform(post("/api/courses/{code}/eligibility", course)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"completed\": " + completed + "}"));
+	}
+}
@@ -0,0 +1,111 @@
+package com.schoolmgmt.curriculum.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TimetableControllerTests {
+
+	// Teacher 2 is inactive, so teacher 1 teaches both sections, which share student s2
+	private static final String REQUEST = """
+			{
+			  "days": 2, "periodsPerDay": 2,
+			  "rooms": [{"id": "R1", "capacity": 30}],
+			  "teachers": [
+			    {"id": 1, "firstName": "Ada", "subject": "Mathematics", "active": true},
+			    {"id": 2, "firstName": "Alan", "subject": "Mathematics", "active": false}
+			  ],
+			  "sections": [
+			    {"classId": "MATH-101", "subject": "Mathematics", "periodsPerWeek": 2, "studentIds": ["s1", "s2"]},
+			    {"classId": "MATH-201", "subject": "Mathematics", "periodsPerWeek": 2, "studentIds": ["s2", "s3"]}
+			  ]
+			}
+			""";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void jobRunsInTheBackgroundAndReportsTheTimetable() throws Exception {
+		MvcResult submitted = mockMvc.perform(post("/api/timetables").contentType(MediaType.APPLICATION_JSON).content(REQUEST))
+				.andExpect(status().isAccepted())
+				.andExpect(jsonPath("$.state").exists())
+				.andReturn();
+		String id = objectMapper.readTree(submitted.getResponse().getContentAsString()).get("id").asText();
+		assertThat(submitted.getResponse().getHeader("Location")).isEqualTo("/api/timetables/" + id);
+
+		JsonNode job = awaitFinished(id);
+		assertThat(job.get("state").asText()).isEqualTo("COMPLETED");
+		assertThat(job.at("/progress/bestClashes").asInt()).isZero();
+		JsonNode timetable = job.get("timetable");
+		assertThat(timetable.get("feasible").asBoolean()).isTrue();
+		assertThat(timetable.get("sameDayRepeats").asInt()).isZero();
+		assertThat(timetable.at("/sections/0/teacherId").asLong()).isEqualTo(1);
+		// Four lessons of one teacher in four periods: every period is used exactly once
+		assertThat(timetable.findValues("day")).hasSize(4);
+	}
+
+	@Test
+	void unsatisfiableAndInvalidRequestsAreRejected() throws Exception {
+		mockMvc.perform(post("/api/timetables").contentType(MediaType.APPLICATION_JSON)
+						.content(REQUEST.replace("\"periodsPerWeek\": 2, \"studentIds\": [\"s2\"", "\"periodsPerWeek\": 3, \"studentIds\": [\"s2\"")))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(post("/api/timetables").contentType(MediaType.APPLICATION_JSON)
+						.content(REQUEST.replace("\"days\": 2", "\"days\": 0")))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/timetables/{id}", UUID.randomUUID())).andExpect(status().isNotFound());
+		mockMvc.perform(delete("/api/timetables/{id}", UUID.randomUUID())).andExpect(status().isNotFound());
+	}
+
+	@Test
+	void finishedJobIsUnchangedByCancelling() throws Exception {
+		MvcResult submitted = mockMvc.perform(post("/api/timetables").contentType(MediaType.APPLICATION_JSON).content(REQUEST))
+				.andExpect(status().isAccepted())
+				.andExpect(header().exists("Location"))
+				.andReturn();
+		String id = objectMapper.readTree(submitted.getResponse().getContentAsString()).get("id").asText();
+		awaitFinished(id);
+
+		mockMvc.perform(delete("/api/timetables/{id}", id))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.state").value("COMPLETED"));
+	}
+
+	private JsonNode awaitFinished(String id) throws Exception {
+		long deadline = System.nanoTime() + 30_000_000_000L;
+		while (true) {
+			JsonNode job = objectMapper.readTree(mockMvc.perform(get("/api/timetables/{id}", id))
+					.andExpect(status().isOk())
+					.andReturn().getResponse().getContentAsString());
+			String state = job.get("state").asText();
+			if (!state.equals("QUEUED") && !state.equals("RUNNING")) {
+				return job;
+			}
+			assertThat(System.nanoTime()).as("job %s still %s", id, state).isLessThan(deadline);
+			Thread.sleep(50);
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package com.schoolmgmt.curriculum.prerequisites;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PrerequisiteIndexTests {
+
+	// CALC-2 -> CALC-1 -> ALG; PHYS-2 -> PHYS-1 -> ALG, and PHYS-2 -> CALC-2
+	private static final List<String> COURSES = List.of("ALG", "CALC-1", "CALC-2", "PHYS-1", "PHYS-2", "ART");
+	private static final List<PrerequisiteEdge> EDGES = List.of(
+			new PrerequisiteEdge("CALC-1", "ALG"),
+			new PrerequisiteEdge("CALC-2", "CALC-1"),
+			new PrerequisiteEdge("PHYS-1", "ALG"),
+			new PrerequisiteEdge("PHYS-2", "PHYS-1"),
+			new PrerequisiteEdge("PHYS-2", "CALC-2"));
+
+	@Test
+	void closureListsEveryPrerequisiteInTakingOrder() {
+		PrerequisiteIndex index = PrerequisiteIndex.build(7, COURSES, EDGES);
+
+		assertThat(index.revision()).isEqualTo(7);
+		assertThat(index.prerequisitesOf("PHYS-2", false)).containsExactly("PHYS-1", "CALC-2");
+		assertThat(index.prerequisitesOf("PHYS-2", true)).containsExactly("ALG", "CALC-1", "PHYS-1", "CALC-2");
+		assertThat(index.prerequisitesOf("ART", true)).isEmpty();
+	}
+
+	@Test
+	void eligibilityNeedsEveryTransitivePrerequisite() {
+		PrerequisiteIndex index = PrerequisiteIndex.build(1, COURSES, EDGES);
+
+		assertThat(index.missingPrerequisites("PHYS-2", List.of("ALG", "CALC-1", "CALC-2", "PHYS-1"))).isEmpty();
+		// CALC-2 was completed, but not CALC-1 which it requires
+		assertThat(index.missingPrerequisites("PHYS-2", List.of("ALG", "CALC-2", "PHYS-1", "UNKNOWN-101")))
+				.containsExactly("CALC-1");
+		assertThat(index.missingPrerequisites("CALC-2", List.of())).containsExactly("ALG", "CALC-1");
+		assertThat(index.missingPrerequisites("ALG", List.of())).isEmpty();
+	}
+
+	@Test
+	void cyclesAreFoundBeforeTheyAreAdded() {
+		PrerequisiteIndex index = PrerequisiteIndex.build(1, COURSES, EDGES);
+
+		assertThat(index.cycleThrough("ALG", "PHYS-2")).hasValue(List.of("ALG", "PHYS-2", "CALC-2", "CALC-1", "ALG"));
+		assertThat(index.cycleThrough("ART", "ART")).hasValue(List.of("ART", "ART"));
+		assertThat(index.cycleThrough("ART", "PHYS-2")).isEmpty();
+		assertThatThrownBy(() -> index.withPrerequisite("CALC-1", "PHYS-2", 2)).isInstanceOf(IllegalArgumentException.class);
+
+		List<PrerequisiteEdge> cyclic = new ArrayList<>(EDGES);
+		cyclic.add(new PrerequisiteEdge("ALG", "CALC-2"));
+		assertThatThrownBy(() -> PrerequisiteIndex.build(1, COURSES, cyclic))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("ALG");
+	}
+
+	@Test
+	void derivedIndexesLeaveTheOriginalUntouched() {
+		PrerequisiteIndex index = PrerequisiteIndex.build(1, COURSES, EDGES);
+
+		PrerequisiteIndex changed = index.withPrerequisite("ALG", "ART", 2).withoutCourse("CALC-1", 3);
+
+		// CALC-2 required only CALC-1, so it now requires nothing
+		assertThat(changed.prerequisitesOf("PHYS-2", true)).containsExactly("ART", "CALC-2", "ALG", "PHYS-1");
+		assertThat(changed.contains("CALC-1")).isFalse();
+		assertThat(index.prerequisitesOf("PHYS-2", true)).containsExactly("ALG", "CALC-1", "PHYS-1", "CALC-2");
+		assertThat(index.contains("CALC-1")).isTrue();
+	}
+
+	@Test
+	void incrementalChangesMatchAFullRebuild() {
+		Random random = new Random(42);
+		List<String> courses = new ArrayList<>();
+		Set<PrerequisiteEdge> edges = new LinkedHashSet<>();
+		PrerequisiteIndex index = PrerequisiteIndex.EMPTY;
+		long revision = 0;
+		int created = 0;
+
+		for (int step = 0; step < 2000; step++) {
+			int operation = random.nextInt(10);
+			if (courses.size() < 2 || operation == 0) {
+				String course = "C" + created++;
+				courses.add(course);
+				index = index.withCourse(course, ++revision);
+			} else if (operation == 1 && courses.size() > 10) {
+				String course = courses.remove(random.nextInt(courses.size()));
+				edges.removeIf(edge -> edge.course().equals(course) || edge.prerequisite().equals(course));
+				index = index.withoutCourse(course, ++revision);
+			} else if (operation == 2 && !edges.isEmpty()) {
+				PrerequisiteEdge edge = new ArrayList<>(edges).get(random.nextInt(edges.size()));
+				edges.remove(edge);
+				index = index.withoutPrerequisite(edge.course(), edge.prerequisite(), ++revision);
+			} else {
+				String course = courses.get(random.nextInt(courses.size()));
+				String prerequisite = courses.get(random.nextInt(courses.size()));
+				if (index.cycleThrough(course, prerequisite).isEmpty() && edges.add(new PrerequisiteEdge(course, prerequisite))) {
+					index = index.withPrerequisite(course, prerequisite, ++revision);
+				}
+			}
+
+			if (step % 100 == 99) {
+				assertThat(index.sameGraphAs(PrerequisiteIndex.build(revision, courses, edges)))
+						.as("index after step %d", step).isTrue();
+			}
+		}
+		assertThat(edges).hasSizeGreaterThan(30);
+	}
+}
@@ -0,0 +1,91 @@
+package com.schoolmgmt.curriculum.timetable;
+
+import com.schoolmgmt.curriculum.dto.TimetableRequest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A generated high school: grades of homerooms that take their core subjects together, and option blocks of
+ * electives each student picks one from, taught in sections mixing students across the grade's homerooms.
+ * Teachers per subject are in proportion to the periods it is taught. Each homeroom has 28 periods of
+ * lessons a week.
+ */
+final class SchoolFixture {
+
+	private static final String[] CORE_SUBJECTS = {"Mathematics", "English", "Science", "History", "Physical Education"};
+	private static final int[] CORE_PERIODS = {5, 5, 4, 3, 2};
+	private static final String[][] OPTION_BLOCKS = {{"Art", "Music"}, {"French", "Spanish"}, {"Computing", "Geography"}};
+	private static final int ELECTIVE_PERIODS = 3;
+	private static final int SECTION_SIZE = 28;
+
+	private SchoolFixture() {
+	}
+
+	static TimetableRequest school(int grades, int studentsPerGrade, int teachers, int rooms, int periodsPerDay, long seed) {
+		Random random = new Random(seed);
+		List<TimetableRequest.Section> sections = new ArrayList<>();
+		for (int grade = 1; grade <= grades; grade++) {
+			List<String> students = new ArrayList<>();
+			for (int s = 0; s < studentsPerGrade; s++) {
+				students.add("G" + grade + "-S" + s);
+			}
+			int homerooms = (studentsPerGrade + SECTION_SIZE - 1) / SECTION_SIZE;
+			for (int h = 0; h < homerooms; h++) {
+				List<String> homeroom = students.subList(h * studentsPerGrade / homerooms, (h + 1) * studentsPerGrade / homerooms);
+				for (int c = 0; c < CORE_SUBJECTS.length; c++) {
+					sections.add(new TimetableRequest.Section("G" + grade + "-" + CORE_SUBJECTS[c] + "-" + (h + 1),
+							CORE_SUBJECTS[c], CORE_PERIODS[c], List.copyOf(homeroom)));
+				}
+			}
+			for (String[] block : OPTION_BLOCKS) {
+				List<List<String>> choices = new ArrayList<>();
+				for (String ignored : block) {
+					choices.add(new ArrayList<>());
+				}
+				for (String student : students) {
+					choices.get(random.nextInt(block.length)).add(student);
+				}
+				for (int e = 0; e < block.length; e++) {
+					List<String> chose = choices.get(e);
+					Collections.shuffle(chose, random);
+					int count = (chose.size() + SECTION_SIZE - 1) / SECTION_SIZE;
+					for (int k = 0; k < count; k++) {
+						sections.add(new TimetableRequest.Section("G" + grade + "-" + block[e] + "-" + (k + 1), block[e],
+								ELECTIVE_PERIODS, List.copyOf(chose.subList(k * chose.size() / count, (k + 1) * chose.size() / count))));
+					}
+				}
+			}
+		}
+
+		List<String> subjects = new ArrayList<>();
+		List<Integer> periods = new ArrayList<>();
+		int total = 0;
+		for (TimetableRequest.Section section : sections) {
+			int index = subjects.indexOf(section.subject());
+			if (index < 0) {
+				subjects.add(section.subject());
+				periods.add(0);
+				index = subjects.size() - 1;
+			}
+			periods.set(index, periods.get(index) + section.periodsPerWeek());
+			total += section.periodsPerWeek();
+		}
+		List<TimetableRequest.Teacher> staff = new ArrayList<>();
+		long id = 1;
+		for (int i = 0; i < subjects.size(); i++) {
+			long count = Math.max(1, Math.round((double) teachers * periods.get(i) / total));
+			for (int t = 0; t < count; t++) {
+				staff.add(new TimetableRequest.Teacher(id++, subjects.get(i), true));
+			}
+		}
+
+		List<TimetableRequest.Room> roomList = new ArrayList<>();
+		for (int r = 1; r <= rooms; r++) {
+			roomList.add(new TimetableRequest.Room("R" + r, SECTION_SIZE + random.nextInt(8)));
+		}
+		return new TimetableRequest(5, periodsPerDay, roomList, staff, sections, null);
+	}
+}
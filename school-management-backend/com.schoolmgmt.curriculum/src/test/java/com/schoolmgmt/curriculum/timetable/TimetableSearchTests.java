@@ -0,0 +1,130 @@
+package com.schoolmgmt.curriculum.timetable;
+
+import com.schoolmgmt.curriculum.dto.Timetable;
+import com.schoolmgmt.curriculum.dto.TimetableRequest;
+import com.schoolmgmt.curriculum.exception.BadRequestException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimetableSearchTests {
+
+	private static final int WORKERS = Runtime.getRuntime().availableProcessors();
+
+	private final ForkJoinPool pool = new ForkJoinPool(WORKERS);
+
+	@AfterEach
+	void tearDown() {
+		pool.shutdownNow();
+	}
+
+	@Test
+	void schoolOfTwoThousandStudentsIsScheduledWithoutClashesInUnderAMinute() {
+		// 4 grades of 500 students in 582 sections (2034 lessons a week), 150 teachers, 60 rooms, 40 periods
+		TimetableRequest request = SchoolFixture.school(4, 500, 150, 60, 8, 1);
+		TimetableSearch search = new TimetableSearch(TimetableProblem.compile(request), WORKERS,
+				Duration.ofSeconds(55), Duration.ofSeconds(2), 1);
+
+		long started = System.nanoTime();
+		Timetable timetable = search.run(pool);
+
+		assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofMinutes(1));
+		assertThat(timetable.feasible()).isTrue();
+		assertNothingClashes(request, timetable);
+		assertThat(search.progress().bestClashes()).isZero();
+	}
+
+	@Test
+	void sectionsSharingAStudentNeverMeetTogether() {
+		// Two periods: A and B share a student, so one of them has to meet in each, and C fits either
+		TimetableRequest request = new TimetableRequest(1, 2,
+				List.of(new TimetableRequest.Room("small", 2), new TimetableRequest.Room("large", 3)),
+				List.of(new TimetableRequest.Teacher(1L, "Maths", true), new TimetableRequest.Teacher(2L, " maths ", null),
+						new TimetableRequest.Teacher(3L, "Maths", false)),
+				List.of(new TimetableRequest.Section("A", "Maths", 1, List.of("s1", "s2", "s3")),
+						new TimetableRequest.Section("B", "Maths", 1, List.of("s3")),
+						new TimetableRequest.Section("C", "Maths", 1, List.of("s4"))),
+				null);
+
+		Timetable timetable = new TimetableSearch(TimetableProblem.compile(request), WORKERS, Duration.ofSeconds(10),
+				Duration.ofSeconds(1), 7).run(pool);
+
+		assertThat(timetable.feasible()).isTrue();
+		assertNothingClashes(request, timetable);
+		assertThat(timetable.sections()).allSatisfy(section -> assertThat(section.teacherId()).isIn(1L, 2L));
+		assertThat(timetable.sections().get(0).lessons().get(0).roomId()).isEqualTo("large");
+	}
+
+	@Test
+	void cancelledSearchStopsPromptlyWithTheBestSoFar() throws Exception {
+		// 30 periods for homerooms with 28 periods of lessons: too tight to solve within the test
+		TimetableRequest request = SchoolFixture.school(4, 500, 150, 70, 6, 2);
+		TimetableSearch search = new TimetableSearch(TimetableProblem.compile(request), WORKERS,
+				Duration.ofSeconds(50), Duration.ofSeconds(50), 1);
+
+		CompletableFuture<Timetable> running = CompletableFuture.supplyAsync(() -> search.run(pool));
+		Thread.sleep(500);
+		search.cancel();
+		Timetable timetable = running.get(5, TimeUnit.SECONDS);
+
+		assertThat(search.isCancelled()).isTrue();
+		assertThat(timetable.sections()).hasSameSizeAs(request.sections());
+		assertThat(search.progress().iterations()).isPositive();
+	}
+
+	@Test
+	void requestsNoTimetableCouldSatisfyAreRejected() {
+		List<TimetableRequest.Room> rooms = List.of(new TimetableRequest.Room("R1", 2));
+		List<TimetableRequest.Teacher> teachers = List.of(new TimetableRequest.Teacher(1L, "Art", true),
+				new TimetableRequest.Teacher(2L, "Music", false));
+
+		assertThatThrownBy(() -> TimetableProblem.compile(new TimetableRequest(1, 2, rooms, teachers,
+				List.of(new TimetableRequest.Section("M1", "Music", 1, List.of("s1"))), null)))
+				.isInstanceOf(BadRequestException.class)
+				.hasMessageContaining("No active teacher teaches Music");
+		assertThatThrownBy(() -> TimetableProblem.compile(new TimetableRequest(1, 2, rooms, teachers,
+				List.of(new TimetableRequest.Section("A1", "Art", 1, List.of("s1", "s2", "s3"))), null)))
+				.isInstanceOf(BadRequestException.class)
+				.hasMessageContaining("largest room holds 2");
+		assertThatThrownBy(() -> TimetableProblem.compile(new TimetableRequest(1, 2, rooms, teachers,
+				List.of(new TimetableRequest.Section("A1", "Art", 2, List.of("s1")),
+						new TimetableRequest.Section("A2", "Art", 1, List.of("s2"))), null)))
+				.isInstanceOf(BadRequestException.class)
+				.hasMessageContaining("its 1 active teachers have only 2 periods");
+	}
+
+	// Checks the timetable against the request itself rather than the solver's own counts
+	private static void assertNothingClashes(TimetableRequest request, Timetable timetable) {
+		Map<String, TimetableRequest.Section> sections = new HashMap<>();
+		request.sections().forEach(section -> sections.put(section.classId(), section));
+		Map<String, Integer> capacities = new HashMap<>();
+		request.rooms().forEach(room -> capacities.put(room.id(), room.capacity()));
+
+		Set<String> taken = new HashSet<>();
+		for (Timetable.ScheduledSection scheduled : timetable.sections()) {
+			TimetableRequest.Section section = sections.get(scheduled.classId());
+			assertThat(scheduled.lessons()).hasSize(section.periodsPerWeek());
+			for (Timetable.Lesson lesson : scheduled.lessons()) {
+				String when = lesson.day() + "/" + lesson.period();
+				assertThat(capacities.get(lesson.roomId())).isGreaterThanOrEqualTo(section.studentIds().size());
+				assertThat(taken.add("teacher " + scheduled.teacherId() + " " + when)).as("teacher clash").isTrue();
+				assertThat(taken.add("room " + lesson.roomId() + " " + when)).as("room clash").isTrue();
+				for (String student : section.studentIds()) {
+					assertThat(taken.add("student " + student + " " + when)).as("student clash").isTrue();
+				}
+			}
+		}
+	}
+}
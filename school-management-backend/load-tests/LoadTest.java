@@ -0,0 +1,139 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load generator: N clients, each issuing GET requests back to back for a fixed
+ * duration, then reports throughput and latency percentiles. Clients run on virtual threads, so
+ * thousands of them cost next to nothing on the load-generating side.
+ *
+ * <pre>
+ * java load-tests/LoadTest.java --url http://localhost:3004/api/students --clients 1000 --duration 60 --warmup 15
+ * </pre>
+ *
+ * Needs JDK 21. Prints one summary line per run; add --csv to get a machine-readable line instead.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        String url = null;
+        int clients = 1000;
+        int durationSeconds = 60;
+        int warmupSeconds = 15;
+        boolean csv = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--url" -> url = args[++i];
+                case "--clients" -> clients = Integer.parseInt(args[++i]);
+                case "--duration" -> durationSeconds = Integer.parseInt(args[++i]);
+                case "--warmup" -> warmupSeconds = Integer.parseInt(args[++i]);
+                case "--csv" -> csv = true;
+                default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+        if (url == null) {
+            throw new IllegalArgumentException("--url is required");
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Accept", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+
+        if (warmupSeconds > 0) {
+            run(client, request, clients, warmupSeconds);
+        }
+        Result result = run(client, request, clients, durationSeconds);
+        result.print(url, clients, durationSeconds, csv);
+    }
+
+    private static Result run(HttpClient client, HttpRequest request, int clients, int seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<Recorder> recorders = new ArrayList<>(clients);
+        List<Thread> threads = new ArrayList<>(clients);
+
+        for (int c = 0; c < clients; c++) {
+            Recorder recorder = new Recorder();
+            recorders.add(recorder);
+            threads.add(Thread.ofVirtual().start(() -> {
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                        continue;
+                    }
+                    recorder.record(System.nanoTime() - start);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        long[] latencies = new long[recorders.stream().mapToInt(recorder -> recorder.count).sum()];
+        int offset = 0;
+        for (Recorder recorder : recorders) {
+            System.arraycopy(recorder.samples, 0, latencies, offset, recorder.count);
+            offset += recorder.count;
+        }
+        Arrays.sort(latencies);
+        return new Result(latencies, errors.get(), seconds);
+    }
+
+    // Written by exactly one client thread and read after join(), so needs no synchronization
+    private static final class Recorder {
+        long[] samples = new long[1024];
+        int count;
+
+        void record(long nanos) {
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, samples.length * 2);
+            }
+            samples[count++] = nanos;
+        }
+    }
+
+    private record Result(long[] latencies, long errors, int seconds) {
+
+        double percentileMillis(double percentile) {
+            if (latencies.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * latencies.length) - 1;
+            return latencies[Math.max(0, Math.min(index, latencies.length - 1))] / 1_000_000.0;
+        }
+
+        void print(String url, int clients, int duration, boolean csv) {
+            double throughput = latencies.length / (double) seconds;
+            if (csv) {
+                System.out.printf("%s,%d,%d,%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f%n", url, clients, duration,
+                        latencies.length, errors, throughput, percentileMillis(50), percentileMillis(90),
+                        percentileMillis(99), percentileMillis(100));
+            } else {
+                System.out.printf("%s clients=%d requests=%d errors=%d throughput=%.1f req/s "
+                                + "p50=%.2fms p90=%.2fms p99=%.2fms max=%.2fms%n", url, clients, latencies.length, errors,
+                        throughput, percentileMillis(50), percentileMillis(90), percentileMillis(99), percentileMillis(100));
+            }
+        }
+    }
+}
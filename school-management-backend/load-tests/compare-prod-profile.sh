@@ -0,0 +1,28 @@
+#!/usr/bin/env bash
+# Measures the prod profile (no SQL logging, tuned Hikari pool, pgJDBC statement cache, Hibernate
+# plan cache) against the default development settings under the same load.
+#
+# Usage:
+#   load-tests/compare-prod-profile.sh <service jar> <endpoint url> [clients] [duration seconds] [rounds]
+#
+# Each round runs both profiles, in alternating order. A single run on a loaded machine can vary by 20%
+# or more, so compare the rounds rather than one pair. The prod pool times out after 3 s instead of 5 s,
+# so past saturation more of the excess comes back as errors instead of latency.
+#
+# The prod profile validates the schema instead of creating it, so start the default run first
+# against an empty database (it creates the tables), or point both runs at an existing schema.
+# SPRING_DATASOURCE_URL / _USERNAME / _PASSWORD must be exported for the prod run.
+set -euo pipefail
+
+SCRIPT_DIR=$(cd "$(dirname "$0")" && pwd)
+CLIENTS=${3:-500}
+DURATION=${4:-60}
+ROUNDS=${5:-2}
+
+echo "url,clients,duration,requests,errors,throughput,p50_ms,p90_ms,p99_ms,max_ms,run"
+for ROUND in $(seq 1 "$ROUNDS"); do
+    if [ $((ROUND % 2)) -eq 1 ]; then PROFILES="default prod"; else PROFILES="prod default"; fi
+    for PROFILE in $PROFILES; do
+        "$SCRIPT_DIR/run-against-service.sh" "$PROFILE" "$1" "$2" "$CLIENTS" "$DURATION" SPRING_PROFILES_ACTIVE="$PROFILE"
+    done
+done
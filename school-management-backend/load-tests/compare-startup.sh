@@ -0,0 +1,58 @@
+#!/usr/bin/env bash
+# Measures time to first request and resident memory of a service started three ways: the plain fat
+# jar, the AOT-processed jar (-Paot) extracted and run with a CDS archive as the Dockerfile does, and
+# optionally the native executable (-Pnative native:compile).
+#
+# Usage:
+#   load-tests/compare-startup.sh <fat jar> <aot jar> <endpoint url> [native executable] [runs]
+#
+# Time to first request runs from launching the process to the first 200 from the endpoint, polled
+# every 20 ms; RSS is read once that request has been answered. The datasource comes from the
+# environment (SPRING_DATASOURCE_URL etc.) and must already hold the schema.
+set -euo pipefail
+
+FAT_JAR=$1
+AOT_JAR=$2
+URL=$3
+NATIVE=${4:-}
+RUNS=${5:-3}
+WORK=$(mktemp -d)
+trap 'rm -rf "$WORK"' EXIT
+
+# Launches the command, prints "<label>,<run>,<ms to first request>,<rss MiB>"
+measure() {
+    local label=$1 run=$2
+    shift 2
+    local started
+    started=$(date +%s%N)
+    "$@" > "/tmp/startup-$label.log" 2>&1 &
+    local pid=$!
+    until curl -sf -o /dev/null "$URL"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "$label exited before answering; see /tmp/startup-$label.log" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    local elapsed=$(( ($(date +%s%N) - started) / 1000000 ))
+    local rss
+    rss=$(awk '/VmRSS/ { printf "%d", $2 / 1024 }' "/proc/$pid/status")
+    echo "$label,$run,$elapsed,$rss"
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+}
+
+# What the Dockerfile does: extract the jar and record the classes loaded up to the context refresh
+java -Djarmode=tools -jar "$AOT_JAR" extract --destination "$WORK/aot" > /dev/null
+AOT_APP=$(ls "$WORK"/aot/*.jar)
+java -XX:ArchiveClassesAtExit="$WORK/aot/app.jsa" -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+    -jar "$AOT_APP" > /tmp/startup-cds-training.log 2>&1
+
+echo "variant,run,first_request_ms,rss_mib"
+for run in $(seq 1 "$RUNS"); do
+    measure jar "$run" java -jar "$FAT_JAR"
+    measure aot-cds "$run" java -XX:SharedArchiveFile="$WORK/aot/app.jsa" -Dspring.aot.enabled=true -jar "$AOT_APP"
+    if [ -n "$NATIVE" ]; then
+        measure native "$run" "$NATIVE"
+    fi
+done
@@ -0,0 +1,33 @@
+#!/usr/bin/env bash
+# Starts a service jar with extra environment, waits until it answers, runs LoadTest.java against it
+# and prints one CSV result line suffixed with a label. Used by the compare-*.sh scripts.
+#
+# Usage:
+#   load-tests/run-against-service.sh <label> <service jar> <endpoint url> <clients> <duration> [VAR=value ...]
+set -euo pipefail
+
+LABEL=$1
+JAR=$2
+URL=$3
+CLIENTS=$4
+DURATION=$5
+shift 5
+SCRIPT_DIR=$(cd "$(dirname "$0")" && pwd)
+BASE_URL=$(echo "$URL" | sed -E 's#(https?://[^/]+).*#\1#')
+
+env "$@" java -jar "$JAR" > "/tmp/loadtest-service-$LABEL.log" 2>&1 &
+PID=$!
+trap 'kill $PID 2>/dev/null || true' EXIT
+
+for _ in $(seq 1 120); do
+    if curl -sf "$BASE_URL/actuator/health" > /dev/null || curl -sf -o /dev/null "$URL"; then
+        break
+    fi
+    sleep 1
+done
+
+RESULT=$(java "$SCRIPT_DIR/LoadTest.java" --url "$URL" --clients "$CLIENTS" --duration "$DURATION" --warmup 15 --csv)
+echo "$RESULT,$LABEL"
+
+kill "$PID"
+wait "$PID" 2>/dev/null || true
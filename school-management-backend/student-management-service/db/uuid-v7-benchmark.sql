@@ -0,0 +1,52 @@
+-- Compares random (v4) and time-ordered (v7) UUID keys for the enrollments table shape:
+-- insert time and resulting index sizes at 10M rows.
+--
+-- Usage: psql -d <scratch database> -f db/uuid-v7-benchmark.sql
+-- Needs uuid_v7_at() from db/uuid-v7-migration.sql (run only its CREATE FUNCTION, or the whole script
+-- against an empty schema). Set :rows lower for a quick run, e.g. psql -v rows=1000000 ...
+
+\if :{?rows}
+\else
+    \set rows 10000000
+\endif
+\timing on
+
+DROP TABLE IF EXISTS bench_enrollments_v4, bench_enrollments_v7, bench_students;
+
+-- 500k students, matching a large district; enrollments reference them at random
+CREATE UNLOGGED TABLE bench_students (n int PRIMARY KEY, id_v4 uuid NOT NULL, id_v7 uuid NOT NULL);
+INSERT INTO bench_students
+SELECT n, gen_random_uuid(), uuid_v7_at(now() - make_interval(secs => 500000 - n))
+FROM generate_series(1, 500000) AS n;
+
+CREATE TABLE bench_enrollments_v4 (
+    id uuid PRIMARY KEY,
+    student_id uuid NOT NULL,
+    class_id varchar(255) NOT NULL,
+    enrollment_date timestamp NOT NULL,
+    status varchar(255) NOT NULL
+);
+CREATE INDEX ON bench_enrollments_v4 (student_id);
+CREATE TABLE bench_enrollments_v7 (LIKE bench_enrollments_v4 INCLUDING ALL);
+
+\echo 'insert: v4 (random) ids'
+INSERT INTO bench_enrollments_v4
+SELECT gen_random_uuid(), s.id_v4, 'CLASS-' || (g.n % 2000), now(), 'ACTIVE'
+FROM generate_series(1, :rows) AS g(n)
+JOIN bench_students s ON s.n = 1 + (g.n::bigint * 7919) % 500000;
+
+\echo 'insert: v7 (time-ordered) ids'
+INSERT INTO bench_enrollments_v7
+SELECT uuid_v7_at(clock_timestamp()), s.id_v7, 'CLASS-' || (g.n % 2000), now(), 'ACTIVE'
+FROM generate_series(1, :rows) AS g(n)
+JOIN bench_students s ON s.n = 1 + (g.n::bigint * 7919) % 500000;
+
+\timing off
+CREATE EXTENSION IF NOT EXISTS pgstattuple;
+SELECT c.relname AS index,
+       pg_size_pretty(pg_relation_size(c.oid)) AS size,
+       (pgstatindex(c.oid::regclass::text)).avg_leaf_density AS leaf_density
+FROM pg_class c
+JOIN pg_index i ON i.indexrelid = c.oid
+WHERE i.indrelid IN ('bench_enrollments_v4'::regclass, 'bench_enrollments_v7'::regclass)
+ORDER BY c.relname;
@@ -0,0 +1,59 @@
+-- Re-keys existing students/enrollments from random (v4) UUIDs to time-ordered (v7) UUIDs.
+--
+-- Not required for correctness: new rows already get v7 ids from TimeOrderedUuidGenerator and old
+-- v4 ids remain valid. Run this once (in a maintenance window) to get the existing B-trees back to
+-- append-mostly order. Ids are derived from each row's enrollment_date so history keeps its order.
+--
+-- Usage: psql -v ON_ERROR_STOP=1 -d student_db -f db/uuid-v7-migration.sql
+-- Clients that cached student/enrollment ids must refresh them afterwards.
+
+BEGIN;
+
+CREATE OR REPLACE FUNCTION uuid_v7_at(ts timestamptz) RETURNS uuid AS $$
+    -- 48-bit unix millis, then the random bits of a v4 uuid with the version nibble switched to 7
+    SELECT encode(
+               set_bit(set_bit(
+                   overlay(uuid_send(gen_random_uuid())
+                           PLACING substring(int8send(floor(extract(epoch FROM ts) * 1000)::bigint) FROM 3)
+                           FROM 1 FOR 6),
+                   52, 1), 53, 1),
+               'hex')::uuid;
+$$ LANGUAGE sql VOLATILE;
+
+-- Re-create the foreign key with ON UPDATE CASCADE under the name the entity mapping declares
+DO $$
+DECLARE
+    fk_name text;
+BEGIN
+    FOR fk_name IN
+        SELECT conname FROM pg_constraint
+        WHERE conrelid = 'enrollments'::regclass AND confrelid = 'students'::regclass AND contype = 'f'
+    LOOP
+        EXECUTE format('ALTER TABLE enrollments DROP CONSTRAINT %I', fk_name);
+    END LOOP;
+END $$;
+
+ALTER TABLE enrollments
+    ADD CONSTRAINT fk_enrollments_student FOREIGN KEY (student_id) REFERENCES students (id) ON UPDATE CASCADE;
+
+-- Only rows that are not already v7 (version nibble is the 13th hex digit)
+UPDATE students SET id = uuid_v7_at(enrollment_date)
+WHERE substring(id::text FROM 15 FOR 1) <> '7';
+
+UPDATE enrollments SET id = uuid_v7_at(enrollment_date)
+WHERE substring(id::text FROM 15 FOR 1) <> '7';
+
+-- Back to the plain constraint the application schema expects
+ALTER TABLE enrollments DROP CONSTRAINT fk_enrollments_student;
+ALTER TABLE enrollments
+    ADD CONSTRAINT fk_enrollments_student FOREIGN KEY (student_id) REFERENCES students (id);
+
+CREATE INDEX IF NOT EXISTS idx_enrollments_student_id ON enrollments (student_id);
+
+COMMIT;
+
+-- The updates leave the old index pages half empty; rebuild them (PostgreSQL 12+, no long lock)
+REINDEX TABLE CONCURRENTLY students;
+REINDEX TABLE CONCURRENTLY enrollments;
+VACUUM ANALYZE students;
+VACUUM ANALYZE enrollments;
@@ -0,0 +1,47 @@
+package com.sms.student.attendance;
+
+import com.sms.student.repository.AttendanceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+
+/**
+ * Keeps a monthly partition of attendance_marks ready ahead of the marks that will go into it, so they
+ * never land in the default partition. Does nothing unless the table is partitioned (PostgreSQL).
+ */
+@Component
+public class AttendancePartitions {
+
+    private static final Logger log = LoggerFactory.getLogger(AttendancePartitions.class);
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Value("${students.attendance.partition-months-ahead:2}")
+    private int monthsAhead;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${students.attendance.partition-cron:0 0 3 * * *}")
+    public void createUpcomingPartitions() {
+        if (!attendanceRepository.isPartitioned()) {
+            return;
+        }
+        YearMonth current = YearMonth.now();
+        for (int ahead = 0; ahead <= monthsAhead; ahead++) {
+            try {
+                attendanceRepository.createMonthPartition(current.plusMonths(ahead));
+            } catch (DataAccessException e) {
+                // Usually marks of that month already sit in the default partition; move them out by hand
+                log.warn("Could not create the attendance partition for {}", current.plusMonths(ahead), e);
+            }
+        }
+    }
+}
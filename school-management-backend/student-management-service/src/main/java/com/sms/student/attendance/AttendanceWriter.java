@@ -0,0 +1,230 @@
+package com.sms.student.attendance;
+
+import com.sms.student.dto.AttendanceMark;
+import com.sms.student.dto.ClassDay;
+import com.sms.student.exception.BadRequestException;
+import com.sms.student.exception.TooManyRequestsException;
+import com.sms.student.repository.AttendanceRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for attendance marks. Requests hand their marks to a single writer thread, which waits up
+ * to the linger time for more and then appends everything queued, and refreshes the rollups of the
+ * class-days it touched, in one transaction: a start-of-period burst of thousands of small requests
+ * becomes a few large writes. Each request's future completes once its marks are committed.
+ * <p>
+ * At most buffer-capacity marks are queued or being written; beyond that, requests wait for room up to
+ * max-wait and are then turned away with 429, so a burst the database cannot keep up with is pushed back
+ * to the clients instead of piling up in memory.
+ * <p>
+ * A group the database rejects (a mark it cannot store) is written again one request at a time, so that
+ * only the requests with bad marks fail, with 400, and the rest of the group is still committed.
+ */
+@Component
+public class AttendanceWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(AttendanceWriter.class);
+
+    // Another instance recomputing the same class-days can commit its rollup rows first (see
+    // AttendanceRepository#refreshRollups)
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${students.attendance.buffer-capacity:200000}")
+    private int bufferCapacity;
+
+    @Value("${students.attendance.flush-size:20000}")
+    private int flushSize;
+
+    @Value("${students.attendance.linger:PT0.1S}")
+    private Duration linger;
+
+    @Value("${students.attendance.max-wait:PT2S}")
+    private Duration maxWait;
+
+    private final BlockingQueue<PendingMarks> queue = new LinkedBlockingQueue<>();
+
+    // One permit per mark queued or being written; fair, so a large request is not starved by small ones
+    private Semaphore room;
+
+    private Timer flushTimer;
+
+    private volatile boolean running = true;
+
+    private Thread writer;
+
+    @PostConstruct
+    void start() {
+        room = new Semaphore(bufferCapacity, true);
+        Gauge.builder("attendance.buffer.marks", room, permits -> bufferCapacity - permits.availablePermits())
+                .description("Attendance marks queued or being written")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("attendance.flushes")
+                .description("Group commits of attendance marks and their rollups")
+                .register(meterRegistry);
+        writer = Thread.ofPlatform().name("attendance-writer").daemon().start(this::run);
+    }
+
+    // Writes what is already queued, then stops
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writer.join(Duration.ofSeconds(30));
+        // Queued after the writer had already finished
+        PendingMarks late;
+        while ((late = queue.poll()) != null) {
+            late.written().completeExceptionally(new TooManyRequestsException("Shutting down; retry on another instance"));
+        }
+    }
+
+    /**
+     * Queues the marks for the next group commit; the future completes when they are committed, or
+     * exceptionally if the write failed.
+     */
+    public CompletableFuture<Void> submit(List<AttendanceMark> marks) {
+        if (marks.size() > bufferCapacity) {
+            throw new BadRequestException("At most " + bufferCapacity + " marks can be sent at once");
+        }
+        try {
+            if (!running || !room.tryAcquire(marks.size(), maxWait.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new TooManyRequestsException("Attendance is arriving faster than it can be written; retry shortly");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TooManyRequestsException("Interrupted while waiting to queue attendance");
+        }
+        PendingMarks pending = new PendingMarks(marks, new CompletableFuture<>());
+        queue.add(pending);
+        return pending.written();
+    }
+
+    private void run() {
+        List<PendingMarks> group = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingMarks first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                int marks = first.marks().size();
+                long deadline = System.nanoTime() + linger.toNanos();
+                while (marks < flushSize) {
+                    PendingMarks next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                    marks += next.marks().size();
+                }
+                write(group, marks);
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (RuntimeException e) {
+                log.error("Attendance writer failed", e);
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingMarks> group, int size) {
+        long started = System.nanoTime();
+        try {
+            writeTogether(group, size);
+            flushTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            group.forEach(pending -> pending.written().complete(null));
+        } catch (DataIntegrityViolationException e) {
+            if (group.size() > 1) {
+                log.warn("Database rejected a group of {} attendance marks; writing its {} requests one at a time",
+                        size, group.size(), e);
+            }
+            group.forEach(this::writeAlone);
+        } catch (RuntimeException e) {
+            log.error("Failed to write {} attendance marks", size, e);
+            group.forEach(pending -> pending.written().completeExceptionally(e));
+        } finally {
+            room.release(size);
+        }
+    }
+
+    private void writeAlone(PendingMarks pending) {
+        try {
+            writeTogether(List.of(pending), pending.marks().size());
+            pending.written().complete(null);
+        } catch (DataIntegrityViolationException e) {
+            // The same marks would be rejected again; the client has to fix them
+            pending.written().completeExceptionally(new BadRequestException(
+                    "Attendance marks rejected by the database: " + e.getMostSpecificCause().getMessage()));
+        } catch (RuntimeException e) {
+            log.error("Failed to write {} attendance marks", pending.marks().size(), e);
+            pending.written().completeExceptionally(e);
+        }
+    }
+
+    // Appends the marks of the requests and refreshes the rollups of the class-days they touched, in one
+    // transaction; only a conflict with another instance is retried
+    private void writeTogether(List<PendingMarks> group, int size) {
+        List<AttendanceMark> marks = new ArrayList<>(size);
+        Set<ClassDay> touched = new HashSet<>();
+        for (PendingMarks pending : group) {
+            for (AttendanceMark mark : pending.marks()) {
+                marks.add(mark);
+                touched.add(new ClassDay(mark.classId(), mark.date()));
+            }
+        }
+        // In the same order on every instance, so that two refreshing overlapping class-days cannot deadlock
+        List<ClassDay> classDays = touched.stream()
+                .sorted(Comparator.comparing(ClassDay::classId).thenComparing(ClassDay::date))
+                .toList();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    attendanceRepository.appendMarks(marks, LocalDateTime.now());
+                    attendanceRepository.refreshRollups(classDays);
+                });
+                return;
+            } catch (ConcurrencyFailureException e) {
+                if (attempt == MAX_WRITE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private record PendingMarks(List<AttendanceMark> marks, CompletableFuture<Void> written) {
+    }
+}
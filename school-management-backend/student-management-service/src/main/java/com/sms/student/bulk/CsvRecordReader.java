@@ -0,0 +1,97 @@
+package com.sms.student.bulk;
+
+import com.sms.student.exception.BadRequestException;
+
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 records one at a time: comma separated, fields optionally enclosed in double quotes, a
+ * doubled quote inside a quoted field is a literal quote, and quoted fields may span lines. Blank lines
+ * are skipped. Only the current record is held in memory.
+ */
+final class CsvRecordReader {
+
+    // An unterminated quote would otherwise read the rest of the file into one field
+    static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    private final PushbackReader in;
+    private long line = 1;
+    private long recordLine;
+
+    CsvRecordReader(Reader in) {
+        this.in = new PushbackReader(in);
+    }
+
+    // Line on which the record last returned by next() starts
+    long recordLine() {
+        return recordLine;
+    }
+
+    // The fields of the next record, or null at the end of the input
+    List<String> next() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStarted = false;
+        int length = 0;
+        recordLine = line;
+        while (true) {
+            int c = in.read();
+            if (c == -1) {
+                if (quoted) {
+                    throw new BadRequestException("Unterminated quoted field starting on line " + recordLine);
+                }
+                if (fields.isEmpty() && !fieldStarted) {
+                    return null;
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+            if (++length > MAX_RECORD_LENGTH) {
+                throw new BadRequestException("Record starting on line " + recordLine + " is longer than "
+                        + MAX_RECORD_LENGTH + " characters");
+            }
+            if (quoted) {
+                if (c == '"') {
+                    int next = in.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) {
+                            in.unread(next);
+                        }
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+                fieldStarted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldStarted = true;
+            } else if (c == '\n') {
+                line++;
+                if (fields.isEmpty() && !fieldStarted) {
+                    recordLine = line;
+                    length = 0;
+                    continue;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+                fieldStarted = true;
+            }
+        }
+    }
+}
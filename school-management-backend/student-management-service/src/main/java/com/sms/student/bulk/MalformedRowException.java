@@ -0,0 +1,16 @@
+package com.sms.student.bulk;
+
+// A record that could not be read at all; the reader has skipped it and can go on with the next one
+public class MalformedRowException extends RuntimeException {
+
+    private final long line;
+
+    public MalformedRowException(long line, String message) {
+        super(message);
+        this.line = line;
+    }
+
+    public long getLine() {
+        return line;
+    }
+}
@@ -0,0 +1,26 @@
+package com.sms.student.bulk;
+
+import org.springframework.http.MediaType;
+
+// Body formats accepted by the student import
+public enum StudentImportFormat {
+    CSV(MediaType.parseMediaType(StudentImportFormat.TEXT_CSV_VALUE)),
+    NDJSON(MediaType.APPLICATION_NDJSON);
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final MediaType mediaType;
+
+    StudentImportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public static StudentImportFormat of(MediaType contentType) {
+        for (StudentImportFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(contentType)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported import format: " + contentType);
+    }
+}
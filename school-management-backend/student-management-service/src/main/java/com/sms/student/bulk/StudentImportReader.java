@@ -0,0 +1,127 @@
+package com.sms.student.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sms.student.exception.BadRequestException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streams the records of an import file. {@link #next()} returns one record at a time, so an import of
+ * any size is read in constant memory; a record that cannot be read is reported through
+ * {@link MalformedRowException} and skipped.
+ */
+public abstract class StudentImportReader {
+
+    // Import column names, as in the CSV export; NDJSON also accepts the JSON property names
+    private static final List<String> COLUMNS = List.of("id", "name", "email", "dob", "address", "enrollment_date");
+
+    public static StudentImportReader open(Reader reader, StudentImportFormat format, ObjectMapper objectMapper) throws IOException {
+        return switch (format) {
+            case CSV -> new Csv(reader);
+            case NDJSON -> new Ndjson(reader, objectMapper);
+        };
+    }
+
+    // The next record, or null at the end of the input
+    public abstract StudentImportRow next() throws IOException;
+
+    private static final class Csv extends StudentImportReader {
+
+        private final CsvRecordReader records;
+        // Position of each of COLUMNS in a record, -1 when the file does not have it
+        private final int[] positions = new int[COLUMNS.size()];
+        private final int width;
+
+        Csv(Reader reader) throws IOException {
+            records = new CsvRecordReader(reader);
+            List<String> header = records.next();
+            if (header == null) {
+                throw new BadRequestException("CSV import is empty; expected a header line");
+            }
+            Arrays.fill(positions, -1);
+            for (int i = 0; i < header.size(); i++) {
+                // Spreadsheet exports often start with a byte order mark
+                String name = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+                int column = COLUMNS.indexOf(name.equals("enrollmentdate") ? "enrollment_date" : name);
+                if (column < 0) {
+                    throw new BadRequestException("Unknown CSV column '" + header.get(i) + "'; expected " + COLUMNS);
+                }
+                positions[column] = i;
+            }
+            for (String required : List.of("name", "email", "dob", "address")) {
+                if (positions[COLUMNS.indexOf(required)] < 0) {
+                    throw new BadRequestException("CSV header is missing the column '" + required + "'");
+                }
+            }
+            width = header.size();
+        }
+
+        @Override
+        public StudentImportRow next() throws IOException {
+            List<String> fields = records.next();
+            if (fields == null) {
+                return null;
+            }
+            if (fields.size() != width) {
+                throw new MalformedRowException(records.recordLine(),
+                        "expected " + width + " fields but found " + fields.size());
+            }
+            return new StudentImportRow(records.recordLine(), field(fields, 0), field(fields, 1), field(fields, 2),
+                    field(fields, 3), field(fields, 4), field(fields, 5));
+        }
+
+        private String field(List<String> fields, int column) {
+            int position = positions[column];
+            return position < 0 || fields.get(position).isEmpty() ? null : fields.get(position);
+        }
+    }
+
+    private static final class Ndjson extends StudentImportReader {
+
+        private final BufferedReader lines;
+        private final ObjectMapper objectMapper;
+        private long line;
+
+        Ndjson(Reader reader, ObjectMapper objectMapper) {
+            this.lines = new BufferedReader(reader);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public StudentImportRow next() throws IOException {
+            String text;
+            do {
+                text = lines.readLine();
+                line++;
+                if (text == null) {
+                    return null;
+                }
+            } while (text.isBlank());
+
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(text);
+            } catch (JsonProcessingException e) {
+                throw new MalformedRowException(line, "invalid JSON: " + e.getOriginalMessage());
+            }
+            if (!node.isObject()) {
+                throw new MalformedRowException(line, "expected a JSON object");
+            }
+            return new StudentImportRow(line, text(node, "id"), text(node, "name"), text(node, "email"),
+                    text(node, "dob"), text(node, "address"),
+                    node.has("enrollmentDate") ? text(node, "enrollmentDate") : text(node, "enrollment_date"));
+        }
+
+        private static String text(JsonNode node, String property) {
+            JsonNode value = node.get(property);
+            return value == null || value.isNull() ? null : value.asText();
+        }
+    }
+}
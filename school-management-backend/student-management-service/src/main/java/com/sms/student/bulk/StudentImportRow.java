@@ -0,0 +1,11 @@
+package com.sms.student.bulk;
+
+// One record of an import file as read, before any parsing; line is where the record starts in the file
+public record StudentImportRow(long line,
+                               String id,
+                               String name,
+                               String email,
+                               String dob,
+                               String address,
+                               String enrollmentDate) {
+}
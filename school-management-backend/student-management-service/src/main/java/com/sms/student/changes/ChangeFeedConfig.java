@@ -0,0 +1,31 @@
+package com.sms.student.changes;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+
+// The sink is picked when the application starts rather than by a condition, which an AOT build would fix
+// at build time
+@Configuration
+public class ChangeFeedConfig {
+
+    @Bean
+    ChangeEventSink changeEventSink(@Value("${students.changes.sink:in-process}") String sink,
+                                    @Value("${students.changes.topic:student-changes}") String topic,
+                                    @Value("${students.changes.publish-timeout:PT10S}") Duration publishTimeout,
+                                    ApplicationEventPublisher publisher,
+                                    ObjectProvider<KafkaTemplate<String, String>> kafkaTemplate,
+                                    ObjectMapper objectMapper) {
+        return switch (sink) {
+            case "in-process" -> new InProcessChangeEventSink(publisher);
+            case "kafka" -> new KafkaChangeEventSink(kafkaTemplate.getObject(), topic, objectMapper, publishTimeout);
+            default -> throw new IllegalArgumentException("Unknown students.changes.sink: " + sink + " (in-process or kafka)");
+        };
+    }
+}
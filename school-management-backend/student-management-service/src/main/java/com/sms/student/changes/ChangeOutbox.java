@@ -0,0 +1,68 @@
+package com.sms.student.changes;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sms.student.dto.ChangeEvent;
+import com.sms.student.repository.ChangeEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records change events in the transaction that makes the changes, so an event exists exactly when its change
+ * was committed. The events of a transaction are collected and written to the outbox as one JDBC batch just
+ * before it commits; ChangeRelay publishes them from there.
+ */
+@Component
+public class ChangeOutbox {
+
+    public static final String STUDENT = "student";
+    public static final String CLASS = "class";
+
+    @Autowired
+    private ChangeEventRepository changeEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // payload is serialized now, as the aggregate is at this point of the transaction
+    public void record(String aggregateType, Object aggregateId, ChangeType type, Object payload) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Change events are recorded in the transaction that makes the change");
+        }
+        String json;
+        try {
+            json = payload == null ? null : objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize the payload of a " + type + " event", e);
+        }
+        pending().add(new ChangeEvent(null, null, aggregateType, aggregateId.toString(), type, json, LocalDateTime.now()));
+    }
+
+    private List<ChangeEvent> pending() {
+        @SuppressWarnings("unchecked")
+        List<ChangeEvent> events = (List<ChangeEvent>) TransactionSynchronizationManager.getResource(this);
+        if (events == null) {
+            List<ChangeEvent> transactionEvents = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, transactionEvents);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    changeEventRepository.insert(transactionEvents);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ChangeOutbox.this);
+                }
+            });
+            events = transactionEvents;
+        }
+        return events;
+    }
+}
@@ -0,0 +1,14 @@
+package com.sms.student.changes;
+
+// What happened to the aggregate a change event is about
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    // The student was deleted along with its enrollments
+    DELETED,
+    // Deleted the same way, with copies kept in the archive tables
+    ARCHIVED,
+    // A student's enrollment in a class was added, changed status or removed (status null)
+    ENROLLMENT_CHANGED,
+    CAPACITY_CHANGED
+}
@@ -0,0 +1,22 @@
+package com.sms.student.changes;
+
+import com.sms.student.dto.ChangeEvent;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+// Publishes each event as an application event, to @EventListener methods in this instance; they run on the
+// relay's thread and in its transaction, and one that throws has the batch published again
+class InProcessChangeEventSink implements ChangeEventSink {
+
+    private final ApplicationEventPublisher publisher;
+
+    InProcessChangeEventSink(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @Override
+    public void publish(List<ChangeEvent> events) {
+        events.forEach(publisher::publishEvent);
+    }
+}
@@ -0,0 +1,88 @@
+package com.sms.student.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Ignores puts of a key for a while after it was evicted. Updates evict after they commit, but a reader that
+ * loaded the row before the commit (or from a replica not yet past it) puts the old row back after the
+ * eviction, where it would stay until it expired. With the hold, only a read that takes longer than the hold
+ * can do that. Puts and evictions of the same key are applied one at a time, so neither slips between the
+ * other's check and write. Still a CaffeineCache, so its statistics are published like any other.
+ */
+class EvictionHoldCache extends CaffeineCache {
+
+    // When each key was last evicted (System.nanoTime); entries expire some time after the hold ends
+    private final Cache<Object, Long> evictedAt;
+
+    private final long holdNanos;
+
+    EvictionHoldCache(String name, Cache<Object, Object> cache, boolean allowNullValues, Duration hold) {
+        super(name, cache, allowNullValues);
+        this.evictedAt = Caffeine.newBuilder().expireAfterWrite(hold.multipliedBy(2)).build();
+        this.holdNanos = hold.toNanos();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        evictedAt.asMap().compute(key, (k, evicted) -> {
+            if (!held(evicted)) {
+                super.put(k, value);
+            }
+            return evicted;
+        });
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper[] existing = new ValueWrapper[1];
+        evictedAt.asMap().compute(key, (k, evicted) -> {
+            existing[0] = held(evicted) ? get(k) : super.putIfAbsent(k, value);
+            return evicted;
+        });
+        return existing[0];
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictedAt.asMap().compute(key, (k, evicted) -> {
+            super.evict(k);
+            return System.nanoTime();
+        });
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean[] present = new boolean[1];
+        evictedAt.asMap().compute(key, (k, evicted) -> {
+            present[0] = super.evictIfPresent(k);
+            return System.nanoTime();
+        });
+        return present[0];
+    }
+
+    private boolean held(Long evicted) {
+        return evicted != null && System.nanoTime() - evicted < holdNanos;
+    }
+}
@@ -0,0 +1,41 @@
+package com.sms.student.config;
+
+import com.sms.student.dto.EnrollmentKey;
+import com.sms.student.dto.EnrollmentView;
+import com.sms.student.dto.RosterEntry;
+import com.sms.student.dto.StudentSummary;
+import com.sms.student.model.TimeOrderedUuidGenerator;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+
+/**
+ * What AOT processing cannot work out from the bean definitions, for the native image (-Pnative). Entities,
+ * repositories and the request/response types of the controllers are covered by Spring itself; Lombok
+ * leaves nothing to reflect on at runtime.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.Hints.class)
+// The NDJSON export writes these through an ObjectWriter, outside any controller signature
+@RegisterReflectionForBinding(StudentSummary.class)
+public class NativeHintsConfig {
+
+    static class Hints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // spring.sql.init.schema-locations
+            hints.resources().registerPattern("db/*.sql");
+            // Created by Hibernate: the targets of HQL constructor expressions, and the id generator
+            // named in @UuidGenerator
+            List.of(EnrollmentView.class, EnrollmentKey.class, RosterEntry.class, StudentSummary.class,
+                            TimeOrderedUuidGenerator.class)
+                    .forEach(type -> hints.reflection().registerType(type, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS));
+        }
+    }
+}
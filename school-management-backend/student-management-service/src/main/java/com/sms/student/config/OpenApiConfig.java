@@ -14,6 +14,13 @@ public class OpenApiConfig {
                 .info(new Info()
                         .title("Student Management API")
                         .version("1.0")
-                        .description("APIs for managing student profiles, enrollment, and class assignments."));
+                        .description("APIs for managing student profiles, enrollment, and class assignments."
+                                + "\n\n## Conditional requests\n\n"
+                                + "GET responses carry a weak ETag, W/\"n\", where n is the resource's version. The same version is served "
+                                + "as JSON or CBOR, compressed or not, so the tag names the version rather than the bytes.\n\n"
+                                + "Updates accept that tag in If-Match as returned (W/\"n\") or in its strong form (\"n\"); both match version n. "
+                                + "This deliberately differs from RFC 9110, whose strong comparison for If-Match would never match the weak tags "
+                                + "this API hands out; protection against lost updates only needs the version. "
+                                + "A tag for any other version fails with 412 Precondition Failed."));
     }
 }
\ No newline at end of file
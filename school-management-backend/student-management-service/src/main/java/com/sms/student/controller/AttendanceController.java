@@ -0,0 +1,74 @@
+package com.sms.student.controller;
+
+import com.sms.student.dto.AttendanceBatchRequest;
+import com.sms.student.dto.AttendanceBatchResponse;
+import com.sms.student.dto.AttendanceReport;
+import com.sms.student.service.AttendanceService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/attendance")
+@Tag(name = "Attendance", description = "APIs for taking attendance and attendance rates")
+public class AttendanceController {
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Operation(summary = "Record attendance marks",
+            description = "One mark per student, class, day and period; marking a period again corrects it. Marks from "
+                    + "concurrent requests are written together, and the call returns once its marks are committed. "
+                    + "Send a class's marks for a period in one request rather than one request per student.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Marks recorded",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = AttendanceBatchResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input or too many marks"),
+            @ApiResponse(responseCode = "429", description = "Marks are arriving faster than they can be written; retry shortly")
+    })
+    @PostMapping("/marks")
+    public ResponseEntity<AttendanceBatchResponse> recordMarks(@Valid @RequestBody AttendanceBatchRequest request) {
+        return ResponseEntity.ok(new AttendanceBatchResponse(attendanceService.recordMarks(request.marks())));
+    }
+
+    @Operation(summary = "Get a student's attendance", description = "Totals over the dates, and per class.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Attendance report",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = AttendanceReport.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid date range"),
+            @ApiResponse(responseCode = "404", description = "Student not found")
+    })
+    @GetMapping("/students/{studentId}")
+    public ResponseEntity<AttendanceReport> getStudentAttendance(
+            @Parameter(description = "ID of the student") @PathVariable UUID studentId,
+            @Parameter(description = "First day, inclusive") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day, inclusive") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(attendanceService.getStudentAttendance(studentId, from, to));
+    }
+
+    @Operation(summary = "Get a class's attendance", description = "Totals over the dates, and per student.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Attendance report",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = AttendanceReport.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid date range")
+    })
+    @GetMapping("/classes/{classId}")
+    public ResponseEntity<AttendanceReport> getClassAttendance(
+            @Parameter(description = "ID of the class") @PathVariable String classId,
+            @Parameter(description = "First day, inclusive") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day, inclusive") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(attendanceService.getClassAttendance(classId, from, to));
+    }
+}
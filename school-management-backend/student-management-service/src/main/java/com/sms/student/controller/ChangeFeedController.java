@@ -0,0 +1,46 @@
+package com.sms.student.controller;
+
+import com.sms.student.dto.ChangeFeedPage;
+import com.sms.student.service.ChangeFeedService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/students/changes")
+@Tag(name = "Student Changes", description = "Incremental feed of changes to students, enrollments and class capacities")
+public class ChangeFeedController {
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Operation(summary = "Get changes since a position",
+            description = "Changes committed after the given position, oldest first, for keeping a copy in sync "
+                    + "without reloading it: start from since=0 and pass back next. A change appears within about a "
+                    + "second of its commit. Changes are kept for a week; a consumer further behind gets 410 and "
+                    + "reloads the full listing.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changes retrieved",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ChangeFeedPage.class))),
+            @ApiResponse(responseCode = "400", description = "Negative position"),
+            @ApiResponse(responseCode = "410", description = "Some changes after that position are no longer kept; reload and "
+                    + "continue from the position in the message")
+    })
+    @GetMapping
+    public ChangeFeedPage getChanges(
+            @Parameter(description = "Position of the last change already applied; 0 for the start of the feed")
+            @RequestParam(defaultValue = "0") long since,
+            @Parameter(description = "Maximum number of changes to return")
+            @RequestParam(required = false) Integer size) {
+        return changeFeedService.getChanges(since, size);
+    }
+}
@@ -0,0 +1,72 @@
+package com.sms.student.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sms.student.dto.BulkUpdateCount;
+import com.sms.student.dto.ClassSeating;
+import com.sms.student.model.EnrollmentStatus;
+import com.sms.student.patch.MergePatch;
+import com.sms.student.service.StudentService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/classes")
+@Tag(name = "Class Seating", description = "APIs for class capacities and waitlists")
+public class ClassController {
+
+    @Autowired
+    private StudentService studentService;
+
+    @Operation(summary = "Set the capacity of a class",
+            description = "Students without a seat number get one; when the capacity grows, the waitlist is promoted "
+                    + "in enrollment order.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Capacity set",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ClassSeating.class))),
+            @ApiResponse(responseCode = "400", description = "Negative capacity, or fewer seats than students holding one")
+    })
+    @PutMapping("/{classId}/capacity")
+    public ResponseEntity<ClassSeating> setClassCapacity(
+            @Parameter(description = "ID of the class") @PathVariable String classId,
+            @Parameter(description = "Number of seats") @RequestParam int capacity) {
+        return ResponseEntity.ok(studentService.setClassCapacity(classId, capacity));
+    }
+
+    @Operation(summary = "Change the status of a class's enrollments",
+            description = "JSON Merge Patch of the status, e.g. {\"status\": \"COMPLETED\"} at the end of term, applied to "
+                    + "every enrollment of the class in one of the current statuses (all of them when none are given) with "
+                    + "set-based updates. Seats given up go to the waitlist. In a class with a capacity, only enrollments that "
+                    + "already hold a seat can be moved to a status that needs one.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Number of enrollments changed",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkUpdateCount.class))),
+            @ApiResponse(responseCode = "400", description = "Not a status patch, or a move that would need seats claimed")
+    })
+    @PatchMapping(value = "/{classId}/enrollments", consumes = MergePatch.MEDIA_TYPE)
+    public ResponseEntity<BulkUpdateCount> patchClassEnrollments(
+            @Parameter(description = "ID of the class") @PathVariable String classId,
+            @Parameter(description = "Only enrollments in these statuses") @RequestParam(required = false) List<EnrollmentStatus> currentStatus,
+            @RequestBody JsonNode patch) {
+        return ResponseEntity.ok(studentService.patchClassEnrollments(classId, currentStatus, patch));
+    }
+
+    @Operation(summary = "Get the seat usage of a class")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Capacity (null when unlimited), seated and waitlisted counts",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ClassSeating.class)))
+    })
+    @GetMapping("/{classId}/seating")
+    public ResponseEntity<ClassSeating> getClassSeating(@Parameter(description = "ID of the class") @PathVariable String classId) {
+        return ResponseEntity.ok(studentService.getClassSeating(classId));
+    }
+}
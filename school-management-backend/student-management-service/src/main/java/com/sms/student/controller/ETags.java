@@ -0,0 +1,42 @@
+package com.sms.student.controller;
+
+import com.sms.student.exception.PreconditionFailedException;
+
+// Entity tags derived from an entity's @Version, e.g. W/"3". They are weak because one version is served in
+// several representations (JSON or CBOR, gzipped or not), and Tomcat will not compress a response whose
+// tag claims byte-for-byte identity.
+final class ETags {
+
+    // The If-Match parameter's API documentation
+    static final String IF_MATCH = "ETag of the copy being edited, as returned (W/\"3\") or in its strong form (\"3\"). "
+            + "Either names version 3: If-Match is compared by version, not with the strong comparison of RFC 9110 "
+            + "(see Conditional requests in the API description).";
+
+    private ETags() {
+    }
+
+    static String of(long version) {
+        return "W/\"" + version + "\"";
+    }
+
+    // The version an If-Match header asks for; null when there is no header or it is "*" (any current version).
+    // The tag names the version, not the bytes, so W/"3" and "3" are both accepted; anything else can never match.
+    // RFC 9110 would reject the weak form: a deliberate deviation, documented in the API description (OpenApiConfig).
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // fall through
+            }
+        }
+        throw new PreconditionFailedException("If-Match does not name a current version: " + ifMatch);
+    }
+}
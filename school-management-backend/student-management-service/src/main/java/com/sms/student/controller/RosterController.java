@@ -0,0 +1,59 @@
+package com.sms.student.controller;
+
+import com.sms.student.dto.RosterExpression;
+import com.sms.student.dto.RosterPage;
+import com.sms.student.dto.RosterQuery;
+import com.sms.student.model.EnrollmentStatus;
+import com.sms.student.service.StudentService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/rosters")
+@Tag(name = "Rosters", description = "Set queries over class rosters, answered from an in-memory index")
+public class RosterController {
+
+    @Autowired
+    private StudentService studentService;
+
+    @Operation(summary = "Query rosters",
+            description = "Counts and pages the students matching a set expression over class rosters, e.g. the students "
+                    + "ACTIVE in MATH-101 but not enrolled in PHYS-101: {\"difference\": [{\"classIds\": [\"MATH-101\"], "
+                    + "\"statuses\": [\"ACTIVE\"]}, {\"classIds\": [\"PHYS-101\"]}]}. Students come in a stable order; "
+                    + "enrollments changed on other instances can take a few minutes to show.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Matching students",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = RosterPage.class))),
+            @ApiResponse(responseCode = "400", description = "Malformed expression or unknown after id")
+    })
+    @PostMapping("/query")
+    public ResponseEntity<RosterPage> queryRoster(@Valid @RequestBody RosterQuery query) {
+        return ResponseEntity.ok(studentService.queryRoster(query.expression(), query.limit(), query.after()));
+    }
+
+    @Operation(summary = "Get the roster of a class")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Students enrolled in the class",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = RosterPage.class)))
+    })
+    @GetMapping("/{classId}")
+    public ResponseEntity<RosterPage> getRoster(
+            @Parameter(description = "ID of the class") @PathVariable String classId,
+            @Parameter(description = "Enrollment statuses to include; all when omitted") @RequestParam(required = false) List<EnrollmentStatus> status,
+            @Parameter(description = "Student ids to return; capped by students.roster.max-size") @RequestParam(required = false) Integer limit,
+            @Parameter(description = "nextAfter of the previous page") @RequestParam(required = false) UUID after) {
+        return ResponseEntity.ok(studentService.queryRoster(RosterExpression.inClasses(List.of(classId), status), limit, after));
+    }
+}
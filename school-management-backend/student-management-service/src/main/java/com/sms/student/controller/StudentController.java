@@ -1,11 +1,26 @@
 package com.sms.student.controller;
 
-import com.sms.student.model.Enrollment;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sms.student.bulk.StudentImportFormat;
+import com.sms.student.datasource.ReadRouting;
+import com.sms.student.dto.BatchEnrollmentRequest;
+import com.sms.student.dto.BatchEnrollmentResponse;
+import com.sms.student.dto.CursorPage;
+import com.sms.student.dto.EnrollmentView;
+import com.sms.student.dto.StudentDetail;
+import com.sms.student.dto.StudentImportReport;
+import com.sms.student.dto.StudentSummary;
 import com.sms.student.model.EnrollmentStatus;
 import com.sms.student.model.Student;
+import com.sms.student.paging.StudentSortField;
+import com.sms.student.patch.MergePatch;
 import com.sms.student.service.StudentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -13,10 +28,22 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.UUID;
 
@@ -28,51 +55,181 @@ public class StudentController {
     @Autowired
     private StudentService studentService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     // --- Student CRUD Operations ---
 
     @Operation(summary = "Create a new student profile")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Student created successfully",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Student.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = StudentDetail.class))),
             @ApiResponse(responseCode = "400", description = "Invalid input")
     })
     @PostMapping
-    public ResponseEntity<Student> createStudent(@Valid @RequestBody Student student) {
-        Student createdStudent = studentService.createStudent(student);
+    public ResponseEntity<StudentDetail> createStudent(@Valid @RequestBody Student student) {
+        StudentDetail createdStudent = studentService.createStudent(student);
         return new ResponseEntity<>(createdStudent, HttpStatus.CREATED);
     }
 
-    @Operation(summary = "Get all students")
-    @GetMapping
-    public ResponseEntity<List<Student>> getAllStudents() {
-        List<Student> students = studentService.getAllStudents();
-        return ResponseEntity.ok(students);
+    @Operation(summary = "Get all students",
+            description = "Keyset-paginated listing. Pass the returned nextCursor to fetch the next page. "
+                    + "Send Accept: application/cbor for the same page in binary form.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of students", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPage.class)),
+                    @Content(mediaType = "application/cbor", schema = @Schema(implementation = CursorPage.class))}),
+            @ApiResponse(responseCode = "400", description = "Malformed cursor or cursor issued for a different sort")
+    })
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<CursorPage<StudentSummary>> getAllStudents(
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size; capped by students.paging.max-size") @RequestParam(required = false) Integer size,
+            @Parameter(description = "Sort key") @RequestParam(defaultValue = "NAME") StudentSortField sort,
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "ASC") Sort.Direction direction) {
+        CursorPage<StudentSummary> page = studentService.getAllStudents(cursor, size, sort, direction);
+        return ResponseEntity.ok(page);
+    }
+
+    @Operation(summary = "Stream all students",
+            description = "Streams every student as newline-delimited JSON, reading from a database cursor so memory stays flat.")
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllStudents() {
+        ObjectWriter writer = objectMapper.writerFor(StudentSummary.class);
+        StreamingResponseBody body = (OutputStream out) -> {
+            // Write through a single generator so rows go out as they are read and the response
+            // stream is not closed after the first value
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                studentService.streamAllStudents(student -> {
+                    try {
+                        writer.writeValue(generator, student);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
-    @Operation(summary = "Get a student by ID")
+    @Operation(summary = "Export all students as CSV",
+            description = "Streams every student with a header line (id,name,email,dob,address,enrollment_date) straight "
+                    + "from PostgreSQL COPY; the output can be imported again. Requires PostgreSQL.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Every student as CSV"),
+            @ApiResponse(responseCode = "501", description = "The database is not PostgreSQL")
+    })
+    @GetMapping(produces = StudentImportFormat.TEXT_CSV_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportStudentsCsv() {
+        // Checked here: once the body streams, the 200 has been sent
+        studentService.requireBulkCopy();
+        StreamingResponseBody body = studentService::exportStudentsCsv;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(StudentImportFormat.TEXT_CSV_VALUE))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"students.csv\"")
+                .body(body);
+    }
+
+    @Operation(summary = "Import students in bulk",
+            description = "Reads CSV (header line with name,email,dob,address and optionally id,enrollment_date) or "
+                    + "newline-delimited JSON, validates each record and loads valid ones with PostgreSQL COPY in chunks. "
+                    + "Invalid records and ones whose id or email already exists are skipped and reported by line. "
+                    + "Requires PostgreSQL.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import finished; see counts and rejected records",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = StudentImportReport.class))),
+            @ApiResponse(responseCode = "400", description = "Missing or unknown CSV columns, or a record that cannot be delimited"),
+            @ApiResponse(responseCode = "501", description = "The database is not PostgreSQL")
+    })
+    @PostMapping(value = "/import", consumes = {StudentImportFormat.TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StudentImportReport> importStudents(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                              InputStream body) throws IOException {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        Charset charset = mediaType.getCharset() == null ? StandardCharsets.UTF_8 : mediaType.getCharset();
+        StudentImportReport report = studentService.importStudents(new InputStreamReader(body, charset),
+                StudentImportFormat.of(mediaType));
+        return ResponseEntity.ok(report);
+    }
+
+    @Operation(summary = "Search students",
+            description = "Type-ahead search over names and addresses, ranked best first: name matches before address matches. "
+                    + "The last word is matched as a prefix unless followed by a space, misspelt words are matched by their "
+                    + "closest known spellings, and input that looks like part of an email address also matches email prefixes. "
+                    + "Requires PostgreSQL.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Matching students, best match first",
+                    content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = StudentSummary.class)))),
+            @ApiResponse(responseCode = "400", description = "Query has no letters or digits")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<List<StudentSummary>> searchStudents(
+            @Parameter(description = "What the user has typed so far, e.g. 'john sm' or '12 oak'") @RequestParam String q,
+            @Parameter(description = "Number of results; capped by students.search.max-size") @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(studentService.searchStudents(q, size));
+    }
+
+    @Operation(summary = "Get a student by ID",
+            description = "The ETag is the student's version, which also changes whenever one of its enrollments does. "
+                    + "Send it back in If-None-Match to get 304 Not Modified while nothing has changed.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Student found",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Student.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = StudentDetail.class))),
+            @ApiResponse(responseCode = "304", description = "Student unchanged since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Student not found")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<Student> getStudentById(@Parameter(description = "ID of the student to retrieve") @PathVariable UUID id) {
-        Student student = studentService.getStudentById(id);
-        return ResponseEntity.ok(student);
+    public ResponseEntity<StudentDetail> getStudentById(@Parameter(description = "ID of the student to retrieve") @PathVariable UUID id,
+                                                        WebRequest request) {
+        // Decided from the version alone, before the student and its enrollments are loaded
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(ETags.of(studentService.getStudentVersion(id)))) {
+            return null;
+        }
+        StudentDetail student = studentService.getStudentById(id);
+        return ResponseEntity.ok().eTag(ETags.of(student.version())).body(student);
     }
 
-    @Operation(summary = "Update an existing student profile")
+    @Operation(summary = "Update an existing student profile",
+            description = "Send the ETag of the copy being edited in If-Match to update only if nobody else has changed it since.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Student updated successfully",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Student.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = StudentDetail.class))),
             @ApiResponse(responseCode = "400", description = "Invalid input"),
-            @ApiResponse(responseCode = "404", description = "Student not found")
+            @ApiResponse(responseCode = "404", description = "Student not found"),
+            @ApiResponse(responseCode = "409", description = "Student changed concurrently during an unconditional update"),
+            @ApiResponse(responseCode = "412", description = "Student has changed since the ETag in If-Match")
     })
     @PutMapping("/{id}")
-    public ResponseEntity<Student> updateStudent(@Parameter(description = "ID of the student to update") @PathVariable UUID id,
+    public ResponseEntity<StudentDetail> updateStudent(@Parameter(description = "ID of the student to update") @PathVariable UUID id,
+                                                 @Parameter(description = ETags.IF_MATCH)
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                                  @Valid @RequestBody Student studentDetails) {
-        Student updatedStudent = studentService.updateStudent(id, studentDetails);
-        return ResponseEntity.ok(updatedStudent);
+        StudentDetail updatedStudent = studentService.updateStudent(id, studentDetails, ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updatedStudent.version())).body(updatedStudent);
+    }
+
+    @Operation(summary = "Partially update a student profile",
+            description = "JSON Merge Patch: send only the fields to change (name, email, dob, address); the others keep "
+                    + "their values, and only changed columns are written. Send the ETag of the copy being edited in "
+                    + "If-Match to update only if nobody else has changed it since.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Student updated successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = StudentDetail.class))),
+            @ApiResponse(responseCode = "400", description = "Not a JSON object, a field that cannot be patched, or an invalid result"),
+            @ApiResponse(responseCode = "404", description = "Student not found"),
+            @ApiResponse(responseCode = "409", description = "Student changed concurrently during an unconditional update"),
+            @ApiResponse(responseCode = "412", description = "Student has changed since the ETag in If-Match")
+    })
+    @PatchMapping(value = "/{id}", consumes = MergePatch.MEDIA_TYPE)
+    public ResponseEntity<StudentDetail> patchStudent(@Parameter(description = "ID of the student to update") @PathVariable UUID id,
+                                                      @Parameter(description = ETags.IF_MATCH)
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                      @RequestBody JsonNode patch) {
+        StudentDetail patchedStudent = studentService.patchStudent(id, patch, ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(patchedStudent.version())).body(patchedStudent);
     }
 
     @Operation(summary = "Delete a student profile")
@@ -86,48 +243,117 @@ public class StudentController {
         return ResponseEntity.noContent().build();
     }
 
+    @Operation(summary = "Archive a student profile",
+            description = "Moves the student and its enrollments to the archive tables; seats it held go to the waitlists. "
+                    + "To archive many students at once, see /api/students/purges.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Student archived successfully"),
+            @ApiResponse(responseCode = "404", description = "Student not found")
+    })
+    @PostMapping("/{id}/archive")
+    public ResponseEntity<Void> archiveStudent(@Parameter(description = "ID of the student to archive") @PathVariable UUID id) {
+        studentService.archiveStudent(id);
+        return ResponseEntity.noContent().build();
+    }
+
     // --- Enrollment Operations ---
 
-    @Operation(summary = "Enroll a student in a class")
+    @Operation(summary = "Enroll a student in a class",
+            description = "In a class with a capacity the enrollment takes a free seat, or joins the waitlist "
+                    + "(status WAITLISTED) when the class is full.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "201", description = "Student enrolled successfully",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Enrollment.class))),
+            @ApiResponse(responseCode = "201", description = "Student enrolled or waitlisted",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = EnrollmentView.class))),
             @ApiResponse(responseCode = "404", description = "Student not found"),
             @ApiResponse(responseCode = "400", description = "Student already enrolled in class")
     })
     @PostMapping("/{studentId}/enrollments")
-    public ResponseEntity<Enrollment> enrollStudentInClass(
+    public ResponseEntity<EnrollmentView> enrollStudentInClass(
             @Parameter(description = "ID of the student to enroll") @PathVariable UUID studentId,
             @Parameter(description = "ID of the class to enroll in") @RequestParam String classId) {
-        Enrollment enrollment = studentService.enrollStudentInClass(studentId, classId);
+        EnrollmentView enrollment = studentService.enrollStudentInClass(studentId, classId);
         return new ResponseEntity<>(enrollment, HttpStatus.CREATED);
     }
 
-    @Operation(summary = "Get all enrollments for a specific student")
+    @Operation(summary = "Enroll many students in classes in one call",
+            description = "Checks duplicates with set-based queries and inserts with JDBC batching, committing in chunks. "
+                    + "Each pair gets its own outcome, in request order. A chunk the database rejects is retried "
+                    + "pair by pair, so only the rejected pairs fail.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed; see per-pair outcomes",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = BatchEnrollmentResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input or batch too large")
+    })
+    @PostMapping("/enrollments:batch")
+    public ResponseEntity<BatchEnrollmentResponse> enrollStudentsInClasses(@Valid @RequestBody BatchEnrollmentRequest request) {
+        BatchEnrollmentResponse response = BatchEnrollmentResponse.of(studentService.enrollStudentsInClasses(request.enrollments()));
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "Get all enrollments for a specific student",
+            description = "Carries the student's ETag; send it back in If-None-Match to get 304 Not Modified while "
+                    + "none of the enrollments has changed. Send Accept: application/cbor for the binary form.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Enrollments found",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Enrollment.class))),
+            @ApiResponse(responseCode = "200", description = "Enrollments found", content = {
+                    @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = EnrollmentView.class))),
+                    @Content(mediaType = "application/cbor", array = @ArraySchema(schema = @Schema(implementation = EnrollmentView.class)))}),
+            @ApiResponse(responseCode = "304", description = "Enrollments unchanged since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Student not found")
     })
     @GetMapping("/{studentId}/enrollments")
-    public ResponseEntity<List<Enrollment>> getEnrollmentsByStudent(@Parameter(description = "ID of the student") @PathVariable UUID studentId) {
-        List<Enrollment> enrollments = studentService.getEnrollmentsByStudent(studentId);
-        return ResponseEntity.ok(enrollments);
+    public ResponseEntity<List<EnrollmentView>> getEnrollmentsByStudent(@Parameter(description = "ID of the student") @PathVariable UUID studentId,
+                                                                        WebRequest request) {
+        // The version is read from the primary before the enrollments, so a change in between can only make the
+        // list newer than its ETag. The list comes from the primary too: a replica behind it would pair an older
+        // list with the newer ETag, and If-None-Match would confirm that list until the student changed again.
+        String etag = ETags.of(studentService.getStudentVersion(studentId));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        List<EnrollmentView> enrollments = ReadRouting.onPrimary(() -> studentService.getEnrollmentsByStudent(studentId));
+        return ResponseEntity.ok().eTag(etag).body(enrollments);
+    }
+
+    @Operation(summary = "Get a student's closed enrollments of past academic years",
+            description = "COMPLETED and DROPPED enrollments are moved here once their academic year is over, most "
+                    + "recent year first; they carry no seat or version. Carries the student's ETag, like the enrollments.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Closed enrollments found", content = {
+                    @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = EnrollmentView.class))),
+                    @Content(mediaType = "application/cbor", array = @ArraySchema(schema = @Schema(implementation = EnrollmentView.class)))}),
+            @ApiResponse(responseCode = "304", description = "Closed enrollments unchanged since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "404", description = "Student not found")
+    })
+    @GetMapping("/{studentId}/enrollments/closed")
+    public ResponseEntity<List<EnrollmentView>> getClosedEnrollmentsByStudent(@Parameter(description = "ID of the student") @PathVariable UUID studentId,
+                                                                              WebRequest request) {
+        // Both from the primary, as for the enrollments
+        String etag = ETags.of(studentService.getStudentVersion(studentId));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(ReadRouting.onPrimary(() -> studentService.getClosedEnrollmentsByStudent(studentId)));
     }
 
-    @Operation(summary = "Update the status of an enrollment")
+    @Operation(summary = "Update the status of an enrollment",
+            description = "Send the enrollment's version as an ETag in If-Match to update only if it has not changed since.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Enrollment status updated successfully",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Enrollment.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = EnrollmentView.class))),
             @ApiResponse(responseCode = "404", description = "Enrollment not found"),
-            @ApiResponse(responseCode = "400", description = "Invalid status provided")
+            @ApiResponse(responseCode = "400", description = "Invalid status provided, or no free seat for a status that needs one"),
+            @ApiResponse(responseCode = "409", description = "Enrollment changed concurrently during an unconditional update"),
+            @ApiResponse(responseCode = "412", description = "Enrollment has changed since the ETag in If-Match")
     })
     @PutMapping("/enrollments/{enrollmentId}/status")
-    public ResponseEntity<Enrollment> updateEnrollmentStatus(
+    public ResponseEntity<EnrollmentView> updateEnrollmentStatus(
             @Parameter(description = "ID of the enrollment to update") @PathVariable UUID enrollmentId,
-            @Parameter(description = "New status for the enrollment (e.g., ACTIVE, COMPLETED, DROPPED, PENDING)") @RequestParam EnrollmentStatus newStatus) {
-        Enrollment updatedEnrollment = studentService.updateEnrollmentStatus(enrollmentId, newStatus);
-        return ResponseEntity.ok(updatedEnrollment);
+            @Parameter(description = ETags.IF_MATCH)
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Parameter(description = "New status for the enrollment (e.g., ACTIVE, COMPLETED, DROPPED, PENDING, WAITLISTED)") @RequestParam EnrollmentStatus newStatus) {
+        EnrollmentView updatedEnrollment = studentService.updateEnrollmentStatus(enrollmentId, newStatus,
+                ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updatedEnrollment.version())).body(updatedEnrollment);
     }
 
     @Operation(summary = "Delete an enrollment")
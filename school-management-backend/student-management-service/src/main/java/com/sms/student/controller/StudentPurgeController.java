@@ -0,0 +1,69 @@
+package com.sms.student.controller;
+
+import com.sms.student.dto.StudentPurgeJobView;
+import com.sms.student.dto.StudentPurgeRequest;
+import com.sms.student.service.StudentPurgeService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/students/purges")
+@Tag(name = "Student Purges", description = "Bulk deletes and archives of students, run as background jobs")
+public class StudentPurgeController {
+
+    @Autowired
+    private StudentPurgeService studentPurgeService;
+
+    @Operation(summary = "Start a bulk delete or archive",
+            description = "Deletes the listed students, or every student matching the filter (e.g. {\"enrollmentYear\": 2020, "
+                    + "\"status\": \"COMPLETED\"}), with all their enrollments; with archive set they are copied to the "
+                    + "archive tables first. Seats they held go to the classes' waitlists. The job works in chunks of one "
+                    + "transaction each; poll it for its progress.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Job queued",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = StudentPurgeJobView.class))),
+            @ApiResponse(responseCode = "400", description = "Neither or both of studentIds and a filter given, or too many ids"),
+            @ApiResponse(responseCode = "429", description = "Too many jobs already waiting")
+    })
+    @PostMapping
+    public ResponseEntity<StudentPurgeJobView> submit(@RequestBody StudentPurgeRequest request) {
+        StudentPurgeJobView job = studentPurgeService.submit(request);
+        return ResponseEntity.accepted().location(URI.create("/api/students/purges/" + job.id())).body(job);
+    }
+
+    @Operation(summary = "Get a purge job",
+            description = "Its state and progress. Finished jobs are kept for an hour.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Job found",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = StudentPurgeJobView.class))),
+            @ApiResponse(responseCode = "404", description = "Job not found")
+    })
+    @GetMapping("/{id}")
+    public StudentPurgeJobView getJob(@Parameter(description = "Job id") @PathVariable UUID id) {
+        return studentPurgeService.getJob(id);
+    }
+
+    @Operation(summary = "Cancel a purge job",
+            description = "A queued job will not run; a running one stops after its current chunk. Chunks already "
+                    + "committed stay deleted.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Job cancelled, or already finished",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = StudentPurgeJobView.class))),
+            @ApiResponse(responseCode = "404", description = "Job not found")
+    })
+    @DeleteMapping("/{id}")
+    public StudentPurgeJobView cancelJob(@Parameter(description = "Job id") @PathVariable UUID id) {
+        return studentPurgeService.cancelJob(id);
+    }
+}
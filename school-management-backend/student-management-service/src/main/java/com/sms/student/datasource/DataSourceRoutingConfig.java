@@ -0,0 +1,117 @@
+package com.sms.student.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only transactions on PostgreSQL streaming replicas, everything else on the primary. The application's
+ * DataSource hands out connections lazily: by the time a statement needs one, the transaction has said whether
+ * it is read-only, and read-only ones are served by ReplicaDataSource. With no replica-urls every read goes to
+ * the primary, as before.
+ * <p>
+ * Replicas are checked every replica-check-interval; one that cannot be reached, or is more than max-lag behind,
+ * is not read from until a later check finds it healthy again. A client that has written reads from the primary
+ * for max-lag plus one check interval afterwards (ReadYourWritesFilter), so it never reads a replica that has
+ * not yet replayed its write.
+ */
+@Configuration
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    @Bean(destroyMethod = "close")
+    ReplicaDataSource replicaDataSource(HikariDataSource primaryDataSource, MeterRegistry registry,
+                                        @Value("${students.datasource.replica-urls:}") List<String> replicaUrls,
+                                        @Value("${students.datasource.max-lag:PT5S}") Duration maxLag,
+                                        @Value("${students.datasource.replica-connection-timeout:PT1S}") Duration connectionTimeout) {
+        List<Replica> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (!StringUtils.hasText(url)) {
+                continue;
+            }
+            String name = "replica-" + (replicas.size() + 1);
+            Replica replica = new Replica(new HikariDataSource(replicaConfig(primaryDataSource, url.trim(), name, connectionTimeout, registry)),
+                    reads(registry, name));
+            Gauge.builder("datasource.replica.lag", replica, Replica::lagSeconds)
+                    .description("How far the replica was behind the primary at its last check; NaN while it is down")
+                    .baseUnit("seconds")
+                    .tag("replica", name)
+                    .register(registry);
+            replicas.add(replica);
+        }
+        Counter primaryReads = reads(registry, "primary");
+        return new ReplicaDataSource(primaryDataSource, List.copyOf(replicas), maxLag, primaryReads::increment);
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(new WriteTrackingDataSource(primaryDataSource));
+        routing.setReadOnlyDataSource(replicaDataSource);
+        return routing;
+    }
+
+    @Bean
+    ReadYourWritesFilter readYourWritesFilter(@Value("${students.datasource.max-lag:PT5S}") Duration maxLag,
+                                              @Value("${students.datasource.replica-check-interval:PT2S}") Duration checkInterval) {
+        return new ReadYourWritesFilter(maxLag.plus(checkInterval));
+    }
+
+    private static Counter reads(MeterRegistry registry, String target) {
+        return Counter.builder("datasource.reads")
+                .description("Read-only transactions by the database that served them")
+                .tag("target", target)
+                .register(registry);
+    }
+
+    // The primary's pool settings, read-only, and quick to give up so a dead replica does not stall reads. The
+    // driver is found from the URL.
+    private static HikariConfig replicaConfig(HikariDataSource primary, String url, String name,
+                                             Duration connectionTimeout, MeterRegistry registry) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setJdbcUrl(url);
+        config.setUsername(primary.getUsername());
+        config.setPassword(primary.getPassword());
+        config.setDataSourceProperties(primary.getDataSourceProperties());
+        // Unset (-1) until the primary's pool starts, which then applies Hikari's defaults; so will the replica's
+        if (primary.getMaximumPoolSize() > 0) {
+            config.setMaximumPoolSize(primary.getMaximumPoolSize());
+        }
+        if (primary.getMinimumIdle() >= 0) {
+            config.setMinimumIdle(primary.getMinimumIdle());
+        }
+        config.setIdleTimeout(primary.getIdleTimeout());
+        config.setMaxLifetime(primary.getMaxLifetime());
+        config.setKeepaliveTime(primary.getKeepaliveTime());
+        config.setValidationTimeout(primary.getValidationTimeout());
+        config.setConnectionTimeout(connectionTimeout.toMillis());
+        config.setReadOnly(true);
+        // Start even while the replica is unreachable; the health checks pick it up once it is back
+        config.setInitializationFailTimeout(-1);
+        config.setMetricRegistry(registry);
+        return config;
+    }
+}
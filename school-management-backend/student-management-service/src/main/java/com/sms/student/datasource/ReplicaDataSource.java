@@ -0,0 +1,196 @@
+package com.sms.student.datasource;
+
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Where read-only transactions get their connection (see DataSourceRoutingConfig): the replica with the fewest
+ * connections in use among those that passed their last health check no more than max-lag behind the primary,
+ * or the primary when there is none or the thread is pinned to it (ReadRouting). A replica that fails to hand
+ * out a connection is left out until its next successful check, and the read goes elsewhere.
+ * <p>
+ * A standby's own view of its lag cannot be trusted alone: one whose WAL receiver has stalled has replayed all
+ * it received and looks current forever. So each check also records how far the primary's WAL has got, and a
+ * standby counts as behind by the age of the latest such position it has not replayed past, which keeps
+ * growing while it stalls. The lag is therefore measured to within one check interval, and max-lag should be
+ * longer than that.
+ */
+public class ReplicaDataSource extends AbstractDataSource {
+
+    // A standby's own view: nothing when it has replayed all the WAL it has received, otherwise the age of the
+    // last transaction it replayed; null when its WAL receiver is not streaming or has heard nothing from the
+    // primary for a minute (idle primaries send keepalives well within that). The receiver's status is only
+    // visible to roles with pg_read_all_stats; without it, the primary's WAL positions alone catch a stall.
+    // Then where it has replayed up to. A server that is not a standby is not behind.
+    private static final String STANDBY_QUERY = """
+            select case when not pg_is_in_recovery() then 0
+                        when not exists (select 1 from pg_stat_wal_receiver
+                                         where status is null
+                                            or (status = 'streaming' and last_msg_receipt_time > now() - interval '1 minute')) then null
+                        when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0
+                        else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0) end,
+                   pg_is_in_recovery(),
+                   (pg_last_wal_replay_lsn() - '0/0'::pg_lsn)::bigint""";
+    private static final String PRIMARY_POSITION_QUERY = "select (pg_current_wal_lsn() - '0/0'::pg_lsn)::bigint";
+
+    // Reported for a replica whose lag cannot be told; far beyond any max-lag
+    private static final Duration UNKNOWN_LAG = Duration.ofDays(1);
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    private final Runnable primaryRead;
+
+    // Rotates where ties between equally loaded replicas are broken
+    private final AtomicInteger next = new AtomicInteger();
+
+    // The primary's WAL position at each recent check, oldest first; kept for twice max-lag
+    private final Deque<WalPosition> primaryPositions = new ArrayDeque<>();
+
+    ReplicaDataSource(DataSource primary, List<Replica> replicas, Duration maxLag, Runnable primaryRead) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.maxLag = maxLag;
+        this.primaryRead = primaryRead;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!ReadRouting.isPinnedToPrimary()) {
+            for (Replica replica : candidates()) {
+                try {
+                    Connection connection = replica.pool().getConnection();
+                    replica.reads().increment();
+                    return connection;
+                } catch (SQLException e) {
+                    replica.down(e);
+                }
+            }
+        }
+        primaryRead.run();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) {
+        throw new UnsupportedOperationException("Replica credentials come from spring.datasource");
+    }
+
+    @Scheduled(fixedDelayString = "${students.datasource.replica-check-interval:PT2S}")
+    public synchronized void checkReplicas() {
+        if (replicas.isEmpty()) {
+            return;
+        }
+        recordPrimaryPosition();
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.pool().getConnection()) {
+                replica.up(lagOf(connection));
+            } catch (SQLException e) {
+                replica.down(e);
+            }
+        }
+    }
+
+    List<Replica> replicas() {
+        return replicas;
+    }
+
+    public void close() {
+        replicas.forEach(Replica::close);
+    }
+
+    private List<Replica> candidates() {
+        if (replicas.isEmpty()) {
+            return replicas;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        List<Replica> usable = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.isUsable(maxLag)) {
+                usable.add(replica);
+            }
+        }
+        // Stable: among equally loaded replicas the rotated order decides
+        usable.sort(Comparator.comparingInt(Replica::activeConnections));
+        return usable;
+    }
+
+    private void recordPrimaryPosition() {
+        Instant now = Instant.now();
+        try (Connection connection = primary.getConnection()) {
+            if (connection.isWrapperFor(PGConnection.class)) {
+                try (Statement statement = connection.createStatement();
+                     ResultSet result = statement.executeQuery(PRIMARY_POSITION_QUERY)) {
+                    result.next();
+                    primaryPositions.addLast(new WalPosition(now, result.getLong(1)));
+                }
+            }
+        } catch (SQLException e) {
+            // Judged by the positions already recorded, which age while the primary is away
+        }
+        Instant oldest = now.minus(maxLag.multipliedBy(2));
+        while (primaryPositions.size() > 1 && primaryPositions.peekFirst().at().isBefore(oldest)) {
+            primaryPositions.removeFirst();
+        }
+    }
+
+    private Duration lagOf(Connection connection) throws SQLException {
+        if (!connection.isWrapperFor(PGConnection.class)) {
+            return connection.isValid(1) ? Duration.ZERO : UNKNOWN_LAG;
+        }
+        try (Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery(STANDBY_QUERY)) {
+            result.next();
+            double ownLagSeconds = result.getDouble(1);
+            if (result.wasNull()) {
+                return UNKNOWN_LAG;
+            }
+            if (!result.getBoolean(2)) {
+                return Duration.ZERO;
+            }
+            long replayed = result.getLong(3);
+            if (result.wasNull()) {
+                return UNKNOWN_LAG;
+            }
+            Duration ownLag = Duration.ofNanos((long) (ownLagSeconds * 1e9));
+            Duration positionLag = positionLag(replayed);
+            return positionLag.compareTo(ownLag) > 0 ? positionLag : ownLag;
+        }
+    }
+
+    // Age of the latest recorded primary position the standby has replayed past; at least the age of the
+    // oldest when it has replayed past none of them
+    private Duration positionLag(long replayed) {
+        if (primaryPositions.isEmpty()) {
+            return Duration.ZERO;
+        }
+        Instant now = Instant.now();
+        Iterator<WalPosition> newestFirst = primaryPositions.descendingIterator();
+        while (newestFirst.hasNext()) {
+            WalPosition position = newestFirst.next();
+            if (position.lsn() <= replayed) {
+                return Duration.between(position.at(), now);
+            }
+        }
+        return Duration.between(primaryPositions.peekFirst().at(), now);
+    }
+
+    private record WalPosition(Instant at, long lsn) {
+    }
+}
@@ -0,0 +1,32 @@
+package com.sms.student.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// The primary, as the routing proxy sees it: a read-write transaction taking a connection from it marks the
+// request as having written once it commits (see ReadRouting#written)
+class WriteTrackingDataSource extends DelegatingDataSource {
+
+    WriteTrackingDataSource(DataSource primary) {
+        super(primary);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ReadRouting.written();
+                }
+            });
+        }
+        return super.getConnection();
+    }
+}
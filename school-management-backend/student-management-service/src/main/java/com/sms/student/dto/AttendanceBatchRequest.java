@@ -0,0 +1,10 @@
+package com.sms.student.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record AttendanceBatchRequest(@NotEmpty(message = "Marks cannot be empty")
+                                     List<@Valid AttendanceMark> marks) {
+}
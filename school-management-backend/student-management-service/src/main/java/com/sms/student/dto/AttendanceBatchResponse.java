@@ -0,0 +1,5 @@
+package com.sms.student.dto;
+
+// Returned once the marks are committed
+public record AttendanceBatchResponse(int recorded) {
+}
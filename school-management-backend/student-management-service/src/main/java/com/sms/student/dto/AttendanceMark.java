@@ -0,0 +1,22 @@
+package com.sms.student.dto;
+
+import com.sms.student.model.AttendanceStatus;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+// One student's attendance in one period of a class; marking the same period again corrects it
+public record AttendanceMark(@NotBlank(message = "Class ID cannot be empty")
+                             @Size(max = 255, message = "Class ID must be at most 255 characters") String classId,
+                             @NotNull(message = "Student ID cannot be null") UUID studentId,
+                             @NotNull(message = "Date cannot be null") LocalDate date,
+                             @NotNull(message = "Period cannot be null")
+                             @Min(value = 1, message = "Period must be between 1 and 24")
+                             @Max(value = 24, message = "Period must be between 1 and 24") Integer period,
+                             @NotNull(message = "Status cannot be null") AttendanceStatus status) {
+}
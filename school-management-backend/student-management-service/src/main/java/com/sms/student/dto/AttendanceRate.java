@@ -0,0 +1,25 @@
+package com.sms.student.dto;
+
+import java.util.UUID;
+
+/**
+ * Attendance totals, counting the latest mark of each period. rate is the share of periods attended
+ * (present or late) among those not excused, or null when there are none.
+ * <p>
+ * classId and studentId name the class or student of a breakdown line; both are null on a report total.
+ */
+public record AttendanceRate(String classId,
+                             UUID studentId,
+                             long periods,
+                             long present,
+                             long late,
+                             long absent,
+                             long excused,
+                             Double rate) {
+
+    public static AttendanceRate of(String classId, UUID studentId, long periods, long present, long late, long absent, long excused) {
+        long counted = periods - excused;
+        return new AttendanceRate(classId, studentId, periods, present, late, absent, excused,
+                counted == 0 ? null : (double) (present + late) / counted);
+    }
+}
@@ -0,0 +1,23 @@
+package com.sms.student.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Attendance over from..to inclusive: the total, and one line per class (for a student) or per student (for a class)
+public record AttendanceReport(LocalDate from,
+                               LocalDate to,
+                               AttendanceRate total,
+                               List<AttendanceRate> breakdown) {
+
+    public static AttendanceReport of(LocalDate from, LocalDate to, List<AttendanceRate> breakdown) {
+        long periods = 0, present = 0, late = 0, absent = 0, excused = 0;
+        for (AttendanceRate line : breakdown) {
+            periods += line.periods();
+            present += line.present();
+            late += line.late();
+            absent += line.absent();
+            excused += line.excused();
+        }
+        return new AttendanceReport(from, to, AttendanceRate.of(null, null, periods, present, late, absent, excused), breakdown);
+    }
+}
@@ -0,0 +1,20 @@
+package com.sms.student.dto;
+
+import java.util.List;
+
+public record BatchEnrollmentResponse(int requested,
+                                      int enrolled,
+                                      int waitlisted,
+                                      int failed,
+                                      List<BatchEnrollmentResult> results) {
+
+    public static BatchEnrollmentResponse of(List<BatchEnrollmentResult> results) {
+        return new BatchEnrollmentResponse(results.size(), count(results, BatchEnrollmentResult.Outcome.ENROLLED),
+                count(results, BatchEnrollmentResult.Outcome.WAITLISTED), count(results, BatchEnrollmentResult.Outcome.FAILED),
+                results);
+    }
+
+    private static int count(List<BatchEnrollmentResult> results, BatchEnrollmentResult.Outcome outcome) {
+        return (int) results.stream().filter(result -> result.outcome() == outcome).count();
+    }
+}
@@ -0,0 +1,21 @@
+package com.sms.student.dto;
+
+import java.util.UUID;
+
+// Outcome for one pair of a batch enrollment request, reported in request order
+public record BatchEnrollmentResult(UUID studentId,
+                                    String classId,
+                                    Outcome outcome,
+                                    UUID enrollmentId) {
+
+    public enum Outcome {
+        ENROLLED,
+        // The class is at capacity; the enrollment was created on its waitlist
+        WAITLISTED,
+        ALREADY_ENROLLED,
+        DUPLICATE_IN_REQUEST,
+        STUDENT_NOT_FOUND,
+        // The database rejected the enrollment; the other pairs of the request are unaffected
+        FAILED
+    }
+}
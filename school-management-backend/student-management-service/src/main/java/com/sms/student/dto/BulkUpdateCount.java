@@ -0,0 +1,5 @@
+package com.sms.student.dto;
+
+// Rows changed by one set-based PATCH
+public record BulkUpdateCount(int updated) {
+}
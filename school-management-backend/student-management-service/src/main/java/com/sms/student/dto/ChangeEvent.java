@@ -0,0 +1,23 @@
+package com.sms.student.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.sms.student.changes.ChangeType;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change to a student or class, as a row of the change-feed outbox and as an entry of the feed. position
+ * orders the feed and is assigned when the relay picks the event up (null before); id identifies the event, and
+ * is what consumers deduplicate on when a sink delivers it more than once. payload is JSON: the student after
+ * the change for CREATED and UPDATED, the enrollment ({studentId, classId, status}, status null once removed)
+ * for ENROLLMENT_CHANGED, the class's seating ({classId, capacity, seated, waitlisted}) for CAPACITY_CHANGED,
+ * and null for DELETED and ARCHIVED.
+ */
+public record ChangeEvent(Long id,
+                          Long position,
+                          String aggregateType,
+                          String aggregateId,
+                          ChangeType type,
+                          @JsonRawValue String payload,
+                          LocalDateTime occurredAt) {
+}
@@ -0,0 +1,9 @@
+package com.sms.student.dto;
+
+import java.util.List;
+
+// Changes after the requested position, oldest first; pass next back as since to fetch the following ones
+public record ChangeFeedPage(List<ChangeEvent> events,
+                             long next,
+                             boolean hasMore) {
+}
@@ -0,0 +1,7 @@
+package com.sms.student.dto;
+
+import java.time.LocalDate;
+
+// The unit attendance rollups are recomputed in: one class on one day
+public record ClassDay(String classId, LocalDate date) {
+}
@@ -0,0 +1,8 @@
+package com.sms.student.dto;
+
+// Seat usage of a class; capacity is null for a class without a limit
+public record ClassSeating(String classId,
+                           Integer capacity,
+                           long seated,
+                           long waitlisted) {
+}
@@ -0,0 +1,10 @@
+package com.sms.student.dto;
+
+import java.util.List;
+
+// One page of a keyset-paginated listing; pass nextCursor back to fetch the following page
+public record CursorPage<T>(List<T> items,
+                            int size,
+                            String nextCursor,
+                            boolean hasNext) {
+}
@@ -0,0 +1,7 @@
+package com.sms.student.dto;
+
+import java.util.UUID;
+
+// (student, class) identity of an enrollment, used for set-based duplicate checks
+public record EnrollmentKey(UUID studentId, String classId) {
+}
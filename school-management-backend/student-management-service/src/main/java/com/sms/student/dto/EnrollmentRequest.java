@@ -0,0 +1,11 @@
+package com.sms.student.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.UUID;
+
+// One (student, class) pair in a batch enrollment request
+public record EnrollmentRequest(@NotNull(message = "Student ID cannot be null") UUID studentId,
+                                @NotBlank(message = "Class ID cannot be empty") String classId) {
+}
@@ -0,0 +1,34 @@
+package com.sms.student.dto;
+
+import com.sms.student.model.ClosedEnrollment;
+import com.sms.student.model.Enrollment;
+import com.sms.student.model.EnrollmentStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Read model for an enrollment; refers to its student by id only so it never touches the lazy association
+public record EnrollmentView(UUID id,
+                             UUID studentId,
+                             String classId,
+                             Integer academicYear,
+                             LocalDateTime enrollmentDate,
+                             EnrollmentStatus status,
+                             Integer seatNumber,
+                             LocalDateTime completionDate,
+                             Long version) {
+
+    public static EnrollmentView from(Enrollment enrollment) {
+        // getId() on an uninitialized proxy returns the foreign key without a query
+        return new EnrollmentView(enrollment.getId(), enrollment.getStudent().getId(), enrollment.getClassId(),
+                enrollment.getAcademicYear(), enrollment.getEnrollmentDate(), enrollment.getStatus(),
+                enrollment.getSeatNumber(), enrollment.getCompletionDate(), enrollment.getVersion());
+    }
+
+    // Closed enrollments hold no seat and are never updated, so they have neither
+    public static EnrollmentView from(ClosedEnrollment enrollment) {
+        return new EnrollmentView(enrollment.getId(), enrollment.getStudentId(), enrollment.getClassId(),
+                enrollment.getAcademicYear(), enrollment.getEnrollmentDate(), enrollment.getStatus(), null,
+                enrollment.getCompletionDate(), null);
+    }
+}
@@ -0,0 +1,9 @@
+package com.sms.student.dto;
+
+import com.sms.student.model.EnrollmentStatus;
+
+import java.util.UUID;
+
+// A student's standing in a class for the roster index; status is null once the enrollment is gone
+public record RosterEntry(UUID studentId, String classId, EnrollmentStatus status) {
+}
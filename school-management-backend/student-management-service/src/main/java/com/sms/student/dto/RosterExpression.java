@@ -0,0 +1,22 @@
+package com.sms.student.dto;
+
+import com.sms.student.model.EnrollmentStatus;
+import jakarta.validation.Valid;
+
+import java.util.List;
+
+/**
+ * A set of students, as exactly one of: classIds, the students enrolled in any of those classes (in one of
+ * statuses, or any status when omitted); union or intersection of the sub-expressions; or difference, the
+ * students of the first sub-expression who are in none of the others.
+ */
+public record RosterExpression(List<String> classIds,
+                               List<EnrollmentStatus> statuses,
+                               List<@Valid RosterExpression> union,
+                               List<@Valid RosterExpression> intersection,
+                               List<@Valid RosterExpression> difference) {
+
+    public static RosterExpression inClasses(List<String> classIds, List<EnrollmentStatus> statuses) {
+        return new RosterExpression(classIds, statuses, null, null, null);
+    }
+}
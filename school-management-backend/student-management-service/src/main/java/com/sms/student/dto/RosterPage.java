@@ -0,0 +1,11 @@
+package com.sms.student.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+// The students matching a roster query: how many in all, and one page of their ids. Pass nextAfter back
+// as after for the following page; it is null on the last one.
+public record RosterPage(long count,
+                         List<UUID> studentIds,
+                         UUID nextAfter) {
+}
@@ -0,0 +1,13 @@
+package com.sms.student.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.UUID;
+
+// limit caps the student ids returned (0 for the count only); after is the nextAfter of the previous page
+public record RosterQuery(@NotNull(message = "Expression cannot be null") @Valid RosterExpression expression,
+                          @Min(value = 0, message = "Limit cannot be negative") Integer limit,
+                          UUID after) {
+}
@@ -0,0 +1,28 @@
+package com.sms.student.dto;
+
+import com.sms.student.model.Student;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// Read model for a single student together with its enrollments
+public record StudentDetail(UUID id,
+                            String name,
+                            String email,
+                            LocalDate dob,
+                            String address,
+                            LocalDateTime enrollmentDate,
+                            List<EnrollmentView> enrollments,
+                            Long version) {
+
+    // Callers must have the enrollments collection initialized (see StudentRepository#findWithEnrollmentsById)
+    public static StudentDetail from(Student student) {
+        List<EnrollmentView> enrollments = student.getEnrollments() == null
+                ? List.of()
+                : student.getEnrollments().stream().map(EnrollmentView::from).toList();
+        return new StudentDetail(student.getId(), student.getName(), student.getEmail(), student.getDob(),
+                student.getAddress(), student.getEnrollmentDate(), enrollments, student.getVersion());
+    }
+}
@@ -0,0 +1,5 @@
+package com.sms.student.dto;
+
+// Why one record of an import was rejected; line is where the record starts in the file
+public record StudentImportError(long line, String message) {
+}
@@ -0,0 +1,10 @@
+package com.sms.student.dto;
+
+import java.util.List;
+
+// Outcome of an import: counts cover every record, errors lists the first rejected ones in file order
+public record StudentImportReport(long imported,
+                                  long rejected,
+                                  List<StudentImportError> errors,
+                                  boolean errorsTruncated) {
+}
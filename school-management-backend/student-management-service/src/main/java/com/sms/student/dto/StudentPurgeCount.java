@@ -0,0 +1,5 @@
+package com.sms.student.dto;
+
+// Students and enrollments removed (and archived, if asked) by one purge
+public record StudentPurgeCount(int students, int enrollments) {
+}
@@ -0,0 +1,21 @@
+package com.sms.student.dto;
+
+import com.sms.student.purge.StudentPurgeJobState;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A purge job as its submitter polls it. progress is present once the job has started, and stays once it has
+ * finished: a cancelled or failed job keeps the chunks it had already committed.
+ */
+public record StudentPurgeJobView(UUID id, StudentPurgeRequest request, StudentPurgeJobState state, Instant submittedAt,
+                                  Instant startedAt, Instant finishedAt, Progress progress, String error) {
+
+    /**
+     * matched is the number of students the request matched when the job started; students and enrollments
+     * count those removed so far, in chunks of one transaction each.
+     */
+    public record Progress(long matched, long students, long enrollments, int chunks) {
+    }
+}
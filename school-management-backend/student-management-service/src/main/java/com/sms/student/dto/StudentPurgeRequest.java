@@ -0,0 +1,18 @@
+package com.sms.student.dto;
+
+import com.sms.student.model.EnrollmentStatus;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Students to delete, or to move to the archive tables when archive is set: either listed by id, or all those
+ * matching the filter. enrollmentYear picks a cohort by the year its students enrolled in the school; status
+ * picks the students with at least one enrollment, all of them in that status (COMPLETED for leavers).
+ * When both filter fields are given a student must match both.
+ */
+public record StudentPurgeRequest(List<UUID> studentIds,
+                                  Integer enrollmentYear,
+                                  EnrollmentStatus status,
+                                  boolean archive) {
+}
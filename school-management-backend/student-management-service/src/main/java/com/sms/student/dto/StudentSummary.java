@@ -0,0 +1,21 @@
+package com.sms.student.dto;
+
+import com.sms.student.model.Student;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Flat list row for a student; carries no enrollments so it can be built straight from a query
+public record StudentSummary(UUID id,
+                             String name,
+                             String email,
+                             LocalDate dob,
+                             String address,
+                             LocalDateTime enrollmentDate) {
+
+    public static StudentSummary from(Student student) {
+        return new StudentSummary(student.getId(), student.getName(), student.getEmail(),
+                student.getDob(), student.getAddress(), student.getEnrollmentDate());
+    }
+}
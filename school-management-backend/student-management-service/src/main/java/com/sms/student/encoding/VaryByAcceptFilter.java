@@ -0,0 +1,27 @@
+package com.sms.student.encoding;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Marks every GET response as chosen by Accept. Any body can go out as JSON or CBOR, under the same version
+ * ETag, so a shared cache must not hand one client the representation another asked for, nor take a 304 as
+ * validating it. Set before the handler runs, so 304s and streamed responses carry it too.
+ */
+class VaryByAcceptFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if ("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod())) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        chain.doFilter(request, response);
+    }
+}
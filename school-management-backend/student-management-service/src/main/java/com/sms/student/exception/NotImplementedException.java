@@ -0,0 +1,11 @@
+package com.sms.student.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_IMPLEMENTED)
+public class NotImplementedException extends RuntimeException {
+    public NotImplementedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,40 @@
+package com.sms.student.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// An enrollment of an archived student; the student id is a plain column, with no foreign key to either table
+@Entity
+@Table(name = "enrollments_archive", indexes = @Index(name = "idx_enrollments_archive_student_id", columnList = "student_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedEnrollment {
+    @Id
+    private UUID id;
+
+    private UUID studentId;
+
+    private String classId;
+
+    private Integer academicYear;
+
+    private LocalDateTime enrollmentDate;
+
+    @Enumerated(EnumType.STRING)
+    private EnrollmentStatus status;
+
+    private LocalDateTime completionDate;
+
+    private LocalDateTime archivedAt;
+}
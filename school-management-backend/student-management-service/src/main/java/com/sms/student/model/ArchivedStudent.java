@@ -0,0 +1,36 @@
+package com.sms.student.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// A student removed from the live tables by an archiving purge, kept as it was; written only by
+// StudentRepository#archiveByIdIn
+@Entity
+@Table(name = "students_archive")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedStudent {
+    @Id
+    private UUID id;
+
+    private String name;
+
+    private String email;
+
+    private LocalDate dob;
+
+    private String address;
+
+    private LocalDateTime enrollmentDate;
+
+    private LocalDateTime archivedAt;
+}
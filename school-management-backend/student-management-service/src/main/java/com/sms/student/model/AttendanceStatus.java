@@ -0,0 +1,8 @@
+package com.sms.student.model;
+
+public enum AttendanceStatus {
+    PRESENT,
+    LATE,
+    ABSENT,
+    EXCUSED
+}
@@ -0,0 +1,23 @@
+package com.sms.student.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Seat limit of a class. Classes without a row here take any number of enrollments.
+@Entity
+@Table(name = "class_capacities")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClassCapacity {
+    @Id
+    private String classId;
+
+    @Min(value = 0, message = "Capacity cannot be negative")
+    private int capacity;
+}
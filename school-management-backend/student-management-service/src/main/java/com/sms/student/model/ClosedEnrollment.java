@@ -0,0 +1,42 @@
+package com.sms.student.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// A COMPLETED or DROPPED enrollment of a past academic year, moved out of enrollments by ClosedEnrollmentArchiver.
+// Partitioned by academic year on PostgreSQL (db/enrollment-terms.sql); the student id is a plain column, with no
+// foreign key, so rows move in checking nothing per row.
+@Entity
+@Table(name = "enrollments_closed", indexes = @Index(name = "idx_enrollments_closed_student_id", columnList = "student_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClosedEnrollment {
+    @Id
+    private UUID id;
+
+    private UUID studentId;
+
+    private String classId;
+
+    private Integer academicYear;
+
+    private LocalDateTime enrollmentDate;
+
+    @Enumerated(EnumType.STRING)
+    private EnrollmentStatus status;
+
+    private LocalDateTime completionDate;
+
+    private LocalDateTime movedAt;
+}
@@ -5,30 +5,49 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "enrollments")
+@Table(name = "enrollments", indexes = {
+        @Index(name = "idx_enrollments_student_id", columnList = "student_id"),
+        @Index(name = "idx_enrollments_class_status", columnList = "class_id, status, enrollment_date")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_enrollments_class_student", columnNames = {"class_id", "student_id"}),
+        // Rules out oversubscription: a seat of a class can be held by one enrollment only
+        @UniqueConstraint(name = "uk_enrollments_class_seat", columnNames = {"class_id", "seat_number"})
+})
+@DynamicUpdate // Updates set only the columns that changed
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Enrollment {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @UuidGenerator(algorithm = TimeOrderedUuidGenerator.class) // Time-ordered (v7) so inserts append to the index
     private UUID id;
 
     // Many-to-One relationship with Student
     @ManyToOne(fetch = FetchType.LAZY) // Lazy fetch to avoid loading student info unnecessarily
-    @JoinColumn(name = "student_id", nullable = false) // Foreign key column
+    @JoinColumn(name = "student_id", nullable = false, foreignKey = @ForeignKey(name = "fk_enrollments_student")) // Foreign key column
     @NotNull(message = "Student cannot be null")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Student student;
 
     @NotBlank(message = "Class ID cannot be empty")
     private String classId; // This would typically be a foreign key to a 'Class' entity/service
 
+    // Academic year the enrollment was made in (see AcademicCalendar); once closed, it is archived by year
+    @NotNull(message = "Academic year cannot be empty")
+    private Integer academicYear;
+
     @NotNull(message = "Enrollment date cannot be empty")
     private LocalDateTime enrollmentDate;
 
@@ -36,5 +55,13 @@ public class Enrollment {
     @NotNull(message = "Enrollment status cannot be empty")
     private EnrollmentStatus status;
 
+    // Seat 1..capacity in a class with a capacity (see ClassCapacity); null on the waitlist or in an unlimited class
+    private Integer seatNumber;
+
     private LocalDateTime completionDate; // Optional: when enrollment was completed
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
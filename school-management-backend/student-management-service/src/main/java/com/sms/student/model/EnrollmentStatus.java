@@ -4,5 +4,11 @@ public enum EnrollmentStatus {
     ACTIVE,
     COMPLETED,
     DROPPED,
-    PENDING
-}
\ No newline at end of file
+    PENDING,
+    WAITLISTED;
+
+    // Whether an enrollment in this status occupies one of its class's seats
+    public boolean holdsSeat() {
+        return this != DROPPED && this != WAITLISTED;
+    }
+}
@@ -1,13 +1,20 @@
 package com.sms.student.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PastOrPresent;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -15,20 +22,31 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "students")
+// Listing sorts are (key, id) seeks; each is one index range scan rather than a sort of the whole table
+@Table(name = "students", indexes = {
+        @Index(name = "idx_students_name_id", columnList = "name, id"),
+        @Index(name = "idx_students_enrollment_date_id", columnList = "enrollment_date, id")
+})
+// Ids read by native queries; H2 hands uuid columns to them as bytes otherwise
+@SqlResultSetMapping(name = Student.IDS, columns = @ColumnResult(name = "id", type = UUID.class))
+@DynamicUpdate // Updates set only the columns that changed
 @Data // Lombok: Generates getters, setters, toString, equals, hashCode
 @NoArgsConstructor // Lombok: Generates no-argument constructor
 @AllArgsConstructor // Lombok: Generates constructor with all arguments
 public class Student {
+    public static final String IDS = "Student.ids";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @UuidGenerator(algorithm = TimeOrderedUuidGenerator.class) // Time-ordered (v7) so inserts append to the index
     private UUID id; // Using UUID for IDs
 
     @NotBlank(message = "Name cannot be empty")
+    @Size(max = 255, message = "Name cannot be longer than 255 characters")
     private String name;
 
     @NotBlank(message = "Email cannot be empty")
     @Email(message = "Email should be valid")
+    @Size(max = 255, message = "Email cannot be longer than 255 characters")
     @Column(unique = true)
     private String email;
 
@@ -37,6 +55,7 @@ public class Student {
     private LocalDate dob; // Date of Birth
 
     @NotBlank(message = "Address cannot be empty")
+    @Size(max = 255, message = "Address cannot be longer than 255 characters")
     private String address;
 
     @NotNull(message = "Enrollment date cannot be empty")
@@ -44,6 +63,17 @@ public class Student {
 
     // One-to-Many relationship with Enrollment
     // orphanRemoval = true: if an enrollment is removed from the list, it's also removed from the DB
+    // Excluded from toString/equals/hashCode so they never initialize the lazy collection (or recurse via Enrollment.student)
     @OneToMany(mappedBy = "student", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<Enrollment> enrollments; // List of enrollments for this student
+
+    // Optimistic lock and ETag source. Also bumped whenever one of the student's enrollments changes,
+    // since StudentDetail embeds them (see StudentRepository#incrementVersions). Never taken from a request body.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
 }
@@ -0,0 +1,47 @@
+package com.sms.student.observability;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// SQL prepared by Hibernate on the current request thread, between RequestMetricsFilter's begin() and end()
+final class RequestSqlTrace {
+
+    private static final ThreadLocal<RequestSqlTrace> CURRENT = new ThreadLocal<>();
+
+    private final int maxStatements;
+    private final List<String> statements = new ArrayList<>();
+    private int count;
+
+    private RequestSqlTrace(int maxStatements) {
+        this.maxStatements = maxStatements;
+    }
+
+    static RequestSqlTrace begin(int maxStatements) {
+        RequestSqlTrace trace = new RequestSqlTrace(maxStatements);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    // Keeps a reference only: Hibernate's statement strings are built once per query plan, not per execution
+    static void record(String sql) {
+        RequestSqlTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.count++;
+            if (trace.statements.size() < trace.maxStatements) {
+                trace.statements.add(sql);
+            }
+        }
+    }
+
+    int count() {
+        return count;
+    }
+
+    List<String> statements() {
+        return statements;
+    }
+}
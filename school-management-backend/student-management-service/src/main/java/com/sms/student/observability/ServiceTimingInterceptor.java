@@ -0,0 +1,54 @@
+package com.sms.student.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Times every public service method; the timers are looked up once per method, not built per call
+class ServiceTimingInterceptor implements MethodInterceptor {
+
+    // Resolved on first use: an advisor is created before the registry's own post-processing (filters,
+    // histogram settings) would have been applied to it
+    private final ObjectProvider<MeterRegistry> registry;
+    private final Map<Method, Timer[]> timers = new ConcurrentHashMap<>();
+
+    ServiceTimingInterceptor(ObjectProvider<MeterRegistry> registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Timer[] outcomes = timers.computeIfAbsent(invocation.getMethod(),
+                method -> timersFor(AopUtils.getTargetClass(invocation.getThis()).getSimpleName(), method.getName()));
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object result = invocation.proceed();
+            failed = false;
+            return result;
+        } finally {
+            outcomes[failed ? 1 : 0].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer[] timersFor(String className, String methodName) {
+        return new Timer[]{timer(className, methodName, "success"), timer(className, methodName, "error")};
+    }
+
+    private Timer timer(String className, String methodName, String outcome) {
+        return Timer.builder("service.calls")
+                .description("Service method calls, cache hits included")
+                .tag("class", className)
+                .tag("method", methodName)
+                .tag("outcome", outcome)
+                .register(registry.getObject());
+    }
+}
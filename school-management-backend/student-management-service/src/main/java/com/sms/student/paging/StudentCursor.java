@@ -0,0 +1,63 @@
+package com.sms.student.paging;
+
+import com.sms.student.exception.BadRequestException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Encodes and decodes opaque keyset cursors for the student listing.
+ * A cursor records the sort it was issued for plus the (sort key, id) of the last row returned,
+ * so the next page is a seek ("key > last") instead of an OFFSET scan.
+ */
+public final class StudentCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private StudentCursor() {
+    }
+
+    public static Sort sortFor(StudentSortField field, Sort.Direction direction) {
+        return Sort.by(direction, field.getProperty()).and(Sort.by(direction, "id"));
+    }
+
+    public static String encode(StudentSortField field, Sort.Direction direction, ScrollPosition position) {
+        Map<String, ?> keys = ((KeysetScrollPosition) position).getKeys();
+        String raw = String.join(SEPARATOR,
+                field.name(),
+                direction.name(),
+                String.valueOf(keys.get("id")),
+                String.valueOf(keys.get(field.getProperty())));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ScrollPosition decode(String cursor, StudentSortField field, Sort.Direction direction) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            // The key goes last and is split off with a limit, so it may itself contain the separator
+            String[] parts = raw.split("\\" + SEPARATOR, 4);
+            if (parts.length != 4) {
+                throw new BadRequestException("Malformed cursor");
+            }
+            if (!field.name().equals(parts[0]) || !direction.name().equals(parts[1])) {
+                throw new BadRequestException("Cursor was issued for a different sort order");
+            }
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put(field.getProperty(), field.parse(parts[3]));
+            keys.put("id", UUID.fromString(parts[2]));
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new BadRequestException("Malformed cursor");
+        }
+    }
+}
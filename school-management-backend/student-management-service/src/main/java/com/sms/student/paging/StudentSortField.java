@@ -0,0 +1,30 @@
+package com.sms.student.paging;
+
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * Columns a student listing can be ordered by. Each one is paired with the student id
+ * as a tie-breaker so the (key, id) tuple is unique and can be used as a keyset cursor.
+ */
+public enum StudentSortField {
+    NAME("name", value -> value),
+    EMAIL("email", value -> value),
+    ENROLLMENT_DATE("enrollmentDate", LocalDateTime::parse);
+
+    private final String property;
+    private final Function<String, Object> parser;
+
+    StudentSortField(String property, Function<String, Object> parser) {
+        this.property = property;
+        this.parser = parser;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    Object parse(String value) {
+        return parser.apply(value);
+    }
+}
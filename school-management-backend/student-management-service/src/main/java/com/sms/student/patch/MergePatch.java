@@ -0,0 +1,66 @@
+package com.sms.student.patch;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sms.student.exception.BadRequestException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * A JSON Merge Patch (RFC 7386) of a resource whose fields are all plain values: each member replaces that
+ * field and null clears it. Members naming a field the request may not change are rejected, not ignored.
+ */
+public final class MergePatch {
+
+    public static final String MEDIA_TYPE = "application/merge-patch+json";
+
+    private final ObjectNode members;
+
+    private MergePatch(ObjectNode members) {
+        this.members = members;
+    }
+
+    public static MergePatch of(JsonNode body, Set<String> patchable) {
+        if (!(body instanceof ObjectNode members) || members.isEmpty()) {
+            throw new BadRequestException("A merge patch must be a JSON object with at least one member");
+        }
+        List<String> unknown = new ArrayList<>();
+        members.fieldNames().forEachRemaining(field -> {
+            if (!patchable.contains(field)) {
+                unknown.add(field);
+            }
+        });
+        if (!unknown.isEmpty()) {
+            throw new BadRequestException("Cannot patch " + String.join(", ", unknown)
+                    + "; patchable fields are " + String.join(", ", new TreeSet<>(patchable)));
+        }
+        return new MergePatch(members);
+    }
+
+    public boolean has(String field) {
+        return members.has(field);
+    }
+
+    // Whether the patch sets the field to null
+    public boolean clears(String field) {
+        return members.has(field) && members.get(field).isNull();
+    }
+
+    // Sets the patched fields of target, each value read as it would be from a request body
+    public <T> T applyTo(T target, ObjectMapper objectMapper) {
+        try {
+            return objectMapper.readerForUpdating(target).readValue(members);
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Invalid patch: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.sms.student.purge;
+
+import com.sms.student.dto.StudentPurgeCount;
+import com.sms.student.dto.StudentPurgeJobView;
+import com.sms.student.dto.StudentPurgeRequest;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A submitted purge and how far it has got. State changes are synchronized, so a job cancelled while
+ * queued is never started and one cancelled while running stops after the chunk in hand, ending CANCELLED.
+ */
+public class StudentPurgeJob {
+
+    private final UUID id = UUID.randomUUID();
+    private final Instant submittedAt = Instant.now();
+    private final StudentPurgeRequest request;
+
+    private StudentPurgeJobState state = StudentPurgeJobState.QUEUED;
+    private boolean cancelled;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private long matched;
+    private long students;
+    private long enrollments;
+    private int chunks;
+    private String error;
+
+    public StudentPurgeJob(StudentPurgeRequest request) {
+        this.request = request;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public StudentPurgeRequest getRequest() {
+        return request;
+    }
+
+    // False if the job was cancelled before it could start
+    public synchronized boolean start(long matched) {
+        if (state != StudentPurgeJobState.QUEUED) {
+            return false;
+        }
+        this.matched = matched;
+        state = StudentPurgeJobState.RUNNING;
+        startedAt = Instant.now();
+        return true;
+    }
+
+    public synchronized void chunkDone(StudentPurgeCount removed) {
+        students += removed.students();
+        enrollments += removed.enrollments();
+        chunks++;
+    }
+
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    public synchronized void complete() {
+        state = cancelled ? StudentPurgeJobState.CANCELLED : StudentPurgeJobState.COMPLETED;
+        finishedAt = Instant.now();
+    }
+
+    public synchronized void fail(String error) {
+        this.error = error;
+        state = StudentPurgeJobState.FAILED;
+        finishedAt = Instant.now();
+    }
+
+    public synchronized void cancel() {
+        if (state == StudentPurgeJobState.QUEUED) {
+            state = StudentPurgeJobState.CANCELLED;
+            finishedAt = Instant.now();
+        }
+        cancelled = true;
+    }
+
+    public synchronized boolean finishedBefore(Instant instant) {
+        return finishedAt != null && finishedAt.isBefore(instant);
+    }
+
+    public synchronized StudentPurgeJobView view() {
+        return new StudentPurgeJobView(id, request, state, submittedAt, startedAt, finishedAt,
+                startedAt != null ? new StudentPurgeJobView.Progress(matched, students, enrollments, chunks) : null, error);
+    }
+}
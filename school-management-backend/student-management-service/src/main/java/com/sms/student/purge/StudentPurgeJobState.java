@@ -0,0 +1,9 @@
+package com.sms.student.purge;
+
+public enum StudentPurgeJobState {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    CANCELLED,
+    FAILED
+}
@@ -0,0 +1,169 @@
+package com.sms.student.repository;
+
+import com.sms.student.dto.AttendanceMark;
+import com.sms.student.dto.AttendanceRate;
+import com.sms.student.dto.ClassDay;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Attendance tables, without entities (schema in db/attendance.sql). Marks are only ever appended; the
+ * daily rollups are derived from them and are what reports read.
+ */
+@Repository
+public class AttendanceRepository {
+
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    private static final String COPY_MARKS = "copy attendance_marks (class_id, attendance_date, period, student_id, status, recorded_at) "
+            + "from stdin (format csv)";
+    private static final String INSERT_MARK = "insert into attendance_marks (class_id, attendance_date, period, student_id, status, recorded_at) "
+            + "values (?, ?, ?, ?, ?, ?)";
+
+    // Plans each refresh for the tables as they are now. A cached generic plan made while this month's
+    // partition or the rollups were still nearly empty scans them whole, and keeps doing so as they grow.
+    private static final String FORCE_CUSTOM_PLANS = "select set_config('plan_cache_mode', 'force_custom_plan', true)";
+    private static final String DELETE_ROLLUPS = "delete from attendance_daily_rollups where class_id = ? and attendance_date = ?";
+    // The latest mark of each student and period wins; earlier ones were corrected. Latest by recorded_at, then
+    // by id within one write (see db/attendance.sql): ids alone are not in write order across sessions.
+    private static final String INSERT_ROLLUPS = """
+            insert into attendance_daily_rollups (class_id, attendance_date, student_id, periods, present, late, absent, excused)
+            select class_id, attendance_date, student_id, count(*),
+                   sum(case when status = 'PRESENT' then 1 else 0 end), sum(case when status = 'LATE' then 1 else 0 end),
+                   sum(case when status = 'ABSENT' then 1 else 0 end), sum(case when status = 'EXCUSED' then 1 else 0 end)
+            from (select class_id, attendance_date, student_id, status,
+                         row_number() over (partition by student_id, period order by recorded_at desc, id desc) as latest
+                  from attendance_marks where class_id = ? and attendance_date = ?) marks
+            where latest = 1
+            group by class_id, attendance_date, student_id""";
+
+    private static final String RATES_BY_CLASS = "select class_id, sum(periods), sum(present), sum(late), sum(absent), sum(excused) "
+            + "from attendance_daily_rollups where student_id = ? and attendance_date between ? and ? group by class_id order by class_id";
+    private static final String RATES_BY_STUDENT = "select student_id, sum(periods), sum(present), sum(late), sum(absent), sum(excused) "
+            + "from attendance_daily_rollups where class_id = ? and attendance_date between ? and ? group by student_id order by student_id";
+
+    private static final String IS_PARTITIONED = "select exists (select 1 from pg_partitioned_table "
+            + "where partrelid = to_regclass('attendance_marks'))";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Appends the marks within the current transaction: over COPY on PostgreSQL (the table has no unique
+     * constraint for a row to conflict with), as JDBC batches elsewhere.
+     */
+    public void appendMarks(List<AttendanceMark> marks, LocalDateTime recordedAt) {
+        boolean copied = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            if (!connection.isWrapperFor(PGConnection.class)) {
+                return false;
+            }
+            CopyIn copy = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_MARKS);
+            try {
+                StringBuilder line = new StringBuilder(128);
+                for (AttendanceMark mark : marks) {
+                    line.setLength(0);
+                    line.append('"').append(mark.classId().replace("\"", "\"\"")).append("\",")
+                            .append(mark.date()).append(',')
+                            .append(mark.period()).append(',')
+                            .append(mark.studentId()).append(',')
+                            .append(mark.status()).append(',')
+                            .append(recordedAt).append('\n');
+                    byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+                    copy.writeToCopy(bytes, 0, bytes.length);
+                }
+                copy.endCopy();
+                return true;
+            } finally {
+                if (copy.isActive()) {
+                    copy.cancelCopy();
+                }
+            }
+        });
+        if (!copied) {
+            Timestamp recorded = Timestamp.valueOf(recordedAt);
+            jdbcTemplate.batchUpdate(INSERT_MARK, marks, INSERT_BATCH_SIZE, (statement, mark) -> {
+                statement.setString(1, mark.classId());
+                statement.setDate(2, Date.valueOf(mark.date()));
+                statement.setInt(3, mark.period());
+                statement.setObject(4, mark.studentId());
+                statement.setString(5, mark.status().name());
+                statement.setTimestamp(6, recorded);
+            });
+        }
+    }
+
+    // Recomputes the rollups of each class-day from its marks: a few hundred rows each, found by index. Fails
+    // with ConcurrencyFailureException when another transaction inserted rollups of the same class-days after
+    // this one deleted them; retry, so that the recomputation sees the other's marks too.
+    public void refreshRollups(Collection<ClassDay> classDays) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            if (connection.isWrapperFor(PGConnection.class)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(FORCE_CUSTOM_PLANS);
+                }
+            }
+            return null;
+        });
+        jdbcTemplate.batchUpdate(DELETE_ROLLUPS, classDays, INSERT_BATCH_SIZE, (statement, classDay) -> {
+            statement.setString(1, classDay.classId());
+            statement.setDate(2, Date.valueOf(classDay.date()));
+        });
+        try {
+            jdbcTemplate.batchUpdate(INSERT_ROLLUPS, classDays, INSERT_BATCH_SIZE, (statement, classDay) -> {
+                statement.setString(1, classDay.classId());
+                statement.setDate(2, Date.valueOf(classDay.date()));
+            });
+        } catch (DuplicateKeyException e) {
+            throw new ConcurrencyFailureException("Rollups refreshed concurrently by another transaction", e);
+        }
+    }
+
+    public List<AttendanceRate> findRatesByClassForStudent(UUID studentId, LocalDate from, LocalDate to) {
+        RowMapper<AttendanceRate> mapper = (rs, row) -> AttendanceRate.of(rs.getString(1), studentId,
+                rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5), rs.getLong(6));
+        return jdbcTemplate.query(RATES_BY_CLASS, mapper, studentId, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    public List<AttendanceRate> findRatesByStudentForClass(String classId, LocalDate from, LocalDate to) {
+        RowMapper<AttendanceRate> mapper = (rs, row) -> AttendanceRate.of(classId, rs.getObject(1, UUID.class),
+                rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5), rs.getLong(6));
+        return jdbcTemplate.query(RATES_BY_STUDENT, mapper, classId, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    // Whether attendance_marks is a partitioned PostgreSQL table (the embedded test database has a plain one)
+    public boolean isPartitioned() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            if (!connection.isWrapperFor(PGConnection.class)) {
+                return false;
+            }
+            try (Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery(IS_PARTITIONED)) {
+                return result.next() && result.getBoolean(1);
+            }
+        }));
+    }
+
+    // Fails if the default partition already holds marks of that month
+    public void createMonthPartition(YearMonth month) {
+        jdbcTemplate.execute("create table if not exists attendance_marks_y%dm%02d partition of attendance_marks for values from ('%s') to ('%s')"
+                .formatted(month.getYear(), month.getMonthValue(), month.atDay(1), month.plusMonths(1).atDay(1)));
+    }
+}
@@ -0,0 +1,9 @@
+package com.sms.student.repository;
+
+import com.sms.student.model.ClassCapacity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ClassCapacityRepository extends JpaRepository<ClassCapacity, String> {
+}
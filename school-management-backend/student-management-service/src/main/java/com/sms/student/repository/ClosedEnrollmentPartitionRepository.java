@@ -0,0 +1,44 @@
+package com.sms.student.repository;
+
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+// Yearly partitions of enrollments_closed (schema in db/enrollment-terms.sql)
+@Repository
+public class ClosedEnrollmentPartitionRepository {
+
+    private static final String IS_PARTITIONED = "select exists (select 1 from pg_partitioned_table "
+            + "where partrelid = to_regclass('enrollments_closed'))";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Whether enrollments_closed is a partitioned PostgreSQL table (the embedded test database has a plain one)
+    public boolean isPartitioned() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            if (!connection.isWrapperFor(PGConnection.class)) {
+                return false;
+            }
+            try (Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery(IS_PARTITIONED)) {
+                return result.next() && result.getBoolean(1);
+            }
+        }));
+    }
+
+    // In the given tablespace, or the database's default when blank. Fails if the default partition already
+    // holds enrollments of that year.
+    public void createYearPartition(int academicYear, String tablespace) {
+        String sql = "create table if not exists enrollments_closed_y%d partition of enrollments_closed for values from (%d) to (%d)"
+                .formatted(academicYear, academicYear, academicYear + 1);
+        if (!tablespace.isBlank()) {
+            sql += " tablespace \"" + tablespace.replace("\"", "\"\"") + "\"";
+        }
+        jdbcTemplate.execute(sql);
+    }
+}
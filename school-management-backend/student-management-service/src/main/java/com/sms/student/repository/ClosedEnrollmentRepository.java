@@ -0,0 +1,35 @@
+package com.sms.student.repository;
+
+import com.sms.student.model.ClosedEnrollment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ClosedEnrollmentRepository extends JpaRepository<ClosedEnrollment, UUID> {
+    // Most recent academic year first
+    List<ClosedEnrollment> findByStudentIdOrderByAcademicYearDescEnrollmentDateDesc(UUID studentId);
+
+    // Copies the enrollments as they are; the caller deletes them from enrollments in the same transaction
+    @Modifying
+    @Query("insert into ClosedEnrollment (id, studentId, classId, academicYear, enrollmentDate, status, completionDate, movedAt) "
+            + "select e.id, e.student.id, e.classId, e.academicYear, e.enrollmentDate, e.status, e.completionDate, :movedAt "
+            + "from Enrollment e where e.id in :ids")
+    int copyFromEnrollments(Collection<UUID> ids, LocalDateTime movedAt);
+
+    @Modifying
+    @Query("insert into ArchivedEnrollment (id, studentId, classId, academicYear, enrollmentDate, status, completionDate, archivedAt) "
+            + "select c.id, c.studentId, c.classId, c.academicYear, c.enrollmentDate, c.status, c.completionDate, :archivedAt "
+            + "from ClosedEnrollment c where c.studentId in :studentIds")
+    int archiveByStudentIdIn(Collection<UUID> studentIds, LocalDateTime archivedAt);
+
+    @Modifying
+    @Query("delete from ClosedEnrollment c where c.studentId in :studentIds")
+    int deleteByStudentIdIn(Collection<UUID> studentIds);
+}
@@ -1,15 +1,124 @@
 package com.sms.student.repository;
 
+import com.sms.student.dto.EnrollmentKey;
+import com.sms.student.dto.EnrollmentView;
+import com.sms.student.dto.RosterEntry;
 import com.sms.student.model.Enrollment;
+import com.sms.student.model.EnrollmentStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface EnrollmentRepository extends JpaRepository<Enrollment, UUID> {
     List<Enrollment> findByStudentId(UUID studentId);
     Optional<Enrollment> findByStudentIdAndClassId(UUID studentId, String classId);
+
+    // Explicit query: the derived one joins students just to compare the foreign key
+    @Query("select count(e) > 0 from Enrollment e where e.classId = :classId and e.student.id = :studentId")
+    boolean existsByStudentIdAndClassId(UUID studentId, String classId);
+
+    // Projection straight from the enrollments table; e.student.id resolves to the foreign key, no join
+    @Query("select new com.sms.student.dto.EnrollmentView(e.id, e.student.id, e.classId, e.academicYear, e.enrollmentDate, e.status, e.seatNumber, e.completionDate, e.version) "
+            + "from Enrollment e where e.student.id = :studentId")
+    List<EnrollmentView> findViewsByStudentId(UUID studentId);
+
+    @Query("select new com.sms.student.dto.EnrollmentView(e.id, e.student.id, e.classId, e.academicYear, e.enrollmentDate, e.status, e.seatNumber, e.completionDate, e.version) "
+            + "from Enrollment e where e.student.id in :studentIds")
+    List<EnrollmentView> findViewsByStudentIdIn(Collection<UUID> studentIds);
+
+    @Modifying
+    @Query("insert into ArchivedEnrollment (id, studentId, classId, academicYear, enrollmentDate, status, completionDate, archivedAt) "
+            + "select e.id, e.student.id, e.classId, e.academicYear, e.enrollmentDate, e.status, e.completionDate, :archivedAt "
+            + "from Enrollment e where e.student.id in :studentIds")
+    int archiveByStudentIdIn(Collection<UUID> studentIds, LocalDateTime archivedAt);
+
+    // Enrollments of a class in any of the statuses, locked in id order until the transaction ends, so that a
+    // set-based change that follows covers exactly these
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new com.sms.student.dto.EnrollmentView(e.id, e.student.id, e.classId, e.academicYear, e.enrollmentDate, e.status, e.seatNumber, e.completionDate, e.version) "
+            + "from Enrollment e where e.classId = :classId and e.status in :statuses order by e.id")
+    List<EnrollmentView> lockViewsByClassIdAndStatusIn(String classId, Collection<EnrollmentStatus> statuses);
+
+    // Set-based status changes; the enrollments keep their seats, or give them up
+    @Modifying
+    @Query("update Enrollment e set e.status = :status, e.completionDate = :completionDate, e.version = e.version + 1 "
+            + "where e.id in :ids")
+    int updateStatusByIdIn(Collection<UUID> ids, EnrollmentStatus status, LocalDateTime completionDate);
+
+    @Modifying
+    @Query("update Enrollment e set e.status = :status, e.seatNumber = null, e.completionDate = null, e.version = e.version + 1 "
+            + "where e.id in :ids")
+    int updateStatusAndVacateSeatsByIdIn(Collection<UUID> ids, EnrollmentStatus status);
+
+    // One statement instead of Student's cascade, which loads every enrollment and deletes them one by one
+    @Modifying
+    @Query("delete from Enrollment e where e.student.id in :studentIds")
+    int deleteByStudentIdIn(Collection<UUID> studentIds);
+
+    // --- Closed enrollments of past academic years (see ClosedEnrollmentArchiver) ---
+
+    // The statuses are literals, not parameters, so that PostgreSQL plans these on idx_enrollments_archivable
+    String ARCHIVABLE = "from Enrollment e where e.status in (com.sms.student.model.EnrollmentStatus.COMPLETED, "
+            + "com.sms.student.model.EnrollmentStatus.DROPPED) and e.academicYear < :beforeYear";
+
+    @Query("select distinct e.academicYear " + ARCHIVABLE)
+    List<Integer> findArchivableAcademicYears(int beforeYear);
+
+    // Locked in id order until the transaction ends, like lockViewsByClassIdAndStatusIn
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new com.sms.student.dto.EnrollmentView(e.id, e.student.id, e.classId, e.academicYear, e.enrollmentDate, e.status, e.seatNumber, e.completionDate, e.version) "
+            + ARCHIVABLE + " order by e.id")
+    List<EnrollmentView> lockArchivableViews(int beforeYear, Limit limit);
+
+    @Modifying
+    @Query("delete from Enrollment e where e.id in :ids")
+    int deleteByIdIn(Collection<UUID> ids);
+
+    // Superset of the existing pairs among the given students and classes; callers match exact pairs in memory
+    @Query("select new com.sms.student.dto.EnrollmentKey(e.student.id, e.classId) from Enrollment e "
+            + "where e.student.id in :studentIds and e.classId in :classIds")
+    List<EnrollmentKey> findKeysByStudentIdInAndClassIdIn(Collection<UUID> studentIds, Collection<String> classIds);
+
+    // Every enrollment for the roster index, read through a cursor without entities; must be consumed
+    // inside a transaction and closed by the caller
+    @Query("select new com.sms.student.dto.RosterEntry(e.student.id, e.classId, e.status) from Enrollment e")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<RosterEntry> streamRosterEntries();
+
+    // --- Seats and waitlists ---
+
+    @Query("select e.seatNumber from Enrollment e where e.classId = :classId and e.seatNumber is not null")
+    List<Integer> findSeatNumbersByClassId(String classId);
+
+    // Oldest waitlisted enrollments not already being promoted by another transaction (SKIP LOCKED)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "-2"))
+    List<Enrollment> findByClassIdAndStatusOrderByEnrollmentDateAscIdAsc(String classId, EnrollmentStatus status, Limit limit);
+
+    List<Enrollment> findByClassIdAndStatusInOrderByEnrollmentDateAscIdAsc(String classId, Collection<EnrollmentStatus> statuses);
+
+    List<Enrollment> findByClassIdAndStatusOrderByEnrollmentDateAscIdAsc(String classId, EnrollmentStatus status);
+
+    long countByClassIdAndStatusIn(String classId, Collection<EnrollmentStatus> statuses);
+
+    long countByClassIdAndStatus(String classId, EnrollmentStatus status);
 }
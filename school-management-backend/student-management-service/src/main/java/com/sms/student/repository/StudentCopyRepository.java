@@ -0,0 +1,104 @@
+package com.sms.student.repository;
+
+import com.sms.student.exception.NotImplementedException;
+import com.sms.student.model.Student;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bulk loads and dumps the students table over the PostgreSQL COPY protocol, without entities: one
+ * round trip per chunk instead of one INSERT per student, and an export that streams rows to the caller
+ * as the server produces them.
+ */
+@Repository
+public class StudentCopyRepository {
+
+    private static final String CREATE_STAGING = "create temp table if not exists student_import "
+            + "(id uuid, name text, email text, dob date, address text, enrollment_date timestamp(6)) on commit delete rows";
+    private static final String COPY_TO_STAGING = "copy student_import (id, name, email, dob, address, enrollment_date) "
+            + "from stdin (format csv)";
+    // A row whose id or email is already taken is skipped rather than failing the whole chunk
+    private static final String INSERT_FROM_STAGING = "insert into students (id, name, email, dob, address, enrollment_date) "
+            + "select id, name, email, dob, address, enrollment_date from student_import on conflict do nothing returning id";
+    // Column names match what the import reads
+    private static final String COPY_OUT = "copy (select id, name, email, dob, address, enrollment_date from students order by id) "
+            + "to stdout (format csv, header)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Fails fast when the database cannot COPY, so callers can refuse before they read input or start a response
+    public void requireCopy() {
+        jdbcTemplate.execute((ConnectionCallback<CopyManager>) StudentCopyRepository::copyManager);
+    }
+
+    /**
+     * Inserts the students (ids assigned, already validated) within the current transaction and returns the
+     * ids actually inserted. The rows go through a temporary staging table so that conflicts can be skipped
+     * row by row, which COPY into the table itself cannot do.
+     */
+    public Set<UUID> copyIn(List<Student> students) {
+        jdbcTemplate.execute(CREATE_STAGING);
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            CopyIn copy = copyManager(connection).copyIn(COPY_TO_STAGING);
+            try {
+                StringBuilder line = new StringBuilder(256);
+                for (Student student : students) {
+                    line.setLength(0);
+                    line.append(student.getId()).append(',');
+                    appendQuoted(line, student.getName()).append(',');
+                    appendQuoted(line, student.getEmail()).append(',');
+                    line.append(student.getDob()).append(',');
+                    appendQuoted(line, student.getAddress()).append(',');
+                    line.append(student.getEnrollmentDate()).append('\n');
+                    byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+                    copy.writeToCopy(bytes, 0, bytes.length);
+                }
+                return copy.endCopy();
+            } finally {
+                if (copy.isActive()) {
+                    copy.cancelCopy();
+                }
+            }
+        });
+        return new HashSet<>(jdbcTemplate.queryForList(INSERT_FROM_STAGING, UUID.class));
+    }
+
+    // Writes every student as CSV with a header line, ordered by id; returns the number of rows
+    public long copyOut(OutputStream out) {
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return copyManager(connection).copyOut(COPY_OUT, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static CopyManager copyManager(Connection connection) throws SQLException {
+        if (!connection.isWrapperFor(PGConnection.class)) {
+            throw new NotImplementedException("Bulk import and export need PostgreSQL");
+        }
+        return connection.unwrap(PGConnection.class).getCopyAPI();
+    }
+
+    private static StringBuilder appendQuoted(StringBuilder line, String value) {
+        return line.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+}
@@ -1,13 +1,135 @@
 package com.sms.student.repository;
 
+import com.sms.student.dto.StudentSummary;
+import com.sms.student.model.EnrollmentStatus;
 import com.sms.student.model.Student;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.NativeQuery;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface StudentRepository extends JpaRepository<Student, UUID> {
+public interface StudentRepository extends JpaRepository<Student, UUID>, JpaSpecificationExecutor<Student> {
     Optional<Student> findByEmail(String email);
+
+    // Loads the student and its enrollments in a single left join
+    @EntityGraph(attributePaths = "enrollments")
+    @Query("select s from Student s where s.id = :id")
+    Optional<Student> findWithEnrollmentsById(UUID id);
+
+    @Query("select s.id from Student s where s.id in :ids")
+    List<UUID> findExistingIds(Collection<UUID> ids);
+
+    // Locked in id order until the transaction ends, so that concurrent purges of overlapping students queue
+    // instead of deadlocking. FOR UPDATE rather than PESSIMISTIC_WRITE, which is FOR NO KEY UPDATE on Postgres:
+    // only the former conflicts with the key share lock an enrollment's foreign key check takes, making new
+    // enrollments of the students wait for the purge to commit.
+    @NativeQuery(value = "select id from students where id in :ids order by id for update", sqlResultSetMapping = Student.IDS)
+    List<UUID> lockExistingIds(Collection<UUID> ids);
+
+    // Answers a conditional GET from the primary key index without loading the row's other columns
+    @Query("select s.version from Student s where s.id = :id")
+    Optional<Long> findVersionById(UUID id);
+
+    // Changes the ETag of students whose enrollments changed; bypasses the persistence context, so the
+    // students must not be loaded (and later flushed) in the same transaction
+    @Modifying
+    @Query("update Student s set s.version = s.version + 1 where s.id in :ids")
+    int incrementVersions(Collection<UUID> ids);
+
+    // --- Purges (see StudentPurgeServiceImpl) ---
+
+    // Students matching a purge filter, in id order after the given id (all when null). A null filter field
+    // matches everyone; status matches students with enrollments, all of them in that status, counting those
+    // already moved to enrollments_closed.
+    String PURGE_FILTER = """
+            from Student s
+            where (:enrollmentYear is null or extract(year from s.enrollmentDate) = :enrollmentYear)
+              and (:status is null or ((exists (select 1 from Enrollment e where e.student = s)
+                        or exists (select 1 from ClosedEnrollment c where c.studentId = s.id))
+                   and not exists (select 1 from Enrollment e where e.student = s and e.status <> :status)
+                   and not exists (select 1 from ClosedEnrollment c where c.studentId = s.id and c.status <> :status)))""";
+
+    @Query("select s.id " + PURGE_FILTER + " and (:after is null or s.id > :after) order by s.id")
+    List<UUID> findPurgeCandidates(Integer enrollmentYear, EnrollmentStatus status, UUID after, Limit limit);
+
+    @Query("select count(s) " + PURGE_FILTER)
+    long countPurgeCandidates(Integer enrollmentYear, EnrollmentStatus status);
+
+    @Modifying
+    @Query("insert into ArchivedStudent (id, name, email, dob, address, enrollmentDate, archivedAt) "
+            + "select s.id, s.name, s.email, s.dob, s.address, s.enrollmentDate, :archivedAt from Student s where s.id in :ids")
+    int archiveByIdIn(Collection<UUID> ids, LocalDateTime archivedAt);
+
+    // One statement for the lot; the enrollments must be gone first (see EnrollmentRepository#deleteByStudentIdIn)
+    @Modifying
+    @Query("delete from Student s where s.id in :ids")
+    int deleteByIdIn(Collection<UUID> ids);
+
+    // Constructor projection: rows are never attached to the persistence context, and the fetch size
+    // makes the driver read through a server-side cursor instead of buffering the whole result.
+    // Must be consumed inside a transaction and closed by the caller.
+    @Query("select new com.sms.student.dto.StudentSummary(s.id, s.name, s.email, s.dob, s.address, s.enrollmentDate) "
+            + "from Student s order by s.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<StudentSummary> streamAllSummaries();
+
+    // Id order is the roster index's ordinal order; same streaming rules as streamAllSummaries
+    @Query("select s.id from Student s order by s.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<UUID> streamAllIds();
+
+    // --- Full-text search (PostgreSQL only; schema in db/student-search.sql) ---
+
+    // Ranks the matches of up to three index scans of at most :candidates rows each, then returns the best
+    // :limit. Name words outrank address words and an email prefix match outranks both, so the scans fetch
+    // email prefix matches, then matches in names alone (:nameTsquery), then any match: a common address
+    // word cannot crowd better matches out of the ranking.
+    @Query(value = """
+            select s.id, s.name, s.email, s.dob, s.address, s.enrollment_date, s.version
+            from students s, to_tsquery('simple', :tsquery) q(query)
+            where s.id in (
+                (select id from students where lower(email) like cast(:emailPrefix as text) limit :candidates)
+                union (select id from students where search_vector @@ to_tsquery('simple', :nameTsquery) limit :candidates)
+                union (select id from students where search_vector @@ to_tsquery('simple', :tsquery) limit :candidates))
+            order by ts_rank_cd(s.search_vector, q.query)
+                         + case when lower(s.email) like cast(:emailPrefix as text) then 1 else 0 end desc,
+                     s.name, s.id
+            limit :limit""", nativeQuery = true)
+    List<Student> search(String tsquery, String nameTsquery, String emailPrefix, int candidates, int limit);
+
+    // For the rest of the transaction, plan each search for its actual terms: a cached generic plan cannot
+    // tell a rare word (index lookup) from a common one (scan that stops after the first few matches).
+    // Also loosens the trigram threshold from 0.3 so that short transposed words ("jonh") find their spelling.
+    @Query(value = "select set_config('plan_cache_mode', 'force_custom_plan', true)"
+            + " || set_config('pg_trgm.similarity_threshold', '0.2', true)", nativeQuery = true)
+    String prepareSearch();
+
+    // Unordered; callers only need to know whether there are more than a handful
+    @Query(value = "select word from student_search_words where word like :pattern limit :limit", nativeQuery = true)
+    List<String> findSearchWordsLike(String pattern, int limit);
+
+    @Query(value = "select word from student_search_words where word % :term "
+            + "order by similarity(word, :term) desc, word limit :limit", nativeQuery = true)
+    List<String> findSearchWordsSimilarTo(String term, int limit);
 }
@@ -0,0 +1,316 @@
+package com.sms.student.roster;
+
+import com.sms.student.datasource.ReadRouting;
+import com.sms.student.dto.RosterEntry;
+import com.sms.student.dto.RosterExpression;
+import com.sms.student.dto.RosterPage;
+import com.sms.student.exception.BadRequestException;
+import com.sms.student.model.EnrollmentStatus;
+import com.sms.student.repository.EnrollmentRepository;
+import com.sms.student.repository.StudentRepository;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Rosters of every class in memory: for each class and enrollment status, a compressed bitmap of the
+ * ordinals of the students enrolled in it with that status. Set queries over rosters ("in A but not B",
+ * "in both", "ACTIVE in any of these") are bitmap operations, with no SQL.
+ * <p>
+ * Built from the database at startup. Enrollment changes on this instance are applied once their
+ * transaction commits, class by class copy-on-write, so a query always sees whole bitmaps. Changes made by
+ * other instances, and deletes that bypass the service, are picked up by the periodic rebuild.
+ */
+@Component
+public class RosterIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(RosterIndex.class);
+
+    private static final EnrollmentStatus[] STATUSES = EnrollmentStatus.values();
+    // Bounds the work one query can ask for
+    private static final int MAX_CLASS_IDS = 10_000;
+    private static final int MAX_DEPTH = 16;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    private final TransactionTemplate readOnlyTemplate;
+
+    private final StudentOrdinals ordinals = new StudentOrdinals();
+
+    // Class id to its bitmaps indexed by status ordinal (null where empty); the arrays and bitmaps in it are
+    // never modified once published. Null until first built.
+    private volatile Map<String, RoaringBitmap[]> classes;
+
+    // Changes committed while a rebuild is reading the database, applied again to its result; guarded by this
+    private List<RosterEntry> committedDuringRebuild;
+
+    private final Object rebuildLock = new Object();
+
+    public RosterIndex(PlatformTransactionManager transactionManager) {
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Applies the change once the current transaction commits (at once outside a transaction). Changes of
+     * one transaction are applied together.
+     */
+    public void recordAfterCommit(RosterEntry change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(List.of(change));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<RosterEntry> changes = (List<RosterEntry>) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            List<RosterEntry> transactionChanges = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, transactionChanges);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(transactionChanges);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(RosterIndex.this);
+                }
+            });
+            changes = transactionChanges;
+        }
+        changes.add(change);
+    }
+
+    public void apply(Collection<RosterEntry> changes) {
+        synchronized (this) {
+            if (committedDuringRebuild != null) {
+                committedDuringRebuild.addAll(changes);
+            }
+            if (classes != null) {
+                applyTo(classes, changes);
+            }
+        }
+    }
+
+    /**
+     * The students matching the expression, in ordinal order: how many, and up to limit of their ids after
+     * the given one.
+     */
+    public RosterPage query(RosterExpression expression, int limit, UUID after) {
+        Map<String, RoaringBitmap[]> current = classes;
+        if (current == null) {
+            rebuild();
+            current = classes;
+        }
+        RoaringBitmap students = evaluate(current, expression, 0, new int[1]);
+
+        PeekableIntIterator iterator = students.getIntIterator();
+        if (after != null) {
+            int ordinal = ordinals.find(after);
+            if (ordinal < 0) {
+                throw new BadRequestException("Unknown student id in after: " + after);
+            }
+            if (ordinal == Integer.MAX_VALUE) {
+                return new RosterPage(students.getLongCardinality(), List.of(), null);
+            }
+            iterator.advanceIfNeeded(ordinal + 1);
+        }
+        List<UUID> page = new ArrayList<>(Math.min(limit, 1024));
+        while (page.size() < limit && iterator.hasNext()) {
+            page.add(ordinals.studentAt(iterator.next()));
+        }
+        UUID nextAfter = iterator.hasNext() && !page.isEmpty() ? page.get(page.size() - 1) : null;
+        return new RosterPage(students.getLongCardinality(), page, nextAfter);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        rebuild();
+    }
+
+    // Catches changes this instance did not make: enrollments changed on other instances or outside the service
+    @Scheduled(initialDelayString = "${students.roster.rebuild-interval:PT10M}",
+            fixedDelayString = "${students.roster.rebuild-interval:PT10M}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long started = System.nanoTime();
+            synchronized (this) {
+                committedDuringRebuild = new ArrayList<>();
+            }
+            Map<String, RoaringBitmap[]> loaded;
+            try {
+                // From the primary: a replica behind it would miss commits that are not replayed into the index
+                loaded = ReadRouting.onPrimary(() -> readOnlyTemplate.execute(status -> load()));
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    committedDuringRebuild = null;
+                }
+                throw e;
+            }
+            long bytes = 0;
+            long enrollments = 0;
+            synchronized (this) {
+                applyTo(loaded, committedDuringRebuild);
+                committedDuringRebuild = null;
+                classes = loaded;
+            }
+            for (RoaringBitmap[] byStatus : loaded.values()) {
+                for (RoaringBitmap students : byStatus) {
+                    if (students != null) {
+                        bytes += students.getLongSizeInBytes();
+                        enrollments += students.getLongCardinality();
+                    }
+                }
+            }
+            log.info("Roster index built in {} ms: {} enrollments in {} classes, {} student ordinals, {} KiB of bitmaps",
+                    (System.nanoTime() - started) / 1_000_000, enrollments, loaded.size(), ordinals.size(), bytes / 1024);
+        }
+    }
+
+    // Students first, in id order, so students created together (and often enrolled together) get adjacent
+    // ordinals and their bitmaps compress into runs
+    private Map<String, RoaringBitmap[]> load() {
+        try (Stream<UUID> studentIds = studentRepository.streamAllIds()) {
+            studentIds.forEach(ordinals::ordinalOf);
+        }
+        Map<String, RoaringBitmap[]> loaded = new HashMap<>();
+        try (Stream<RosterEntry> entries = enrollmentRepository.streamRosterEntries()) {
+            entries.forEach(entry -> {
+                RoaringBitmap[] byStatus = loaded.computeIfAbsent(entry.classId(), classId -> new RoaringBitmap[STATUSES.length]);
+                int status = entry.status().ordinal();
+                if (byStatus[status] == null) {
+                    byStatus[status] = new RoaringBitmap();
+                }
+                byStatus[status].add(ordinals.ordinalOf(entry.studentId()));
+            });
+        }
+        for (RoaringBitmap[] byStatus : loaded.values()) {
+            for (RoaringBitmap students : byStatus) {
+                if (students != null) {
+                    students.runOptimize();
+                }
+            }
+        }
+        return new ConcurrentHashMap<>(loaded);
+    }
+
+    // Copy-on-write per class: each class touched gets a new array, and each bitmap changed a new bitmap
+    private void applyTo(Map<String, RoaringBitmap[]> target, Collection<RosterEntry> changes) {
+        Map<String, List<RosterEntry>> byClass = new LinkedHashMap<>();
+        for (RosterEntry change : changes) {
+            byClass.computeIfAbsent(change.classId(), classId -> new ArrayList<>()).add(change);
+        }
+        byClass.forEach((classId, classChanges) -> target.compute(classId, (id, current) -> {
+            RoaringBitmap[] next = current == null ? new RoaringBitmap[STATUSES.length] : current.clone();
+            boolean[] copied = new boolean[STATUSES.length];
+            for (RosterEntry change : classChanges) {
+                int student = ordinals.ordinalOf(change.studentId());
+                for (int status = 0; status < STATUSES.length; status++) {
+                    boolean member = change.status() != null && change.status().ordinal() == status;
+                    boolean present = next[status] != null && next[status].contains(student);
+                    if (member != present) {
+                        if (!copied[status]) {
+                            next[status] = next[status] == null ? new RoaringBitmap() : next[status].clone();
+                            copied[status] = true;
+                        }
+                        if (member) {
+                            next[status].add(student);
+                        } else {
+                            next[status].remove(student);
+                        }
+                    }
+                }
+            }
+            boolean empty = true;
+            for (int status = 0; status < STATUSES.length; status++) {
+                if (next[status] != null && next[status].isEmpty()) {
+                    next[status] = null;
+                }
+                empty &= next[status] == null;
+            }
+            return empty ? null : next;
+        }));
+    }
+
+    // Results are new bitmaps; the index's own are only ever read
+    private RoaringBitmap evaluate(Map<String, RoaringBitmap[]> current, RosterExpression expression, int depth, int[] classIdCount) {
+        if (depth >= MAX_DEPTH) {
+            throw new BadRequestException("Roster expressions can be nested at most " + MAX_DEPTH + " deep");
+        }
+        int forms = (expression.classIds() != null ? 1 : 0) + (expression.union() != null ? 1 : 0)
+                + (expression.intersection() != null ? 1 : 0) + (expression.difference() != null ? 1 : 0);
+        if (forms != 1) {
+            throw new BadRequestException("A roster expression needs exactly one of classIds, union, intersection or difference");
+        }
+        if (expression.statuses() != null && expression.classIds() == null) {
+            throw new BadRequestException("statuses only apply to classIds");
+        }
+
+        if (expression.classIds() != null) {
+            classIdCount[0] += expression.classIds().size();
+            if (classIdCount[0] > MAX_CLASS_IDS) {
+                throw new BadRequestException("A roster query can name at most " + MAX_CLASS_IDS + " classes");
+            }
+            List<EnrollmentStatus> statuses = expression.statuses() == null || expression.statuses().isEmpty()
+                    ? List.of(STATUSES) : expression.statuses();
+            List<RoaringBitmap> rosters = new ArrayList<>();
+            for (String classId : expression.classIds()) {
+                RoaringBitmap[] byStatus = classId == null ? null : current.get(classId);
+                if (byStatus != null) {
+                    for (EnrollmentStatus status : statuses) {
+                        if (status != null && byStatus[status.ordinal()] != null) {
+                            rosters.add(byStatus[status.ordinal()]);
+                        }
+                    }
+                }
+            }
+            return rosters.isEmpty() ? new RoaringBitmap() : FastAggregation.or(rosters.iterator());
+        }
+
+        List<RosterExpression> operands = expression.union() != null ? expression.union()
+                : expression.intersection() != null ? expression.intersection() : expression.difference();
+        if (operands.isEmpty()) {
+            throw new BadRequestException("union, intersection and difference need at least one expression");
+        }
+        List<RoaringBitmap> sets = new ArrayList<>(operands.size());
+        for (RosterExpression operand : operands) {
+            sets.add(evaluate(current, operand, depth + 1, classIdCount));
+        }
+        if (expression.union() != null) {
+            return FastAggregation.or(sets.iterator());
+        }
+        if (expression.intersection() != null) {
+            return FastAggregation.and(sets.iterator());
+        }
+        RoaringBitmap result = sets.get(0);
+        if (sets.size() > 1) {
+            result.andNot(FastAggregation.or(sets.subList(1, sets.size()).iterator()));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,56 @@
+package com.sms.student.roster;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dense int ordinals for student ids, which is what the roster bitmaps hold. An id keeps its ordinal for
+ * the life of the process, so pages of a roster query stay consistent across index rebuilds. Lookups are
+ * lock-free; assignments are serialized.
+ */
+final class StudentOrdinals {
+
+    private final Map<UUID, Integer> ordinals = new ConcurrentHashMap<>();
+    private volatile UUID[] students = new UUID[1024];
+    // Guarded by this
+    private int count;
+
+    int ordinalOf(UUID studentId) {
+        Integer ordinal = ordinals.get(studentId);
+        return ordinal != null ? ordinal : assign(studentId);
+    }
+
+    // -1 for an id that has never had an ordinal
+    int find(UUID studentId) {
+        Integer ordinal = ordinals.get(studentId);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    // The id of an ordinal read from a bitmap published (through a concurrent map) after it was assigned
+    UUID studentAt(int ordinal) {
+        return students[ordinal];
+    }
+
+    int size() {
+        return ordinals.size();
+    }
+
+    private synchronized int assign(UUID studentId) {
+        Integer existing = ordinals.get(studentId);
+        if (existing != null) {
+            return existing;
+        }
+        UUID[] current = students;
+        if (count == current.length) {
+            current = Arrays.copyOf(current, count * 2);
+            current[count] = studentId;
+            students = current;
+        } else {
+            current[count] = studentId;
+        }
+        ordinals.put(studentId, count);
+        return count++;
+    }
+}
@@ -0,0 +1,97 @@
+package com.sms.student.search;
+
+import com.sms.student.exception.BadRequestException;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * What a user typed into the student search box, split into terms the same way PostgreSQL's 'simple'
+ * text search configuration splits names and addresses, plus helpers to assemble a to_tsquery string.
+ * Terms only ever contain letters and digits, so the assembled query needs no further escaping.
+ */
+public final class StudentSearchQuery {
+
+    public static final int MAX_TERMS = 8;
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final Pattern LETTER = Pattern.compile("\\p{L}");
+    private static final Pattern LEXEME = Pattern.compile("([\\p{L}\\p{N}]+)(:\\*)?");
+
+    private final List<String> terms;
+    private final boolean lastTermComplete;
+    private final String emailPrefix;
+
+    private StudentSearchQuery(List<String> terms, boolean lastTermComplete, String emailPrefix) {
+        this.terms = terms;
+        this.lastTermComplete = lastTermComplete;
+        this.emailPrefix = emailPrefix;
+    }
+
+    public static StudentSearchQuery parse(String input) {
+        String text = input == null ? "" : input.toLowerCase(Locale.ROOT);
+        List<String> terms = Arrays.stream(SEPARATORS.split(text))
+                .filter(term -> !term.isEmpty())
+                .limit(MAX_TERMS)
+                .toList();
+        if (terms.isEmpty()) {
+            throw new BadRequestException("Search query must contain at least one letter or digit");
+        }
+        // A trailing separator means the user has finished the last word
+        boolean lastTermComplete = SEPARATORS.matcher(text.substring(text.length() - 1)).matches();
+        // Only something that looks like part of an address is matched against email prefixes
+        String trimmed = text.strip();
+        String emailPrefix = trimmed.chars().noneMatch(Character::isWhitespace)
+                && (trimmed.indexOf('@') >= 0 || trimmed.indexOf('.') >= 0)
+                ? escapeLike(trimmed) + "%"
+                : null;
+        return new StudentSearchQuery(terms, lastTermComplete, emailPrefix);
+    }
+
+    public List<String> terms() {
+        return terms;
+    }
+
+    // The last term is still being typed and should be completed rather than matched exactly
+    public boolean isPrefix(int index) {
+        return index == terms.size() - 1 && !lastTermComplete;
+    }
+
+    // LIKE pattern for lower(email), or null when the input cannot be part of an email address
+    public String emailPrefix() {
+        return emailPrefix;
+    }
+
+    public static boolean hasLetter(String term) {
+        return LETTER.matcher(term).find();
+    }
+
+    // Lexemes from the word list outside [letters, digits] (e.g. hyphenated ones) are left out rather than escaped
+    public static boolean isWord(String lexeme) {
+        return WORD.matcher(lexeme).matches();
+    }
+
+    public static String prefix(String term) {
+        return term + ":*";
+    }
+
+    public static String anyOf(List<String> words) {
+        return words.size() == 1 ? words.get(0) : "(" + String.join(" | ", words) + ")";
+    }
+
+    public static String allOf(List<String> clauses) {
+        return String.join(" & ", clauses);
+    }
+
+    // The same query restricted to name words (weight A in students.search_vector)
+    public static String inNames(String tsquery) {
+        return LEXEME.matcher(tsquery).replaceAll(lexeme -> lexeme.group(2) != null ? "$1:*A" : "$1:A");
+    }
+
+    public static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,73 @@
+package com.sms.student.seating;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * In-memory seat pool of one class with a capacity. Seats are numbered 1..capacity; claiming one is a
+ * single lock-free poll, so a popular class never serializes its enrollments on a row lock.
+ * <p>
+ * The pool is only the fast path. The unique (class_id, seat_number) constraint is what rules out
+ * oversubscription: a pool that is stale (another instance took the seat) costs a retry, never a
+ * second occupant. {@link SeatLedger} reconciles the pool with the database periodically.
+ */
+public final class ClassSeats {
+
+    private final int capacity;
+    private final Queue<Integer> free = new ConcurrentLinkedQueue<>();
+    // Claimed by a transaction that has not completed yet, so not visible in the database
+    private final Set<Integer> held = ConcurrentHashMap.newKeySet();
+
+    ClassSeats(int capacity, Collection<Integer> taken) {
+        this.capacity = capacity;
+        Set<Integer> takenSeats = new HashSet<>(taken);
+        for (int seat = 1; seat <= capacity; seat++) {
+            if (!takenSeats.contains(seat)) {
+                free.add(seat);
+            }
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    // A free seat, or null when the class is full
+    Integer claim() {
+        Integer seat = free.poll();
+        if (seat != null) {
+            held.add(seat);
+        }
+        return seat;
+    }
+
+    // The claiming transaction committed: the seat is now taken in the database
+    void confirm(int seat) {
+        held.remove(seat);
+    }
+
+    // The claiming transaction rolled back, or the occupant left without anyone taking the seat over
+    void release(int seat) {
+        held.remove(seat);
+        if (seat <= capacity) {
+            free.offer(seat);
+        }
+    }
+
+    // Brings the pool in line with the seats taken in the database: drops seats another instance took and
+    // returns seats that were freed without passing through this pool (e.g. a deleted student)
+    void reconcile(Collection<Integer> taken) {
+        Set<Integer> takenSeats = new HashSet<>(taken);
+        free.removeIf(takenSeats::contains);
+        Set<Integer> queued = new HashSet<>(free);
+        for (int seat = 1; seat <= capacity; seat++) {
+            if (!takenSeats.contains(seat) && !queued.contains(seat) && !held.contains(seat)) {
+                free.offer(seat);
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.sms.student.seating;
+
+import com.sms.student.datasource.ReadRouting;
+import com.sms.student.model.ClassCapacity;
+import com.sms.student.repository.ClassCapacityRepository;
+import com.sms.student.repository.EnrollmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Seat pools of the classes this instance has enrolled into, loaded from the database on first use.
+ * Seats are claimed in memory and tied to the claiming transaction: they stay taken if it commits and
+ * go back to the pool if it rolls back.
+ */
+@Component
+public class SeatLedger {
+
+    @Autowired
+    private ClassCapacityRepository classCapacityRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    // Empty for a class without a capacity, so unlimited classes are not looked up again on every enrollment
+    private final Map<String, Optional<ClassSeats>> classes = new ConcurrentHashMap<>();
+
+    // The seat pool of a class, or null when the class has no capacity
+    public ClassSeats seatsFor(String classId) {
+        return classes.computeIfAbsent(classId, this::load).orElse(null);
+    }
+
+    /**
+     * Claims a seat for the current transaction: it stays taken if the transaction commits and returns to
+     * the pool if it rolls back. Returns null when the class is full.
+     */
+    public Integer claim(ClassSeats seats) {
+        Integer seat = seats.claim();
+        if (seat != null) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        seats.confirm(seat);
+                    } else {
+                        seats.release(seat);
+                    }
+                }
+            });
+        }
+        return seat;
+    }
+
+    // Returns a vacated seat to the pool once the current transaction commits
+    public void releaseAfterCommit(ClassSeats seats, int seat) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                seats.release(seat);
+            }
+        });
+    }
+
+    // Reloads the class from the database on its next enrollment
+    public void invalidate(String classId) {
+        classes.remove(classId);
+    }
+
+    // Capacity changes take effect once committed
+    public void invalidateAfterCommit(String classId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(classId);
+            }
+        });
+    }
+
+    // Catches what this instance did not see: seats taken or freed by other instances, cascaded deletes,
+    // and capacities changed elsewhere
+    @Scheduled(fixedDelayString = "${students.seating.reconcile-interval:PT30S}")
+    public void reconcile() {
+        // From the primary: seats taken on it but not yet replayed would be handed out again
+        ReadRouting.onPrimary(() -> {
+            Map<String, Integer> capacities = classCapacityRepository.findAll().stream()
+                    .collect(Collectors.toMap(ClassCapacity::getClassId, ClassCapacity::getCapacity));
+            classes.forEach((classId, seats) -> {
+                Integer capacity = capacities.get(classId);
+                if (seats.isPresent() && capacity != null && seats.get().capacity() == capacity) {
+                    seats.get().reconcile(enrollmentRepository.findSeatNumbersByClassId(classId));
+                } else if (seats.isPresent() || capacity != null) {
+                    // Capacity set, changed or removed by another instance
+                    invalidate(classId);
+                }
+            });
+            return null;
+        });
+    }
+
+    private Optional<ClassSeats> load(String classId) {
+        return classCapacityRepository.findById(classId)
+                .map(capacity -> new ClassSeats(capacity.getCapacity(), enrollmentRepository.findSeatNumbersByClassId(classId)));
+    }
+}
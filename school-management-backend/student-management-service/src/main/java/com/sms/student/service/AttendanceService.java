@@ -0,0 +1,17 @@
+package com.sms.student.service;
+
+import com.sms.student.dto.AttendanceMark;
+import com.sms.student.dto.AttendanceReport;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface AttendanceService {
+    // Returns once the marks are committed
+    int recordMarks(List<AttendanceMark> marks);
+
+    // Reports over from..to inclusive, read from the daily rollups
+    AttendanceReport getStudentAttendance(UUID studentId, LocalDate from, LocalDate to);
+    AttendanceReport getClassAttendance(String classId, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,82 @@
+package com.sms.student.service;
+
+import com.sms.student.attendance.AttendanceWriter;
+import com.sms.student.datasource.ReadRouting;
+import com.sms.student.dto.AttendanceMark;
+import com.sms.student.dto.AttendanceReport;
+import com.sms.student.exception.BadRequestException;
+import com.sms.student.exception.ResourceNotFoundException;
+import com.sms.student.repository.AttendanceRepository;
+import com.sms.student.repository.StudentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+
+@Service
+public class AttendanceServiceImpl implements AttendanceService {
+
+    @Autowired
+    private AttendanceWriter attendanceWriter;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Value("${students.attendance.max-marks-per-request:10000}")
+    private int maxMarksPerRequest;
+
+    @Value("${students.attendance.max-report-days:366}")
+    private int maxReportDays;
+
+    // Not transactional: the marks are written by the attendance writer, together with other requests' marks
+    @Override
+    public int recordMarks(List<AttendanceMark> marks) {
+        if (marks.size() > maxMarksPerRequest) {
+            throw new BadRequestException("Request exceeds the maximum of " + maxMarksPerRequest + " marks");
+        }
+        try {
+            attendanceWriter.submit(marks).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        // Committed by the writer thread, on this request's behalf
+        ReadRouting.written();
+        return marks.size();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AttendanceReport getStudentAttendance(UUID studentId, LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        if (!studentRepository.existsById(studentId)) {
+            throw new ResourceNotFoundException("Student not found with id: " + studentId);
+        }
+        return AttendanceReport.of(from, to, attendanceRepository.findRatesByClassForStudent(studentId, from, to));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AttendanceReport getClassAttendance(String classId, LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        return AttendanceReport.of(from, to, attendanceRepository.findRatesByStudentForClass(classId, from, to));
+    }
+
+    // Bounds how many rollup rows one report sums
+    private void checkRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxReportDays) {
+            throw new BadRequestException("Reports cover at most " + maxReportDays + " days");
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.sms.student.service;
+
+import com.sms.student.dto.ChangeFeedPage;
+
+public interface ChangeFeedService {
+    // Changes after position since, oldest first; 410 once since is older than the retained changes
+    ChangeFeedPage getChanges(long since, Integer size);
+}
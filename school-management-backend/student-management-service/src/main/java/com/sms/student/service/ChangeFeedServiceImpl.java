@@ -0,0 +1,45 @@
+package com.sms.student.service;
+
+import com.sms.student.dto.ChangeEvent;
+import com.sms.student.dto.ChangeFeedPage;
+import com.sms.student.dto.ChangeRelayState;
+import com.sms.student.exception.BadRequestException;
+import com.sms.student.exception.GoneException;
+import com.sms.student.repository.ChangeEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+public class ChangeFeedServiceImpl implements ChangeFeedService {
+
+    @Autowired
+    private ChangeEventRepository changeEventRepository;
+
+    @Value("${students.changes.default-size:500}")
+    private int defaultSize;
+
+    @Value("${students.changes.max-size:5000}")
+    private int maxSize;
+
+    @Override
+    @Transactional(readOnly = true)
+    public ChangeFeedPage getChanges(long since, Integer size) {
+        if (since < 0) {
+            throw new BadRequestException("since cannot be negative");
+        }
+        ChangeRelayState relay = changeEventRepository.findRelayState();
+        if (since < relay.prunedThrough()) {
+            // Changes made while the listing is read are replayed from there; applying them twice is harmless
+            throw new GoneException("Changes up to position " + relay.prunedThrough() + " are no longer kept; "
+                    + "reload the full listing and continue from since=" + relay.lastPosition());
+        }
+        int pageSize = size == null ? defaultSize : Math.max(1, Math.min(size, maxSize));
+        List<ChangeEvent> events = changeEventRepository.findSince(since, pageSize);
+        long next = events.isEmpty() ? since : events.get(events.size() - 1).position();
+        return new ChangeFeedPage(events, next, events.size() == pageSize);
+    }
+}
@@ -0,0 +1,14 @@
+package com.sms.student.service;
+
+import com.sms.student.dto.StudentPurgeJobView;
+import com.sms.student.dto.StudentPurgeRequest;
+
+import java.util.UUID;
+
+public interface StudentPurgeService {
+    // Validates the request and queues the purge; the job is polled with getJob
+    StudentPurgeJobView submit(StudentPurgeRequest request);
+    StudentPurgeJobView getJob(UUID id);
+    // A queued job will not start; a running one stops after the chunk in hand
+    StudentPurgeJobView cancelJob(UUID id);
+}
@@ -0,0 +1,167 @@
+package com.sms.student.service;
+
+import com.sms.student.dto.StudentPurgeCount;
+import com.sms.student.dto.StudentPurgeJobView;
+import com.sms.student.dto.StudentPurgeRequest;
+import com.sms.student.exception.BadRequestException;
+import com.sms.student.exception.ResourceNotFoundException;
+import com.sms.student.exception.TooManyRequestsException;
+import com.sms.student.purge.StudentPurgeJob;
+import com.sms.student.repository.StudentRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs bulk deletes and archives as background jobs, one at a time. Each job works through its students in
+ * chunks of chunk-size, one transaction each (see {@link StudentService#purgeStudents}), so no transaction
+ * holds locks on more than a chunk's rows and a job stopped part way keeps what it had committed. Jobs are
+ * kept in memory for the retention period after they finish and belong to the instance they were submitted to.
+ */
+@Service
+public class StudentPurgeServiceImpl implements StudentPurgeService {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentPurgeServiceImpl.class);
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Value("${students.purge.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${students.purge.max-student-ids:100000}")
+    private int maxStudentIds;
+
+    @Value("${students.purge.max-queued-jobs:4}")
+    private int maxQueuedJobs;
+
+    @Value("${students.purge.retention:PT1H}")
+    private Duration retention;
+
+    private final Map<UUID, StudentPurgeJob> jobs = new ConcurrentHashMap<>();
+
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private ExecutorService jobRunner;
+
+    @PostConstruct
+    void start() {
+        jobRunner = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("student-purges").daemon().factory());
+    }
+
+    @PreDestroy
+    void stop() {
+        jobs.values().forEach(StudentPurgeJob::cancel);
+        jobRunner.shutdown();
+    }
+
+    @Override
+    public StudentPurgeJobView submit(StudentPurgeRequest request) {
+        boolean byId = request.studentIds() != null;
+        boolean byFilter = request.enrollmentYear() != null || request.status() != null;
+        if (byId == byFilter) {
+            throw new BadRequestException("Give either studentIds or a filter (enrollmentYear, status)");
+        }
+        if (byId && (request.studentIds().isEmpty() || request.studentIds().size() > maxStudentIds)) {
+            throw new BadRequestException("studentIds must list between 1 and " + maxStudentIds + " students");
+        }
+        StudentPurgeJob job = new StudentPurgeJob(byId
+                ? new StudentPurgeRequest(request.studentIds().stream().distinct().toList(), null, null, request.archive())
+                : request);
+
+        if (queued.incrementAndGet() > maxQueuedJobs) {
+            queued.decrementAndGet();
+            throw new TooManyRequestsException(maxQueuedJobs + " purge jobs are already waiting; try again once one has started");
+        }
+        jobs.put(job.getId(), job);
+        jobRunner.execute(() -> run(job));
+        log.info("Student purge job {} queued: {}", job.getId(), byId
+                ? request.studentIds().size() + " students by id"
+                : "enrollmentYear=" + request.enrollmentYear() + ", status=" + request.status());
+        return job.view();
+    }
+
+    @Override
+    public StudentPurgeJobView getJob(UUID id) {
+        return findJob(id).view();
+    }
+
+    @Override
+    public StudentPurgeJobView cancelJob(UUID id) {
+        StudentPurgeJob job = findJob(id);
+        job.cancel();
+        return job.view();
+    }
+
+    @Scheduled(fixedDelayString = "PT1M")
+    public void evictFinishedJobs() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.finishedBefore(cutoff));
+    }
+
+    private void run(StudentPurgeJob job) {
+        queued.decrementAndGet();
+        StudentPurgeRequest request = job.getRequest();
+        try {
+            long matched = request.studentIds() != null ? request.studentIds().size()
+                    : studentRepository.countPurgeCandidates(request.enrollmentYear(), request.status());
+            if (!job.start(matched)) {
+                return;
+            }
+            if (request.studentIds() != null) {
+                List<UUID> ids = request.studentIds();
+                for (int from = 0; from < ids.size() && !job.isCancelled(); from += chunkSize) {
+                    job.chunkDone(studentService.purgeStudents(ids.subList(from, Math.min(from + chunkSize, ids.size())),
+                            request.archive()));
+                }
+            } else {
+                // Keyset over the ids: each chunk is found by index from where the last one ended, however far in
+                UUID after = null;
+                while (!job.isCancelled()) {
+                    List<UUID> ids = studentRepository.findPurgeCandidates(request.enrollmentYear(), request.status(),
+                            after, Limit.of(chunkSize));
+                    if (ids.isEmpty()) {
+                        break;
+                    }
+                    StudentPurgeCount removed = studentService.purgeStudents(ids, request.archive());
+                    job.chunkDone(removed);
+                    after = ids.get(ids.size() - 1);
+                }
+            }
+            job.complete();
+            StudentPurgeJobView view = job.view();
+            log.info("Student purge job {} {}: {} students and {} enrollments removed in {} chunks", view.id(), view.state(),
+                    view.progress().students(), view.progress().enrollments(), view.progress().chunks());
+        } catch (RuntimeException e) {
+            log.error("Student purge job {} failed", job.getId(), e);
+            job.fail(e.getMessage());
+        }
+    }
+
+    private StudentPurgeJob findJob(UUID id) {
+        StudentPurgeJob job = jobs.get(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Purge job not found with id: " + id);
+        }
+        return job;
+    }
+}
@@ -1,23 +1,73 @@
 package com.sms.student.service;
 
-import com.sms.student.model.Enrollment;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sms.student.bulk.StudentImportFormat;
+import com.sms.student.dto.BatchEnrollmentResult;
+import com.sms.student.dto.BulkUpdateCount;
+import com.sms.student.dto.ClassSeating;
+import com.sms.student.dto.CursorPage;
+import com.sms.student.dto.EnrollmentRequest;
+import com.sms.student.dto.EnrollmentView;
+import com.sms.student.dto.RosterExpression;
+import com.sms.student.dto.RosterPage;
+import com.sms.student.dto.StudentDetail;
+import com.sms.student.dto.StudentImportReport;
+import com.sms.student.dto.StudentPurgeCount;
+import com.sms.student.dto.StudentSummary;
 import com.sms.student.model.EnrollmentStatus;
 import com.sms.student.model.Student;
+import com.sms.student.paging.StudentSortField;
+import org.springframework.data.domain.Sort;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface StudentService {
     // Student Management
-    Student createStudent(Student student);
-    List<Student> getAllStudents();
-    Student getStudentById(UUID id);
-    Student updateStudent(UUID id, Student studentDetails);
+    StudentDetail createStudent(Student student);
+    CursorPage<StudentSummary> getAllStudents(String cursor, Integer size, StudentSortField sortField, Sort.Direction direction);
+    void streamAllStudents(Consumer<StudentSummary> consumer);
+
+    // Bulk import/export over the PostgreSQL COPY protocol; on other databases they throw NotImplementedException
+    void requireBulkCopy();
+    StudentImportReport importStudents(Reader reader, StudentImportFormat format) throws IOException;
+    void exportStudentsCsv(OutputStream out);
+    List<StudentSummary> searchStudents(String query, Integer size);
+    StudentDetail getStudentById(UUID id);
+    long getStudentVersion(UUID id);
+    // expectedVersion is the client's If-Match version, or null for an unconditional update
+    StudentDetail updateStudent(UUID id, Student studentDetails, Long expectedVersion);
+    // JSON Merge Patch of the fields a full update may change
+    StudentDetail patchStudent(UUID id, JsonNode patch, Long expectedVersion);
     void deleteStudent(UUID id);
+    // Moves the student and its enrollments to the archive tables
+    void archiveStudent(UUID id);
+    // Deletes or archives the students that still exist, in one transaction; for chunks of a purge job
+    StudentPurgeCount purgeStudents(Collection<UUID> ids, boolean archive);
 
     // Enrollment Management
-    Enrollment enrollStudentInClass(UUID studentId, String classId);
-    List<Enrollment> getEnrollmentsByStudent(UUID studentId);
-    Enrollment updateEnrollmentStatus(UUID enrollmentId, EnrollmentStatus newStatus);
+    EnrollmentView enrollStudentInClass(UUID studentId, String classId);
+    List<BatchEnrollmentResult> enrollStudentsInClasses(List<EnrollmentRequest> requests);
+    List<EnrollmentView> getEnrollmentsByStudent(UUID studentId);
+    // COMPLETED and DROPPED enrollments of past academic years, moved out of the student's enrollments
+    List<EnrollmentView> getClosedEnrollmentsByStudent(UUID studentId);
+    EnrollmentView updateEnrollmentStatus(UUID enrollmentId, EnrollmentStatus newStatus, Long expectedVersion);
     void deleteEnrollment(UUID enrollmentId);
+    // Merge patch (status only) of every enrollment of the class in one of the current statuses (any when empty)
+    BulkUpdateCount patchClassEnrollments(String classId, Collection<EnrollmentStatus> currentStatuses, JsonNode patch);
+    // Moves up to limit COMPLETED/DROPPED enrollments of academic years before the given one to enrollments_closed,
+    // in one transaction, and returns how many; for chunks of ClosedEnrollmentArchiver
+    int archiveClosedEnrollments(int beforeYear, int limit);
+
+    // Class Capacity
+    ClassSeating setClassCapacity(String classId, int capacity);
+    ClassSeating getClassSeating(String classId);
+
+    // Rosters, answered from the in-memory roster index; after is the last student id of the previous page
+    RosterPage queryRoster(RosterExpression expression, Integer limit, UUID after);
 }
\ No newline at end of file
@@ -1,117 +1,825 @@
 package com.sms.student.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sms.student.bulk.MalformedRowException;
+import com.sms.student.bulk.StudentImportFormat;
+import com.sms.student.bulk.StudentImportReader;
+import com.sms.student.bulk.StudentImportRow;
+import com.sms.student.changes.ChangeOutbox;
+import com.sms.student.changes.ChangeType;
+import com.sms.student.config.CacheConfig;
+import com.sms.student.datasource.ReadRouting;
+import com.sms.student.dto.BatchEnrollmentResult;
+import com.sms.student.dto.BulkUpdateCount;
+import com.sms.student.dto.ClassSeating;
+import com.sms.student.dto.CursorPage;
+import com.sms.student.dto.EnrollmentKey;
+import com.sms.student.dto.EnrollmentRequest;
+import com.sms.student.dto.EnrollmentView;
+import com.sms.student.dto.RosterEntry;
+import com.sms.student.dto.RosterExpression;
+import com.sms.student.dto.RosterPage;
+import com.sms.student.dto.StudentDetail;
+import com.sms.student.dto.StudentImportError;
+import com.sms.student.dto.StudentImportReport;
+import com.sms.student.dto.StudentPurgeCount;
+import com.sms.student.dto.StudentSummary;
+import com.sms.student.exception.BadRequestException;
+import com.sms.student.exception.ConflictException;
+import com.sms.student.exception.PreconditionFailedException;
 import com.sms.student.exception.ResourceNotFoundException;
+import com.sms.student.model.ClassCapacity;
 import com.sms.student.model.Enrollment;
 import com.sms.student.model.EnrollmentStatus;
 import com.sms.student.model.Student;
+import com.sms.student.model.TimeOrderedUuidGenerator;
+import com.sms.student.paging.StudentCursor;
+import com.sms.student.patch.MergePatch;
+import com.sms.student.paging.StudentSortField;
+import com.sms.student.repository.ClassCapacityRepository;
+import com.sms.student.repository.ClosedEnrollmentRepository;
 import com.sms.student.repository.EnrollmentRepository;
+import com.sms.student.repository.StudentCopyRepository;
 import com.sms.student.repository.StudentRepository;
+import com.sms.student.roster.RosterIndex;
+import com.sms.student.search.StudentSearchQuery;
+import com.sms.student.seating.ClassSeats;
+import com.sms.student.seating.SeatLedger;
+import com.sms.student.terms.AcademicCalendar;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @Service
 public class StudentServiceImpl implements StudentService {
 
+    private static final Logger log = LoggerFactory.getLogger(StudentServiceImpl.class);
+
+    // A word being typed is completed to at most this many known words before falling back to a prefix match
+    private static final int MAX_SEARCH_COMPLETIONS = 16;
+    // Closest known spellings tried for a word that is not in the index
+    private static final int MAX_SEARCH_CORRECTIONS = 3;
+    // Enrollment attempts when another instance commits the seat this one claimed first
+    private static final int MAX_SEAT_ATTEMPTS = 3;
+    private static final List<EnrollmentStatus> SEAT_HOLDING_STATUSES = Arrays.stream(EnrollmentStatus.values())
+            .filter(EnrollmentStatus::holdsSeat)
+            .toList();
+    // Those a full update changes; enrollmentDate is set once, when the student is created
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("name", "email", "dob", "address");
+    private static final Set<String> PATCHABLE_ENROLLMENT_FIELDS = Set.of("status");
+    // Enrollments per set-based UPDATE; keeps the IN list well under PostgreSQL's parameter limit
+    private static final int BULK_UPDATE_CHUNK_SIZE = 1000;
+
     @Autowired
     private StudentRepository studentRepository;
 
     @Autowired
     private EnrollmentRepository enrollmentRepository;
 
+    @Autowired
+    private StudentCopyRepository studentCopyRepository;
+
+    @Autowired
+    private ClosedEnrollmentRepository closedEnrollmentRepository;
+
+    @Autowired
+    private ClassCapacityRepository classCapacityRepository;
+
+    @Autowired
+    private SeatLedger seatLedger;
+
+    @Autowired
+    private RosterIndex rosterIndex;
+
+    @Autowired
+    private AcademicCalendar academicCalendar;
+
+    @Autowired
+    private ChangeOutbox changeOutbox;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${students.paging.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${students.paging.max-size:500}")
+    private int maxPageSize;
+
+    @Value("${students.search.default-size:10}")
+    private int defaultSearchSize;
+
+    @Value("${students.search.max-size:50}")
+    private int maxSearchSize;
+
+    @Value("${students.search.max-candidates:100}")
+    private int maxSearchCandidates;
+
+    @Value("${students.import.chunk-size:5000}")
+    private int importChunkSize;
+
+    @Value("${students.import.max-reported-errors:1000}")
+    private int maxReportedImportErrors;
+
+    @Value("${students.enrollment-batch.max-pairs:50000}")
+    private int maxBatchPairs;
+
+    @Value("${students.enrollment-batch.chunk-size:1000}")
+    private int batchChunkSize;
+
+    @Value("${students.roster.default-size:1000}")
+    private int defaultRosterSize;
+
+    @Value("${students.roster.max-size:10000}")
+    private int maxRosterSize;
+
     // --- Student Management ---
     @Override
     @Transactional
-    public Student createStudent(Student student) {
+    public StudentDetail createStudent(Student student) {
         // Ensure enrollmentDate is set if not provided by client
         if (student.getEnrollmentDate() == null) {
             student.setEnrollmentDate(LocalDateTime.now());
         }
-        return studentRepository.save(student);
+        Student created = studentRepository.save(student);
+        changeOutbox.record(ChangeOutbox.STUDENT, created.getId(), ChangeType.CREATED, StudentSummary.from(created));
+        return StudentDetail.from(created);
     }
 
     @Override
-    public List<Student> getAllStudents() {
-        return studentRepository.findAll();
+    @Transactional(readOnly = true)
+    public CursorPage<StudentSummary> getAllStudents(String cursor, Integer size, StudentSortField sortField, Sort.Direction direction) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        ScrollPosition position = StudentCursor.decode(cursor, sortField, direction);
+
+        Specification<Student> all = (root, query, cb) -> null;
+        Window<Student> window = studentRepository.findBy(all, q -> q
+                .sortBy(StudentCursor.sortFor(sortField, direction))
+                .limit(pageSize)
+                .scroll(position));
+
+        List<StudentSummary> items = window.map(StudentSummary::from).getContent();
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? StudentCursor.encode(sortField, direction, window.positionAt(window.size() - 1))
+                : null;
+        return new CursorPage<>(items, items.size(), nextCursor, nextCursor != null);
     }
 
     @Override
-    public Student getStudentById(UUID id) {
-        return studentRepository.findById(id)
+    @Transactional(readOnly = true)
+    public void streamAllStudents(Consumer<StudentSummary> consumer) {
+        try (Stream<StudentSummary> students = studentRepository.streamAllSummaries()) {
+            students.forEach(consumer);
+        }
+    }
+
+    // --- Bulk Import/Export ---
+    @Override
+    public StudentImportReport importStudents(Reader reader, StudentImportFormat format) throws IOException {
+        studentCopyRepository.requireCopy();
+        StudentImportReader records = StudentImportReader.open(reader, format, objectMapper);
+        ImportTally tally = new ImportTally(maxReportedImportErrors);
+        // Only the current chunk is held; duplicates across chunks are caught by the database
+        List<Student> chunk = new ArrayList<>(importChunkSize);
+        Map<UUID, Long> lines = new HashMap<>();
+        Set<String> emails = new HashSet<>();
+        LocalDateTime now = LocalDateTime.now();
+        while (true) {
+            StudentImportRow row;
+            try {
+                row = records.next();
+            } catch (MalformedRowException e) {
+                tally.reject(e.getLine(), e.getMessage());
+                continue;
+            }
+            if (row == null) {
+                break;
+            }
+            Student student = toImportedStudent(row, now, tally);
+            if (student == null) {
+                continue;
+            }
+            if (lines.containsKey(student.getId())) {
+                tally.reject(row.line(), "id: duplicate of line " + lines.get(student.getId()));
+            } else if (!emails.add(student.getEmail())) {
+                tally.reject(row.line(), "email: duplicate of an earlier line");
+            } else {
+                chunk.add(student);
+                lines.put(student.getId(), row.line());
+            }
+            if (chunk.size() == importChunkSize) {
+                copyImportChunk(chunk, lines, tally);
+                emails.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            copyImportChunk(chunk, lines, tally);
+        }
+        return tally.report();
+    }
+
+    // Each chunk commits on its own, like the batch enrollment, so a failure costs at most one chunk
+    private void copyImportChunk(List<Student> chunk, Map<UUID, Long> lines, ImportTally tally) {
+        Set<UUID> inserted = transactionTemplate.execute(status -> {
+            Set<UUID> copied = studentCopyRepository.copyIn(chunk);
+            chunk.stream().filter(student -> copied.contains(student.getId())).forEach(student ->
+                    changeOutbox.record(ChangeOutbox.STUDENT, student.getId(), ChangeType.CREATED, StudentSummary.from(student)));
+            return copied;
+        });
+        for (Student student : chunk) {
+            if (inserted.contains(student.getId())) {
+                tally.imported++;
+            } else {
+                tally.reject(lines.get(student.getId()), "a student with this id or email already exists");
+            }
+        }
+        chunk.clear();
+        lines.clear();
+    }
+
+    // Parses and validates one record against the Student constraints; null when it is rejected
+    private Student toImportedStudent(StudentImportRow row, LocalDateTime now, ImportTally tally) {
+        List<String> problems = new ArrayList<>();
+        Student student = new Student();
+        student.setId(row.id() == null ? TimeOrderedUuidGenerator.next()
+                : parse(row.id(), UUID::fromString, "id: not a UUID", problems));
+        student.setName(row.name());
+        student.setEmail(row.email());
+        student.setAddress(row.address());
+        student.setDob(row.dob() == null ? null : parse(row.dob(), LocalDate::parse, "dob: expected YYYY-MM-DD", problems));
+        student.setEnrollmentDate(row.enrollmentDate() == null ? now
+                // ISO with 'T', or with a space as PostgreSQL (and so the CSV export) writes it
+                : parse(row.enrollmentDate(), value -> LocalDateTime.parse(value.replace(' ', 'T')),
+                        "enrollment_date: expected YYYY-MM-DDTHH:MM:SS", problems));
+        if (problems.isEmpty()) {
+            for (ConstraintViolation<Student> violation : validator.validate(student)) {
+                problems.add(violation.getPropertyPath() + ": " + violation.getMessage());
+            }
+        }
+        if (problems.isEmpty()) {
+            return student;
+        }
+        problems.sort(null);
+        tally.reject(row.line(), String.join("; ", problems));
+        return null;
+    }
+
+    private static <T> T parse(String value, Function<String, T> parser, String problem, List<String> problems) {
+        try {
+            return parser.apply(value.trim());
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            problems.add(problem);
+            return null;
+        }
+    }
+
+    @Override
+    public void requireBulkCopy() {
+        studentCopyRepository.requireCopy();
+    }
+
+    @Override
+    public void exportStudentsCsv(OutputStream out) {
+        studentCopyRepository.copyOut(out);
+    }
+
+    private static final class ImportTally {
+
+        private final int maxErrors;
+        private final List<StudentImportError> errors = new ArrayList<>();
+        private long imported;
+        private long rejected;
+
+        ImportTally(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void reject(long line, String message) {
+            rejected++;
+            if (errors.size() < maxErrors) {
+                errors.add(new StudentImportError(line, message));
+            }
+        }
+
+        StudentImportReport report() {
+            errors.sort(Comparator.comparingLong(StudentImportError::line));
+            return new StudentImportReport(imported, rejected, errors, rejected > errors.size());
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StudentSummary> searchStudents(String query, Integer size) {
+        StudentSearchQuery search = StudentSearchQuery.parse(query);
+        int limit = size == null ? defaultSearchSize : Math.max(1, Math.min(size, maxSearchSize));
+
+        studentRepository.prepareSearch();
+        List<String> clauses = new ArrayList<>();
+        for (int i = 0; i < search.terms().size(); i++) {
+            clauses.add(searchClause(search.terms().get(i), search.isPrefix(i)));
+        }
+        String tsquery = StudentSearchQuery.allOf(clauses);
+        return studentRepository.search(tsquery, StudentSearchQuery.inNames(tsquery), search.emailPrefix(), maxSearchCandidates, limit)
+                .stream()
+                .map(StudentSummary::from)
+                .toList();
+    }
+
+    // A word still being typed is completed from the word list: exact lexemes are far cheaper for the GIN index
+    // than a prefix match over a common word. A word the index has never seen becomes its closest spellings.
+    private String searchClause(String term, boolean prefix) {
+        if (!StudentSearchQuery.hasLetter(term)) {
+            // House numbers and the like are not in the word list
+            return prefix ? StudentSearchQuery.prefix(term) : term;
+        }
+        if (prefix) {
+            List<String> completions = studentRepository.findSearchWordsLike(
+                    StudentSearchQuery.escapeLike(term) + "%", MAX_SEARCH_COMPLETIONS + 1);
+            if (!completions.isEmpty()) {
+                // Too many to list, or a lexeme the tsquery syntax cannot carry: match the prefix itself
+                return completions.size() > MAX_SEARCH_COMPLETIONS || !completions.stream().allMatch(StudentSearchQuery::isWord)
+                        ? StudentSearchQuery.prefix(term)
+                        : StudentSearchQuery.anyOf(completions);
+            }
+        }
+        List<String> similar = studentRepository.findSearchWordsSimilarTo(term, MAX_SEARCH_CORRECTIONS).stream()
+                .filter(StudentSearchQuery::isWord)
+                .toList();
+        return similar.isEmpty() || similar.contains(term) ? term : StudentSearchQuery.anyOf(similar);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.STUDENTS, key = "#id")
+    public StudentDetail getStudentById(UUID id) {
+        return studentRepository.findWithEnrollmentsById(id)
+                .map(StudentDetail::from)
                 .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
     }
 
+    // Only the version column, never the cache: a cached detail or a replica behind the primary could confirm a
+    // representation that has since changed
     @Override
-    @Transactional
-    public Student updateStudent(UUID id, Student studentDetails) {
-        Student student = studentRepository.findById(id)
+    public long getStudentVersion(UUID id) {
+        return ReadRouting.onPrimary(() -> studentRepository.findVersionById(id))
                 .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.STUDENTS, key = "#id")
+    public StudentDetail updateStudent(UUID id, Student studentDetails, Long expectedVersion) {
+        return update(id, expectedVersion, student -> {
+            student.setName(studentDetails.getName());
+            student.setEmail(studentDetails.getEmail());
+            student.setDob(studentDetails.getDob());
+            student.setAddress(studentDetails.getAddress());
+            // enrollmentDate should generally not be updated this way, maybe in a separate method if needed.
+            // student.setEnrollmentDate(studentDetails.getEnrollmentDate());
+        });
+    }
 
-        student.setName(studentDetails.getName());
-        student.setEmail(studentDetails.getEmail());
-        student.setDob(studentDetails.getDob());
-        student.setAddress(studentDetails.getAddress());
-        // enrollmentDate should generally not be updated this way, maybe in a separate method if needed.
-        // student.setEnrollmentDate(studentDetails.getEnrollmentDate());
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.STUDENTS, key = "#id")
+    public StudentDetail patchStudent(UUID id, JsonNode patch, Long expectedVersion) {
+        MergePatch mergePatch = MergePatch.of(patch, PATCHABLE_FIELDS);
+        return update(id, expectedVersion, student -> {
+            // Patched on a copy and validated as a whole, so the student only changes if the result is valid
+            Student patched = mergePatch.applyTo(new Student(null, student.getName(), student.getEmail(), student.getDob(),
+                    student.getAddress(), student.getEnrollmentDate(), null, null), objectMapper);
+            List<String> problems = new ArrayList<>();
+            for (ConstraintViolation<Student> violation : validator.validate(patched)) {
+                problems.add(violation.getPropertyPath() + ": " + violation.getMessage());
+            }
+            if (!problems.isEmpty()) {
+                problems.sort(null);
+                throw new BadRequestException(String.join("; ", problems));
+            }
+            student.setName(patched.getName());
+            student.setEmail(patched.getEmail());
+            student.setDob(patched.getDob());
+            student.setAddress(patched.getAddress());
+        });
+    }
 
-        return studentRepository.save(student);
+    // Loads the student, applies the change and flushes it; only the columns that changed are written
+    // (@DynamicUpdate), and nothing at all when none did
+    private StudentDetail update(UUID id, Long expectedVersion, Consumer<Student> change) {
+        Student student = studentRepository.findWithEnrollmentsById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
+        checkVersion("Student " + id, student.getVersion(), expectedVersion);
+        change.accept(student);
+        Student updated = flushChecked("Student " + id, expectedVersion, () -> studentRepository.saveAndFlush(student));
+        changeOutbox.record(ChangeOutbox.STUDENT, id, ChangeType.UPDATED, StudentSummary.from(updated));
+        return StudentDetail.from(updated);
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.STUDENTS, key = "#id")
     public void deleteStudent(UUID id) {
-        Student student = studentRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + id));
-        studentRepository.delete(student);
+        if (purge(List.of(id), false).students() == 0) {
+            throw new ResourceNotFoundException("Student not found with id: " + id);
+        }
     }
 
-    // --- Enrollment Management ---
     @Override
     @Transactional
-    public Enrollment enrollStudentInClass(UUID studentId, String classId) {
-        Student student = studentRepository.findById(studentId)
-                .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + studentId));
+    @CacheEvict(cacheNames = CacheConfig.STUDENTS, key = "#id")
+    public void archiveStudent(UUID id) {
+        if (purge(List.of(id), true).students() == 0) {
+            throw new ResourceNotFoundException("Student not found with id: " + id);
+        }
+    }
 
-        // Check if student is already enrolled in this class
-        if (enrollmentRepository.findByStudentIdAndClassId(studentId, classId).isPresent()) {
-            throw new RuntimeException("Student is already enrolled in class: " + classId);
+    @Override
+    @Transactional
+    public StudentPurgeCount purgeStudents(Collection<UUID> ids, boolean archive) {
+        StudentPurgeCount removed = purge(ids, archive);
+        Cache cache = cacheManager.getCache(CacheConfig.STUDENTS);
+        if (cache != null) {
+            ids.forEach(cache::evict);
+        }
+        return removed;
+    }
+
+    // The same few set-based statements however many students and enrollments there are, instead of the
+    // entity cascade (which loads every enrollment and deletes them one row at a time). Seats the students
+    // held go to the waitlists.
+    private StudentPurgeCount purge(Collection<UUID> ids, boolean archive) {
+        // Locked first: an enrollment committed between reading the students' enrollments and deleting them
+        // would be deleted without its seat being passed on
+        List<UUID> existing = studentRepository.lockExistingIds(ids);
+        List<EnrollmentView> enrollments = enrollmentRepository.findViewsByStudentIdIn(ids);
+        ChangeType change = archive ? ChangeType.ARCHIVED : ChangeType.DELETED;
+        existing.forEach(id -> changeOutbox.record(ChangeOutbox.STUDENT, id, change, null));
+        if (archive) {
+            LocalDateTime archivedAt = LocalDateTime.now();
+            studentRepository.archiveByIdIn(ids, archivedAt);
+            enrollmentRepository.archiveByStudentIdIn(ids, archivedAt);
+            closedEnrollmentRepository.archiveByStudentIdIn(ids, archivedAt);
+        }
+        int removedEnrollments = enrollmentRepository.deleteByStudentIdIn(ids) + closedEnrollmentRepository.deleteByStudentIdIn(ids);
+        int removedStudents = studentRepository.deleteByIdIn(ids);
+
+        Map<String, List<Integer>> vacatedSeats = new HashMap<>();
+        for (EnrollmentView enrollment : enrollments) {
+            // The feed's DELETED/ARCHIVED event covers the student's enrollments
+            rosterIndex.recordAfterCommit(new RosterEntry(enrollment.studentId(), enrollment.classId(), null));
+            if (enrollment.seatNumber() != null) {
+                vacatedSeats.computeIfAbsent(enrollment.classId(), classId -> new ArrayList<>()).add(enrollment.seatNumber());
+            }
+        }
+        vacatedSeats.forEach(this::passSeatsOn);
+        return new StudentPurgeCount(removedStudents, removedEnrollments);
+    }
+
+    // --- Enrollment Management ---
+    @Override
+    public EnrollmentView enrollStudentInClass(UUID studentId, String classId) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> enrollOnce(studentId, classId));
+            } catch (DataIntegrityViolationException e) {
+                // Either the student was enrolled concurrently, or another instance committed the claimed seat first
+                if (enrollmentRepository.existsByStudentIdAndClassId(studentId, classId)) {
+                    throw new BadRequestException("Student is already enrolled in class: " + classId);
+                }
+                if (attempt == MAX_SEAT_ATTEMPTS) {
+                    throw e;
+                }
+                seatLedger.invalidate(classId);
+            }
+        }
+    }
+
+    private EnrollmentView enrollOnce(UUID studentId, String classId) {
+        if (!studentRepository.existsById(studentId)) {
+            throw new ResourceNotFoundException("Student not found with id: " + studentId);
+        }
+
+        // Fast path only; uk_enrollments_class_student settles concurrent attempts
+        if (enrollmentRepository.existsByStudentIdAndClassId(studentId, classId)) {
+            throw new BadRequestException("Student is already enrolled in class: " + classId);
         }
 
         Enrollment enrollment = new Enrollment();
-        enrollment.setStudent(student);
+        // Reference only; the enrollment needs the foreign key, not the loaded student
+        enrollment.setStudent(studentRepository.getReferenceById(studentId));
         enrollment.setClassId(classId);
         enrollment.setEnrollmentDate(LocalDateTime.now());
+        enrollment.setAcademicYear(academicCalendar.yearOf(enrollment.getEnrollmentDate()));
+        seatOrWaitlist(enrollment);
+
+        // The student's representation embeds the enrollment list
+        studentChanged(studentId);
+        // Flushed here so that a unique violation surfaces as DataIntegrityViolationException
+        EnrollmentView created = EnrollmentView.from(enrollmentRepository.saveAndFlush(enrollment));
+        enrollmentChanged(new RosterEntry(studentId, classId, enrollment.getStatus()));
+        return created;
+    }
+
+    // Gives a new enrollment a seat, or puts it on the waitlist when its class is full
+    private void seatOrWaitlist(Enrollment enrollment) {
         enrollment.setStatus(EnrollmentStatus.ACTIVE);
+        ClassSeats seats = seatLedger.seatsFor(enrollment.getClassId());
+        if (seats != null) {
+            Integer seat = seatLedger.claim(seats);
+            if (seat == null) {
+                enrollment.setStatus(EnrollmentStatus.WAITLISTED);
+            }
+            enrollment.setSeatNumber(seat);
+        }
+    }
+
+    // Hands seats that were just vacated (and flushed) to the head of the class's waitlist, in one query,
+    // and the ones left over back to the pool once the transaction commits
+    private void passSeatsOn(String classId, List<Integer> vacated) {
+        passSeatsOn(classId, vacated, Set.of());
+    }
 
-        return enrollmentRepository.save(enrollment);
+    // As above, passing over the given enrollments: ones this transaction has just moved to the waitlist are
+    // already locked by it, so SKIP LOCKED would not skip them, and they would get their own seats back
+    private void passSeatsOn(String classId, List<Integer> vacated, Collection<UUID> excluded) {
+        ClassSeats seats = seatLedger.seatsFor(classId);
+        if (seats == null) {
+            return;
+        }
+        List<Integer> handedOn = vacated.stream().filter(seat -> seat <= seats.capacity()).sorted().toList();
+        if (handedOn.isEmpty()) {
+            return;
+        }
+        List<Enrollment> next = enrollmentRepository.findByClassIdAndStatusOrderByEnrollmentDateAscIdAsc(
+                        classId, EnrollmentStatus.WAITLISTED, Limit.of(handedOn.size() + excluded.size())).stream()
+                .filter(enrollment -> !excluded.contains(enrollment.getId()))
+                .limit(handedOn.size())
+                .toList();
+        Set<UUID> promoted = new HashSet<>();
+        for (int i = 0; i < handedOn.size(); i++) {
+            if (i < next.size()) {
+                Enrollment enrollment = next.get(i);
+                enrollment.setSeatNumber(handedOn.get(i));
+                enrollment.setStatus(EnrollmentStatus.ACTIVE);
+                promoted.add(enrollment.getStudent().getId());
+                enrollmentChanged(new RosterEntry(enrollment.getStudent().getId(), classId, EnrollmentStatus.ACTIVE));
+            } else {
+                seatLedger.releaseAfterCommit(seats, handedOn.get(i));
+            }
+        }
+        studentsChanged(promoted);
     }
 
     @Override
-    public List<Enrollment> getEnrollmentsByStudent(UUID studentId) {
+    public List<BatchEnrollmentResult> enrollStudentsInClasses(List<EnrollmentRequest> requests) {
+        if (requests.size() > maxBatchPairs) {
+            throw new BadRequestException("Batch exceeds the maximum of " + maxBatchPairs + " enrollments");
+        }
+        List<BatchEnrollmentResult> results = new ArrayList<>(requests.size());
+        // Pairs of this request enrolled by chunks that have committed; a rolled back chunk adds none
+        Set<EnrollmentKey> enrolled = new HashSet<>();
+        // Each chunk commits on its own so a term-start load never holds one giant transaction
+        for (int from = 0; from < requests.size(); from += batchChunkSize) {
+            List<EnrollmentRequest> chunk = requests.subList(from, Math.min(from + batchChunkSize, requests.size()));
+            try {
+                List<BatchEnrollmentResult> chunkResults = transactionTemplate.execute(status -> enrollChunk(chunk, enrolled));
+                addEnrolled(chunkResults, enrolled);
+                results.addAll(chunkResults);
+            } catch (DataAccessException e) {
+                // The whole chunk rolled back: enroll its pairs one at a time, so that only those the database
+                // rejects fail
+                log.warn("Batch enrollment chunk of {} pairs failed; enrolling them one at a time", chunk.size(), e);
+                for (EnrollmentRequest request : chunk) {
+                    BatchEnrollmentResult result = enrollAlone(request, enrolled);
+                    addEnrolled(List.of(result), enrolled);
+                    results.add(result);
+                }
+            }
+        }
+        return results;
+    }
+
+    private BatchEnrollmentResult enrollAlone(EnrollmentRequest request, Set<EnrollmentKey> enrolled) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> enrollChunk(List.of(request), enrolled)).get(0);
+            } catch (DataIntegrityViolationException e) {
+                // As in enrollStudentInClass: enrolled concurrently, or another instance committed the claimed seat first
+                if (enrollmentRepository.existsByStudentIdAndClassId(request.studentId(), request.classId())) {
+                    return new BatchEnrollmentResult(request.studentId(), request.classId(),
+                            BatchEnrollmentResult.Outcome.ALREADY_ENROLLED, null);
+                }
+                if (attempt == MAX_SEAT_ATTEMPTS) {
+                    return failed(request, e);
+                }
+                seatLedger.invalidate(request.classId());
+            } catch (DataAccessException e) {
+                return failed(request, e);
+            }
+        }
+    }
+
+    private static BatchEnrollmentResult failed(EnrollmentRequest request, DataAccessException e) {
+        log.warn("Batch enrollment of student {} in class {} failed", request.studentId(), request.classId(), e);
+        return new BatchEnrollmentResult(request.studentId(), request.classId(), BatchEnrollmentResult.Outcome.FAILED, null);
+    }
+
+    private static void addEnrolled(List<BatchEnrollmentResult> results, Set<EnrollmentKey> enrolled) {
+        results.stream()
+                .filter(result -> result.enrollmentId() != null)
+                .forEach(result -> enrolled.add(new EnrollmentKey(result.studentId(), result.classId())));
+    }
+
+    // Does not change enrolled: the caller adds the chunk's pairs once it has committed
+    private List<BatchEnrollmentResult> enrollChunk(List<EnrollmentRequest> chunk, Set<EnrollmentKey> enrolled) {
+        Set<UUID> studentIds = chunk.stream().map(EnrollmentRequest::studentId).collect(Collectors.toSet());
+        Set<String> classIds = chunk.stream().map(EnrollmentRequest::classId).collect(Collectors.toSet());
+
+        // One query for which students exist and one for which pairs are already enrolled
+        Set<UUID> existingStudents = new HashSet<>(studentRepository.findExistingIds(studentIds));
+        Set<EnrollmentKey> alreadyEnrolled = new HashSet<>(
+                enrollmentRepository.findKeysByStudentIdInAndClassIdIn(studentIds, classIds));
+
+        BatchEnrollmentResult.Outcome[] outcomes = new BatchEnrollmentResult.Outcome[chunk.size()];
+        Enrollment[] created = new Enrollment[chunk.size()];
+        Set<EnrollmentKey> chunkEnrolled = new HashSet<>();
+        List<Enrollment> toInsert = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        int academicYear = academicCalendar.yearOf(now);
+        for (int i = 0; i < chunk.size(); i++) {
+            EnrollmentRequest request = chunk.get(i);
+            EnrollmentKey key = new EnrollmentKey(request.studentId(), request.classId());
+            if (!existingStudents.contains(request.studentId())) {
+                outcomes[i] = BatchEnrollmentResult.Outcome.STUDENT_NOT_FOUND;
+            } else if (enrolled.contains(key) || chunkEnrolled.contains(key)) {
+                outcomes[i] = BatchEnrollmentResult.Outcome.DUPLICATE_IN_REQUEST;
+            } else if (alreadyEnrolled.contains(key)) {
+                outcomes[i] = BatchEnrollmentResult.Outcome.ALREADY_ENROLLED;
+            } else {
+                chunkEnrolled.add(key);
+                Enrollment enrollment = new Enrollment();
+                enrollment.setStudent(studentRepository.getReferenceById(request.studentId()));
+                enrollment.setClassId(request.classId());
+                enrollment.setEnrollmentDate(now);
+                enrollment.setAcademicYear(academicYear);
+                seatOrWaitlist(enrollment);
+                toInsert.add(enrollment);
+                created[i] = enrollment;
+                outcomes[i] = enrollment.getStatus() == EnrollmentStatus.WAITLISTED
+                        ? BatchEnrollmentResult.Outcome.WAITLISTED
+                        : BatchEnrollmentResult.Outcome.ENROLLED;
+            }
+        }
+        // Ids are assigned on persist, so the inserts themselves go out as JDBC batches at flush time
+        enrollmentRepository.saveAll(toInsert);
+        toInsert.forEach(enrollment -> enrollmentChanged(
+                new RosterEntry(enrollment.getStudent().getId(), enrollment.getClassId(), enrollment.getStatus())));
+        studentsChanged(toInsert.stream().map(enrollment -> enrollment.getStudent().getId()).collect(Collectors.toSet()));
+
+        List<BatchEnrollmentResult> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            EnrollmentRequest request = chunk.get(i);
+            UUID enrollmentId = created[i] == null ? null : created[i].getId();
+            results.add(new BatchEnrollmentResult(request.studentId(), request.classId(), outcomes[i], enrollmentId));
+        }
+        return results;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EnrollmentView> getEnrollmentsByStudent(UUID studentId) {
         // Ensure student exists before fetching enrollments
         if (!studentRepository.existsById(studentId)) {
             throw new ResourceNotFoundException("Student not found with id: " + studentId);
         }
-        return enrollmentRepository.findByStudentId(studentId);
+        return enrollmentRepository.findViewsByStudentId(studentId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EnrollmentView> getClosedEnrollmentsByStudent(UUID studentId) {
+        if (!studentRepository.existsById(studentId)) {
+            throw new ResourceNotFoundException("Student not found with id: " + studentId);
+        }
+        return closedEnrollmentRepository.findByStudentIdOrderByAcademicYearDescEnrollmentDateDesc(studentId).stream()
+                .map(EnrollmentView::from)
+                .toList();
     }
 
+    // Three statements for the chunk: lock, copy, delete. The enrollments leave the rosters and the students'
+    // representations, which cover the enrollments table only, so the change feed records them as removed; COMPLETED
+    // ones hand their seats on to the waitlists.
     @Override
     @Transactional
-    public Enrollment updateEnrollmentStatus(UUID enrollmentId, EnrollmentStatus newStatus) {
+    public int archiveClosedEnrollments(int beforeYear, int limit) {
+        List<EnrollmentView> closed = enrollmentRepository.lockArchivableViews(beforeYear, Limit.of(limit));
+        if (closed.isEmpty()) {
+            return 0;
+        }
+        List<UUID> ids = closed.stream().map(EnrollmentView::id).toList();
+        closedEnrollmentRepository.copyFromEnrollments(ids, LocalDateTime.now());
+        enrollmentRepository.deleteByIdIn(ids);
+
+        Map<String, List<Integer>> vacatedSeats = new HashMap<>();
+        for (EnrollmentView enrollment : closed) {
+            enrollmentChanged(new RosterEntry(enrollment.studentId(), enrollment.classId(), null));
+            if (enrollment.seatNumber() != null) {
+                vacatedSeats.computeIfAbsent(enrollment.classId(), classId -> new ArrayList<>()).add(enrollment.seatNumber());
+            }
+        }
+        vacatedSeats.forEach(this::passSeatsOn);
+        // Their representation no longer embeds the moved enrollments
+        studentsChanged(closed.stream().map(EnrollmentView::studentId).collect(Collectors.toSet()));
+        return closed.size();
+    }
+
+    @Override
+    @Transactional
+    public EnrollmentView updateEnrollmentStatus(UUID enrollmentId, EnrollmentStatus newStatus, Long expectedVersion) {
         Enrollment enrollment = enrollmentRepository.findById(enrollmentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Enrollment not found with id: " + enrollmentId));
+        checkVersion("Enrollment " + enrollmentId, enrollment.getVersion(), expectedVersion);
 
+        Integer vacatedSeat = null;
+        if (newStatus.holdsSeat() && !enrollment.getStatus().holdsSeat()) {
+            ClassSeats seats = seatLedger.seatsFor(enrollment.getClassId());
+            if (seats != null) {
+                Integer seat = seatLedger.claim(seats);
+                if (seat == null) {
+                    throw new BadRequestException("Class is full: " + enrollment.getClassId());
+                }
+                enrollment.setSeatNumber(seat);
+            }
+        } else if (!newStatus.holdsSeat()) {
+            vacatedSeat = enrollment.getSeatNumber();
+            enrollment.setSeatNumber(null);
+        }
         enrollment.setStatus(newStatus);
         if (newStatus == EnrollmentStatus.COMPLETED) {
             enrollment.setCompletionDate(LocalDateTime.now());
         } else {
             enrollment.setCompletionDate(null); // Clear if status changes from COMPLETED
         }
-        return enrollmentRepository.save(enrollment);
+        studentChanged(enrollment.getStudent().getId());
+        EnrollmentView updated = EnrollmentView.from(flushChecked("Enrollment " + enrollmentId, expectedVersion,
+                () -> enrollmentRepository.saveAndFlush(enrollment)));
+        enrollmentChanged(new RosterEntry(enrollment.getStudent().getId(), enrollment.getClassId(), newStatus));
+        if (vacatedSeat != null) {
+            passSeatsOn(enrollment.getClassId(), List.of(vacatedSeat), Set.of(enrollmentId));
+        }
+        return updated;
     }
 
     @Override
@@ -119,6 +827,171 @@ public class StudentServiceImpl implements StudentService {
     public void deleteEnrollment(UUID enrollmentId) {
         Enrollment enrollment = enrollmentRepository.findById(enrollmentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Enrollment not found with id: " + enrollmentId));
+        studentChanged(enrollment.getStudent().getId());
         enrollmentRepository.delete(enrollment);
+        enrollmentChanged(new RosterEntry(enrollment.getStudent().getId(), enrollment.getClassId(), null));
+        if (enrollment.getSeatNumber() != null) {
+            // The seat must be free in the database before it is handed on (uk_enrollments_class_seat)
+            enrollmentRepository.flush();
+            passSeatsOn(enrollment.getClassId(), List.of(enrollment.getSeatNumber()));
+        }
+    }
+
+    // Two statements per chunk, however many enrollments change: one to lock them and read what the roster
+    // index and change feed need, one UPDATE. Seats given up go to the waitlist as with single updates.
+    @Override
+    @Transactional
+    public BulkUpdateCount patchClassEnrollments(String classId, Collection<EnrollmentStatus> currentStatuses, JsonNode patch) {
+        MergePatch mergePatch = MergePatch.of(patch, PATCHABLE_ENROLLMENT_FIELDS);
+        EnrollmentStatus newStatus = mergePatch.applyTo(new Enrollment(), objectMapper).getStatus();
+        if (newStatus == null) {
+            throw new BadRequestException("status cannot be removed");
+        }
+        // Enrollments already in the new status are left as they are
+        List<EnrollmentStatus> statuses = (currentStatuses == null || currentStatuses.isEmpty()
+                ? Arrays.stream(EnrollmentStatus.values()) : currentStatuses.stream())
+                .filter(status -> status != newStatus)
+                .distinct()
+                .toList();
+        if (statuses.isEmpty()) {
+            return new BulkUpdateCount(0);
+        }
+        if (newStatus.holdsSeat() && seatLedger.seatsFor(classId) != null
+                && statuses.stream().anyMatch(status -> !status.holdsSeat())) {
+            throw new BadRequestException("Class " + classId + " has a capacity, so seats are claimed one enrollment at a "
+                    + "time; only enrollments that already hold a seat can be moved to " + newStatus + " together");
+        }
+        LocalDateTime completionDate = newStatus == EnrollmentStatus.COMPLETED ? LocalDateTime.now() : null;
+
+        List<EnrollmentView> changing = enrollmentRepository.lockViewsByClassIdAndStatusIn(classId, statuses);
+        for (int from = 0; from < changing.size(); from += BULK_UPDATE_CHUNK_SIZE) {
+            List<UUID> ids = changing.subList(from, Math.min(from + BULK_UPDATE_CHUNK_SIZE, changing.size())).stream()
+                    .map(EnrollmentView::id)
+                    .toList();
+            if (newStatus.holdsSeat()) {
+                enrollmentRepository.updateStatusByIdIn(ids, newStatus, completionDate);
+            } else {
+                enrollmentRepository.updateStatusAndVacateSeatsByIdIn(ids, newStatus);
+            }
+        }
+        List<Integer> vacated = new ArrayList<>();
+        for (EnrollmentView enrollment : changing) {
+            enrollmentChanged(new RosterEntry(enrollment.studentId(), classId, newStatus));
+            if (!newStatus.holdsSeat() && enrollment.seatNumber() != null) {
+                vacated.add(enrollment.seatNumber());
+            }
+        }
+        studentsChanged(changing.stream().map(EnrollmentView::studentId).collect(Collectors.toSet()));
+        passSeatsOn(classId, vacated, changing.stream().map(EnrollmentView::id).collect(Collectors.toSet()));
+        return new BulkUpdateCount(changing.size());
+    }
+
+    // --- Class Capacity ---
+    @Override
+    @Transactional
+    public ClassSeating setClassCapacity(String classId, int capacity) {
+        if (capacity < 0) {
+            throw new BadRequestException("Capacity cannot be negative");
+        }
+        List<Enrollment> holders = enrollmentRepository.findByClassIdAndStatusInOrderByEnrollmentDateAscIdAsc(
+                classId, SEAT_HOLDING_STATUSES);
+        if (holders.size() > capacity) {
+            throw new BadRequestException(holders.size() + " students already hold a seat in class " + classId);
+        }
+        classCapacityRepository.save(new ClassCapacity(classId, capacity));
+
+        // Seats are numbered 1..capacity: holders keep their seat where it still exists, the rest (enrolled
+        // while the class was unlimited, or above a lowered capacity) and then the waitlist get the free ones
+        Set<Integer> taken = holders.stream()
+                .map(Enrollment::getSeatNumber)
+                .filter(seat -> seat != null && seat <= capacity)
+                .collect(Collectors.toSet());
+        Iterator<Integer> free = IntStream.rangeClosed(1, capacity)
+                .filter(seat -> !taken.contains(seat))
+                .iterator();
+        Set<UUID> changed = new HashSet<>();
+        holders.stream()
+                .filter(holder -> holder.getSeatNumber() == null || holder.getSeatNumber() > capacity)
+                .forEach(holder -> {
+                    holder.setSeatNumber(free.next());
+                    changed.add(holder.getStudent().getId());
+                });
+        List<Enrollment> waitlist = enrollmentRepository.findByClassIdAndStatusOrderByEnrollmentDateAscIdAsc(
+                classId, EnrollmentStatus.WAITLISTED);
+        int promoted = 0;
+        for (Enrollment next : waitlist) {
+            if (!free.hasNext()) {
+                break;
+            }
+            next.setSeatNumber(free.next());
+            next.setStatus(EnrollmentStatus.ACTIVE);
+            changed.add(next.getStudent().getId());
+            enrollmentChanged(new RosterEntry(next.getStudent().getId(), classId, EnrollmentStatus.ACTIVE));
+            promoted++;
+        }
+        studentsChanged(changed);
+        seatLedger.invalidateAfterCommit(classId);
+        ClassSeating seating = new ClassSeating(classId, capacity, holders.size() + promoted, waitlist.size() - promoted);
+        changeOutbox.record(ChangeOutbox.CLASS, classId, ChangeType.CAPACITY_CHANGED, seating);
+        return seating;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ClassSeating getClassSeating(String classId) {
+        Integer capacity = classCapacityRepository.findById(classId).map(ClassCapacity::getCapacity).orElse(null);
+        return new ClassSeating(classId, capacity,
+                enrollmentRepository.countByClassIdAndStatusIn(classId, SEAT_HOLDING_STATUSES),
+                enrollmentRepository.countByClassIdAndStatus(classId, EnrollmentStatus.WAITLISTED));
+    }
+
+    // --- Rosters ---
+    @Override
+    public RosterPage queryRoster(RosterExpression expression, Integer limit, UUID after) {
+        int size = limit == null ? defaultRosterSize : Math.max(0, Math.min(limit, maxRosterSize));
+        return rosterIndex.query(expression, size, after);
+    }
+
+    // The roster index and the change feed follow every enrollment that is added, changes status or goes
+    private void enrollmentChanged(RosterEntry entry) {
+        rosterIndex.recordAfterCommit(entry);
+        changeOutbox.record(ChangeOutbox.STUDENT, entry.studentId(), ChangeType.ENROLLMENT_CHANGED, entry);
+    }
+
+    private void studentChanged(UUID studentId) {
+        studentsChanged(List.of(studentId));
+    }
+
+    // A student's ETag covers its enrollments too, so changing one moves the student to a new version
+    // and drops its cached detail
+    private void studentsChanged(Collection<UUID> studentIds) {
+        if (studentIds.isEmpty()) {
+            return;
+        }
+        studentRepository.incrementVersions(studentIds);
+        Cache cache = cacheManager.getCache(CacheConfig.STUDENTS);
+        if (cache != null) {
+            studentIds.forEach(cache::evict);
+        }
+    }
+
+    // If-Match: the update only goes ahead against the version the client last saw
+    private static void checkVersion(String resource, Long currentVersion, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+            throw new PreconditionFailedException(resource + " has changed; its current version is " + currentVersion);
+        }
+    }
+
+    // Flushes inside the service so that a write committed since the read surfaces here, as 412 for a
+    // conditional update and 409 for an unconditional one, rather than as a failed commit
+    private static <T> T flushChecked(String resource, Long expectedVersion, Supplier<T> save) {
+        try {
+            return save.get();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            if (expectedVersion != null) {
+                throw new PreconditionFailedException(resource + " has changed");
+            }
+            throw new ConflictException(resource + " was changed concurrently; reload it and retry");
+        }
     }
 }
@@ -0,0 +1,25 @@
+package com.sms.student.terms;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Academic years, each named for the calendar year it starts in: with years starting in September,
+ * enrollments made from September 2025 through August 2026 belong to 2025.
+ */
+@Component
+public class AcademicCalendar {
+
+    @Value("${students.terms.start-month:9}")
+    private int startMonth;
+
+    public int yearOf(LocalDateTime dateTime) {
+        return dateTime.getMonthValue() >= startMonth ? dateTime.getYear() : dateTime.getYear() - 1;
+    }
+
+    public int currentYear() {
+        return yearOf(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,69 @@
+package com.sms.student.terms;
+
+import com.sms.student.repository.ClosedEnrollmentPartitionRepository;
+import com.sms.student.repository.EnrollmentRepository;
+import com.sms.student.service.StudentService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves COMPLETED and DROPPED enrollments of past academic years from enrollments to enrollments_closed,
+ * chunk-size per transaction. What stays in enrollments is the current year and whatever is still open, so
+ * lookups of a student's or a class's enrollments cost the same however many years the school has run.
+ * <p>
+ * On PostgreSQL each year's closed enrollments go to their own partition, created here before the first of
+ * them moves, in closed-tablespace when one is set: a year is written once, never updated, and can be moved
+ * to cheaper storage, detached or dropped whole.
+ */
+@Component
+public class ClosedEnrollmentArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(ClosedEnrollmentArchiver.class);
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private ClosedEnrollmentPartitionRepository partitionRepository;
+
+    @Autowired
+    private AcademicCalendar academicCalendar;
+
+    @Value("${students.terms.archive-chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${students.terms.closed-tablespace:}")
+    private String closedTablespace;
+
+    @Scheduled(cron = "${students.terms.archive-cron:0 30 3 * * *}")
+    public void archiveClosedEnrollments() {
+        int currentYear = academicCalendar.currentYear();
+        if (partitionRepository.isPartitioned()) {
+            for (int year : enrollmentRepository.findArchivableAcademicYears(currentYear)) {
+                try {
+                    partitionRepository.createYearPartition(year, closedTablespace);
+                } catch (DataAccessException e) {
+                    // Usually enrollments of that year already sit in the default partition; move them out by hand
+                    log.warn("Could not create the closed enrollment partition for {}", year, e);
+                }
+            }
+        }
+        int moved = 0;
+        int chunk;
+        do {
+            chunk = studentService.archiveClosedEnrollments(currentYear, chunkSize);
+            moved += chunk;
+        } while (chunk == chunkSize);
+        if (moved > 0) {
+            log.info("Moved {} closed enrollments of academic years before {} to enrollments_closed", moved, currentYear);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+-- Schema behind /api/attendance (see AttendanceWriter and AttendanceRepository).
+--
+-- Applied at startup through spring.sql.init outside the prod profile. In production the schema is
+-- managed outside the application, so run it once by hand:
+--   psql -v ON_ERROR_STOP=1 -d student_db -f src/main/resources/db/attendance.sql
+-- Every statement is idempotent.
+
+-- Every mark ever taken, append-only: a correction is another mark for the same class, student, day and
+-- period, and the one recorded last wins. No primary key or foreign keys, so that a burst is written with
+-- COPY and checks nothing per row.
+--
+-- recorded_at orders the writes. Ids come from per-session sequence caches, so across connections and
+-- instances a later mark can get a lower id; id only breaks ties within one write, whose marks all come
+-- from one session in the order they were sent.
+--
+-- Partitioned by month: a burst only touches the current month's index, and a month past retention is
+-- detached or dropped whole rather than deleted row by row. AttendancePartitions creates the months
+-- ahead (students.attendance.partition-months-ahead); the default partition catches anything outside them.
+CREATE SEQUENCE IF NOT EXISTS attendance_mark_seq CACHE 1000;
+
+CREATE TABLE IF NOT EXISTS attendance_marks (
+    id bigint NOT NULL DEFAULT nextval('attendance_mark_seq'),
+    class_id varchar(255) NOT NULL,
+    attendance_date date NOT NULL,
+    period smallint NOT NULL,
+    student_id uuid NOT NULL,
+    status varchar(16) NOT NULL,
+    recorded_at timestamp(6) NOT NULL
+) PARTITION BY RANGE (attendance_date);
+
+CREATE TABLE IF NOT EXISTS attendance_marks_default PARTITION OF attendance_marks DEFAULT;
+
+-- Rollups are recomputed one class-day at a time
+CREATE INDEX IF NOT EXISTS idx_attendance_marks_class_date ON attendance_marks (class_id, attendance_date);
+
+-- Per class, day and student: the periods marked and how many in each status, counting the latest mark of
+-- each period. Reports sum these and never read attendance_marks.
+CREATE TABLE IF NOT EXISTS attendance_daily_rollups (
+    class_id varchar(255) NOT NULL,
+    attendance_date date NOT NULL,
+    student_id uuid NOT NULL,
+    periods integer NOT NULL,
+    present integer NOT NULL,
+    late integer NOT NULL,
+    absent integer NOT NULL,
+    excused integer NOT NULL,
+    PRIMARY KEY (class_id, attendance_date, student_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_attendance_daily_rollups_student ON attendance_daily_rollups (student_id, attendance_date);
@@ -0,0 +1,33 @@
+-- Outbox behind the change feed (see ChangeOutbox, ChangeRelay and GET /api/students/changes).
+--
+-- Applied at startup through spring.sql.init outside the prod profile. In production the schema is
+-- managed outside the application, so run it once by hand:
+--   psql -v ON_ERROR_STOP=1 -d student_db -f src/main/resources/db/changes.sql
+-- Every statement is idempotent.
+
+-- One row per change, written in the transaction that made it. id follows insert order, which is not commit
+-- order, so consumers page by position instead: the relay numbers events as it finds them committed, under
+-- the lock on change_event_relay, and never numbers one below a position already handed out.
+CREATE TABLE IF NOT EXISTS change_events (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    position bigint UNIQUE,
+    aggregate_type varchar(32) NOT NULL,
+    aggregate_id varchar(255) NOT NULL,
+    event_type varchar(32) NOT NULL,
+    payload text,
+    occurred_at timestamp(6) NOT NULL,
+    relayed_at timestamp(6)
+);
+
+-- What the relay still has to pick up: a handful of rows however large the table grows
+CREATE INDEX IF NOT EXISTS idx_change_events_unrelayed ON change_events (id) WHERE position IS NULL;
+
+-- A single row: the last position handed out, and the last one pruned past retention. Locked by whichever
+-- instance is relaying or pruning, so positions are handed out by one at a time.
+CREATE TABLE IF NOT EXISTS change_event_relay (
+    id integer PRIMARY KEY,
+    last_position bigint NOT NULL,
+    pruned_through bigint NOT NULL
+);
+
+INSERT INTO change_event_relay (id, last_position, pruned_through) VALUES (1, 0, 0) ON CONFLICT DO NOTHING;
@@ -0,0 +1,62 @@
+-- Academic-year term keys on enrollments, and the closed enrollments moved out of them by ClosedEnrollmentArchiver.
+--
+-- Applied at startup through spring.sql.init outside the prod profile. In production the schema is
+-- managed outside the application, so run it once by hand, with the month academic years start in
+-- (students.terms.start-month):
+--   psql -v ON_ERROR_STOP=1 -d student_db -c 'SET students.terms.start_month = 9' -f src/main/resources/db/enrollment-terms.sql
+-- Every statement is idempotent.
+
+-- Enrollments made before the academic year was recorded get the one their enrollment date falls in, which
+-- depends on the start month. There is no default for it: with enrollments to fill in and no start month set,
+-- the script stops rather than guess.
+ALTER TABLE enrollments ADD COLUMN IF NOT EXISTS academic_year integer;
+DO '
+DECLARE
+    start_month text := current_setting(''students.terms.start_month'', true);
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM enrollments WHERE academic_year IS NULL) THEN
+        RETURN;
+    END IF;
+    IF start_month IS NULL OR start_month !~ ''^ *(1[0-2]|[1-9]) *$'' THEN
+        RAISE EXCEPTION ''Enrollments need their academic year filled in, but students.terms.start_month is %. Set it to students.terms.start-month (1-12) and run enrollment-terms.sql again.'',
+            coalesce(start_month, ''not set'');
+    END IF;
+    UPDATE enrollments SET academic_year = extract(year from enrollment_date - make_interval(months => start_month::integer - 1))
+    WHERE academic_year IS NULL;
+END';
+ALTER TABLE enrollments ALTER COLUMN academic_year SET NOT NULL;
+
+-- What the archiver still has to move, in the id order it locks them: closed enrollments only, which stay
+-- few between its nightly runs, with the year to skip the current one's without reading the rows
+CREATE INDEX IF NOT EXISTS idx_enrollments_archivable ON enrollments (id, academic_year) WHERE status IN ('COMPLETED', 'DROPPED');
+
+-- Closed enrollments of past academic years, partitioned by year: each year is written once by the archiver,
+-- never updated, and can be moved to another tablespace, detached or dropped whole. ClosedEnrollmentArchiver
+-- creates a year's partition before moving its enrollments; the default partition catches anything else.
+--
+-- Hibernate's DDL creates the table unpartitioned on a new database; it is replaced here while still empty.
+-- The block is single-quoted rather than $$-quoted so that Spring's script splitter keeps it whole.
+DO '
+BEGIN
+    IF (SELECT relkind FROM pg_class WHERE oid = to_regclass(''enrollments_closed'')) = ''r'' THEN
+        IF NOT EXISTS (SELECT 1 FROM enrollments_closed) THEN
+            DROP TABLE enrollments_closed;
+        END IF;
+    END IF;
+END';
+
+CREATE TABLE IF NOT EXISTS enrollments_closed (
+    id uuid NOT NULL,
+    student_id uuid,
+    class_id varchar(255),
+    academic_year integer NOT NULL,
+    enrollment_date timestamp(6),
+    status varchar(255),
+    completion_date timestamp(6),
+    moved_at timestamp(6)
+) PARTITION BY RANGE (academic_year);
+
+CREATE TABLE IF NOT EXISTS enrollments_closed_default PARTITION OF enrollments_closed DEFAULT;
+
+-- A student's closed enrollments, from every year's partition
+CREATE INDEX IF NOT EXISTS idx_enrollments_closed_student_id ON enrollments_closed (student_id);
@@ -0,0 +1,57 @@
+-- Schema behind GET /api/students/search (see StudentSearchQuery and StudentServiceImpl.searchStudents).
+--
+-- Applied at startup through spring.sql.init outside the prod profile. In production the schema is
+-- managed outside the application, so run it once by hand:
+--   psql -v ON_ERROR_STOP=1 -d student_db -f src/main/resources/db/student-search.sql
+-- Every statement is idempotent. Adding the generated column rewrites the students table, so schedule the
+-- first run; the index builds take a few minutes per million students.
+--
+-- Function bodies are single-quoted rather than $$-quoted so that Spring's script splitter keeps them whole.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Name words rank above address words. The 'simple' configuration lowercases without stemming or stop
+-- words, which is what people and place names need. Email is matched by prefix on its own index instead:
+-- every address is a distinct lexeme, and thousands of them would sit under each name prefix.
+ALTER TABLE students ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce(name, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(address, '')), 'C')) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_students_search_vector ON students USING gin (search_vector);
+
+CREATE INDEX IF NOT EXISTS idx_students_email_prefix ON students (lower(email) text_pattern_ops);
+
+-- Every distinct word that occurs in search_vector: completes the word being typed into exact lexemes
+-- (cheaper for GIN than a prefix match on a common word) and suggests corrections for misspelt ones
+-- by trigram similarity. Words are never removed; a stale word only yields no matches.
+CREATE TABLE IF NOT EXISTS student_search_words (
+    word text PRIMARY KEY
+);
+
+CREATE INDEX IF NOT EXISTS idx_student_search_words_prefix ON student_search_words (word text_pattern_ops);
+
+CREATE INDEX IF NOT EXISTS idx_student_search_words_trgm ON student_search_words USING gin (word gin_trgm_ops);
+
+-- Statement-level, so a batched or COPYed insert adds its words in one set-based statement
+CREATE OR REPLACE FUNCTION student_search_words_collect() RETURNS trigger LANGUAGE plpgsql AS '
+BEGIN
+    INSERT INTO student_search_words (word)
+    SELECT DISTINCT w FROM changed_students, unnest(tsvector_to_array(search_vector)) AS w
+    WHERE w ~ ''[[:alpha:]]''
+    ON CONFLICT DO NOTHING;
+    RETURN NULL;
+END';
+
+CREATE OR REPLACE TRIGGER students_search_words_insert
+    AFTER INSERT ON students REFERENCING NEW TABLE AS changed_students
+    FOR EACH STATEMENT EXECUTE FUNCTION student_search_words_collect();
+
+CREATE OR REPLACE TRIGGER students_search_words_update
+    AFTER UPDATE ON students REFERENCING NEW TABLE AS changed_students
+    FOR EACH STATEMENT EXECUTE FUNCTION student_search_words_collect();
+
+-- Backfill once; a no-op (one-row check) when the table is already populated
+INSERT INTO student_search_words (word)
+SELECT DISTINCT w FROM students, unnest(tsvector_to_array(search_vector)) AS w
+WHERE w ~ '[[:alpha:]]' AND NOT EXISTS (SELECT 1 FROM student_search_words)
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,82 @@
+package com.sms.student.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sms.student.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StudentImportReaderTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void readsQuotedCsvFieldsInAnyColumnOrder() throws IOException {
+		String csv = "\uFEFFEmail,name,address,dob\r\n"
+				+ "ada@example.com,Ada Lovelace,\"12 Analytical Way, London\",1815-12-10\r\n"
+				+ "\r\n"
+				+ "\"grace@example.com\",\"Grace \"\"Amazing\"\" Hopper\",\"Line one\nLine two\",1906-12-09\n"
+				+ "alan@example.com,Alan Turing,Bletchley,1912-06-23";
+
+		List<StudentImportRow> rows = readAll(StudentImportReader.open(new StringReader(csv), StudentImportFormat.CSV, objectMapper));
+
+		assertThat(rows).containsExactly(
+				new StudentImportRow(2, null, "Ada Lovelace", "ada@example.com", "1815-12-10", "12 Analytical Way, London", null),
+				new StudentImportRow(4, null, "Grace \"Amazing\" Hopper", "grace@example.com", "1906-12-09", "Line one\nLine two", null),
+				new StudentImportRow(6, null, "Alan Turing", "alan@example.com", "1912-06-23", "Bletchley", null));
+	}
+
+	@Test
+	void skipsCsvRecordsWithTheWrongNumberOfFields() throws IOException {
+		String csv = "name,email,dob,address,enrollment_date\n"
+				+ "Ada,ada@example.com,1815-12-10\n"
+				+ "Alan,alan@example.com,1912-06-23,Bletchley,2024-09-01T08:00:00\n";
+		StudentImportReader reader = StudentImportReader.open(new StringReader(csv), StudentImportFormat.CSV, objectMapper);
+
+		assertThatThrownBy(reader::next).isInstanceOfSatisfying(MalformedRowException.class,
+				e -> assertThat(e.getLine()).isEqualTo(2));
+		assertThat(reader.next().enrollmentDate()).isEqualTo("2024-09-01T08:00:00");
+		assertThat(reader.next()).isNull();
+	}
+
+	@Test
+	void rejectsUnknownOrMissingCsvColumns() {
+		assertThatThrownBy(() -> StudentImportReader.open(new StringReader("name,email,dob,address,grade\n"),
+				StudentImportFormat.CSV, objectMapper)).isInstanceOf(BadRequestException.class).hasMessageContaining("grade");
+		assertThatThrownBy(() -> StudentImportReader.open(new StringReader("name,email,dob\n"),
+				StudentImportFormat.CSV, objectMapper)).isInstanceOf(BadRequestException.class).hasMessageContaining("address");
+		assertThatThrownBy(() -> readAll(StudentImportReader.open(new StringReader("name,email,dob,address\n\"Ada,a,b,c\n"),
+				StudentImportFormat.CSV, objectMapper))).isInstanceOf(BadRequestException.class).hasMessageContaining("line 2");
+	}
+
+	@Test
+	void readsNdjsonLineByLine() throws IOException {
+		String ndjson = "{\"name\":\"Ada\",\"email\":\"ada@example.com\",\"dob\":\"1815-12-10\",\"address\":\"London\"}\n"
+				+ "{not json\n"
+				+ "\n"
+				+ "{\"name\":\"Alan\",\"email\":\"alan@example.com\",\"dob\":\"1912-06-23\",\"address\":\"Bletchley\","
+				+ "\"enrollmentDate\":\"2024-09-01T08:00:00\"}\n";
+		StudentImportReader reader = StudentImportReader.open(new StringReader(ndjson), StudentImportFormat.NDJSON, objectMapper);
+
+		assertThat(reader.next().name()).isEqualTo("Ada");
+		assertThatThrownBy(reader::next).isInstanceOfSatisfying(MalformedRowException.class,
+				e -> assertThat(e.getLine()).isEqualTo(2));
+		assertThat(reader.next()).isEqualTo(new StudentImportRow(4, null, "Alan", "alan@example.com", "1912-06-23",
+				"Bletchley", "2024-09-01T08:00:00"));
+		assertThat(reader.next()).isNull();
+	}
+
+	private static List<StudentImportRow> readAll(StudentImportReader reader) throws IOException {
+		List<StudentImportRow> rows = new ArrayList<>();
+		for (StudentImportRow row = reader.next(); row != null; row = reader.next()) {
+			rows.add(row);
+		}
+		return rows;
+	}
+}
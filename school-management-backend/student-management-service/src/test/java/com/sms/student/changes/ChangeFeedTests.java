@@ -0,0 +1,209 @@
+package com.sms.student.changes;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sms.student.dto.ChangeEvent;
+import com.sms.student.dto.ChangeFeedPage;
+import com.sms.student.dto.StudentDetail;
+import com.sms.student.exception.GoneException;
+import com.sms.student.exception.PreconditionFailedException;
+import com.sms.student.model.EnrollmentStatus;
+import com.sms.student.model.Student;
+import com.sms.student.repository.EnrollmentRepository;
+import com.sms.student.repository.StudentRepository;
+import com.sms.student.service.ChangeFeedService;
+import com.sms.student.service.StudentService;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.mock.MockProducerFactory;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@RecordApplicationEvents
+@ActiveProfiles("test")
+class ChangeFeedTests {
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private ChangeFeedService changeFeedService;
+
+	@Autowired
+	private ChangeRelay changeRelay;
+
+	@Autowired
+	private ChangeOutbox changeOutbox;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ApplicationEvents applicationEvents;
+
+	private long since;
+
+	@BeforeEach
+	void setUp() {
+		enrollmentRepository.deleteAll();
+		studentRepository.deleteAll();
+		changeRelay.relay();
+		jdbcTemplate.update("update change_event_relay set pruned_through = 0");
+		since = jdbcTemplate.queryForObject("select last_position from change_event_relay", Long.class);
+		applicationEvents.clear();
+	}
+
+	@Test
+	void everyMutationIsFedInCommitOrder() throws Exception {
+		StudentDetail student = studentService.createStudent(student("ada@example.com"));
+		studentService.updateStudent(student.id(), new Student(null, "Ada King", "ada@example.com",
+				LocalDate.of(2010, 1, 1), "12 Analytical Way", null, null, null), null);
+		studentService.enrollStudentInClass(student.id(), "MATH-101");
+		studentService.setClassCapacity("MATH-101", 30);
+		studentService.deleteStudent(student.id());
+		assertThat(changeFeedService.getChanges(since, null).events()).as("not relayed yet").isEmpty();
+
+		changeRelay.relay();
+
+		ChangeFeedPage page = changeFeedService.getChanges(since, null);
+		assertThat(page.events()).extracting(ChangeEvent::type).containsExactly(ChangeType.CREATED, ChangeType.UPDATED,
+				ChangeType.ENROLLMENT_CHANGED, ChangeType.CAPACITY_CHANGED, ChangeType.DELETED);
+		assertThat(page.events()).extracting(ChangeEvent::position)
+				.containsExactly(since + 1, since + 2, since + 3, since + 4, since + 5);
+		assertThat(page.next()).isEqualTo(since + 5);
+		assertThat(page.hasMore()).isFalse();
+		assertThat(page.events().get(2).aggregateId()).isEqualTo(student.id().toString());
+		assertThat(objectMapper.readTree(page.events().get(2).payload()).get("status").asText())
+				.isEqualTo(EnrollmentStatus.ACTIVE.name());
+		// The in-process sink had them too
+		assertThat(applicationEvents.stream(ChangeEvent.class)).hasSize(5);
+
+		mockMvc.perform(get("/api/students/changes").param("since", Long.toString(since)).param("size", "2"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.events.length()").value(2))
+				.andExpect(jsonPath("$.events[1].payload.name").value("Ada King"))
+				.andExpect(jsonPath("$.next").value(since + 2))
+				.andExpect(jsonPath("$.hasMore").value(true));
+	}
+
+	@Test
+	void rolledBackChangesLeaveNoEvents() {
+		StudentDetail student = studentService.createStudent(student("ada@example.com"));
+		assertThatThrownBy(() -> studentService.updateStudent(student.id(), student("ada@example.com"), student.version() + 1))
+				.isInstanceOf(PreconditionFailedException.class);
+
+		changeRelay.relay();
+
+		assertThat(changeFeedService.getChanges(since, null).events()).extracting(ChangeEvent::type)
+				.containsExactly(ChangeType.CREATED);
+	}
+
+	@Test
+	void anEventCommittedAfterLaterOnesIsNotSkipped() throws Exception {
+		CountDownLatch recorded = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		UUID slowId = UUID.randomUUID();
+		CompletableFuture<Void> slow = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+			changeOutbox.record(ChangeOutbox.STUDENT, slowId, ChangeType.UPDATED, null);
+			recorded.countDown();
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}));
+		recorded.await(10, TimeUnit.SECONDS);
+		// The slow transaction's event is inserted before it commits, so it gets the lower id
+		Thread.sleep(100);
+		studentService.createStudent(student("ada@example.com"));
+		changeRelay.relay();
+		ChangeFeedPage first = changeFeedService.getChanges(since, null);
+		assertThat(first.events()).extracting(ChangeEvent::type).containsExactly(ChangeType.CREATED);
+
+		release.countDown();
+		slow.get(10, TimeUnit.SECONDS);
+		changeRelay.relay();
+		assertThat(changeFeedService.getChanges(first.next(), null).events()).extracting(ChangeEvent::aggregateId)
+				.containsExactly(slowId.toString());
+	}
+
+	@Test
+	void consumersBehindTheRetainedChangesAreToldToReload() {
+		studentService.createStudent(student("ada@example.com"));
+		studentService.createStudent(student("grace@example.com"));
+		changeRelay.relay();
+		jdbcTemplate.update("update change_events set relayed_at = ? where position = ?",
+				LocalDateTime.now().minusDays(8), since + 1);
+
+		changeRelay.prune();
+
+		assertThatThrownBy(() -> changeFeedService.getChanges(since, null)).isInstanceOf(GoneException.class);
+		assertThat(changeFeedService.getChanges(since + 1, null).events()).hasSize(1);
+	}
+
+	@Test
+	void kafkaSinkKeysEventsByAggregateAndFailsTheBatchOnAnError() {
+		MockProducer<String, String> producer = new MockProducer<>(true, new StringSerializer(), new StringSerializer());
+		KafkaChangeEventSink sink = new KafkaChangeEventSink(new KafkaTemplate<>(new MockProducerFactory<>(() -> producer)),
+				"student-changes", objectMapper, Duration.ofSeconds(5));
+		ChangeEvent event = new ChangeEvent(7L, 3L, ChangeOutbox.STUDENT, "42", ChangeType.UPDATED, "{\"name\":\"Ada\"}",
+				LocalDateTime.now());
+
+		sink.publish(List.of(event));
+
+		assertThat(producer.history()).extracting(ProducerRecord::key).containsExactly("student:42");
+		assertThat(producer.history().get(0).value()).contains("\"payload\":{\"name\":\"Ada\"}");
+
+		MockProducer<String, String> failing = new MockProducer<>(false, new StringSerializer(), new StringSerializer());
+		KafkaChangeEventSink unreachable = new KafkaChangeEventSink(new KafkaTemplate<>(new MockProducerFactory<>(() -> failing)),
+				"student-changes", objectMapper, Duration.ofMillis(100));
+		assertThatThrownBy(() -> unreachable.publish(List.of(event))).isInstanceOf(IllegalStateException.class);
+	}
+
+	private static Student student(String email) {
+		return new Student(null, "Ada Lovelace", email, LocalDate.of(2010, 1, 1), "12 Analytical Way",
+				LocalDateTime.now(), null, null);
+	}
+}
@@ -0,0 +1,51 @@
+package com.sms.student.controller;
+
+import com.sms.student.bulk.StudentImportFormat;
+import com.sms.student.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The test database is H2, which has no COPY: bulk import and export say so instead of failing with a 500
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BulkCopyUnavailableTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Test
+	void exportIsNotImplementedBeforeAnythingIsStreamed() throws Exception {
+		mockMvc.perform(get("/api/students").header(HttpHeaders.ACCEPT, StudentImportFormat.TEXT_CSV_VALUE))
+				.andExpect(request().asyncNotStarted())
+				.andExpect(status().isNotImplemented())
+				.andExpect(header().doesNotExist(HttpHeaders.CONTENT_DISPOSITION));
+	}
+
+	@Test
+	void importIsNotImplementedAndLoadsNothing() throws Exception {
+		long before = studentRepository.count();
+
+		mockMvc.perform(post("/api/students/import")
+						.header(HttpHeaders.CONTENT_TYPE, StudentImportFormat.TEXT_CSV_VALUE)
+						.content("name,email,dob,address\nAda Lovelace,ada@example.com,2010-01-01,12 Analytical Way\n"))
+				.andExpect(status().isNotImplemented());
+
+		assertThat(studentRepository.count()).isEqualTo(before);
+	}
+}
@@ -0,0 +1,169 @@
+package com.sms.student.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.sms.student.config.CacheConfig;
+import com.sms.student.dto.EnrollmentRequest;
+import com.sms.student.model.Student;
+import com.sms.student.repository.StudentRepository;
+import com.sms.student.service.StudentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Compression happens in the Tomcat connector, below MockMvc, so these go over a real socket
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ResponseEncodingTests {
+
+	private static final int STUDENTS = 60;
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	private UUID studentId;
+
+	@BeforeEach
+	void setUp() {
+		studentRepository.deleteAll();
+		cacheManager.getCache(CacheConfig.STUDENTS).clear();
+		for (int i = 0; i < STUDENTS; i++) {
+			UUID id = studentService.createStudent(new Student(null, "Student " + i, "student" + i + "@example.com",
+					LocalDate.of(2010, 1, 1).plusDays(i), i + " Example Street", LocalDateTime.of(2024, 9, 1, 8, 0), null, null)).id();
+			if (studentId == null) {
+				studentId = id;
+			}
+		}
+		List<EnrollmentRequest> enrollments = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			enrollments.add(new EnrollmentRequest(studentId, "CLASS-" + i));
+		}
+		studentService.enrollStudentsInClasses(enrollments);
+	}
+
+	@Test
+	void cborIsServedOnlyWhenAskedForAndCarriesTheSameDocument() throws Exception {
+		HttpResponse<byte[]> json = send("/api/students?size=50", "*/*", null);
+		HttpResponse<byte[]> cbor = send("/api/students?size=50", MediaType.APPLICATION_CBOR_VALUE, null);
+
+		assertThat(json.headers().firstValue(HttpHeaders.CONTENT_TYPE)).hasValue(MediaType.APPLICATION_JSON_VALUE);
+		assertThat(cbor.headers().firstValue(HttpHeaders.CONTENT_TYPE)).hasValue(MediaType.APPLICATION_CBOR_VALUE);
+		// Same field names and values, dates included (ISO strings, not timestamp arrays), in fewer bytes
+		JsonNode fromJson = objectMapper.readTree(json.body());
+		JsonNode fromCbor = new CBORMapper().readTree(cbor.body());
+		assertThat(fromCbor).isEqualTo(fromJson);
+		assertThat(fromCbor.get("items")).hasSize(50);
+		assertThat(fromCbor.at("/items/0/dob").isTextual()).isTrue();
+		assertThat(cbor.body().length).isLessThan(json.body().length);
+
+		HttpResponse<byte[]> enrollments = send("/api/students/" + studentId + "/enrollments", MediaType.APPLICATION_CBOR_VALUE, null);
+		assertThat(new CBORMapper().readTree(enrollments.body())).hasSize(40);
+	}
+
+	@Test
+	void largeResponsesAreGzippedIncludingThoseWithETags() throws Exception {
+		HttpResponse<byte[]> page = send("/api/students?size=50", MediaType.APPLICATION_JSON_VALUE, "gzip");
+		assertThat(page.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).hasValue("gzip");
+		assertThat(objectMapper.readTree(gunzip(page.body())).get("items")).hasSize(50);
+
+		HttpResponse<byte[]> enrollments = send("/api/students/" + studentId + "/enrollments", MediaType.APPLICATION_JSON_VALUE, "gzip");
+		assertThat(enrollments.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).hasValue("gzip");
+		assertThat(enrollments.headers().firstValue(HttpHeaders.ETAG)).hasValueSatisfying(etag -> assertThat(etag).startsWith("W/"));
+		assertThat(objectMapper.readTree(gunzip(enrollments.body()))).hasSize(40);
+
+		// Streamed exports keep flushing as they go, and are compressed too
+		HttpResponse<byte[]> export = send("/api/students", MediaType.APPLICATION_NDJSON_VALUE, "gzip");
+		assertThat(export.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).hasValue("gzip");
+		assertThat(new String(gunzip(export.body()), StandardCharsets.UTF_8).lines()).hasSize(STUDENTS);
+
+		// Below the size threshold, and for clients that do not accept gzip, the body goes out as is
+		HttpResponse<byte[]> smallPage = send("/api/students?size=2", MediaType.APPLICATION_JSON_VALUE, "gzip");
+		assertThat(smallPage.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).isEmpty();
+		HttpResponse<byte[]> identity = send("/api/students?size=50", MediaType.APPLICATION_JSON_VALUE, null);
+		assertThat(identity.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).isEmpty();
+		assertThat(identity.body().length).isGreaterThan(page.body().length);
+	}
+
+	@Test
+	void negotiatedResponsesVaryByAccept() throws Exception {
+		assertThat(vary(send("/api/students?size=50", MediaType.APPLICATION_JSON_VALUE, null))).contains("accept");
+		assertThat(vary(send("/api/students?size=50", MediaType.APPLICATION_CBOR_VALUE, null))).contains("accept");
+		assertThat(vary(send("/api/students", MediaType.APPLICATION_NDJSON_VALUE, null))).contains("accept");
+		// Alongside the Accept-Encoding that compression adds
+		HttpResponse<byte[]> enrollments = send("/api/students/" + studentId + "/enrollments", MediaType.APPLICATION_CBOR_VALUE, "gzip");
+		assertThat(vary(enrollments)).contains("accept", "accept-encoding");
+
+		// A 304 names the same header, so a cache only takes it as validating the representation it holds
+		HttpResponse<byte[]> notModified = client.send(HttpRequest.newBuilder(
+						URI.create("http://localhost:" + port + "/api/students/" + studentId + "/enrollments"))
+				.header(HttpHeaders.ACCEPT, MediaType.APPLICATION_CBOR_VALUE)
+				.header(HttpHeaders.IF_NONE_MATCH, enrollments.headers().firstValue(HttpHeaders.ETAG).orElseThrow())
+				.build(), HttpResponse.BodyHandlers.ofByteArray());
+		assertThat(notModified.statusCode()).isEqualTo(304);
+		assertThat(vary(notModified)).contains("accept");
+	}
+
+	private HttpResponse<byte[]> send(String path, String accept, String acceptEncoding) throws IOException, InterruptedException {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+				.header(HttpHeaders.ACCEPT, accept);
+		if (acceptEncoding != null) {
+			request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+		}
+		HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+		assertThat(response.statusCode()).isEqualTo(200);
+		return response;
+	}
+
+	// The Vary header's field names, however many header lines they come in
+	private static List<String> vary(HttpResponse<?> response) {
+		return response.headers().allValues(HttpHeaders.VARY).stream()
+				.flatMap(value -> Arrays.stream(value.split(",")))
+				.map(name -> name.trim().toLowerCase(Locale.ROOT))
+				.toList();
+	}
+
+	private static byte[] gunzip(byte[] body) throws IOException {
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+			return in.readAllBytes();
+		}
+	}
+}
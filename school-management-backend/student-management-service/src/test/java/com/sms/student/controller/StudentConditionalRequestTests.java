@@ -0,0 +1,194 @@
+package com.sms.student.controller;
+
+import com.sms.student.config.CacheConfig;
+import com.sms.student.dto.EnrollmentView;
+import com.sms.student.model.Student;
+import com.sms.student.repository.StudentRepository;
+import com.sms.student.service.StudentService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StudentConditionalRequestTests {
+
+	private static final String UPDATE = """
+			{"name": "Ada King", "email": "ada@example.com", "dob": "2010-01-01",
+			 "address": "12 Analytical Way", "enrollmentDate": "2024-09-01T08:00:00", "version": 99}""";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private UUID studentId;
+
+	@BeforeEach
+	void setUp() {
+		studentRepository.deleteAll();
+		cacheManager.getCache(CacheConfig.STUDENTS).clear();
+		studentId = studentService.createStudent(new Student(null, "Ada Lovelace", "ada@example.com",
+				LocalDate.of(2010, 1, 1), "12 Analytical Way", LocalDateTime.now(), null, null)).id();
+	}
+
+	@Test
+	void unchangedStudentIsAnsweredWithNotModifiedFromTheVersionColumn() throws Exception {
+		String etag = etagOf("/api/students/" + studentId);
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		mockMvc.perform(get("/api/students/{id}", studentId).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, etag))
+				.andExpect(content().string(""));
+
+		// The version lookup only: neither the student row nor its enrollments are loaded
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+	}
+
+	@Test
+	void aCachedStudentDoesNotConfirmAVersionTheRowHasMovedPast() throws Exception {
+		String etag = etagOf("/api/students/" + studentId);
+		// Changed without going through the service, so the cached detail is left as it was
+		Student student = studentRepository.findById(studentId).orElseThrow();
+		student.setAddress("1 Difference Engine Row");
+		studentRepository.save(student);
+
+		mockMvc.perform(get("/api/students/{id}", studentId).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void enrollmentChangesMoveTheStudentToANewETag() throws Exception {
+		String studentEtag = etagOf("/api/students/" + studentId);
+		String enrollmentsEtag = etagOf("/api/students/" + studentId + "/enrollments");
+
+		EnrollmentView enrollment = studentService.enrollStudentInClass(studentId, "MATH-101");
+
+		String enrolledEtag = mockMvc.perform(get("/api/students/{id}", studentId).header(HttpHeaders.IF_NONE_MATCH, studentEtag))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.enrollments[0].classId").value("MATH-101"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(enrolledEtag).isNotEqualTo(studentEtag);
+		mockMvc.perform(get("/api/students/{id}/enrollments", studentId).header(HttpHeaders.IF_NONE_MATCH, enrollmentsEtag))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, enrolledEtag));
+		mockMvc.perform(get("/api/students/{id}/enrollments", studentId).header(HttpHeaders.IF_NONE_MATCH, enrolledEtag))
+				.andExpect(status().isNotModified());
+
+		// A status change is an enrollment change too, and the enrollment carries its own version for If-Match
+		mockMvc.perform(put("/api/students/enrollments/{id}/status", enrollment.id())
+						.param("newStatus", "COMPLETED")
+						.header(HttpHeaders.IF_MATCH, ETags.of(enrollment.version() + 1)))
+				.andExpect(status().isPreconditionFailed());
+		mockMvc.perform(put("/api/students/enrollments/{id}/status", enrollment.id())
+						.param("newStatus", "COMPLETED")
+						.header(HttpHeaders.IF_MATCH, ETags.of(enrollment.version())))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, ETags.of(enrollment.version() + 1)));
+		mockMvc.perform(get("/api/students/{id}", studentId).header(HttpHeaders.IF_NONE_MATCH, enrolledEtag))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.enrollments[0].status").value("COMPLETED"));
+	}
+
+	@Test
+	void updateIsRejectedWhenIfMatchIsStale() throws Exception {
+		String etag = etagOf("/api/students/" + studentId);
+
+		String updatedEtag = mockMvc.perform(put("/api/students/{id}", studentId)
+						.header(HttpHeaders.IF_MATCH, etag)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(UPDATE))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.name").value("Ada King"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		// The version in the body is ignored; only the server moves it
+		assertThat(updatedEtag).isEqualTo(ETags.of(studentRepository.findVersionById(studentId).orElseThrow()))
+				.isNotEqualTo(etag)
+				.isNotEqualTo(ETags.of(99));
+
+		mockMvc.perform(put("/api/students/{id}", studentId)
+						.header(HttpHeaders.IF_MATCH, etag)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(UPDATE.replace("Ada King", "Lost Update")))
+				.andExpect(status().isPreconditionFailed());
+		// The strong form names the same stale version
+		mockMvc.perform(put("/api/students/{id}", studentId)
+						.header(HttpHeaders.IF_MATCH, etag.substring("W/".length()))
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(UPDATE.replace("Ada King", "Lost Update")))
+				.andExpect(status().isPreconditionFailed());
+		assertThat(studentRepository.findById(studentId).orElseThrow().getName()).isEqualTo("Ada King");
+
+		// Without If-Match the update is unconditional, as before
+		mockMvc.perform(put("/api/students/{id}", studentId)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(UPDATE.replace("Ada King", "Augusta Ada King")))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.name").value("Augusta Ada King"));
+	}
+
+	@Test
+	void apiDocsSayHowIfMatchIsCompared() throws Exception {
+		mockMvc.perform(get("/v3/api-docs"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.info.description").value(containsString("RFC 9110")))
+				.andExpect(jsonPath("$.paths['/api/students/{id}'].put.parameters[?(@.name == 'If-Match')].description")
+						.value(hasItem(ETags.IF_MATCH)))
+				.andExpect(jsonPath("$.paths['/api/students/{id}'].patch.parameters[?(@.name == 'If-Match')].description")
+						.value(hasItem(ETags.IF_MATCH)))
+				.andExpect(jsonPath("$.paths['/api/students/enrollments/{enrollmentId}/status'].put.parameters[?(@.name == 'If-Match')].description")
+						.value(hasItem(ETags.IF_MATCH)));
+	}
+
+	@Test
+	void unknownStudentIsNotFoundEvenWithIfNoneMatch() throws Exception {
+		mockMvc.perform(get("/api/students/{id}", UUID.randomUUID()).header(HttpHeaders.IF_NONE_MATCH, ETags.of(0)))
+				.andExpect(status().isNotFound());
+	}
+
+	private String etagOf(String uri) throws Exception {
+		String etag = mockMvc.perform(get(uri))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(etag).isNotNull();
+		return etag;
+	}
+}
@@ -0,0 +1,136 @@
+package com.sms.student.controller;
+
+import com.sms.student.dto.EnrollmentView;
+import com.sms.student.dto.StudentDetail;
+import com.sms.student.model.EnrollmentStatus;
+import com.sms.student.model.Student;
+import com.sms.student.patch.MergePatch;
+import com.sms.student.repository.EnrollmentRepository;
+import com.sms.student.repository.StudentRepository;
+import com.sms.student.service.StudentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StudentPatchTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	private StudentDetail ada;
+
+	@BeforeEach
+	void setUp() {
+		enrollmentRepository.deleteAll();
+		studentRepository.deleteAll();
+		ada = studentService.createStudent(student("Ada Lovelace", "ada@example.com"));
+	}
+
+	@Test
+	void onlyTheFieldsInThePatchChange() throws Exception {
+		patchStudent(ada.id(), "{\"address\": \"1 Difference Engine Road\"}", null)
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, ETags.of(ada.version() + 1)))
+				.andExpect(jsonPath("$.name").value("Ada Lovelace"))
+				.andExpect(jsonPath("$.dob").value("2010-01-01"))
+				.andExpect(jsonPath("$.address").value("1 Difference Engine Road"));
+
+		patchStudent(ada.id(), "{\"name\": \"Ada King\"}", ETags.of(ada.version()))
+				.andExpect(status().isPreconditionFailed());
+		patchStudent(ada.id(), "{\"name\": \"Ada King\"}", ETags.of(ada.version() + 1))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.name").value("Ada King"))
+				.andExpect(jsonPath("$.address").value("1 Difference Engine Road"));
+	}
+
+	@Test
+	void invalidPatchesLeaveTheStudentAlone() throws Exception {
+		patchStudent(ada.id(), "[]", null).andExpect(status().isBadRequest());
+		patchStudent(ada.id(), "{}", null).andExpect(status().isBadRequest());
+		patchStudent(ada.id(), "{\"enrollmentDate\": \"2020-01-01T00:00:00\"}", null).andExpect(status().isBadRequest());
+		// Merge patch null removes a field, which a student cannot do without
+		patchStudent(ada.id(), "{\"name\": null, \"address\": \"elsewhere\"}", null).andExpect(status().isBadRequest());
+		patchStudent(ada.id(), "{\"dob\": \"yesterday\"}", null).andExpect(status().isBadRequest());
+		patchStudent(UUID.randomUUID(), "{\"name\": \"Nobody\"}", null).andExpect(status().isNotFound());
+
+		StudentDetail unchanged = studentService.getStudentById(ada.id());
+		assertThat(unchanged.version()).isEqualTo(ada.version());
+		assertThat(unchanged.address()).isEqualTo("12 Analytical Way");
+	}
+
+	@Test
+	void aClassCanBeMovedToAStatusInOneRequest() throws Exception {
+		StudentDetail grace = studentService.createStudent(student("Grace Hopper", "grace@example.com"));
+		StudentDetail alan = studentService.createStudent(student("Alan Turing", "alan@example.com"));
+		studentService.setClassCapacity("MATH-101", 2);
+		studentService.enrollStudentInClass(ada.id(), "MATH-101");
+		studentService.enrollStudentInClass(grace.id(), "MATH-101");
+		assertThat(studentService.enrollStudentInClass(alan.id(), "MATH-101").status()).isEqualTo(EnrollmentStatus.WAITLISTED);
+		long graceVersion = studentService.getStudentVersion(grace.id());
+
+		// End of term: the seated students complete the class and keep their seats
+		patchEnrollments("MATH-101", "{\"status\": \"COMPLETED\"}", "ACTIVE")
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.updated").value(2));
+		EnrollmentView completed = studentService.getEnrollmentsByStudent(grace.id()).get(0);
+		assertThat(completed.status()).isEqualTo(EnrollmentStatus.COMPLETED);
+		assertThat(completed.completionDate()).isNotNull();
+		assertThat(completed.seatNumber()).isNotNull();
+		assertThat(studentService.getStudentVersion(grace.id())).isGreaterThan(graceVersion);
+
+		// Seats are not handed out in bulk
+		patchEnrollments("MATH-101", "{\"status\": \"ACTIVE\"}").andExpect(status().isBadRequest());
+		patchEnrollments("MATH-101", "{\"status\": null}", "COMPLETED").andExpect(status().isBadRequest());
+
+		// Dropping them frees both seats; the waitlisted student gets one
+		patchEnrollments("MATH-101", "{\"status\": \"DROPPED\"}", "COMPLETED")
+				.andExpect(jsonPath("$.updated").value(2));
+		assertThat(studentService.getEnrollmentsByStudent(ada.id()).get(0).seatNumber()).isNull();
+		EnrollmentView promoted = studentService.getEnrollmentsByStudent(alan.id()).get(0);
+		assertThat(promoted.status()).isEqualTo(EnrollmentStatus.ACTIVE);
+		assertThat(promoted.seatNumber()).isNotNull();
+		assertThat(studentService.getClassSeating("MATH-101").seated()).isEqualTo(1);
+	}
+
+	private ResultActions patchStudent(UUID id, String patch, String ifMatch) throws Exception {
+		var request = patch("/api/students/{id}", id).contentType(MergePatch.MEDIA_TYPE).content(patch);
+		return mockMvc.perform(ifMatch == null ? request : request.header(HttpHeaders.IF_MATCH, ifMatch));
+	}
+
+	private ResultActions patchEnrollments(String classId, String patch, String... currentStatuses) throws Exception {
+		var request = patch("/api/classes/{classId}/enrollments", classId).contentType(MergePatch.MEDIA_TYPE).content(patch);
+		return mockMvc.perform(currentStatuses.length == 0 ? request : request.param("currentStatus", currentStatuses));
+	}
+
+	private static Student student(String name, String email) {
+		return new Student(null, name, email, LocalDate.of(2010, 1, 1), "12 Analytical Way", LocalDateTime.now(), null, null);
+	}
+}
@@ -0,0 +1,149 @@
+package com.sms.student.datasource;
+
+import com.sms.student.model.Student;
+import com.sms.student.repository.StudentRepository;
+import com.sms.student.seating.SeatLedger;
+import com.sms.student.service.StudentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Stand-ins for two replicas: a pool on the embedded database itself, and one on a server that is not there.
+ * Lag is set by hand where a test needs it; the scheduled checks are too far apart to interfere.
+ */
+@SpringBootTest(properties = {
+		"students.datasource.replica-urls=${spring.datasource.url},jdbc:h2:tcp://localhost:1/missing",
+		"students.datasource.replica-check-interval=PT1H"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReplicaRoutingTests {
+
+	@Autowired
+	private ReplicaDataSource replicaDataSource;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private SeatLedger seatLedger;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	private Replica reachable;
+
+	private Replica unreachable;
+
+	private UUID studentId;
+
+	@BeforeEach
+	void setUp() {
+		studentRepository.deleteAll();
+		studentId = studentService.createStudent(new Student(null, "Ada Lovelace", "ada@example.com",
+				LocalDate.of(2010, 1, 1), "12 Analytical Way", LocalDateTime.now(), null, null)).id();
+		replicaDataSource.checkReplicas();
+		reachable = replicaDataSource.replicas().get(0);
+		unreachable = replicaDataSource.replicas().get(1);
+	}
+
+	@Test
+	void readsGoToAHealthyReplicaAndWritesToThePrimary() {
+		assertThat(reachable.isUsable(Duration.ZERO)).isTrue();
+		assertThat(unreachable.isUsable(Duration.ofDays(1))).isFalse();
+
+		double replicaReads = reads("replica-1");
+		double primaryReads = reads("primary");
+		studentService.getEnrollmentsByStudent(studentId);
+		assertThat(reads("replica-1")).isEqualTo(replicaReads + 1);
+		assertThat(reads("replica-2")).isZero();
+
+		studentService.createStudent(new Student(null, "Charles Babbage", "charles@example.com",
+				LocalDate.of(2010, 1, 1), "1 Difference Lane", LocalDateTime.now(), null, null));
+		assertThat(reads("replica-1")).isEqualTo(replicaReads + 1);
+		assertThat(reads("primary")).isEqualTo(primaryReads);
+	}
+
+	@Test
+	void aReplicaTooFarBehindIsSkippedUntilItCatchesUp() {
+		reachable.up(Duration.ofSeconds(30));
+		double primaryReads = reads("primary");
+		studentService.getEnrollmentsByStudent(studentId);
+		assertThat(reads("primary")).isEqualTo(primaryReads + 1);
+
+		replicaDataSource.checkReplicas();
+		double replicaReads = reads("replica-1");
+		studentService.getEnrollmentsByStudent(studentId);
+		assertThat(reads("replica-1")).isEqualTo(replicaReads + 1);
+	}
+
+	@Test
+	void aClientReadsItsOwnWritesFromThePrimary() throws Exception {
+		Cookie wrote = mockMvc.perform(post("/api/students").contentType(MediaType.APPLICATION_JSON).content("""
+						{"name": "Grace Hopper", "email": "grace@example.com", "dob": "2010-01-01",
+						 "address": "1 Compiler Court", "enrollmentDate": "2024-09-01T08:00:00"}"""))
+				.andExpect(status().isCreated())
+				.andExpect(cookie().exists(ReadYourWritesFilter.COOKIE))
+				.andReturn().getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+
+		double primaryReads = reads("primary");
+		mockMvc.perform(get("/api/students").cookie(wrote))
+				.andExpect(status().isOk())
+				.andExpect(cookie().doesNotExist(ReadYourWritesFilter.COOKIE));
+		assertThat(reads("primary")).isEqualTo(primaryReads + 1);
+
+		// Other clients, and this one once the window has passed, read from the replica
+		double replicaReads = reads("replica-1");
+		mockMvc.perform(get("/api/students")).andExpect(status().isOk());
+		mockMvc.perform(get("/api/students")
+						.cookie(new Cookie(ReadYourWritesFilter.COOKIE, Long.toString(System.currentTimeMillis() - 1))))
+				.andExpect(status().isOk());
+		assertThat(reads("replica-1")).isEqualTo(replicaReads + 2);
+	}
+
+	@Test
+	void workPinnedToThePrimaryDoesNotReadFromReplicas() {
+		double primaryReads = reads("primary");
+		ReadRouting.onPrimary(() -> studentService.getEnrollmentsByStudent(studentId));
+		assertThat(reads("primary")).isEqualTo(primaryReads + 1);
+		assertThat(ReadRouting.isPinnedToPrimary()).isFalse();
+	}
+
+	@Test
+	void versionChecksAndSeatReconciliationReadFromThePrimary() {
+		double replicaReads = reads("replica-1");
+		double primaryReads = reads("primary");
+		studentService.getStudentVersion(studentId);
+		seatLedger.reconcile();
+		assertThat(reads("replica-1")).isEqualTo(replicaReads);
+		assertThat(reads("primary")).isGreaterThan(primaryReads);
+	}
+
+	private double reads(String target) {
+		return meterRegistry.get("datasource.reads").tag("target", target).counter().count();
+	}
+}
@@ -0,0 +1,121 @@
+package com.sms.student.datasource;
+
+import com.sms.student.model.Student;
+import com.sms.student.repository.EnrollmentRepository;
+import com.sms.student.repository.StudentRepository;
+import com.sms.student.service.StudentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A replica that is within max-lag but has not yet seen the latest enrollment: a copy of the embedded database
+ * taken before it. Responses whose ETag is the student's version must not pair it with the replica's older list.
+ */
+@SpringBootTest(properties = {
+		"students.datasource.replica-urls=" + StaleReplicaTests.REPLICA_URL,
+		"students.datasource.replica-check-interval=PT1H"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StaleReplicaTests {
+
+	static final String REPLICA_URL = "jdbc:h2:mem:stale_replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+	@Autowired
+	private ReplicaDataSource replicaDataSource;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Value("${spring.datasource.username}")
+	private String username;
+
+	private UUID studentId;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		enrollmentRepository.deleteAll();
+		studentRepository.deleteAll();
+		studentId = studentService.createStudent(new Student(null, "Ada Lovelace", "ada@example.com",
+				LocalDate.of(2010, 1, 1), "12 Analytical Way", LocalDateTime.now(), null, null)).id();
+		studentService.enrollStudentInClass(studentId, "MATH-101");
+		copyToReplica();
+		studentService.enrollStudentInClass(studentId, "ART-101");
+		replicaDataSource.checkReplicas();
+	}
+
+	@Test
+	void theEnrollmentsComeFromWhereTheirETagDoes() throws Exception {
+		// The replica is usable, and behind
+		assertThat(studentService.getEnrollmentsByStudent(studentId)).hasSize(1);
+		String etag = "W/\"" + studentRepository.findVersionById(studentId).orElseThrow() + "\"";
+		double replicaReads = reads();
+
+		mockMvc.perform(get("/api/students/{id}/enrollments", studentId))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, etag))
+				.andExpect(jsonPath("$.length()").value(2));
+		mockMvc.perform(get("/api/students/{id}/enrollments/closed", studentId))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, etag));
+
+		assertThat(reads()).isEqualTo(replicaReads);
+	}
+
+	// The replica's state as of now: the embedded database scripted out and run into the replica's
+	private void copyToReplica() throws Exception {
+		Path script = Files.createTempFile("stale-replica", ".sql");
+		try {
+			jdbcTemplate.execute("script to '" + script + "'");
+			try (Connection connection = DriverManager.getConnection(REPLICA_URL, username, "");
+				 Statement statement = connection.createStatement()) {
+				statement.execute("drop all objects");
+				statement.execute("runscript from '" + script + "'");
+			}
+		} finally {
+			Files.deleteIfExists(script);
+		}
+	}
+
+	private double reads() {
+		return meterRegistry.get("datasource.reads").tag("target", "replica-1").counter().count();
+	}
+}
@@ -0,0 +1,31 @@
+package com.sms.student.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeOrderedUuidGeneratorTests {
+
+	@Test
+	void generatesVersion7UuidsInCreationOrder() {
+		UUID previous = TimeOrderedUuidGenerator.next();
+		for (int i = 0; i < 100_000; i++) {
+			UUID next = TimeOrderedUuidGenerator.next();
+			assertThat(next.version()).isEqualTo(7);
+			assertThat(next.variant()).isEqualTo(2);
+			// PostgreSQL orders uuid bytewise, i.e. as unsigned most-significant bits first
+			assertThat(Long.compareUnsigned(next.getMostSignificantBits(), previous.getMostSignificantBits())).isPositive();
+			previous = next;
+		}
+	}
+
+	@Test
+	void leadingBitsCarryTheCreationTimestamp() {
+		long before = System.currentTimeMillis();
+		UUID uuid = TimeOrderedUuidGenerator.next();
+
+		assertThat(uuid.getMostSignificantBits() >>> 16).isGreaterThanOrEqualTo(before);
+	}
+}
@@ -0,0 +1,109 @@
+package com.sms.student.observability;
+
+import com.sms.student.config.CacheConfig;
+import com.sms.student.model.Student;
+import com.sms.student.repository.StudentRepository;
+import com.sms.student.service.StudentService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"observability.slow-request.threshold=PT0S",
+		"observability.slow-request.min-log-interval=PT0S"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+@ExtendWith(OutputCaptureExtension.class)
+class RequestMetricsTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	private UUID studentId;
+
+	@BeforeEach
+	void setUp() {
+		studentRepository.deleteAll();
+		cacheManager.getCache(CacheConfig.STUDENTS).clear();
+		studentId = studentService.createStudent(new Student(null, "Ada Lovelace", "ada@example.com",
+				LocalDate.of(2010, 1, 1), "12 Analytical Way", LocalDateTime.now(), null, null)).id();
+	}
+
+	@Test
+	void countsStatementsPerEndpointAndTimesServiceCallsIncludingCacheHits(CapturedOutput output) throws Exception {
+		double statementsBefore = statementSummary().map(DistributionSummary::totalAmount).orElse(0.0);
+		long callsBefore = serviceTimer().map(Timer::count).orElse(0L);
+
+		mockMvc.perform(get("/api/students/{id}", studentId)).andExpect(status().isOk());
+		mockMvc.perform(get("/api/students/{id}", studentId)).andExpect(status().isOk());
+
+		// One join for the first request, none for the cached second one
+		assertThat(statementSummary().orElseThrow().totalAmount() - statementsBefore).isEqualTo(1);
+		assertThat(serviceTimer().orElseThrow().count() - callsBefore).isEqualTo(2);
+		assertThat(output).contains("Slow request GET /api/students/{id} -> 200")
+				.contains("1 SQL statements")
+				.contains("from students");
+	}
+
+	@Test
+	void everythingIsExposedForPrometheus() throws Exception {
+		mockMvc.perform(get("/api/students/{id}", studentId)).andExpect(status().isOk());
+
+		String scrape = mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		assertThat(scrape)
+				.contains("http_server_requests_seconds_bucket{")
+				.contains("http_server_requests_sql_statements_count{")
+				.contains("service_calls_seconds_count{")
+				.contains("hikaricp_connections_acquire_seconds_bucket{")
+				.contains("cache_gets_total{")
+				.contains("jvm_gc_");
+	}
+
+	private Optional<DistributionSummary> statementSummary() {
+		return Optional.ofNullable(registry.find("http.server.requests.sql.statements")
+				.tag("uri", "/api/students/{id}").summary());
+	}
+
+	private Optional<Timer> serviceTimer() {
+		return Optional.ofNullable(registry.find("service.calls")
+				.tags("class", "StudentServiceImpl", "method", "getStudentById", "outcome", "success").timer());
+	}
+}
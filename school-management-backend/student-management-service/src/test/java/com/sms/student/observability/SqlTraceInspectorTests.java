@@ -0,0 +1,42 @@
+package com.sms.student.observability;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// An inspector configured through hibernate.session_factory.statement_inspector keeps running, ahead of the trace
+class SqlTraceInspectorTests {
+
+	@AfterEach
+	void tearDown() {
+		RequestSqlTrace.end();
+	}
+
+	@Test
+	void theConfiguredInspectorRunsFirstWhicheverWayItIsNamed() {
+		for (Object configured : new Object[]{Comment.class.getName(), Comment.class, new Comment()}) {
+			RequestSqlTrace trace = RequestSqlTrace.begin(10);
+
+			assertThat(SqlTraceInspector.wrapping(configured).inspect("select 1")).isEqualTo("/* seen */ select 1");
+			assertThat(trace.statements()).containsExactly("/* seen */ select 1");
+		}
+	}
+
+	@Test
+	void withoutOneTheStatementIsTracedAsItIs() {
+		RequestSqlTrace trace = RequestSqlTrace.begin(10);
+
+		assertThat(SqlTraceInspector.wrapping(null).inspect("select 1")).isEqualTo("select 1");
+		assertThat(trace.count()).isEqualTo(1);
+	}
+
+	public static class Comment implements StatementInspector {
+
+		@Override
+		public String inspect(String sql) {
+			return "/* seen */ " + sql;
+		}
+	}
+}
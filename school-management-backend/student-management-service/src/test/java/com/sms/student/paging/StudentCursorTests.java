@@ -0,0 +1,65 @@
+package com.sms.student.paging;
+
+import com.sms.student.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StudentCursorTests {
+
+	@Test
+	void decodesTheKeysItEncoded() {
+		UUID id = UUID.randomUUID();
+		LocalDateTime enrolled = LocalDateTime.of(2024, 9, 1, 8, 30, 15, 123_000_000);
+
+		String cursor = StudentCursor.encode(StudentSortField.ENROLLMENT_DATE, Sort.Direction.DESC,
+				ScrollPosition.forward(Map.of("enrollmentDate", enrolled, "id", id)));
+
+		assertThat(keys(StudentCursor.decode(cursor, StudentSortField.ENROLLMENT_DATE, Sort.Direction.DESC)))
+				.containsEntry("enrollmentDate", enrolled)
+				.containsEntry("id", id);
+	}
+
+	@Test
+	void aKeyMayContainTheSeparator() {
+		UUID id = UUID.randomUUID();
+
+		String cursor = StudentCursor.encode(StudentSortField.NAME, Sort.Direction.ASC,
+				ScrollPosition.forward(Map.of("name", "Ada | Lovelace", "id", id)));
+
+		assertThat(keys(StudentCursor.decode(cursor, StudentSortField.NAME, Sort.Direction.ASC)))
+				.containsEntry("name", "Ada | Lovelace")
+				.containsEntry("id", id);
+	}
+
+	@Test
+	void rejectsACursorIssuedForAnotherSortOrOneItDidNotIssue() {
+		String cursor = StudentCursor.encode(StudentSortField.NAME, Sort.Direction.ASC,
+				ScrollPosition.forward(Map.of("name", "Ada", "id", UUID.randomUUID())));
+
+		assertThatThrownBy(() -> StudentCursor.decode(cursor, StudentSortField.NAME, Sort.Direction.DESC))
+				.isInstanceOf(BadRequestException.class);
+		assertThatThrownBy(() -> StudentCursor.decode(cursor, StudentSortField.EMAIL, Sort.Direction.ASC))
+				.isInstanceOf(BadRequestException.class);
+		assertThatThrownBy(() -> StudentCursor.decode("not a cursor", StudentSortField.NAME, Sort.Direction.ASC))
+				.isInstanceOf(BadRequestException.class);
+	}
+
+	@Test
+	void noCursorStartsFromTheFirstRow() {
+		assertThat(StudentCursor.decode(null, StudentSortField.NAME, Sort.Direction.ASC).isInitial()).isTrue();
+		assertThat(StudentCursor.decode("", StudentSortField.NAME, Sort.Direction.ASC).isInitial()).isTrue();
+	}
+
+	private static Map<String, Object> keys(ScrollPosition position) {
+		return Map.copyOf(((KeysetScrollPosition) position).getKeys());
+	}
+}
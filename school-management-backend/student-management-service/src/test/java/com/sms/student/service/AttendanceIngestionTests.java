@@ -0,0 +1,207 @@
+package com.sms.student.service;
+
+import com.sms.student.dto.AttendanceMark;
+import com.sms.student.dto.AttendanceRate;
+import com.sms.student.dto.AttendanceReport;
+import com.sms.student.exception.BadRequestException;
+import com.sms.student.exception.ResourceNotFoundException;
+import com.sms.student.model.AttendanceStatus;
+import com.sms.student.model.Student;
+import com.sms.student.repository.EnrollmentRepository;
+import com.sms.student.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Attendance marks go through the group-commit writer; reports must reflect exactly the latest mark of
+ * every period, whichever requests the marks came in.
+ */
+@SpringBootTest(properties = "students.attendance.max-marks-per-request=100")
+@ActiveProfiles("test")
+class AttendanceIngestionTests {
+
+	private static final LocalDate MONDAY = LocalDate.of(2026, 9, 7);
+
+	@Autowired
+	private AttendanceService attendanceService;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private List<UUID> students;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate.update("delete from attendance_marks");
+		jdbcTemplate.update("delete from attendance_daily_rollups");
+		enrollmentRepository.deleteAll();
+		studentRepository.deleteAll();
+		students = createStudents(30);
+	}
+
+	@Test
+	void concurrentRequestsAreAllCommittedAndRolledUp() throws Exception {
+		// One request per student and period, all at once: the start-of-class burst
+		ExecutorService executor = Executors.newFixedThreadPool(16);
+		try {
+			List<Future<Integer>> recorded = new ArrayList<>();
+			for (UUID student : students) {
+				for (int period = 1; period <= 4; period++) {
+					AttendanceMark mark = mark("MATH-101", student, MONDAY, period,
+							period == 4 ? AttendanceStatus.ABSENT : AttendanceStatus.PRESENT);
+					recorded.add(executor.submit(() -> attendanceService.recordMarks(List.of(mark))));
+				}
+			}
+			for (Future<Integer> request : recorded) {
+				assertThat(request.get()).isEqualTo(1);
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		AttendanceReport report = attendanceService.getClassAttendance("MATH-101", MONDAY, MONDAY);
+		assertThat(report.breakdown()).hasSize(30);
+		assertThat(report.total().periods()).isEqualTo(120);
+		assertThat(report.total().present()).isEqualTo(90);
+		assertThat(report.total().absent()).isEqualTo(30);
+		assertThat(report.total().rate()).isEqualTo(0.75);
+		// Fewer transactions than requests
+		assertThat(jdbcTemplate.queryForObject("select count(distinct recorded_at) from attendance_marks", Long.class))
+				.isLessThan(120);
+	}
+
+	@Test
+	void theLatestMarkOfAPeriodWins() {
+		UUID student = students.get(0);
+		attendanceService.recordMarks(List.of(
+				mark("MATH-101", student, MONDAY, 1, AttendanceStatus.ABSENT),
+				mark("MATH-101", student, MONDAY, 2, AttendanceStatus.PRESENT)));
+		// Arrived late to period 1; period 2 marked twice in one request
+		attendanceService.recordMarks(List.of(
+				mark("MATH-101", student, MONDAY, 1, AttendanceStatus.LATE),
+				mark("MATH-101", student, MONDAY, 2, AttendanceStatus.ABSENT),
+				mark("MATH-101", student, MONDAY, 2, AttendanceStatus.EXCUSED)));
+
+		AttendanceRate rate = attendanceService.getStudentAttendance(student, MONDAY, MONDAY).total();
+		assertThat(rate.periods()).isEqualTo(2);
+		assertThat(rate.late()).isEqualTo(1);
+		assertThat(rate.absent()).isZero();
+		assertThat(rate.excused()).isEqualTo(1);
+		// The excused period does not count against the student
+		assertThat(rate.rate()).isEqualTo(1.0);
+	}
+
+	@Test
+	void theMarkRecordedLastWinsWhateverItsId() {
+		UUID student = students.get(0);
+		// Written earlier through another session, whose sequence cache handed out a higher id
+		jdbcTemplate.update("insert into attendance_marks (id, class_id, attendance_date, period, student_id, status, recorded_at) "
+				+ "values (?, ?, ?, ?, ?, ?, ?)", 1_000_000_000L, "MATH-101", MONDAY, 1, student,
+				AttendanceStatus.ABSENT.name(), LocalDateTime.now().minusMinutes(5));
+
+		attendanceService.recordMarks(List.of(mark("MATH-101", student, MONDAY, 1, AttendanceStatus.PRESENT)));
+
+		AttendanceRate rate = attendanceService.getStudentAttendance(student, MONDAY, MONDAY).total();
+		assertThat(rate.periods()).isEqualTo(1);
+		assertThat(rate.present()).isEqualTo(1);
+		assertThat(rate.absent()).isZero();
+	}
+
+	@Test
+	void reportsCoverTheirDateRangeAndBreakDownByClassOrStudent() {
+		UUID student = students.get(0);
+		attendanceService.recordMarks(List.of(
+				mark("MATH-101", student, MONDAY, 1, AttendanceStatus.PRESENT),
+				mark("MATH-101", student, MONDAY.plusDays(1), 1, AttendanceStatus.ABSENT),
+				mark("PHYS-101", student, MONDAY.plusDays(1), 2, AttendanceStatus.PRESENT),
+				mark("PHYS-101", students.get(1), MONDAY.plusDays(1), 2, AttendanceStatus.ABSENT),
+				mark("MATH-101", student, MONDAY.plusDays(7), 1, AttendanceStatus.ABSENT)));
+
+		AttendanceReport week = attendanceService.getStudentAttendance(student, MONDAY, MONDAY.plusDays(4));
+		assertThat(week.breakdown()).extracting(AttendanceRate::classId).containsExactly("MATH-101", "PHYS-101");
+		assertThat(week.breakdown().get(0).rate()).isEqualTo(0.5);
+		assertThat(week.total().periods()).isEqualTo(3);
+
+		AttendanceReport physics = attendanceService.getClassAttendance("PHYS-101", MONDAY, MONDAY.plusDays(4));
+		assertThat(physics.breakdown()).extracting(AttendanceRate::studentId)
+				.containsExactlyInAnyOrder(student, students.get(1));
+		assertThat(physics.total().rate()).isEqualTo(0.5);
+
+		AttendanceReport empty = attendanceService.getClassAttendance("PHYS-101", MONDAY.minusDays(7), MONDAY.minusDays(1));
+		assertThat(empty.breakdown()).isEmpty();
+		assertThat(empty.total().rate()).isNull();
+	}
+
+	@Test
+	void aMarkTheDatabaseRejectsFailsOnlyItsOwnRequest() throws Exception {
+		// Past the class_id column; the API rejects these up front, the writer must still cope
+		String tooLong = "X".repeat(300);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			Future<Integer> bad = executor.submit(() -> attendanceService.recordMarks(List.of(
+					mark(tooLong, students.get(0), MONDAY, 1, AttendanceStatus.PRESENT))));
+			List<Future<Integer>> good = students.subList(1, 4).stream()
+					.map(student -> executor.submit(() -> attendanceService.recordMarks(List.of(
+							mark("MATH-101", student, MONDAY, 1, AttendanceStatus.PRESENT)))))
+					.toList();
+
+			assertThatThrownBy(bad::get).hasCauseInstanceOf(BadRequestException.class);
+			for (Future<Integer> request : good) {
+				assertThat(request.get()).isEqualTo(1);
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertThat(attendanceService.getClassAttendance("MATH-101", MONDAY, MONDAY).total().present()).isEqualTo(3);
+	}
+
+	@Test
+	void invalidRequestsAreRejected() {
+		List<AttendanceMark> tooMany = IntStream.range(0, 101)
+				.mapToObj(i -> mark("MATH-101", students.get(0), MONDAY.plusDays(i), 1, AttendanceStatus.PRESENT))
+				.toList();
+		assertThatThrownBy(() -> attendanceService.recordMarks(tooMany)).isInstanceOf(BadRequestException.class);
+		assertThatThrownBy(() -> attendanceService.getClassAttendance("MATH-101", MONDAY, MONDAY.minusDays(1)))
+				.isInstanceOf(BadRequestException.class);
+		assertThatThrownBy(() -> attendanceService.getClassAttendance("MATH-101", MONDAY, MONDAY.plusYears(2)))
+				.isInstanceOf(BadRequestException.class);
+		assertThatThrownBy(() -> attendanceService.getStudentAttendance(UUID.randomUUID(), MONDAY, MONDAY))
+				.isInstanceOf(ResourceNotFoundException.class);
+	}
+
+	private static AttendanceMark mark(String classId, UUID studentId, LocalDate date, int period, AttendanceStatus status) {
+		return new AttendanceMark(classId, studentId, date, period, status);
+	}
+
+	private List<UUID> createStudents(int count) {
+		String batch = UUID.randomUUID().toString();
+		List<Student> created = IntStream.range(0, count)
+				.mapToObj(i -> new Student(null, "Student " + i, "student" + i + "." + batch + "@example.com",
+						LocalDate.of(2010, 1, 1), "1 School Lane", LocalDateTime.now(), null, null))
+				.toList();
+		return studentRepository.saveAll(created).stream().map(Student::getId).toList();
+	}
+}
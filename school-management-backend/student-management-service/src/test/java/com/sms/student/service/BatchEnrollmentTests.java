@@ -0,0 +1,115 @@
+package com.sms.student.service;
+
+import com.sms.student.dto.BatchEnrollmentResult;
+import com.sms.student.dto.BatchEnrollmentResult.Outcome;
+import com.sms.student.dto.EnrollmentRequest;
+import com.sms.student.model.Student;
+import com.sms.student.repository.EnrollmentRepository;
+import com.sms.student.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Batch enrollments commit in chunks (three pairs here). Outcomes must not depend on where the chunk
+ * boundaries fall, and a chunk the database rejects must fail only the pairs it rejects.
+ */
+@SpringBootTest(properties = "students.enrollment-batch.chunk-size=3")
+@ActiveProfiles("test")
+class BatchEnrollmentTests {
+
+	// Longer than enrollments.class_id, which only the database checks
+	private static final String UNWRITABLE_CLASS = "X".repeat(300);
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	private List<UUID> students;
+
+	@BeforeEach
+	void setUp() {
+		enrollmentRepository.deleteAll();
+		studentRepository.deleteAll();
+		students = createStudents(4);
+	}
+
+	@Test
+	void duplicatesAreReportedWithinAndAcrossChunks() {
+		List<BatchEnrollmentResult> results = studentService.enrollStudentsInClasses(List.of(
+				pair(0, "MATH-101"), pair(0, "MATH-101"), pair(1, "MATH-101"),
+				pair(2, "MATH-101"), pair(0, "MATH-101"), pair(1, "ART-101")));
+
+		assertThat(results).extracting(BatchEnrollmentResult::outcome).containsExactly(
+				Outcome.ENROLLED, Outcome.DUPLICATE_IN_REQUEST, Outcome.ENROLLED,
+				Outcome.ENROLLED, Outcome.DUPLICATE_IN_REQUEST, Outcome.ENROLLED);
+		assertThat(enrollmentRepository.count()).isEqualTo(4);
+
+		// Enrolled by an earlier request rather than repeated in this one
+		assertThat(studentService.enrollStudentsInClasses(List.of(pair(0, "MATH-101"))))
+				.extracting(BatchEnrollmentResult::outcome).containsExactly(Outcome.ALREADY_ENROLLED);
+	}
+
+	@Test
+	void aRejectedPairFailsAloneAndItsChunkIsStillWritten() {
+		List<BatchEnrollmentResult> results = studentService.enrollStudentsInClasses(List.of(
+				pair(0, "MATH-101"), pair(1, "MATH-101"), pair(2, "MATH-101"),
+				pair(3, "MATH-101"), pair(0, UNWRITABLE_CLASS), pair(3, "MATH-101"),
+				new EnrollmentRequest(UUID.randomUUID(), "MATH-101")));
+
+		assertThat(results).extracting(BatchEnrollmentResult::outcome).containsExactly(
+				Outcome.ENROLLED, Outcome.ENROLLED, Outcome.ENROLLED,
+				Outcome.ENROLLED, Outcome.FAILED, Outcome.DUPLICATE_IN_REQUEST,
+				Outcome.STUDENT_NOT_FOUND);
+		assertThat(results.get(4).enrollmentId()).isNull();
+		assertThat(enrollmentRepository.count()).isEqualTo(4);
+		assertThat(studentService.getEnrollmentsByStudent(students.get(3))).hasSize(1);
+	}
+
+	@Test
+	void chunkBoundariesDoNotChangeTheOutcomes() {
+		studentService.setClassCapacity("LAB-101", 4);
+
+		// Chunks of 3, 3 and 1: one duplicate straddles the first boundary, the other is the last chunk
+		List<BatchEnrollmentResult> results = studentService.enrollStudentsInClasses(List.of(
+				pair(0, "LAB-101"), pair(1, "LAB-101"), pair(2, "LAB-101"),
+				pair(2, "LAB-101"), pair(3, "LAB-101"), pair(0, "LAB-102"),
+				pair(1, "LAB-101")));
+
+		assertThat(results).extracting(BatchEnrollmentResult::outcome).containsExactly(
+				Outcome.ENROLLED, Outcome.ENROLLED, Outcome.ENROLLED,
+				Outcome.DUPLICATE_IN_REQUEST, Outcome.ENROLLED, Outcome.ENROLLED,
+				Outcome.DUPLICATE_IN_REQUEST);
+		assertThat(results).extracting(BatchEnrollmentResult::enrollmentId).filteredOn(id -> id != null)
+				.hasSize(5).doesNotHaveDuplicates();
+		assertThat(studentService.getClassSeating("LAB-101")).extracting("seated", "waitlisted").containsExactly(4L, 0L);
+	}
+
+	private EnrollmentRequest pair(int student, String classId) {
+		return new EnrollmentRequest(students.get(student), classId);
+	}
+
+	private List<UUID> createStudents(int count) {
+		String batch = UUID.randomUUID().toString();
+		List<Student> created = IntStream.range(0, count)
+				.mapToObj(i -> new Student(null, "Student " + i, "student" + i + "." + batch + "@example.com",
+						LocalDate.of(2010, 1, 1), "1 School Lane", LocalDateTime.now(), null, null))
+				.toList();
+		return studentRepository.saveAll(created).stream().map(Student::getId).toList();
+	}
+}
@@ -0,0 +1,184 @@
+package com.sms.student.service;
+
+import com.sms.student.dto.EnrollmentRequest;
+import com.sms.student.dto.EnrollmentView;
+import com.sms.student.dto.RosterExpression;
+import com.sms.student.dto.RosterPage;
+import com.sms.student.exception.BadRequestException;
+import com.sms.student.model.EnrollmentStatus;
+import com.sms.student.model.Student;
+import com.sms.student.repository.ClassCapacityRepository;
+import com.sms.student.repository.EnrollmentRepository;
+import com.sms.student.repository.StudentRepository;
+import com.sms.student.roster.RosterIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Roster queries against the in-memory index: it must follow every enrollment change the service commits,
+ * and ignore the ones it rolls back.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RosterQueryTests {
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	@Autowired
+	private ClassCapacityRepository classCapacityRepository;
+
+	@Autowired
+	private RosterIndex rosterIndex;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private List<UUID> students;
+
+	@BeforeEach
+	void setUp() {
+		enrollmentRepository.deleteAll();
+		studentRepository.deleteAll();
+		classCapacityRepository.deleteAll();
+		// The deletes above bypass the service
+		rosterIndex.rebuild();
+		students = createStudents(6);
+	}
+
+	@Test
+	void setAlgebraOverRosters() {
+		enroll("MATH-101", 0, 1, 2, 3);
+		enroll("PHYS-101", 2, 3, 4);
+		enroll("CHEM-101", 3, 5);
+
+		assertThat(students(inClasses("MATH-101"))).containsExactlyInAnyOrder(student(0), student(1), student(2), student(3));
+		assertThat(students(new RosterExpression(null, null, null, null,
+				List.of(inClasses("MATH-101"), inClasses("PHYS-101"), inClasses("CHEM-101")))))
+				.containsExactlyInAnyOrder(student(0), student(1));
+		assertThat(students(new RosterExpression(null, null, null,
+				List.of(inClasses("MATH-101"), inClasses("PHYS-101")), null)))
+				.containsExactlyInAnyOrder(student(2), student(3));
+		assertThat(students(new RosterExpression(null, null,
+				List.of(inClasses("PHYS-101"), inClasses("CHEM-101"), inClasses("NONE-101")), null, null)))
+				.containsExactlyInAnyOrder(student(2), student(3), student(4), student(5));
+		assertThat(students(inClasses("NONE-101"))).isEmpty();
+	}
+
+	@Test
+	void indexFollowsStatusChangesWaitlistsAndDeletes() {
+		studentService.setClassCapacity("MATH-101", 2);
+		List<EnrollmentView> enrollments = enroll("MATH-101", 0, 1, 2);
+
+		RosterExpression active = RosterExpression.inClasses(List.of("MATH-101"), List.of(EnrollmentStatus.ACTIVE));
+		RosterExpression waitlisted = RosterExpression.inClasses(List.of("MATH-101"), List.of(EnrollmentStatus.WAITLISTED));
+		assertThat(students(active)).containsExactlyInAnyOrder(student(0), student(1));
+		assertThat(students(waitlisted)).containsExactly(student(2));
+
+		// Dropping student 0 hands its seat to the waitlisted student 2
+		studentService.updateEnrollmentStatus(enrollments.get(0).id(), EnrollmentStatus.DROPPED, null);
+		assertThat(students(active)).containsExactlyInAnyOrder(student(1), student(2));
+		assertThat(students(waitlisted)).isEmpty();
+		assertThat(students(RosterExpression.inClasses(List.of("MATH-101"), List.of(EnrollmentStatus.DROPPED))))
+				.containsExactly(student(0));
+
+		studentService.deleteEnrollment(enrollments.get(1).id());
+		studentService.deleteStudent(student(2));
+		assertThat(students(inClasses("MATH-101"))).containsExactly(student(0));
+
+		// What the index holds after incremental updates is what a rebuild reads from the database
+		rosterIndex.rebuild();
+		assertThat(students(inClasses("MATH-101"))).containsExactly(student(0));
+	}
+
+	@Test
+	void rolledBackEnrollmentsAreNotIndexed() {
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				studentService.enrollStudentsInClasses(List.of(new EnrollmentRequest(student(0), "MATH-101")));
+				status.setRollbackOnly();
+			});
+		} catch (RuntimeException ignored) {
+			// Rolled back either way
+		}
+		assertThat(students(inClasses("MATH-101"))).isEmpty();
+	}
+
+	@Test
+	void pagesCoverTheRosterOnceInAStableOrder() {
+		enroll("MATH-101", 0, 1, 2, 3, 4, 5);
+
+		List<UUID> seen = new ArrayList<>();
+		UUID after = null;
+		do {
+			RosterPage page = studentService.queryRoster(inClasses("MATH-101"), 4, after);
+			assertThat(page.count()).isEqualTo(6);
+			seen.addAll(page.studentIds());
+			after = page.nextAfter();
+		} while (after != null);
+		assertThat(seen).hasSize(6).containsExactlyInAnyOrderElementsOf(students);
+
+		assertThat(studentService.queryRoster(inClasses("MATH-101"), 0, null).studentIds()).isEmpty();
+		assertThat(studentService.queryRoster(inClasses("MATH-101"), 2, seen.get(5)).studentIds()).isEmpty();
+	}
+
+	@Test
+	void malformedExpressionsAreRejected() {
+		assertThatThrownBy(() -> studentService.queryRoster(new RosterExpression(null, null, null, null, null), null, null))
+				.isInstanceOf(BadRequestException.class);
+		assertThatThrownBy(() -> studentService.queryRoster(
+				new RosterExpression(List.of("MATH-101"), null, List.of(inClasses("PHYS-101")), null, null), null, null))
+				.isInstanceOf(BadRequestException.class);
+		assertThatThrownBy(() -> studentService.queryRoster(new RosterExpression(null, null, List.of(), null, null), null, null))
+				.isInstanceOf(BadRequestException.class);
+		assertThatThrownBy(() -> studentService.queryRoster(inClasses("MATH-101"), null, UUID.randomUUID()))
+				.isInstanceOf(BadRequestException.class);
+	}
+
+	private List<EnrollmentView> enroll(String classId, int... indexes) {
+		return IntStream.of(indexes).mapToObj(i -> studentService.enrollStudentInClass(student(i), classId)).toList();
+	}
+
+	private List<UUID> students(RosterExpression expression) {
+		RosterPage page = studentService.queryRoster(expression, null, null);
+		assertThat(page.studentIds()).hasSize((int) page.count());
+		return page.studentIds();
+	}
+
+	private UUID student(int index) {
+		return students.get(index);
+	}
+
+	private static RosterExpression inClasses(String classId) {
+		return RosterExpression.inClasses(List.of(classId), null);
+	}
+
+	private List<UUID> createStudents(int count) {
+		String batch = UUID.randomUUID().toString();
+		List<Student> created = IntStream.range(0, count)
+				.mapToObj(i -> new Student(null, "Student " + i, "student" + i + "." + batch + "@example.com",
+						LocalDate.of(2010, 1, 1), "1 School Lane", LocalDateTime.now(), null, null))
+				.toList();
+		return studentRepository.saveAll(created).stream().map(Student::getId).toList();
+	}
+}
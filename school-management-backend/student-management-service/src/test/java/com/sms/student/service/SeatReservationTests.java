@@ -0,0 +1,205 @@
+package com.sms.student.service;
+
+import com.sms.student.dto.BatchEnrollmentResult;
+import com.sms.student.dto.ClassSeating;
+import com.sms.student.dto.EnrollmentRequest;
+import com.sms.student.dto.EnrollmentView;
+import com.sms.student.exception.BadRequestException;
+import com.sms.student.model.Enrollment;
+import com.sms.student.model.EnrollmentStatus;
+import com.sms.student.model.Student;
+import com.sms.student.repository.ClassCapacityRepository;
+import com.sms.student.repository.EnrollmentRepository;
+import com.sms.student.repository.StudentRepository;
+import com.sms.student.seating.SeatLedger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Seat allocation under contention: many concurrent enrollments into one class with a capacity must fill
+ * exactly its seats, each seat once, and put everyone else on the waitlist in order.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SeatReservationTests {
+
+	private static final String HOT_CLASS = "HOT-101";
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	@Autowired
+	private ClassCapacityRepository classCapacityRepository;
+
+	@Autowired
+	private SeatLedger seatLedger;
+
+	@BeforeEach
+	void setUp() {
+		enrollmentRepository.deleteAll();
+		studentRepository.deleteAll();
+		classCapacityRepository.deleteAll();
+		seatLedger.invalidate(HOT_CLASS);
+	}
+
+	@Test
+	void concurrentEnrollmentsNeverOversubscribeAHotClass() throws Exception {
+		int capacity = 100;
+		List<UUID> students = createStudents(1000);
+		studentService.setClassCapacity(HOT_CLASS, capacity);
+
+		// Every student tries twice, concurrently with everyone else
+		List<UUID> attempts = new ArrayList<>(students);
+		attempts.addAll(students);
+		Collections.shuffle(attempts);
+		AtomicInteger enrolled = new AtomicInteger();
+		AtomicInteger waitlisted = new AtomicInteger();
+		AtomicInteger duplicates = new AtomicInteger();
+		try (ExecutorService executor = Executors.newFixedThreadPool(32)) {
+			List<Future<?>> futures = new ArrayList<>();
+			for (UUID studentId : attempts) {
+				futures.add(executor.submit(() -> {
+					try {
+						EnrollmentView enrollment = studentService.enrollStudentInClass(studentId, HOT_CLASS);
+						(enrollment.status() == EnrollmentStatus.WAITLISTED ? waitlisted : enrolled).incrementAndGet();
+					} catch (BadRequestException e) {
+						duplicates.incrementAndGet();
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get(2, TimeUnit.MINUTES);
+			}
+		}
+		assertThat(enrolled).hasValue(capacity);
+		assertThat(waitlisted).hasValue(students.size() - capacity);
+		assertThat(duplicates).hasValue(students.size());
+
+		List<Enrollment> enrollments = enrollmentRepository.findAll();
+		assertThat(enrollments).hasSize(students.size());
+		assertThat(enrollments.stream().map(Enrollment::getSeatNumber).filter(seat -> seat != null))
+				.containsExactlyInAnyOrderElementsOf(IntStream.rangeClosed(1, capacity).boxed().toList());
+		assertThat(studentService.getClassSeating(HOT_CLASS))
+				.isEqualTo(new ClassSeating(HOT_CLASS, capacity, capacity, students.size() - capacity));
+	}
+
+	@Test
+	void aVacatedSeatGoesToTheHeadOfTheWaitlist() {
+		List<UUID> students = createStudents(4);
+		studentService.setClassCapacity(HOT_CLASS, 2);
+		List<EnrollmentView> enrollments = students.stream()
+				.map(studentId -> studentService.enrollStudentInClass(studentId, HOT_CLASS))
+				.toList();
+		assertThat(enrollments).extracting(EnrollmentView::status).containsExactly(EnrollmentStatus.ACTIVE,
+				EnrollmentStatus.ACTIVE, EnrollmentStatus.WAITLISTED, EnrollmentStatus.WAITLISTED);
+
+		studentService.deleteEnrollment(enrollments.get(0).id());
+		assertThat(enrollmentRepository.findById(enrollments.get(2).id()).orElseThrow())
+				.returns(EnrollmentStatus.ACTIVE, Enrollment::getStatus)
+				.returns(enrollments.get(0).seatNumber(), Enrollment::getSeatNumber);
+
+		studentService.updateEnrollmentStatus(enrollments.get(1).id(), EnrollmentStatus.DROPPED, null);
+		assertThat(enrollmentRepository.findById(enrollments.get(3).id()).orElseThrow())
+				.returns(EnrollmentStatus.ACTIVE, Enrollment::getStatus)
+				.returns(enrollments.get(1).seatNumber(), Enrollment::getSeatNumber);
+
+		// Rejoining a full class needs a free seat
+		assertThatThrownBy(() -> studentService.updateEnrollmentStatus(enrollments.get(1).id(), EnrollmentStatus.ACTIVE, null))
+				.isInstanceOf(BadRequestException.class);
+		assertThat(studentService.getClassSeating(HOT_CLASS)).isEqualTo(new ClassSeating(HOT_CLASS, 2, 2, 0));
+	}
+
+	@Test
+	void movingAnEnrollmentToTheWaitlistHandsItsSeatToTheNextInLine() {
+		List<UUID> students = createStudents(2);
+		studentService.setClassCapacity(HOT_CLASS, 1);
+		EnrollmentView seated = studentService.enrollStudentInClass(students.get(0), HOT_CLASS);
+		EnrollmentView waiting = studentService.enrollStudentInClass(students.get(1), HOT_CLASS);
+
+		// The demoted enrollment has waited longest, but must not get its own seat back
+		EnrollmentView demoted = studentService.updateEnrollmentStatus(seated.id(), EnrollmentStatus.WAITLISTED, null);
+
+		assertThat(demoted.status()).isEqualTo(EnrollmentStatus.WAITLISTED);
+		assertThat(demoted.seatNumber()).isNull();
+		assertThat(enrollmentRepository.findById(seated.id()).orElseThrow())
+				.returns(EnrollmentStatus.WAITLISTED, Enrollment::getStatus)
+				.returns(demoted.version(), Enrollment::getVersion);
+		assertThat(enrollmentRepository.findById(waiting.id()).orElseThrow())
+				.returns(EnrollmentStatus.ACTIVE, Enrollment::getStatus)
+				.returns(seated.seatNumber(), Enrollment::getSeatNumber);
+
+		// Demoted in turn, the other goes back to the head of the waitlist
+		studentService.updateEnrollmentStatus(waiting.id(), EnrollmentStatus.WAITLISTED, null);
+		assertThat(enrollmentRepository.findById(seated.id()).orElseThrow().getStatus()).isEqualTo(EnrollmentStatus.ACTIVE);
+		assertThat(studentService.getClassSeating(HOT_CLASS)).isEqualTo(new ClassSeating(HOT_CLASS, 1, 1, 1));
+	}
+
+	@Test
+	void raisingTheCapacityPromotesTheWaitlist() {
+		List<UUID> students = createStudents(4);
+		// Enrolled while the class was unlimited
+		studentService.enrollStudentInClass(students.get(0), HOT_CLASS);
+		studentService.setClassCapacity(HOT_CLASS, 1);
+		students.subList(1, 4).forEach(studentId -> studentService.enrollStudentInClass(studentId, HOT_CLASS));
+		assertThat(studentService.getClassSeating(HOT_CLASS)).isEqualTo(new ClassSeating(HOT_CLASS, 1, 1, 3));
+
+		assertThat(studentService.setClassCapacity(HOT_CLASS, 3)).isEqualTo(new ClassSeating(HOT_CLASS, 3, 3, 1));
+		assertThat(enrollmentRepository.findAll())
+				.filteredOn(enrollment -> enrollment.getStatus() == EnrollmentStatus.ACTIVE)
+				.extracting(Enrollment::getSeatNumber)
+				.containsExactlyInAnyOrder(1, 2, 3);
+		// The new seats are handed out by the in-memory pool as well
+		assertThat(studentService.enrollStudentInClass(createStudents(1).get(0), HOT_CLASS).status())
+				.isEqualTo(EnrollmentStatus.WAITLISTED);
+
+		assertThatThrownBy(() -> studentService.setClassCapacity(HOT_CLASS, 2)).isInstanceOf(BadRequestException.class);
+	}
+
+	@Test
+	void batchEnrollmentWaitlistsBeyondTheCapacity() {
+		List<UUID> students = createStudents(3);
+		studentService.setClassCapacity(HOT_CLASS, 2);
+
+		List<BatchEnrollmentResult> results = studentService.enrollStudentsInClasses(students.stream()
+				.map(studentId -> new EnrollmentRequest(studentId, HOT_CLASS))
+				.toList());
+
+		assertThat(results).extracting(BatchEnrollmentResult::outcome).containsExactly(
+				BatchEnrollmentResult.Outcome.ENROLLED, BatchEnrollmentResult.Outcome.ENROLLED,
+				BatchEnrollmentResult.Outcome.WAITLISTED);
+	}
+
+	private List<UUID> createStudents(int count) {
+		String batch = UUID.randomUUID().toString();
+		List<Student> students = IntStream.range(0, count)
+				.mapToObj(i -> new Student(null, "Student " + i, "student" + i + "." + batch + "@example.com",
+						LocalDate.of(2010, 1, 1), "1 School Lane", LocalDateTime.now(), null, null))
+				.toList();
+		return studentRepository.saveAll(students).stream().map(Student::getId).toList();
+	}
+}
@@ -0,0 +1,94 @@
+package com.sms.student.service;
+
+import com.sms.student.config.CacheConfig;
+import com.sms.student.dto.StudentDetail;
+import com.sms.student.model.Student;
+import com.sms.student.repository.EnrollmentRepository;
+import com.sms.student.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cached student details are dropped when the student or its enrollments change, and a read that loaded the
+ * student before the change cannot put it back.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class StudentCacheTests {
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	private Cache cache;
+
+	private UUID studentId;
+
+	@BeforeEach
+	void setUp() {
+		enrollmentRepository.deleteAll();
+		studentRepository.deleteAll();
+		cache = cacheManager.getCache(CacheConfig.STUDENTS);
+		cache.clear();
+		studentId = studentService.createStudent(student("Ada Lovelace")).id();
+	}
+
+	@Test
+	void anUpdateDropsTheCachedStudent() {
+		StudentDetail before = studentService.getStudentById(studentId);
+		assertThat(cache.get(studentId, StudentDetail.class)).isEqualTo(before);
+
+		studentService.updateStudent(studentId, student("Ada King"), null);
+
+		assertThat(cache.get(studentId)).isNull();
+		StudentDetail after = studentService.getStudentById(studentId);
+		assertThat(after.name()).isEqualTo("Ada King");
+		assertThat(after.version()).isGreaterThan(before.version());
+	}
+
+	@Test
+	void anEnrollmentDropsTheCachedStudent() {
+		studentService.getStudentById(studentId);
+
+		studentService.enrollStudentInClass(studentId, "MATH-101");
+
+		assertThat(cache.get(studentId)).isNull();
+		assertThat(studentService.getStudentById(studentId).enrollments()).hasSize(1);
+	}
+
+	@Test
+	void aReadFromBeforeAnUpdateDoesNotPutTheOldStudentBack() {
+		StudentDetail stale = studentService.getStudentById(studentId);
+		studentService.updateStudent(studentId, student("Ada King"), null);
+
+		// What a read that loaded the student before the update committed puts once it returns
+		cache.put(studentId, stale);
+
+		assertThat(cache.get(studentId)).isNull();
+		assertThat(studentService.getStudentById(studentId).name()).isEqualTo("Ada King");
+	}
+
+	private static Student student(String name) {
+		return new Student(null, name, "ada@example.com", LocalDate.of(2010, 1, 1), "12 Analytical Way",
+				LocalDateTime.now(), null, null);
+	}
+}
@@ -0,0 +1,129 @@
+package com.sms.student.service;
+
+import com.sms.student.bulk.StudentImportFormat;
+import com.sms.student.dto.StudentImportError;
+import com.sms.student.dto.StudentImportReport;
+import com.sms.student.model.Student;
+import com.sms.student.repository.EnrollmentRepository;
+import com.sms.student.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bulk import/export over COPY runs on PostgreSQL only. Needs a scratch database, the schema is created
+ * and dropped:
+ * <pre>
+ * POSTGRES_TEST_URL='jdbc:postgresql://localhost:5432/student_test?user=postgres&amp;password=postgres' ./mvnw test
+ * </pre>
+ */
+@SpringBootTest(properties = "students.import.chunk-size=3")
+@ActiveProfiles("test")
+@EnabledIfEnvironmentVariable(named = "POSTGRES_TEST_URL", matches = ".+")
+class StudentImportExportTests {
+
+	@DynamicPropertySource
+	static void postgres(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", () -> System.getenv("POSTGRES_TEST_URL"));
+		registry.add("spring.datasource.username", () -> "");
+		registry.add("spring.datasource.password", () -> "");
+		registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+		registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+		registry.add("spring.sql.init.mode", () -> "always");
+		registry.add("spring.sql.init.schema-locations", () -> "classpath:db/student-search.sql,classpath:db/attendance.sql,classpath:db/changes.sql,classpath:db/enrollment-terms.sql");
+	}
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	@BeforeEach
+	void setUp() {
+		enrollmentRepository.deleteAll();
+		studentRepository.deleteAll();
+		studentService.createStudent(new Student(null, "Existing Student", "existing@example.com", LocalDate.of(2010, 1, 1),
+				"1 Old Road", LocalDateTime.of(2023, 9, 1, 8, 0), null, null));
+	}
+
+	@Test
+	void importsValidRecordsInChunksAndReportsTheRest() throws IOException {
+		String csv = "name,email,dob,address\n"
+				+ "Ada Lovelace,ada@example.com,2011-12-10,\"12 Analytical Way, London\"\n"
+				+ "No Email,,2011-01-01,Somewhere\n"
+				+ "Grace Hopper,grace@example.com,2012-13-09,Arlington\n"
+				+ "Alan Turing,alan@example.com,2012-06-23,Bletchley\n"
+				+ "Alan Again,alan@example.com,2012-06-23,Bletchley\n"
+				+ "Too,Few,Fields\n"
+				+ "Already There,existing@example.com,2010-01-01,1 Old Road\n"
+				+ "Future Kid,future@example.com," + LocalDate.now().plusYears(1) + ",Tomorrow Lane\n"
+				+ "\"Katherine \"\"Kat\"\" Johnson\",kat@example.com,2013-08-26,Hampton\n";
+
+		StudentImportReport report = studentService.importStudents(new StringReader(csv), StudentImportFormat.CSV);
+
+		assertThat(report.imported()).isEqualTo(3);
+		assertThat(report.rejected()).isEqualTo(6);
+		assertThat(report.errorsTruncated()).isFalse();
+		assertThat(report.errors()).extracting(StudentImportError::line).containsExactly(3L, 4L, 6L, 7L, 8L, 9L);
+		assertThat(report.errors().get(0).message()).isEqualTo("email: Email cannot be empty");
+		assertThat(report.errors().get(1).message()).isEqualTo("dob: expected YYYY-MM-DD");
+		assertThat(report.errors().get(4).message()).contains("already exists");
+		assertThat(studentRepository.findByEmail("kat@example.com").orElseThrow().getName())
+				.isEqualTo("Katherine \"Kat\" Johnson");
+		// Imported students are searchable straight away
+		assertThat(studentService.searchStudents("analytical", null)).extracting("email").containsExactly("ada@example.com");
+	}
+
+	@Test
+	void importsNdjson() throws IOException {
+		String ndjson = "{\"name\":\"Ada Lovelace\",\"email\":\"ada@example.com\",\"dob\":\"2011-12-10\",\"address\":\"London\","
+				+ "\"enrollmentDate\":\"2024-09-01T08:30:00\"}\n"
+				+ "[1, 2]\n";
+
+		StudentImportReport report = studentService.importStudents(new StringReader(ndjson), StudentImportFormat.NDJSON);
+
+		assertThat(report.imported()).isEqualTo(1);
+		assertThat(report.errors()).extracting(StudentImportError::line).containsExactly(2L);
+		assertThat(studentRepository.findByEmail("ada@example.com").orElseThrow().getEnrollmentDate())
+				.isEqualTo(LocalDateTime.of(2024, 9, 1, 8, 30));
+	}
+
+	@Test
+	void exportedCsvImportsBackUnchanged() throws IOException {
+		studentService.importStudents(new StringReader("name,email,dob,address\n"
+				+ "\"Grace \"\"Amazing\"\" Hopper\",grace@example.com,2012-12-09,\"Line one\nLine two, Arlington\"\n"), StudentImportFormat.CSV);
+		ByteArrayOutputStream export = new ByteArrayOutputStream();
+		studentService.exportStudentsCsv(export);
+		String csv = export.toString(StandardCharsets.UTF_8);
+		assertThat(csv).startsWith("id,name,email,dob,address,enrollment_date\n");
+
+		studentRepository.deleteAll();
+		StudentImportReport report = studentService.importStudents(new StringReader(csv), StudentImportFormat.CSV);
+
+		assertThat(report.imported()).isEqualTo(2);
+		ByteArrayOutputStream again = new ByteArrayOutputStream();
+		studentService.exportStudentsCsv(again);
+		assertThat(again.toString(StandardCharsets.UTF_8)).isEqualTo(csv);
+		UUID id = studentRepository.findByEmail("grace@example.com").orElseThrow().getId();
+		assertThat(csv).contains(id.toString());
+	}
+}
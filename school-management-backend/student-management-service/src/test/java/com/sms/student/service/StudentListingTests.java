@@ -0,0 +1,107 @@
+package com.sms.student.service;
+
+import com.sms.student.dto.CursorPage;
+import com.sms.student.dto.StudentSummary;
+import com.sms.student.model.Student;
+import com.sms.student.paging.StudentSortField;
+import com.sms.student.repository.EnrollmentRepository;
+import com.sms.student.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Walking the listing page by page returns every student once, in the order of a single page holding them all,
+ * including across runs of equal sort keys that a page boundary falls inside.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class StudentListingTests {
+
+	private static final LocalDateTime TERM_START = LocalDateTime.of(2024, 9, 1, 8, 0);
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	@BeforeEach
+	void setUp() {
+		enrollmentRepository.deleteAll();
+		studentRepository.deleteAll();
+	}
+
+	@Test
+	void pagesFollowOnWithoutGapsOrRepeatsAcrossEqualKeys() {
+		// Five students share a name and an enrollment date, so every page of two ends inside a tie
+		for (int i = 0; i < 5; i++) {
+			create("Ada Lovelace", "ada" + i + "@example.com", TERM_START);
+		}
+		create("Grace Hopper", "grace@example.com", TERM_START.plusDays(1));
+		create("Alan Turing", "alan@example.com", TERM_START.minusDays(1));
+
+		for (StudentSortField field : StudentSortField.values()) {
+			for (Sort.Direction direction : Sort.Direction.values()) {
+				List<UUID> walked = walk(field, direction, 2);
+
+				assertThat(walked).as("%s %s", field, direction)
+						.hasSize(7)
+						.doesNotHaveDuplicates()
+						.containsExactlyElementsOf(ids(studentService.getAllStudents(null, 50, field, direction)));
+			}
+		}
+	}
+
+	@Test
+	void theLastPageHasNoCursor() {
+		for (int i = 0; i < 4; i++) {
+			create("Ada Lovelace", "ada" + i + "@example.com", TERM_START);
+		}
+
+		CursorPage<StudentSummary> first = studentService.getAllStudents(null, 2, StudentSortField.NAME, Sort.Direction.ASC);
+		CursorPage<StudentSummary> last = studentService.getAllStudents(first.nextCursor(), 2, StudentSortField.NAME, Sort.Direction.ASC);
+
+		assertThat(first.hasNext()).isTrue();
+		// Exactly full, yet no cursor to an empty page after it
+		assertThat(last.items()).hasSize(2);
+		assertThat(last.hasNext()).isFalse();
+		assertThat(last.nextCursor()).isNull();
+		assertThat(studentService.getAllStudents(null, 4, StudentSortField.NAME, Sort.Direction.ASC).nextCursor()).isNull();
+	}
+
+	private List<UUID> walk(StudentSortField field, Sort.Direction direction, int size) {
+		List<UUID> walked = new ArrayList<>();
+		String cursor = null;
+		do {
+			CursorPage<StudentSummary> page = studentService.getAllStudents(cursor, size, field, direction);
+			assertThat(page.items()).hasSizeLessThanOrEqualTo(size);
+			walked.addAll(ids(page));
+			cursor = page.nextCursor();
+		} while (cursor != null);
+		return walked;
+	}
+
+	private static List<UUID> ids(CursorPage<StudentSummary> page) {
+		return page.items().stream().map(StudentSummary::id).toList();
+	}
+
+	private void create(String name, String email, LocalDateTime enrollmentDate) {
+		studentRepository.save(new Student(null, name, email, LocalDate.of(2010, 1, 1), "12 Analytical Way",
+				enrollmentDate, null, null));
+	}
+}
@@ -0,0 +1,248 @@
+package com.sms.student.service;
+
+import com.sms.student.dto.EnrollmentView;
+import com.sms.student.dto.StudentPurgeJobView;
+import com.sms.student.dto.StudentPurgeRequest;
+import com.sms.student.exception.BadRequestException;
+import com.sms.student.exception.ResourceNotFoundException;
+import com.sms.student.model.EnrollmentStatus;
+import com.sms.student.model.Student;
+import com.sms.student.purge.StudentPurgeJobState;
+import com.sms.student.repository.ClassCapacityRepository;
+import com.sms.student.repository.EnrollmentRepository;
+import com.sms.student.repository.StudentRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Student deletes are set-based: a fixed number of statements however many enrollments go with the student.
+ * Bulk purges run as chunked jobs and must leave the waitlists, archive tables and progress consistent.
+ */
+@SpringBootTest(properties = "students.purge.chunk-size=3")
+@ActiveProfiles("test")
+class StudentPurgeTests {
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private StudentPurgeService studentPurgeService;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	@Autowired
+	private ClassCapacityRepository classCapacityRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@BeforeEach
+	void setUp() {
+		enrollmentRepository.deleteAll();
+		studentRepository.deleteAll();
+		classCapacityRepository.deleteAll();
+		jdbcTemplate.update("delete from enrollments_archive");
+		jdbcTemplate.update("delete from students_archive");
+	}
+
+	@Test
+	void deletingAStudentTakesTheSameStatementsHoweverManyEnrollments() {
+		UUID few = createStudents(2020, 1).get(0);
+		UUID many = createStudents(2020, 1).get(0);
+		enroll(few, 2);
+		enroll(many, 60);
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		statistics.clear();
+		studentService.deleteStudent(few);
+		long statementsForFew = statistics.getPrepareStatementCount();
+		statistics.clear();
+		studentService.deleteStudent(many);
+
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementsForFew);
+		assertThat(studentRepository.count()).isZero();
+		assertThat(enrollmentRepository.count()).isZero();
+		assertThatThrownBy(() -> studentService.deleteStudent(many)).isInstanceOf(ResourceNotFoundException.class);
+	}
+
+	@Test
+	void archivingMovesTheStudentAndItsEnrollments() {
+		UUID student = createStudents(2020, 1).get(0);
+		enroll(student, 3);
+
+		studentService.archiveStudent(student);
+
+		assertThat(studentRepository.existsById(student)).isFalse();
+		assertThat(enrollmentRepository.count()).isZero();
+		assertThat(jdbcTemplate.queryForObject("select count(*) from students_archive where id = ?", Long.class, student))
+				.isEqualTo(1);
+		assertThat(jdbcTemplate.queryForObject("select count(*) from enrollments_archive where student_id = ?", Long.class, student))
+				.isEqualTo(3);
+		assertThatThrownBy(() -> studentService.archiveStudent(student)).isInstanceOf(ResourceNotFoundException.class);
+	}
+
+	@Test
+	void purgeByFilterRemovesOnlyTheMatchingCohortInChunks() {
+		List<UUID> leavers = createStudents(2020, 7);
+		List<UUID> stillEnrolled = createStudents(2020, 2);
+		List<UUID> laterCohort = createStudents(2021, 2);
+		leavers.forEach(student -> complete(enroll(student, 2)));
+		complete(enroll(stillEnrolled.get(0), 1));
+		enroll(stillEnrolled.get(0), 1);
+		laterCohort.forEach(student -> complete(enroll(student, 1)));
+
+		StudentPurgeJobView job = awaitFinished(studentPurgeService.submit(
+				new StudentPurgeRequest(null, 2020, EnrollmentStatus.COMPLETED, true)));
+
+		assertThat(job.state()).isEqualTo(StudentPurgeJobState.COMPLETED);
+		assertThat(job.progress()).isEqualTo(new StudentPurgeJobView.Progress(7, 7, 14, 3));
+		assertThat(studentRepository.findAll()).extracting(Student::getId)
+				.containsExactlyInAnyOrderElementsOf(concat(stillEnrolled, laterCohort));
+		assertThat(jdbcTemplate.queryForObject("select count(*) from students_archive", Long.class)).isEqualTo(7);
+		assertThat(jdbcTemplate.queryForObject("select count(*) from enrollments_archive", Long.class)).isEqualTo(14);
+	}
+
+	@Test
+	void seatsOfPurgedStudentsGoToTheWaitlist() {
+		List<UUID> students = createStudents(2020, 5);
+		studentService.setClassCapacity("MATH-101", 2);
+		List<EnrollmentView> enrollments = students.stream()
+				.map(student -> studentService.enrollStudentInClass(student, "MATH-101"))
+				.toList();
+		assertThat(enrollments).extracting(EnrollmentView::status).containsExactly(EnrollmentStatus.ACTIVE,
+				EnrollmentStatus.ACTIVE, EnrollmentStatus.WAITLISTED, EnrollmentStatus.WAITLISTED, EnrollmentStatus.WAITLISTED);
+
+		StudentPurgeJobView job = awaitFinished(studentPurgeService.submit(
+				new StudentPurgeRequest(students.subList(0, 2), null, null, false)));
+
+		assertThat(job.progress().students()).isEqualTo(2);
+		// The two longest waiting take the freed seats, in order; the last keeps waiting
+		assertThat(studentService.getEnrollmentsByStudent(students.get(2)).get(0).status()).isEqualTo(EnrollmentStatus.ACTIVE);
+		assertThat(studentService.getEnrollmentsByStudent(students.get(3)).get(0).status()).isEqualTo(EnrollmentStatus.ACTIVE);
+		assertThat(studentService.getEnrollmentsByStudent(students.get(4)).get(0).status()).isEqualTo(EnrollmentStatus.WAITLISTED);
+		assertThat(studentService.getClassSeating("MATH-101")).extracting("seated", "waitlisted").containsExactly(2L, 1L);
+	}
+
+	@Test
+	void cancelledJobsStopAndInvalidRequestsAreRejected() {
+		List<UUID> students = createStudents(2020, 30);
+		// The first student stays locked until the job has been cancelled, so the job cannot finish before then
+		CountDownLatch locked = new CountDownLatch(1);
+		CountDownLatch cancelled = new CountDownLatch(1);
+		Thread holder = Thread.ofPlatform().start(() -> transactionTemplate.executeWithoutResult(status -> {
+			studentRepository.lockExistingIds(students.subList(0, 1));
+			locked.countDown();
+			await(cancelled);
+		}));
+		await(locked);
+
+		StudentPurgeJobView submitted = studentPurgeService.submit(new StudentPurgeRequest(students, null, null, false));
+		studentPurgeService.cancelJob(submitted.id());
+		cancelled.countDown();
+		join(holder);
+
+		// Cancelled either before its first chunk or while waiting on it
+		StudentPurgeJobView job = awaitFinished(submitted);
+		assertThat(job.state()).isEqualTo(StudentPurgeJobState.CANCELLED);
+		long purged = job.progress() == null ? 0 : job.progress().students();
+		assertThat(purged).isIn(0L, 3L);
+		assertThat(studentRepository.count()).isEqualTo(30 - purged);
+
+		assertThatThrownBy(() -> studentPurgeService.submit(new StudentPurgeRequest(null, null, null, true)))
+				.isInstanceOf(BadRequestException.class);
+		assertThatThrownBy(() -> studentPurgeService.submit(new StudentPurgeRequest(students, 2020, null, true)))
+				.isInstanceOf(BadRequestException.class);
+		assertThatThrownBy(() -> studentPurgeService.submit(new StudentPurgeRequest(List.of(), null, null, true)))
+				.isInstanceOf(BadRequestException.class);
+		assertThatThrownBy(() -> studentPurgeService.getJob(UUID.randomUUID())).isInstanceOf(ResourceNotFoundException.class);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new AssertionError(e);
+		}
+	}
+
+	private static void join(Thread thread) {
+		try {
+			thread.join(10_000);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new AssertionError(e);
+		}
+	}
+
+	private StudentPurgeJobView awaitFinished(StudentPurgeJobView job) {
+		long deadline = System.nanoTime() + 30_000_000_000L;
+		StudentPurgeJobView current = job;
+		while (current.finishedAt() == null) {
+			assertThat(System.nanoTime()).isLessThan(deadline);
+			try {
+				Thread.sleep(20);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new AssertionError(e);
+			}
+			current = studentPurgeService.getJob(job.id());
+		}
+		return current;
+	}
+
+	private List<EnrollmentView> enroll(UUID student, int classes) {
+		String batch = UUID.randomUUID().toString().substring(0, 8);
+		return IntStream.range(0, classes)
+				.mapToObj(i -> studentService.enrollStudentInClass(student, "CLASS-" + batch + "-" + i))
+				.toList();
+	}
+
+	private void complete(List<EnrollmentView> enrollments) {
+		enrollments.forEach(enrollment ->
+				studentService.updateEnrollmentStatus(enrollment.id(), EnrollmentStatus.COMPLETED, null));
+	}
+
+	private static List<UUID> concat(List<UUID> first, List<UUID> second) {
+		return Stream.concat(first.stream(), second.stream()).toList();
+	}
+
+	private List<UUID> createStudents(int enrollmentYear, int count) {
+		String batch = UUID.randomUUID().toString();
+		List<Student> created = IntStream.range(0, count)
+				.mapToObj(i -> new Student(null, "Student " + i, "student" + i + "." + batch + "@example.com",
+						LocalDate.of(2010, 1, 1), "1 School Lane", LocalDateTime.of(enrollmentYear, 9, 1, 8, 0), null, null))
+				.toList();
+		return studentRepository.saveAll(created).stream().map(Student::getId).toList();
+	}
+}
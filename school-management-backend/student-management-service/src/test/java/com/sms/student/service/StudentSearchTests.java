@@ -0,0 +1,148 @@
+package com.sms.student.service;
+
+import com.sms.student.dto.StudentSummary;
+import com.sms.student.exception.BadRequestException;
+import com.sms.student.model.Student;
+import com.sms.student.repository.EnrollmentRepository;
+import com.sms.student.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Full-text search runs on PostgreSQL only (tsvector, pg_trgm). Needs a scratch database, the schema is
+ * created and dropped:
+ * <pre>
+ * POSTGRES_TEST_URL='jdbc:postgresql://localhost:5432/student_test?user=postgres&amp;password=postgres' ./mvnw test
+ * </pre>
+ */
+@SpringBootTest(properties = "students.search.max-candidates=20")
+@ActiveProfiles("test")
+@EnabledIfEnvironmentVariable(named = "POSTGRES_TEST_URL", matches = ".+")
+class StudentSearchTests {
+
+	@DynamicPropertySource
+	static void postgres(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", () -> System.getenv("POSTGRES_TEST_URL"));
+		registry.add("spring.datasource.username", () -> "");
+		registry.add("spring.datasource.password", () -> "");
+		registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+		registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+		registry.add("spring.sql.init.mode", () -> "always");
+		registry.add("spring.sql.init.schema-locations", () -> "classpath:db/student-search.sql,classpath:db/attendance.sql,classpath:db/changes.sql,classpath:db/enrollment-terms.sql");
+	}
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	@BeforeEach
+	void seed() {
+		enrollmentRepository.deleteAll();
+		studentRepository.deleteAll();
+		create("John Smith", "john.smith@school.test", "12 Oak Street, Springfield");
+		create("Johanna Smithers", "jo.smithers@school.test", "4 Maple Avenue, Riverside");
+		create("Mary Jones", "mary.jones@school.test", "7 Smith Road, Springfield");
+		create("Jonathan Kowalski", "jkowalski@school.test", "120 Oak Lane, Salem");
+		create("Aarav Patel", "aarav.patel@school.test", "9 Station Road, Bristol");
+	}
+
+	@Test
+	void completesTheLastWordAndRanksNameMatchesFirst() {
+		assertThat(names("john sm")).containsExactly("John Smith");
+		// Name matches (Smith, Smithers) before the address match on Smith Road
+		assertThat(names("smith")).containsExactly("Johanna Smithers", "John Smith", "Mary Jones");
+		assertThat(names("jo")).contains("John Smith", "Johanna Smithers", "Jonathan Kowalski", "Mary Jones");
+	}
+
+	@Test
+	void aTrailingSpaceEndsTheWord() {
+		assertThat(names("smith ")).containsExactly("John Smith", "Mary Jones");
+	}
+
+	@Test
+	void matchesAddresses() {
+		assertThat(names("12 oak")).containsExactly("John Smith");
+		assertThat(names("oak")).containsExactlyInAnyOrder("John Smith", "Jonathan Kowalski");
+		assertThat(names("springfield")).containsExactlyInAnyOrder("John Smith", "Mary Jones");
+	}
+
+	@Test
+	void findsNameMatchesAmongMoreAddressMatchesThanAreRanked() {
+		// Written first, so a scan of any match in table order finds them before the name match
+		for (int i = 0; i < 30; i++) {
+			create("Resident " + i, "resident" + i + "@school.test", i + " Smithfield Road, Leeds");
+		}
+		create("Zoe Smithfield", "zoe.smithfield@school.test", "3 Birch Close, York");
+
+		assertThat(names("smithfield")).hasSize(10).first().isEqualTo("Zoe Smithfield");
+		assertThat(names("smithf")).first().isEqualTo("Zoe Smithfield");
+	}
+
+	@Test
+	void correctsMisspeltWords() {
+		assertThat(names("jonh smiht")).first().isEqualTo("John Smith");
+		assertThat(names("kowalsky")).containsExactly("Jonathan Kowalski");
+	}
+
+	@Test
+	void matchesEmailPrefixes() {
+		assertThat(names("mary.j")).containsExactly("Mary Jones");
+		assertThat(names("jkowalski@")).containsExactly("Jonathan Kowalski");
+	}
+
+	@Test
+	void followsUpdatesAndDeletes() {
+		UUID id = studentRepository.findByEmail("aarav.patel@school.test").orElseThrow().getId();
+		Student renamed = student("Aarav Okonkwo", "aarav.patel@school.test", "9 Station Road, Bristol");
+		studentService.updateStudent(id, renamed, null);
+
+		assertThat(names("patel")).isEmpty();
+		assertThat(names("okonk")).containsExactly("Aarav Okonkwo");
+		// The new word is known to the spelling correction as well
+		assertThat(names("okonkow")).containsExactly("Aarav Okonkwo");
+
+		studentService.deleteStudent(id);
+		assertThat(names("okonkwo")).isEmpty();
+	}
+
+	@Test
+	void rejectsQueriesWithoutWords() {
+		assertThatThrownBy(() -> studentService.searchStudents(" -- ", null)).isInstanceOf(BadRequestException.class);
+	}
+
+	private List<String> names(String query) {
+		return studentService.searchStudents(query, 10).stream().map(StudentSummary::name).toList();
+	}
+
+	private void create(String name, String email, String address) {
+		studentService.createStudent(student(name, email, address));
+	}
+
+	private static Student student(String name, String email, String address) {
+		Student student = new Student();
+		student.setName(name);
+		student.setEmail(email);
+		student.setDob(LocalDate.of(2010, 5, 17));
+		student.setAddress(address);
+		return student;
+	}
+
+}
@@ -0,0 +1,75 @@
+package com.sms.student.service;
+
+import com.sms.student.dto.EnrollmentView;
+import com.sms.student.dto.StudentDetail;
+import com.sms.student.model.Student;
+import com.sms.student.repository.StudentRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards against the N+1 / lazy-loading regression on Student.enrollments: reads must issue a fixed
+ * number of SQL statements no matter how many enrollments a student has.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class StudentServiceQueryCountTests {
+
+	private static final int ENROLLMENTS = 40;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	private UUID studentId;
+
+	@BeforeEach
+	void setUp() {
+		studentRepository.deleteAll();
+		Student student = new Student(null, "Ada Lovelace", "ada@example.com", LocalDate.of(2010, 1, 1),
+				"12 Analytical Way", LocalDateTime.now(), null, null);
+		studentId = studentService.createStudent(student).id();
+		for (int i = 0; i < ENROLLMENTS; i++) {
+			studentService.enrollStudentInClass(studentId, "CLASS-" + i);
+		}
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void getStudentByIdLoadsStudentAndEnrollmentsInOneStatement() {
+		StudentDetail detail = studentService.getStudentById(studentId);
+
+		assertThat(detail.enrollments()).hasSize(ENROLLMENTS);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void getEnrollmentsByStudentUsesTwoStatements() {
+		List<EnrollmentView> enrollments = studentService.getEnrollmentsByStudent(studentId);
+
+		assertThat(enrollments).hasSize(ENROLLMENTS).allMatch(e -> studentId.equals(e.studentId()));
+		// existence check + projection query
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+}
@@ -0,0 +1,157 @@
+package com.sms.student.terms;
+
+import com.sms.student.dto.EnrollmentView;
+import com.sms.student.dto.RosterExpression;
+import com.sms.student.model.EnrollmentStatus;
+import com.sms.student.model.Student;
+import com.sms.student.repository.ClassCapacityRepository;
+import com.sms.student.repository.ClosedEnrollmentRepository;
+import com.sms.student.repository.EnrollmentRepository;
+import com.sms.student.repository.StudentRepository;
+import com.sms.student.service.StudentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Closed enrollments of past academic years move to enrollments_closed in chunks; open ones and the current
+ * year's stay. They are fed as removed enrollments, the seats they held go to the waitlists, and purges still see them.
+ */
+@SpringBootTest(properties = "students.terms.archive-chunk-size=2")
+@ActiveProfiles("test")
+class ClosedEnrollmentArchiverTests {
+
+	@Autowired
+	private ClosedEnrollmentArchiver archiver;
+
+	@Autowired
+	private AcademicCalendar academicCalendar;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	@Autowired
+	private ClosedEnrollmentRepository closedEnrollmentRepository;
+
+	@Autowired
+	private ClassCapacityRepository classCapacityRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		enrollmentRepository.deleteAll();
+		closedEnrollmentRepository.deleteAll();
+		studentRepository.deleteAll();
+		classCapacityRepository.deleteAll();
+		jdbcTemplate.update("delete from enrollments_archive");
+		jdbcTemplate.update("delete from students_archive");
+	}
+
+	@Test
+	void closedEnrollmentsOfPastYearsMoveOutAndHandTheirSeatsOn() {
+		List<UUID> students = createStudents(3);
+		UUID graduate = students.get(0);
+		UUID continuing = students.get(1);
+		UUID waiting = students.get(2);
+		studentService.setClassCapacity("MATH-101", 2);
+		complete(studentService.enrollStudentInClass(graduate, "MATH-101"));
+		studentService.enrollStudentInClass(continuing, "MATH-101");
+		EnrollmentView waitlisted = studentService.enrollStudentInClass(waiting, "MATH-101");
+		studentService.updateEnrollmentStatus(studentService.enrollStudentInClass(graduate, "ART-101").id(),
+				EnrollmentStatus.DROPPED, null);
+		complete(studentService.enrollStudentInClass(graduate, "HIST-101"));
+		complete(studentService.enrollStudentInClass(continuing, "HIST-101"));
+		int lastYear = academicCalendar.currentYear() - 1;
+		// Everything but the continuing student's history class was last year
+		jdbcTemplate.update("update enrollments set academic_year = ? where student_id = ? or class_id = ?",
+				lastYear, graduate, "MATH-101");
+		long graduateVersion = studentService.getStudentVersion(graduate);
+		long lastEvent = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from change_events", Long.class);
+
+		archiver.archiveClosedEnrollments();
+
+		assertThat(studentService.getEnrollmentsByStudent(graduate)).isEmpty();
+		List<EnrollmentView> closed = studentService.getClosedEnrollmentsByStudent(graduate);
+		assertThat(closed).extracting(EnrollmentView::classId).containsExactlyInAnyOrder("MATH-101", "ART-101", "HIST-101");
+		assertThat(closed).allSatisfy(enrollment -> {
+			assertThat(enrollment.academicYear()).isEqualTo(lastYear);
+			assertThat(enrollment.seatNumber()).isNull();
+		});
+		assertThat(studentService.getStudentVersion(graduate)).isGreaterThan(graduateVersion);
+		// The change feed sees them leave, as the student's representation does
+		assertThat(jdbcTemplate.queryForList("select payload from change_events where id > ? and aggregate_id = ? "
+				+ "and event_type = 'ENROLLMENT_CHANGED'", String.class, lastEvent, graduate.toString()))
+				.hasSize(3)
+				.allSatisfy(payload -> assertThat(payload).contains("\"status\":null"));
+		// Still active, or closed this year
+		assertThat(studentService.getEnrollmentsByStudent(continuing)).extracting(EnrollmentView::status)
+				.containsExactlyInAnyOrder(EnrollmentStatus.ACTIVE, EnrollmentStatus.COMPLETED);
+		assertThat(studentService.getClosedEnrollmentsByStudent(continuing)).isEmpty();
+		// The graduate's seat went to the waitlist
+		assertThat(studentService.getEnrollmentsByStudent(waiting)).singleElement()
+				.satisfies(enrollment -> {
+					assertThat(enrollment.id()).isEqualTo(waitlisted.id());
+					assertThat(enrollment.status()).isEqualTo(EnrollmentStatus.ACTIVE);
+				});
+		assertThat(studentService.queryRoster(RosterExpression.inClasses(List.of("MATH-101"), null), null, null).studentIds())
+				.containsExactlyInAnyOrder(continuing, waiting);
+
+		// Nothing left to move
+		archiver.archiveClosedEnrollments();
+		assertThat(closedEnrollmentRepository.count()).isEqualTo(3);
+	}
+
+	@Test
+	void purgesCoverClosedEnrollments() {
+		List<UUID> students = createStudents(2);
+		UUID leaver = students.get(0);
+		complete(studentService.enrollStudentInClass(leaver, "GEO-101"));
+		complete(studentService.enrollStudentInClass(leaver, "ECON-101"));
+		complete(studentService.enrollStudentInClass(students.get(1), "GEO-101"));
+		jdbcTemplate.update("update enrollments set academic_year = ? where student_id = ?",
+				academicCalendar.currentYear() - 1, leaver);
+		archiver.archiveClosedEnrollments();
+
+		// All of the leaver's enrollments are closed ones
+		assertThat(studentRepository.countPurgeCandidates(null, EnrollmentStatus.COMPLETED)).isEqualTo(2);
+		assertThat(studentRepository.countPurgeCandidates(null, EnrollmentStatus.DROPPED)).isZero();
+
+		studentService.archiveStudent(leaver);
+
+		assertThat(closedEnrollmentRepository.count()).isZero();
+		assertThat(jdbcTemplate.queryForObject("select count(*) from enrollments_archive where student_id = ? and academic_year = ?",
+				Long.class, leaver, academicCalendar.currentYear() - 1)).isEqualTo(2);
+	}
+
+	private void complete(EnrollmentView enrollment) {
+		studentService.updateEnrollmentStatus(enrollment.id(), EnrollmentStatus.COMPLETED, null);
+	}
+
+	private List<UUID> createStudents(int count) {
+		String batch = UUID.randomUUID().toString();
+		List<Student> created = IntStream.range(0, count)
+				.mapToObj(i -> new Student(null, "Student " + i, "student" + i + "." + batch + "@example.com",
+						LocalDate.of(2010, 1, 1), "1 School Lane", LocalDateTime.now(), null, null))
+				.toList();
+		return studentRepository.saveAll(created).stream().map(Student::getId).toList();
+	}
+}
@@ -0,0 +1,26 @@
+-- db/attendance.sql for the embedded test database: the same tables, without partitioning
+CREATE TABLE IF NOT EXISTS attendance_marks (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    class_id varchar(255) NOT NULL,
+    attendance_date date NOT NULL,
+    period smallint NOT NULL,
+    student_id uuid NOT NULL,
+    status varchar(16) NOT NULL,
+    recorded_at timestamp(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_attendance_marks_class_date ON attendance_marks (class_id, attendance_date);
+
+CREATE TABLE IF NOT EXISTS attendance_daily_rollups (
+    class_id varchar(255) NOT NULL,
+    attendance_date date NOT NULL,
+    student_id uuid NOT NULL,
+    periods integer NOT NULL,
+    present integer NOT NULL,
+    late integer NOT NULL,
+    absent integer NOT NULL,
+    excused integer NOT NULL,
+    PRIMARY KEY (class_id, attendance_date, student_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_attendance_daily_rollups_student ON attendance_daily_rollups (student_id, attendance_date);
@@ -3,8 +3,10 @@ package com.schoolmgmt.teacherstaff;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class TeacherstaffApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,15 @@
+package com.schoolmgmt.teacherstaff.changes;
+
+import com.schoolmgmt.teacherstaff.dto.ChangeEvent;
+
+import java.util.List;
+
+/**
+ * Where ChangeRelay publishes change events, in position order. publish returns once the sink has the events
+ * (or throws), and only then are their positions committed; a batch that failed, or whose commit failed after
+ * publishing, is published again. Delivery is therefore at least once: consumers deduplicate on the event id.
+ */
+public interface ChangeEventSink {
+
+    void publish(List<ChangeEvent> events);
+}
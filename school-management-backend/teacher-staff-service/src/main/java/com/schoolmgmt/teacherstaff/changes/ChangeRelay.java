@@ -0,0 +1,103 @@
+package com.schoolmgmt.teacherstaff.changes;
+
+import com.schoolmgmt.teacherstaff.dto.ChangeEvent;
+import com.schoolmgmt.teacherstaff.dto.ChangeRelayState;
+import com.schoolmgmt.teacherstaff.repository.ChangeEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves committed events from the outbox to the feed and the sink. Each round, under the lock on the relay row,
+ * takes up to relay-batch-size events without a position, numbers them after the last position handed out,
+ * publishes them and commits: positions only ever grow, so a consumer that has read up to a position has seen
+ * everything before it. An event committed late (by a long transaction) gets a position when it is found, not a
+ * lower one that consumers may already have passed.
+ */
+@Component
+public class ChangeRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeRelay.class);
+
+    @Autowired
+    private ChangeEventRepository changeEventRepository;
+
+    @Autowired
+    private ChangeEventSink changeEventSink;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${teachers.changes.relay-batch-size:1000}")
+    private int batchSize;
+
+    @Value("${teachers.changes.retention:P7D}")
+    private Duration retention;
+
+    private Counter relayed;
+
+    @PostConstruct
+    void registerMetrics() {
+        relayed = Counter.builder("changes.relayed")
+                .description("Change events published to the feed and the sink")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${teachers.changes.relay-interval:PT0.5S}")
+    public void relay() {
+        while (relayBatch() == batchSize) {
+            // a full batch: there may be more waiting
+        }
+    }
+
+    private int relayBatch() {
+        return transactionTemplate.execute(status -> {
+            ChangeRelayState state = changeEventRepository.lockRelay();
+            List<ChangeEvent> events = changeEventRepository.findUnrelayed(batchSize);
+            if (events.isEmpty()) {
+                return 0;
+            }
+            changeEventRepository.assignPositions(events, state.lastPosition() + 1, LocalDateTime.now());
+            List<ChangeEvent> numbered = new ArrayList<>(events.size());
+            long position = state.lastPosition();
+            for (ChangeEvent event : events) {
+                numbered.add(new ChangeEvent(event.id(), ++position, event.aggregateType(), event.aggregateId(),
+                        event.type(), event.payload(), event.occurredAt()));
+            }
+            changeEventSink.publish(numbered);
+            changeEventRepository.updateRelay(new ChangeRelayState(position, state.prunedThrough()));
+            relayed.increment(events.size());
+            return events.size();
+        });
+    }
+
+    // Consumers that fall further behind than the retention period get 410 from the feed and resync
+    @Scheduled(fixedDelayString = "${teachers.changes.prune-interval:PT1H}")
+    public void prune() {
+        transactionTemplate.executeWithoutResult(status -> {
+            ChangeRelayState state = changeEventRepository.lockRelay();
+            Long through = changeEventRepository.findLastRelayedBefore(LocalDateTime.now().minus(retention));
+            if (through == null || through <= state.prunedThrough()) {
+                return;
+            }
+            int deleted = changeEventRepository.deleteThrough(through);
+            changeEventRepository.updateRelay(new ChangeRelayState(state.lastPosition(), through));
+            log.info("Pruned {} change events up to position {}", deleted, through);
+        });
+    }
+}
@@ -0,0 +1,8 @@
+package com.schoolmgmt.teacherstaff.changes;
+
+// What happened to the teacher a change event is about
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
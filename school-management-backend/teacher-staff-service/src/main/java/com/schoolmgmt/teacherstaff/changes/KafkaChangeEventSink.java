@@ -0,0 +1,52 @@
+package com.schoolmgmt.teacherstaff.changes;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.schoolmgmt.teacherstaff.dto.ChangeEvent;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Sends each event to the topic as JSON, keyed by its aggregate so that a teacher's events stay in order on one
+// partition; returns once the broker has acknowledged all of the batch
+class KafkaChangeEventSink implements ChangeEventSink {
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final String topic;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+
+    KafkaChangeEventSink(KafkaTemplate<String, String> kafkaTemplate, String topic, ObjectMapper objectMapper, Duration timeout) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.topic = topic;
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void publish(List<ChangeEvent> events) {
+        CompletableFuture<?>[] sent = new CompletableFuture<?>[events.size()];
+        for (int i = 0; i < sent.length; i++) {
+            ChangeEvent event = events.get(i);
+            try {
+                sent[i] = kafkaTemplate.send(topic, event.aggregateType() + ":" + event.aggregateId(),
+                        objectMapper.writeValueAsString(event));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Cannot serialize change event " + event.id(), e);
+            }
+        }
+        try {
+            CompletableFuture.allOf(sent).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while publishing change events", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Failed to publish " + events.size() + " change events to " + topic, e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.schoolmgmt.teacherstaff.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+@Configuration
+// Outside the transaction interceptor: a cache hit returns without opening a transaction or taking a connection.
+// Only the service timers (ObservabilityConfig) wrap it.
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE + 1)
+public class CacheConfig {
+
+    public static final String TEACHERS = "teachers";
+    public static final String TEACHERS_BY_EMAIL = "teachersByEmail";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${teachers.cache.spec}") String spec,
+                                     @Value("${teachers.cache.eviction-hold:PT10S}") Duration evictionHold) {
+        CaffeineCacheManager caffeine = new CaffeineCacheManager(TEACHERS, TEACHERS_BY_EMAIL) {
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return new EvictionHoldCache(name, cache, isAllowNullValues(), evictionHold);
+            }
+        };
+        caffeine.setCaffeine(Caffeine.from(spec).recordStats());
+        // Evictions issued inside a transaction are applied after it commits; a read that started before
+        // then cannot put the old row back for evictionHold afterwards (see EvictionHoldCache)
+        return new TransactionAwareCacheManagerProxy(caffeine);
+    }
+}
@@ -0,0 +1,25 @@
+package com.schoolmgmt.teacherstaff.config;
+
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * What AOT processing cannot work out from the bean definitions, for the native image (-Pnative). Entities,
+ * repositories and the request/response types of the controllers are covered by Spring itself; Lombok
+ * leaves nothing to reflect on at runtime.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.Hints.class)
+public class NativeHintsConfig {
+
+    static class Hints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // spring.sql.init.schema-locations
+            hints.resources().registerPattern("db/*.sql");
+        }
+    }
+}
@@ -15,7 +15,14 @@ public class OpenApiConfig {
     public OpenAPI teacherStaffOpenAPI() {
         return new OpenAPI()
                 .info(new Info().title("Teacher Staff API (School Management)")
-                        .description("API for managing teachers and staff within the school management system.")
+                        .description("API for managing teachers and staff within the school management system."
+                                + "\n\n## Conditional requests\n\n"
+                                + "GET responses carry a weak ETag, W/\"n\", where n is the resource's version. The same version is served "
+                                + "as JSON or CBOR, compressed or not, so the tag names the version rather than the bytes.\n\n"
+                                + "Updates accept that tag in If-Match as returned (W/\"n\") or in its strong form (\"n\"); both match version n. "
+                                + "This deliberately differs from RFC 9110, whose strong comparison for If-Match would never match the weak tags "
+                                + "this API hands out; protection against lost updates only needs the version. "
+                                + "A tag for any other version fails with 412 Precondition Failed.")
                         .version("v1.0.0")
                         .license(new License().name("Apache 2.0").url("http://springdoc.org")))
                 .externalDocs(new ExternalDocumentation()
@@ -1,6 +1,12 @@
 package com.schoolmgmt.teacherstaff.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.schoolmgmt.teacherstaff.dto.BulkUpdateCount;
+import com.schoolmgmt.teacherstaff.dto.SlicePage;
+import com.schoolmgmt.teacherstaff.dto.TeacherDetail;
+import com.schoolmgmt.teacherstaff.dto.TeacherSearchCriteria;
 import com.schoolmgmt.teacherstaff.model.Teacher;
+import com.schoolmgmt.teacherstaff.patch.MergePatch;
 import com.schoolmgmt.teacherstaff.service.TeacherService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,11 +17,16 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/teachers")
@@ -25,10 +36,12 @@ public class TeacherController {
     @Autowired
     private TeacherService teacherService;
 
-    @Operation(summary = "Get all teachers", description = "Retrieves a list of all teachers currently in the system.")
+    @Operation(summary = "Get all teachers", description = "Retrieves a list of all teachers currently in the system. "
+            + "Send Accept: application/cbor for the binary form.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Successfully retrieved list of teachers",
-                    content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = Teacher.class)))),
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved list of teachers", content = {
+                    @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = Teacher.class))),
+                    @Content(mediaType = "application/cbor", array = @ArraySchema(schema = @Schema(implementation = Teacher.class)))}),
             @ApiResponse(responseCode = "500", description = "Internal server error during teacher retrieval")
     })
     @GetMapping
@@ -36,18 +49,59 @@ public class TeacherController {
         return teacherService.getAllTeachers();
     }
 
-    @Operation(summary = "Get teacher by ID", description = "Retrieves a single teacher by their unique ID.")
+    @Operation(summary = "Search teachers",
+            description = "Pages through teachers matching all of the given filters, ordered by ID. Omitted filters are not applied. "
+                    + "No total count is returned; keep requesting the next page while hasNext is true.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved a page of matching teachers",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = SlicePage.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid filter or paging parameter")
+    })
+    @GetMapping("/search")
+    public SlicePage<Teacher> searchTeachers(
+            @Parameter(description = "Exact subject, e.g. Mathematics")
+            @RequestParam(required = false) String subject,
+            @Parameter(description = "Only active (true) or inactive (false) teachers")
+            @RequestParam(required = false) Boolean active,
+            @Parameter(description = "Case-insensitive prefix of the first or last name")
+            @RequestParam(required = false) String namePrefix,
+            @Parameter(description = "Joined on or after this date (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate joinedFrom,
+            @Parameter(description = "Joined on or before this date (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate joinedTo,
+            @Parameter(description = "Zero-based page number")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size; defaults to 20 and is capped at 200")
+            @RequestParam(required = false) Integer size) {
+        TeacherSearchCriteria criteria = new TeacherSearchCriteria(subject, active, namePrefix, joinedFrom, joinedTo);
+        return SlicePage.from(teacherService.searchTeachers(criteria, page, size));
+    }
+
+    @Operation(summary = "Get teacher by ID", description = "Retrieves a single teacher by their unique ID. The ETag is the "
+            + "teacher's version; send it back in If-None-Match to get 304 Not Modified while nothing has changed.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Teacher found",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Teacher.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TeacherDetail.class))),
+            @ApiResponse(responseCode = "304", description = "Teacher unchanged since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Teacher not found with the given ID")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<Teacher> getTeacherById(
+    public ResponseEntity<TeacherDetail> getTeacherById(
             @Parameter(description = "ID of the teacher to retrieve", required = true)
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest request) {
+        // Decided from the version alone, before the teacher is loaded
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<Long> version = teacherService.getTeacherVersion(id);
+            if (version.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (request.checkNotModified(ETags.of(version.get()))) {
+                return null;
+            }
+        }
         return teacherService.getTeacherById(id)
-                .map(ResponseEntity::ok)
+                .map(teacher -> ResponseEntity.ok().eTag(ETags.of(teacher.version())).body(teacher))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
@@ -66,24 +120,79 @@ public class TeacherController {
         return new ResponseEntity<>(createdTeacher, HttpStatus.CREATED);
     }
 
-    @Operation(summary = "Update an existing teacher", description = "Updates the details of an existing teacher by ID.")
+    @Operation(summary = "Update an existing teacher", description = "Updates the details of an existing teacher by ID. "
+            + "Send the ETag of the copy being edited in If-Match to update only if nobody else has changed it since.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Teacher successfully updated",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = Teacher.class))),
             @ApiResponse(responseCode = "404", description = "Teacher not found with the given ID"),
-            @ApiResponse(responseCode = "400", description = "Invalid teacher details supplied")
+            @ApiResponse(responseCode = "400", description = "Invalid teacher details supplied"),
+            @ApiResponse(responseCode = "409", description = "Teacher changed concurrently during an unconditional update"),
+            @ApiResponse(responseCode = "412", description = "Teacher has changed since the ETag in If-Match")
     })
     @PutMapping("/{id}")
     public ResponseEntity<Teacher> updateTeacher(
             @Parameter(description = "ID of the teacher to update", required = true)
             @PathVariable Long id,
+            @Parameter(description = ETags.IF_MATCH)
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Parameter(description = "Updated teacher object", required = true)
             @RequestBody Teacher teacherDetails) {
-        return teacherService.updateTeacher(id, teacherDetails)
-                .map(ResponseEntity::ok)
+        return teacherService.updateTeacher(id, teacherDetails, ETags.expectedVersion(ifMatch))
+                .map(teacher -> ResponseEntity.ok().eTag(ETags.of(teacher.getVersion())).body(teacher))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    @Operation(summary = "Partially update a teacher", description = "JSON Merge Patch: send only the fields to change; the "
+            + "others keep their values, and only changed columns are written. firstName, lastName, email and active cannot "
+            + "be removed (null). Send the ETag of the copy being edited in If-Match to update only if nobody else has changed it since.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Teacher successfully updated",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Teacher.class))),
+            @ApiResponse(responseCode = "404", description = "Teacher not found with the given ID"),
+            @ApiResponse(responseCode = "400", description = "Not a JSON object, a field that cannot be patched or removed, or an invalid value"),
+            @ApiResponse(responseCode = "409", description = "Teacher changed concurrently during an unconditional update"),
+            @ApiResponse(responseCode = "412", description = "Teacher has changed since the ETag in If-Match")
+    })
+    @PatchMapping(value = "/{id}", consumes = MergePatch.MEDIA_TYPE)
+    public ResponseEntity<Teacher> patchTeacher(
+            @Parameter(description = "ID of the teacher to update", required = true)
+            @PathVariable Long id,
+            @Parameter(description = ETags.IF_MATCH)
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Parameter(description = "Fields to change", required = true)
+            @RequestBody JsonNode patch) {
+        return teacherService.patchTeacher(id, patch, ETags.expectedVersion(ifMatch))
+                .map(teacher -> ResponseEntity.ok().eTag(ETags.of(teacher.getVersion())).body(teacher))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Update many teachers at once", description = "JSON Merge Patch of subject and/or active, applied with "
+            + "set-based updates to every teacher matching all of the given filters (the same as for search), e.g. "
+            + "subject=Latin with {\"active\": false}. At least one filter is required.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Number of teachers updated",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkUpdateCount.class))),
+            @ApiResponse(responseCode = "400", description = "No filter, or a field that cannot be patched in bulk")
+    })
+    @PatchMapping(consumes = MergePatch.MEDIA_TYPE)
+    public BulkUpdateCount patchTeachers(
+            @Parameter(description = "Exact subject, e.g. Mathematics")
+            @RequestParam(required = false) String subject,
+            @Parameter(description = "Only active (true) or inactive (false) teachers")
+            @RequestParam(required = false) Boolean active,
+            @Parameter(description = "Case-insensitive prefix of the first or last name")
+            @RequestParam(required = false) String namePrefix,
+            @Parameter(description = "Joined on or after this date (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate joinedFrom,
+            @Parameter(description = "Joined on or before this date (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate joinedTo,
+            @Parameter(description = "Fields to change", required = true)
+            @RequestBody JsonNode patch) {
+        TeacherSearchCriteria criteria = new TeacherSearchCriteria(subject, active, namePrefix, joinedFrom, joinedTo);
+        return teacherService.patchTeachers(criteria, patch);
+    }
+
     @Operation(summary = "Delete a teacher", description = "Deletes a teacher record from the system by ID.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Teacher successfully deleted"),
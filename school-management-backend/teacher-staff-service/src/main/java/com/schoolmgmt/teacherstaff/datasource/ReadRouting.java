@@ -0,0 +1,54 @@
+package com.schoolmgmt.teacherstaff.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Where the read-only transactions of the current thread go. They go to a replica unless the thread is pinned
+ * to the primary: for the rest of a request once it has committed a write, for all of a request whose client
+ * wrote shortly before (see ReadYourWritesFilter), and around work that must not see stale rows (onPrimary).
+ */
+public final class ReadRouting {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    // Set by ReadYourWritesFilter for the duration of a request
+    private static final ThreadLocal<Runnable> WRITE_LISTENER = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    static boolean isPinnedToPrimary() {
+        return Boolean.TRUE.equals(PINNED.get());
+    }
+
+    // Runs the work with its read-only transactions on the primary
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = PINNED.get();
+        PINNED.set(true);
+        try {
+            return work.get();
+        } finally {
+            PINNED.set(previous);
+        }
+    }
+
+    // Records that the current request has committed a write, so its client reads from the primary for a while.
+    // Does nothing outside a request.
+    static void written() {
+        Runnable listener = WRITE_LISTENER.get();
+        if (listener != null) {
+            PINNED.set(true);
+            listener.run();
+        }
+    }
+
+    static void beginRequest(boolean pinned, Runnable writeListener) {
+        PINNED.set(pinned);
+        WRITE_LISTENER.set(writeListener);
+    }
+
+    static void endRequest() {
+        PINNED.remove();
+        WRITE_LISTENER.remove();
+    }
+}
@@ -0,0 +1,70 @@
+package com.schoolmgmt.teacherstaff.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Read-your-writes across requests. A request that commits a write sets a cookie holding the time until which
+ * its client's reads go to the primary; by then every replica still in use has replayed the write, since
+ * replicas further behind than max-lag are not read from. The cookie is per client (browser or HTTP client
+ * session), so other clients keep reading from the replicas.
+ */
+class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "sms-teachers-primary-reads-until";
+
+    private final Duration window;
+
+    ReadYourWritesFilter(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ReadRouting.beginRequest(wroteRecently(request), new Runnable() {
+            private boolean sent;
+
+            @Override
+            public void run() {
+                if (!sent && !response.isCommitted()) {
+                    Cookie cookie = new Cookie(COOKIE, Long.toString(System.currentTimeMillis() + window.toMillis()));
+                    cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+                    cookie.setPath("/");
+                    cookie.setHttpOnly(true);
+                    response.addCookie(cookie);
+                    sent = true;
+                }
+            }
+        });
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadRouting.endRequest();
+        }
+    }
+
+    private static boolean wroteRecently(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,73 @@
+package com.schoolmgmt.teacherstaff.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+// One replica's pool and what its last health check found. Down until the first check succeeds.
+final class Replica {
+
+    private static final Logger log = LoggerFactory.getLogger(Replica.class);
+
+    private final HikariDataSource pool;
+    private final Counter reads;
+
+    private volatile boolean healthy;
+    private volatile Duration lag;
+
+    Replica(HikariDataSource pool, Counter reads) {
+        this.pool = pool;
+        this.reads = reads;
+    }
+
+    String name() {
+        return pool.getPoolName();
+    }
+
+    HikariDataSource pool() {
+        return pool;
+    }
+
+    Counter reads() {
+        return reads;
+    }
+
+    boolean isUsable(Duration maxLag) {
+        Duration current = lag;
+        return healthy && current != null && current.compareTo(maxLag) <= 0;
+    }
+
+    int activeConnections() {
+        HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+        return bean == null ? 0 : bean.getActiveConnections();
+    }
+
+    // Seconds behind the primary as last measured; NaN while down
+    double lagSeconds() {
+        Duration current = lag;
+        return healthy && current != null ? current.toNanos() / 1e9 : Double.NaN;
+    }
+
+    void up(Duration lag) {
+        if (!healthy) {
+            log.info("Replica {} is up, {} ms behind the primary", name(), lag.toMillis());
+        }
+        this.lag = lag;
+        healthy = true;
+    }
+
+    void down(Exception cause) {
+        if (healthy) {
+            log.warn("Replica {} is down; reads go to the other replicas or the primary: {}", name(), cause.toString());
+        }
+        healthy = false;
+    }
+
+    void close() {
+        pool.close();
+    }
+}
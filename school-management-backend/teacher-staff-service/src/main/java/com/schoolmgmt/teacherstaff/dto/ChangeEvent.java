@@ -0,0 +1,21 @@
+package com.schoolmgmt.teacherstaff.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.schoolmgmt.teacherstaff.changes.ChangeType;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change to a teacher, as a row of the change-feed outbox and as an entry of the feed. position
+ * orders the feed and is assigned when the relay picks the event up (null before); id identifies the event, and
+ * is what consumers deduplicate on when a sink delivers it more than once. payload is JSON: the teacher
+ * after the change for CREATED and UPDATED, null for DELETED.
+ */
+public record ChangeEvent(Long id,
+                          Long position,
+                          String aggregateType,
+                          String aggregateId,
+                          ChangeType type,
+                          @JsonRawValue String payload,
+                          LocalDateTime occurredAt) {
+}
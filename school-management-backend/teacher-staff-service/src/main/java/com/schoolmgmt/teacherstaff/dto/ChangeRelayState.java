@@ -0,0 +1,5 @@
+package com.schoolmgmt.teacherstaff.dto;
+
+// The last position the relay handed out, and the last one pruned past retention
+public record ChangeRelayState(long lastPosition, long prunedThrough) {
+}
@@ -0,0 +1,16 @@
+package com.schoolmgmt.teacherstaff.dto;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+// One page of results without a total count; request page + 1 while hasNext is true
+public record SlicePage<T>(List<T> content,
+                           int page,
+                           int size,
+                           boolean hasNext) {
+
+    public static <T> SlicePage<T> from(Slice<T> slice) {
+        return new SlicePage<>(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext());
+    }
+}
@@ -0,0 +1,21 @@
+package com.schoolmgmt.teacherstaff.dto;
+
+import com.schoolmgmt.teacherstaff.model.Teacher;
+
+import java.time.LocalDate;
+
+// Read model for a single teacher: what the lookups return and the caches hold, never the managed entity
+public record TeacherDetail(Long id,
+                            String firstName,
+                            String lastName,
+                            String email,
+                            String subject,
+                            LocalDate dateOfJoining,
+                            boolean active,
+                            Long version) {
+
+    public static TeacherDetail from(Teacher teacher) {
+        return new TeacherDetail(teacher.getId(), teacher.getFirstName(), teacher.getLastName(), teacher.getEmail(),
+                teacher.getSubject(), teacher.getDateOfJoining(), teacher.isActive(), teacher.getVersion());
+    }
+}
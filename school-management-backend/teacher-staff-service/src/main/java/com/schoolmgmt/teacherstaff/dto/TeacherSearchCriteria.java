@@ -0,0 +1,17 @@
+package com.schoolmgmt.teacherstaff.dto;
+
+import java.time.LocalDate;
+
+// Filters for /api/teachers/search and bulk PATCH /api/teachers; null (or blank) fields are not applied
+public record TeacherSearchCriteria(String subject,
+                                    Boolean active,
+                                    String namePrefix,
+                                    LocalDate joinedFrom,
+                                    LocalDate joinedTo) {
+
+    // Whether no filter is applied, so that every teacher matches
+    public boolean matchesAll() {
+        return (subject == null || subject.isBlank()) && active == null && (namePrefix == null || namePrefix.isBlank())
+                && joinedFrom == null && joinedTo == null;
+    }
+}
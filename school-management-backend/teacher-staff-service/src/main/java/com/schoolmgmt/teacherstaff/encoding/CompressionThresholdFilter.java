@@ -0,0 +1,89 @@
+package com.schoolmgmt.teacherstaff.encoding;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Makes server.compression.min-response-size apply to controller responses. Tomcat only honours it when it
+ * knows the Content-Length, which it works out itself when the whole body is still in its buffer at the end
+ * of the request. Spring's message converters flush after writing, which commits the response without a
+ * length, so every body was compressed however small. Flushes are therefore ignored until the request
+ * goes async: streamed responses (NDJSON, CSV) flush as before.
+ */
+class CompressionThresholdFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        chain.doFilter(request, new HttpServletResponseWrapper(response) {
+
+            private ServletOutputStream outputStream;
+
+            @Override
+            public ServletOutputStream getOutputStream() throws IOException {
+                if (outputStream == null) {
+                    outputStream = new DeferredFlushOutputStream(request, super.getOutputStream());
+                }
+                return outputStream;
+            }
+
+            @Override
+            public void flushBuffer() throws IOException {
+                if (request.isAsyncStarted()) {
+                    super.flushBuffer();
+                }
+            }
+        });
+    }
+
+    private static final class DeferredFlushOutputStream extends ServletOutputStream {
+
+        private final HttpServletRequest request;
+        private final ServletOutputStream delegate;
+
+        DeferredFlushOutputStream(HttpServletRequest request, ServletOutputStream delegate) {
+            this.request = request;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (request.isAsyncStarted()) {
+                delegate.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.schoolmgmt.teacherstaff.encoding;
+
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.UUID;
+
+/**
+ * Compact encodings for large responses: CBOR for clients that ask for it in Accept (JSON stays the default),
+ * and gzip for clients that accept it (server.compression.*). Tomcat has no brotli encoder; that is left to
+ * the proxy in front. Responses to GETs vary by Accept.
+ */
+@Configuration
+public class ResponseEncodingConfig {
+
+    // Replaces the CBOR converter Spring MVC would add on its own, which ignores spring.jackson.* and writes
+    // dates as arrays. Boot keeps it in that converter's place, after JSON, so Accept: */* still gets JSON.
+    // UUIDs stay strings rather than CBOR byte strings, so both encodings carry the same document.
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory())
+                .serializerByType(UUID.class, ToStringSerializer.instance)
+                .build());
+    }
+
+    @Bean
+    VaryByAcceptFilter varyByAcceptFilter() {
+        return new VaryByAcceptFilter();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "server.compression.enabled", havingValue = "true")
+    CompressionThresholdFilter compressionThresholdFilter() {
+        return new CompressionThresholdFilter();
+    }
+}
@@ -1,14 +1,23 @@
 package com.schoolmgmt.teacherstaff.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.Data; // From Lombok for getters/setters/toString/equals/hashCode
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "teachers")
+@Table(name = "teachers", indexes = {
+        // Backing indexes for /api/teachers/search; the lower(name) prefix indexes live in db/teacher-search-indexes.sql
+        @Index(name = "idx_teachers_subject_active", columnList = "subject, active"),
+        @Index(name = "idx_teachers_active_id", columnList = "active, id"),
+        @Index(name = "idx_teachers_date_of_joining", columnList = "date_of_joining")
+})
+@DynamicUpdate // Updates set only the columns that changed
 @Data // Generates getters, setters, toString, equals, hashCode
 @NoArgsConstructor // Generates no-arg constructor
 @AllArgsConstructor // Generates constructor with all fields
@@ -33,4 +42,11 @@ public class Teacher {
 
     @Column(nullable = false)
     private boolean active = true; // Default to active
+
+    // Optimistic lock and ETag source; ignored in request bodies (send If-Match instead)
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
 }
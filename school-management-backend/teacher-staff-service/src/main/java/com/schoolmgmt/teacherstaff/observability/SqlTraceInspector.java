@@ -0,0 +1,35 @@
+package com.schoolmgmt.teacherstaff.observability;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ClassUtils;
+
+// Sees every statement Hibernate prepares (a JDBC batch counts once); JdbcTemplate work such as COPY is not seen.
+// Runs after the inspector configured in hibernate.session_factory.statement_inspector, if there is one.
+class SqlTraceInspector implements StatementInspector {
+
+    private final StatementInspector delegate;
+
+    private SqlTraceInspector(StatementInspector delegate) {
+        this.delegate = delegate;
+    }
+
+    // The setting may hold an inspector, its class or its class name
+    static SqlTraceInspector wrapping(Object configured) {
+        if (configured == null || configured instanceof StatementInspector) {
+            return new SqlTraceInspector((StatementInspector) configured);
+        }
+        Class<?> type = configured instanceof Class<?> c ? c
+                : ClassUtils.resolveClassName(configured.toString().trim(), SqlTraceInspector.class.getClassLoader());
+        return new SqlTraceInspector((StatementInspector) BeanUtils.instantiateClass(type));
+    }
+
+    @Override
+    public String inspect(String sql) {
+        String inspected = delegate == null ? null : delegate.inspect(sql);
+        // null leaves the statement as it was
+        String effective = inspected == null ? sql : inspected;
+        RequestSqlTrace.record(effective);
+        return effective;
+    }
+}
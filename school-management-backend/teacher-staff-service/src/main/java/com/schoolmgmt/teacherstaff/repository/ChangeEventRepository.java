@@ -0,0 +1,93 @@
+package com.schoolmgmt.teacherstaff.repository;
+
+import com.schoolmgmt.teacherstaff.changes.ChangeType;
+import com.schoolmgmt.teacherstaff.dto.ChangeEvent;
+import com.schoolmgmt.teacherstaff.dto.ChangeRelayState;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The change-feed outbox, without entities (schema in db/changes.sql). Events are inserted unnumbered;
+ * the relay gives them their positions, under the lock on the single change_event_relay row.
+ */
+@Repository
+public class ChangeEventRepository {
+
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    private static final String INSERT = "insert into change_events (aggregate_type, aggregate_id, event_type, payload, occurred_at) "
+            + "values (?, ?, ?, ?, ?)";
+    private static final String LOCK_RELAY = "select last_position, pruned_through from change_event_relay where id = 1 for update";
+    private static final String FIND_UNRELAYED = "select id, aggregate_type, aggregate_id, event_type, payload, occurred_at "
+            + "from change_events where position is null order by id limit ?";
+    private static final String ASSIGN_POSITION = "update change_events set position = ?, relayed_at = ? where id = ?";
+    private static final String UPDATE_RELAY = "update change_event_relay set last_position = ?, pruned_through = ? where id = 1";
+    private static final String FIND_SINCE = "select id, position, aggregate_type, aggregate_id, event_type, payload, occurred_at "
+            + "from change_events where position > ? order by position limit ?";
+    private static final String FIND_RELAY = "select last_position, pruned_through from change_event_relay where id = 1";
+    private static final String LAST_RELAYED_BEFORE = "select max(position) from change_events where relayed_at < ?";
+    private static final String DELETE_THROUGH = "delete from change_events where position <= ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void insert(List<ChangeEvent> events) {
+        jdbcTemplate.batchUpdate(INSERT, events, INSERT_BATCH_SIZE, (statement, event) -> {
+            statement.setString(1, event.aggregateType());
+            statement.setString(2, event.aggregateId());
+            statement.setString(3, event.type().name());
+            statement.setString(4, event.payload());
+            statement.setTimestamp(5, Timestamp.valueOf(event.occurredAt()));
+        });
+    }
+
+    // Holds the relay row until the transaction ends: one instance relays or prunes at a time
+    public ChangeRelayState lockRelay() {
+        return jdbcTemplate.queryForObject(LOCK_RELAY, (rs, row) -> new ChangeRelayState(rs.getLong(1), rs.getLong(2)));
+    }
+
+    public void updateRelay(ChangeRelayState state) {
+        jdbcTemplate.update(UPDATE_RELAY, state.lastPosition(), state.prunedThrough());
+    }
+
+    public List<ChangeEvent> findUnrelayed(int limit) {
+        return jdbcTemplate.query(FIND_UNRELAYED, (rs, row) -> new ChangeEvent(rs.getLong(1), null, rs.getString(2),
+                rs.getString(3), ChangeType.valueOf(rs.getString(4)), rs.getString(5), rs.getTimestamp(6).toLocalDateTime()), limit);
+    }
+
+    // Numbers the events firstPosition, firstPosition + 1, ... in the order given
+    public void assignPositions(List<ChangeEvent> changes, long firstPosition, LocalDateTime relayedAt) {
+        Timestamp relayed = Timestamp.valueOf(relayedAt);
+        long[] position = {firstPosition};
+        jdbcTemplate.batchUpdate(ASSIGN_POSITION, changes, INSERT_BATCH_SIZE, (statement, change) -> {
+            statement.setLong(1, position[0]++);
+            statement.setTimestamp(2, relayed);
+            statement.setLong(3, change.id());
+        });
+    }
+
+    public List<ChangeEvent> findSince(long position, int limit) {
+        RowMapper<ChangeEvent> mapper = (rs, row) -> new ChangeEvent(rs.getLong(1), rs.getLong(2), rs.getString(3),
+                rs.getString(4), ChangeType.valueOf(rs.getString(5)), rs.getString(6), rs.getTimestamp(7).toLocalDateTime());
+        return jdbcTemplate.query(FIND_SINCE, mapper, position, limit);
+    }
+
+    public ChangeRelayState findRelayState() {
+        return jdbcTemplate.queryForObject(FIND_RELAY, (rs, row) -> new ChangeRelayState(rs.getLong(1), rs.getLong(2)));
+    }
+
+    // The last position relayed before the cutoff, or null when there is none
+    public Long findLastRelayedBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.queryForObject(LAST_RELAYED_BEFORE, Long.class, Timestamp.valueOf(cutoff));
+    }
+
+    public int deleteThrough(long position) {
+        return jdbcTemplate.update(DELETE_THROUGH, position);
+    }
+}
@@ -0,0 +1,48 @@
+package com.schoolmgmt.teacherstaff.repository;
+
+import com.schoolmgmt.teacherstaff.model.Teacher;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based changes to the teachers matching a search filter (TeacherSpecifications): one UPDATE for many
+ * teachers instead of loading and saving each one.
+ */
+@Repository
+public class TeacherBulkRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Ids of the matching teachers, locked in id order until the transaction ends, so that an update that
+    // follows changes exactly these
+    public List<Long> lockIdsMatching(Specification<Teacher> filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Teacher> root = query.from(Teacher.class);
+        query.select(root.get("id")).where(filter.toPredicate(root, query, cb)).orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query).setLockMode(LockModeType.PESSIMISTIC_WRITE).getResultList();
+    }
+
+    // Sets the attributes (by name) of the teachers and moves each to a new version, which is also its ETag
+    public int update(Collection<Long> ids, Map<String, Object> values) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Teacher> update = cb.createCriteriaUpdate(Teacher.class);
+        Root<Teacher> root = update.from(Teacher.class);
+        values.forEach(update::set);
+        update.set(root.<Long>get("version"), cb.sum(root.get("version"), 1L));
+        update.where(root.get("id").in(ids));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+}
@@ -3,15 +3,21 @@ package com.schoolmgmt.teacherstaff.repository;
 
 import com.schoolmgmt.teacherstaff.model.Teacher;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TeacherRepository extends JpaRepository<Teacher, Long> {
+public interface TeacherRepository extends JpaRepository<Teacher, Long>, JpaSpecificationExecutor<Teacher> {
     // Spring Data JPA provides CRUD methods automatically.
     // You can add custom query methods here if needed, e.g.:
     Optional<Teacher> findByEmail(String email);
     List<Teacher> findBySubject(String subject);
+
+    // Answers a conditional GET from the primary key index without loading the row's other columns
+    @Query("select t.version from Teacher t where t.id = :id")
+    Optional<Long> findVersionById(Long id);
 }
@@ -0,0 +1,73 @@
+package com.schoolmgmt.teacherstaff.repository;
+
+import com.schoolmgmt.teacherstaff.dto.TeacherSearchCriteria;
+import com.schoolmgmt.teacherstaff.model.Teacher;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Composable search filters. Each one matches an index on teachers (see Teacher and db/teacher-search-indexes.sql),
+// so keep the two in step when adding a filter.
+public final class TeacherSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private TeacherSpecifications() {
+    }
+
+    public static Specification<Teacher> matching(TeacherSearchCriteria criteria) {
+        List<Specification<Teacher>> specs = new ArrayList<>();
+        if (criteria.subject() != null && !criteria.subject().isBlank()) {
+            specs.add(hasSubject(criteria.subject().trim()));
+        }
+        if (criteria.active() != null) {
+            specs.add(isActive(criteria.active()));
+        }
+        if (criteria.namePrefix() != null && !criteria.namePrefix().isBlank()) {
+            specs.add(nameStartsWith(criteria.namePrefix().trim()));
+        }
+        if (criteria.joinedFrom() != null) {
+            specs.add(joinedOnOrAfter(criteria.joinedFrom()));
+        }
+        if (criteria.joinedTo() != null) {
+            specs.add(joinedOnOrBefore(criteria.joinedTo()));
+        }
+        return Specification.allOf(specs);
+    }
+
+    // idx_teachers_subject_active
+    public static Specification<Teacher> hasSubject(String subject) {
+        return (root, query, cb) -> cb.equal(root.get("subject"), subject);
+    }
+
+    // idx_teachers_subject_active when combined with a subject, otherwise idx_teachers_active_id
+    public static Specification<Teacher> isActive(boolean active) {
+        return (root, query, cb) -> cb.equal(root.get("active"), active);
+    }
+
+    // Case-insensitive prefix of the first or last name: idx_teachers_first_name_prefix / idx_teachers_last_name_prefix.
+    // Must stay lower(column) LIKE 'prefix%' for the text_pattern_ops indexes to apply.
+    public static Specification<Teacher> nameStartsWith(String prefix) {
+        String pattern = escapeLike(prefix.toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.lower(root.get("firstName")), pattern, LIKE_ESCAPE),
+                cb.like(cb.lower(root.get("lastName")), pattern, LIKE_ESCAPE));
+    }
+
+    // idx_teachers_date_of_joining
+    public static Specification<Teacher> joinedOnOrAfter(LocalDate date) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("dateOfJoining"), date);
+    }
+
+    // idx_teachers_date_of_joining
+    public static Specification<Teacher> joinedOnOrBefore(LocalDate date) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("dateOfJoining"), date);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,42 @@
+package com.schoolmgmt.teacherstaff.service;
+
+import com.schoolmgmt.teacherstaff.dto.ChangeEvent;
+import com.schoolmgmt.teacherstaff.dto.ChangeFeedPage;
+import com.schoolmgmt.teacherstaff.dto.ChangeRelayState;
+import com.schoolmgmt.teacherstaff.exception.GoneException;
+import com.schoolmgmt.teacherstaff.repository.ChangeEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+public class ChangeFeedService {
+
+    @Autowired
+    private ChangeEventRepository changeEventRepository;
+
+    @Value("${teachers.changes.default-size:500}")
+    private int defaultSize;
+
+    @Value("${teachers.changes.max-size:5000}")
+    private int maxSize;
+
+    // Changes after position since, oldest first; 410 once since is older than the retained changes
+    @Transactional(readOnly = true)
+    public ChangeFeedPage getChanges(long since, Integer size) {
+        long after = Math.max(since, 0);
+        ChangeRelayState relay = changeEventRepository.findRelayState();
+        if (after < relay.prunedThrough()) {
+            // Changes made while the listing is read are replayed from there; applying them twice is harmless
+            throw new GoneException("Changes up to position " + relay.prunedThrough() + " are no longer kept; "
+                    + "reload the full listing and continue from since=" + relay.lastPosition());
+        }
+        int pageSize = size == null ? defaultSize : Math.max(1, Math.min(size, maxSize));
+        List<ChangeEvent> events = changeEventRepository.findSince(after, pageSize);
+        long next = events.isEmpty() ? after : events.get(events.size() - 1).position();
+        return new ChangeFeedPage(events, next, events.size() == pageSize);
+    }
+}
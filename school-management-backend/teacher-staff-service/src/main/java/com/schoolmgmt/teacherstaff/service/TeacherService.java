@@ -1,56 +1,224 @@
 package com.schoolmgmt.teacherstaff.service;
 
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.schoolmgmt.teacherstaff.changes.ChangeOutbox;
+import com.schoolmgmt.teacherstaff.changes.ChangeType;
+import com.schoolmgmt.teacherstaff.config.CacheConfig;
+import com.schoolmgmt.teacherstaff.datasource.ReadRouting;
+import com.schoolmgmt.teacherstaff.dto.BulkUpdateCount;
+import com.schoolmgmt.teacherstaff.dto.TeacherDetail;
+import com.schoolmgmt.teacherstaff.dto.TeacherSearchCriteria;
+import com.schoolmgmt.teacherstaff.exception.BadRequestException;
+import com.schoolmgmt.teacherstaff.exception.ConflictException;
+import com.schoolmgmt.teacherstaff.exception.PreconditionFailedException;
 import com.schoolmgmt.teacherstaff.model.Teacher;
+import com.schoolmgmt.teacherstaff.patch.MergePatch;
+import com.schoolmgmt.teacherstaff.repository.TeacherBulkRepository;
 import com.schoolmgmt.teacherstaff.repository.TeacherRepository;
+import com.schoolmgmt.teacherstaff.repository.TeacherSpecifications;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Service
 public class TeacherService {
 
+    // Primary-key order: every filter combination can walk an index and stop after one page
+    private static final Sort SEARCH_ORDER = Sort.by("id");
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("firstName", "lastName", "email", "subject", "dateOfJoining", "active");
+    // Columns declared not null; a merge patch cannot clear them
+    private static final Set<String> REQUIRED_FIELDS = Set.of("firstName", "lastName", "email", "active");
+    // The ones that make sense to set on many teachers at once
+    private static final Set<String> BULK_PATCHABLE_FIELDS = Set.of("subject", "active");
+    // Teachers per set-based UPDATE; keeps the IN list well under PostgreSQL's parameter limit
+    private static final int BULK_UPDATE_CHUNK_SIZE = 1000;
+
     @Autowired
     private TeacherRepository teacherRepository;
 
+    @Autowired
+    private TeacherBulkRepository teacherBulkRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ChangeOutbox changeOutbox;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${teachers.search.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${teachers.search.max-size:200}")
+    private int maxPageSize;
+
     @Transactional(readOnly = true)
     public List<Teacher> getAllTeachers() {
         return teacherRepository.findAll();
     }
 
+    // Returns a slice rather than a page: a total count over a non-selective filter would scan the whole table
     @Transactional(readOnly = true)
-    public Optional<Teacher> getTeacherById(Long id) {
-        return teacherRepository.findById(id);
+    public Slice<Teacher> searchTeachers(TeacherSearchCriteria criteria, int page, Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), pageSize, SEARCH_ORDER);
+        return teacherRepository.findBy(TeacherSpecifications.matching(criteria), query -> query.slice(pageRequest));
+    }
+
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.TEACHERS, key = "#id", unless = "#result == null")
+    public Optional<TeacherDetail> getTeacherById(Long id) {
+        return teacherRepository.findById(id).map(TeacherDetail::from);
+    }
+
+    // Misses (empty results) are not cached, so creating a teacher needs no eviction
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.TEACHERS_BY_EMAIL, unless = "#result == null")
+    public Optional<TeacherDetail> getTeacherByEmail(String email) {
+        return teacherRepository.findByEmail(email).map(TeacherDetail::from);
+    }
+
+    // Only the version column, never the cache: a cached teacher or a replica behind the primary could confirm a
+    // representation that has since changed
+    public Optional<Long> getTeacherVersion(Long id) {
+        return ReadRouting.onPrimary(() -> teacherRepository.findVersionById(id));
     }
 
     @Transactional
     public Teacher createTeacher(Teacher teacher) {
         // You might add validation here, e.g., check if email already exists
-        return teacherRepository.save(teacher);
+        Teacher created = teacherRepository.save(teacher);
+        changeOutbox.record(ChangeOutbox.TEACHER, created.getId(), ChangeType.CREATED, created);
+        return created;
     }
 
     @Transactional
-    public Optional<Teacher> updateTeacher(Long id, Teacher teacherDetails) {
-        return teacherRepository.findById(id).map(teacher -> {
+    @CacheEvict(cacheNames = CacheConfig.TEACHERS, key = "#id")
+    public Optional<Teacher> updateTeacher(Long id, Teacher teacherDetails, Long expectedVersion) {
+        return update(id, expectedVersion, teacher -> {
             teacher.setFirstName(teacherDetails.getFirstName());
             teacher.setLastName(teacherDetails.getLastName());
             teacher.setEmail(teacherDetails.getEmail());
             teacher.setSubject(teacherDetails.getSubject());
             teacher.setDateOfJoining(teacherDetails.getDateOfJoining());
             teacher.setActive(teacherDetails.isActive());
-            return teacherRepository.save(teacher);
         });
     }
 
+    // JSON Merge Patch: only the fields in the patch change, and only their columns are written
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TEACHERS, key = "#id")
+    public Optional<Teacher> patchTeacher(Long id, JsonNode patch, Long expectedVersion) {
+        MergePatch mergePatch = checkedPatch(patch, PATCHABLE_FIELDS);
+        return update(id, expectedVersion, teacher -> mergePatch.applyTo(teacher, objectMapper));
+    }
+
+    // Loads the teacher and applies the change; @DynamicUpdate writes only the columns that changed
+    private Optional<Teacher> update(Long id, Long expectedVersion, Consumer<Teacher> change) {
+        return teacherRepository.findById(id).map(teacher -> {
+            // If-Match: the update only goes ahead against the version the client last saw
+            if (expectedVersion != null && !expectedVersion.equals(teacher.getVersion())) {
+                throw new PreconditionFailedException("Teacher " + id + " has changed; its current version is " + teacher.getVersion());
+            }
+            evictEmail(teacher.getEmail());
+            change.accept(teacher);
+            // Flushed here so that a write committed since the read surfaces as 412 for a conditional update
+            // and 409 for an unconditional one, rather than as a failed commit
+            Teacher updated;
+            try {
+                updated = teacherRepository.saveAndFlush(teacher);
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (expectedVersion != null) {
+                    throw new PreconditionFailedException("Teacher " + id + " has changed");
+                }
+                throw new ConflictException("Teacher " + id + " was changed concurrently; reload it and retry");
+            }
+            changeOutbox.record(ChangeOutbox.TEACHER, id, ChangeType.UPDATED, updated);
+            return updated;
+        });
+    }
+
+    /**
+     * Merge patch (subject and active only) of every teacher matching the filter, e.g. deactivating all
+     * teachers of a subject: one statement to lock the matching ids, one UPDATE per chunk of them, and one to
+     * read the results back for the change feed. At least one filter is required.
+     */
+    @Transactional
+    public BulkUpdateCount patchTeachers(TeacherSearchCriteria criteria, JsonNode patch) {
+        MergePatch mergePatch = checkedPatch(patch, BULK_PATCHABLE_FIELDS);
+        if (criteria.matchesAll()) {
+            throw new BadRequestException("Give at least one filter; a bulk patch does not apply to every teacher");
+        }
+        Teacher patched = mergePatch.applyTo(new Teacher(), objectMapper);
+        Map<String, Object> values = new HashMap<>();
+        if (mergePatch.has("subject")) {
+            values.put("subject", patched.getSubject());
+        }
+        if (mergePatch.has("active")) {
+            values.put("active", patched.isActive());
+        }
+
+        List<Long> ids = teacherBulkRepository.lockIdsMatching(TeacherSpecifications.matching(criteria));
+        Cache teachers = cacheManager.getCache(CacheConfig.TEACHERS);
+        for (int from = 0; from < ids.size(); from += BULK_UPDATE_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + BULK_UPDATE_CHUNK_SIZE, ids.size()));
+            teacherBulkRepository.update(chunk, values);
+            for (Teacher updated : teacherRepository.findAllById(chunk)) {
+                changeOutbox.record(ChangeOutbox.TEACHER, updated.getId(), ChangeType.UPDATED, updated);
+                evictEmail(updated.getEmail());
+                if (teachers != null) {
+                    teachers.evict(updated.getId());
+                }
+            }
+        }
+        return new BulkUpdateCount(ids.size());
+    }
+
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TEACHERS, key = "#id")
     public boolean deleteTeacher(Long id) {
-        if (teacherRepository.existsById(id)) {
-            teacherRepository.deleteById(id);
+        return teacherRepository.findById(id).map(teacher -> {
+            evictEmail(teacher.getEmail());
+            teacherRepository.delete(teacher);
+            changeOutbox.record(ChangeOutbox.TEACHER, id, ChangeType.DELETED, null);
             return true;
+        }).orElse(false);
+    }
+
+    private static MergePatch checkedPatch(JsonNode patch, Set<String> patchable) {
+        MergePatch mergePatch = MergePatch.of(patch, patchable);
+        for (String field : REQUIRED_FIELDS) {
+            if (mergePatch.clears(field)) {
+                throw new BadRequestException(field + " cannot be removed");
+            }
+        }
+        return mergePatch;
+    }
+
+    private void evictEmail(String email) {
+        Cache cache = cacheManager.getCache(CacheConfig.TEACHERS_BY_EMAIL);
+        if (cache != null && email != null) {
+            cache.evict(email);
         }
-        return false;
     }
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+-- Indexes behind GET /api/teachers/search (one per filter; see TeacherSpecifications).
+--
+-- Applied at startup through spring.sql.init outside the prod profile. In production the schema is
+-- managed outside the application, so run it once by hand (not inside a transaction, because of CONCURRENTLY):
+--   psql -v ON_ERROR_STOP=1 -d teacher_db -f src/main/resources/db/teacher-search-indexes.sql
+-- Every statement is idempotent. If a CONCURRENTLY build is interrupted it leaves an INVALID index
+-- that IF NOT EXISTS will skip; drop it and re-run.
+
+-- subject = ? [AND active = ?]
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_teachers_subject_active ON teachers (subject, active);
+
+-- active = ? without a subject, walked in the search's id order
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_teachers_active_id ON teachers (active, id);
+
+-- date_of_joining >= ? / <= ?
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_teachers_date_of_joining ON teachers (date_of_joining);
+
+-- lower(first_name) LIKE 'prefix%' OR lower(last_name) LIKE 'prefix%'. text_pattern_ops makes the
+-- prefix match indexable whatever the database collation is.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_teachers_first_name_prefix ON teachers (lower(first_name) text_pattern_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_teachers_last_name_prefix ON teachers (lower(last_name) text_pattern_ops);
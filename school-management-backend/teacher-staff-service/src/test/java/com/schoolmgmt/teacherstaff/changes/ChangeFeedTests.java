@@ -0,0 +1,101 @@
+package com.schoolmgmt.teacherstaff.changes;
+
+import com.schoolmgmt.teacherstaff.dto.ChangeEvent;
+import com.schoolmgmt.teacherstaff.dto.ChangeFeedPage;
+import com.schoolmgmt.teacherstaff.exception.GoneException;
+import com.schoolmgmt.teacherstaff.model.Teacher;
+import com.schoolmgmt.teacherstaff.repository.TeacherRepository;
+import com.schoolmgmt.teacherstaff.service.ChangeFeedService;
+import com.schoolmgmt.teacherstaff.service.TeacherService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ChangeFeedTests {
+
+	@Autowired
+	private TeacherService teacherService;
+
+	@Autowired
+	private ChangeFeedService changeFeedService;
+
+	@Autowired
+	private ChangeRelay changeRelay;
+
+	@Autowired
+	private TeacherRepository teacherRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	private long since;
+
+	@BeforeEach
+	void setUp() {
+		teacherRepository.deleteAll();
+		changeRelay.relay();
+		jdbcTemplate.update("update change_event_relay set pruned_through = 0");
+		since = jdbcTemplate.queryForObject("select last_position from change_event_relay", Long.class);
+	}
+
+	@Test
+	void everyChangeIsFedInCommitOrder() throws Exception {
+		Teacher teacher = teacherService.createTeacher(teacher("ada@school.test"));
+		teacherService.updateTeacher(teacher.getId(), new Teacher(null, "Ada", "King", "ada@school.test", "Mathematics",
+				LocalDate.of(2015, 9, 1), true, null), null);
+		teacherService.deleteTeacher(teacher.getId());
+		assertThat(changeFeedService.getChanges(since, null).events()).as("not relayed yet").isEmpty();
+
+		changeRelay.relay();
+
+		ChangeFeedPage page = changeFeedService.getChanges(since, null);
+		assertThat(page.events()).extracting(ChangeEvent::type)
+				.containsExactly(ChangeType.CREATED, ChangeType.UPDATED, ChangeType.DELETED);
+		assertThat(page.events()).extracting(ChangeEvent::position).containsExactly(since + 1, since + 2, since + 3);
+		assertThat(page.events()).extracting(ChangeEvent::aggregateId).containsOnly(teacher.getId().toString());
+		assertThat(page.next()).isEqualTo(since + 3);
+
+		mockMvc.perform(get("/api/teachers/changes").param("since", String.valueOf(since)).param("size", "2"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.events.length()").value(2))
+				.andExpect(jsonPath("$.events[1].payload.lastName").value("King"))
+				.andExpect(jsonPath("$.next").value(since + 2))
+				.andExpect(jsonPath("$.hasMore").value(true));
+	}
+
+	@Test
+	void aConsumerBehindTheRetainedChangesIsToldToReload() throws Exception {
+		teacherService.createTeacher(teacher("grace@school.test"));
+		changeRelay.relay();
+		long last = jdbcTemplate.queryForObject("select last_position from change_event_relay", Long.class);
+		jdbcTemplate.update("update change_event_relay set pruned_through = ?", last);
+
+		assertThatThrownBy(() -> changeFeedService.getChanges(since, null)).isInstanceOf(GoneException.class);
+		mockMvc.perform(get("/api/teachers/changes").param("since", String.valueOf(since)))
+				.andExpect(status().isGone());
+		assertThat(changeFeedService.getChanges(last, null).events()).isEmpty();
+	}
+
+	private static Teacher teacher(String email) {
+		return new Teacher(null, "Ada", "Lovelace", email, "Mathematics", LocalDate.of(2015, 9, 1), true, null);
+	}
+}
@@ -0,0 +1,140 @@
+package com.schoolmgmt.teacherstaff.controller;
+
+import com.schoolmgmt.teacherstaff.config.CacheConfig;
+import com.schoolmgmt.teacherstaff.model.Teacher;
+import com.schoolmgmt.teacherstaff.repository.TeacherRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TeacherConditionalRequestTests {
+
+	private static final String UPDATE = """
+			{"firstName": "Ada", "lastName": "King", "email": "ada@school.test", "subject": "Mathematics",
+			 "dateOfJoining": "2015-09-01", "active": true, "version": 99}""";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private TeacherRepository teacherRepository;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	private Long teacherId;
+
+	@BeforeEach
+	void setUp() {
+		teacherRepository.deleteAll();
+		cacheManager.getCache(CacheConfig.TEACHERS).clear();
+		teacherId = teacherRepository.save(new Teacher(null, "Ada", "Lovelace", "ada@school.test", "Mathematics",
+				LocalDate.of(2015, 9, 1), true, null)).getId();
+	}
+
+	@Test
+	void unchangedTeacherIsAnsweredWithNotModified() throws Exception {
+		String etag = etagOfTeacher();
+
+		mockMvc.perform(get("/api/teachers/{id}", teacherId).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, etag));
+
+		mockMvc.perform(get("/api/teachers/{id}", teacherId + 1).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void aCachedTeacherDoesNotConfirmAVersionTheRowHasMovedPast() throws Exception {
+		String etag = etagOfTeacher();
+		// Changed without going through the service, so the cached teacher is left as it was
+		Teacher teacher = teacherRepository.findById(teacherId).orElseThrow();
+		teacher.setSubject("Physics");
+		teacherRepository.save(teacher);
+
+		mockMvc.perform(get("/api/teachers/{id}", teacherId).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void updateIsRejectedWhenIfMatchIsStale() throws Exception {
+		String etag = etagOfTeacher();
+
+		String updatedEtag = mockMvc.perform(put("/api/teachers/{id}", teacherId)
+						.header(HttpHeaders.IF_MATCH, etag)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(UPDATE))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.lastName").value("King"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		// The version in the body is ignored; only the server moves it
+		assertThat(updatedEtag).isEqualTo(ETags.of(teacherRepository.findVersionById(teacherId).orElseThrow()))
+				.isNotEqualTo(etag)
+				.isNotEqualTo(ETags.of(99));
+
+		mockMvc.perform(put("/api/teachers/{id}", teacherId)
+						.header(HttpHeaders.IF_MATCH, etag)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(UPDATE.replace("King", "Lost Update")))
+				.andExpect(status().isPreconditionFailed());
+		assertThat(teacherRepository.findById(teacherId).orElseThrow().getLastName()).isEqualTo("King");
+
+		// The GET that follows sees the new version, not a cached copy of the old one
+		mockMvc.perform(get("/api/teachers/{id}", teacherId).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, updatedEtag));
+	}
+
+	@Test
+	void ifMatchAcceptsTheStrongFormOfTheTag() throws Exception {
+		String etag = etagOfTeacher();
+
+		mockMvc.perform(put("/api/teachers/{id}", teacherId)
+						.header(HttpHeaders.IF_MATCH, etag.substring("W/".length()))
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(UPDATE))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.lastName").value("King"));
+	}
+
+	@Test
+	void apiDocsSayHowIfMatchIsCompared() throws Exception {
+		mockMvc.perform(get("/v3/api-docs"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.info.description").value(containsString("RFC 9110")))
+				.andExpect(jsonPath("$.paths['/api/teachers/{id}'].put.parameters[?(@.name == 'If-Match')].description")
+						.value(hasItem(ETags.IF_MATCH)))
+				.andExpect(jsonPath("$.paths['/api/teachers/{id}'].patch.parameters[?(@.name == 'If-Match')].description")
+						.value(hasItem(ETags.IF_MATCH)));
+	}
+
+	private String etagOfTeacher() throws Exception {
+		String etag = mockMvc.perform(get("/api/teachers/{id}", teacherId))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(etag).isNotNull();
+		return etag;
+	}
+}
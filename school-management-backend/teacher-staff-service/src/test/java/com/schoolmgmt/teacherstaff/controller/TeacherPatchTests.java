@@ -0,0 +1,112 @@
+package com.schoolmgmt.teacherstaff.controller;
+
+import com.schoolmgmt.teacherstaff.model.Teacher;
+import com.schoolmgmt.teacherstaff.patch.MergePatch;
+import com.schoolmgmt.teacherstaff.repository.TeacherRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TeacherPatchTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private TeacherRepository teacherRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Teacher ada;
+
+	@BeforeEach
+	void setUp() {
+		teacherRepository.deleteAll();
+		ada = teacherRepository.save(teacher("Ada", "ada@school.test", "Latin"));
+	}
+
+	@Test
+	void onlyTheFieldsInThePatchChange() throws Exception {
+		mockMvc.perform(get("/api/teachers/{id}", ada.getId())).andExpect(jsonPath("$.subject").value("Latin"));
+
+		mockMvc.perform(patch("/api/teachers/{id}", ada.getId()).contentType(MergePatch.MEDIA_TYPE)
+						.content("{\"subject\": \"Mathematics\", \"dateOfJoining\": null}"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, ETags.of(ada.getVersion() + 1)))
+				.andExpect(jsonPath("$.firstName").value("Ada"))
+				.andExpect(jsonPath("$.subject").value("Mathematics"))
+				.andExpect(jsonPath("$.dateOfJoining").doesNotExist());
+		// The cached copy went with the update
+		mockMvc.perform(get("/api/teachers/{id}", ada.getId())).andExpect(jsonPath("$.subject").value("Mathematics"));
+
+		mockMvc.perform(patch("/api/teachers/{id}", ada.getId()).contentType(MergePatch.MEDIA_TYPE)
+						.header(HttpHeaders.IF_MATCH, ETags.of(ada.getVersion())).content("{\"active\": false}"))
+				.andExpect(status().isPreconditionFailed());
+	}
+
+	@Test
+	void invalidPatchesAreRejected() throws Exception {
+		for (String invalid : new String[]{"[]", "{}", "{\"firstName\": null}", "{\"id\": 7}", "{\"dateOfJoining\": \"soon\"}"}) {
+			mockMvc.perform(patch("/api/teachers/{id}", ada.getId()).contentType(MergePatch.MEDIA_TYPE).content(invalid))
+					.andExpect(status().isBadRequest());
+		}
+		mockMvc.perform(patch("/api/teachers/{id}", ada.getId() + 1000).contentType(MergePatch.MEDIA_TYPE)
+						.content("{\"active\": false}"))
+				.andExpect(status().isNotFound());
+		assertThat(teacherRepository.findById(ada.getId()).orElseThrow().getVersion()).isEqualTo(ada.getVersion());
+	}
+
+	@Test
+	void teachersMatchingAFilterAreUpdatedTogether() throws Exception {
+		Teacher grace = teacherRepository.save(teacher("Grace", "grace@school.test", "Latin"));
+		Teacher alan = teacherRepository.save(teacher("Alan", "alan@school.test", "Mathematics"));
+		mockMvc.perform(get("/api/teachers/{id}", grace.getId())).andExpect(jsonPath("$.active").value(true));
+		long updates = countUpdatedEvents();
+
+		mockMvc.perform(patch("/api/teachers").param("subject", "Latin").contentType(MergePatch.MEDIA_TYPE)
+						.content("{\"active\": false}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.updated").value(2));
+
+		mockMvc.perform(get("/api/teachers/{id}", grace.getId()))
+				.andExpect(jsonPath("$.active").value(false))
+				.andExpect(header().string(HttpHeaders.ETAG, ETags.of(grace.getVersion() + 1)));
+		assertThat(teacherRepository.findById(ada.getId()).orElseThrow().isActive()).isFalse();
+		assertThat(teacherRepository.findById(alan.getId()).orElseThrow().isActive()).isTrue();
+		assertThat(countUpdatedEvents()).isEqualTo(updates + 2);
+
+		// No filter, or a field that is never the same for many teachers
+		mockMvc.perform(patch("/api/teachers").contentType(MergePatch.MEDIA_TYPE).content("{\"active\": false}"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(patch("/api/teachers").param("subject", "Latin").contentType(MergePatch.MEDIA_TYPE)
+						.content("{\"email\": \"latin@school.test\"}"))
+				.andExpect(status().isBadRequest());
+	}
+
+	private long countUpdatedEvents() {
+		return jdbcTemplate.queryForObject("select count(*) from change_events where event_type = 'UPDATED'", Long.class);
+	}
+
+	private static Teacher teacher(String firstName, String email, String subject) {
+		return new Teacher(null, firstName, "Lovelace", email, subject, LocalDate.of(2015, 9, 1), true, null);
+	}
+}
@@ -0,0 +1,88 @@
+package com.schoolmgmt.teacherstaff.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.schoolmgmt.teacherstaff.config.CacheConfig;
+import com.schoolmgmt.teacherstaff.model.Teacher;
+import com.schoolmgmt.teacherstaff.repository.TeacherRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TeacherResponseEncodingTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private TeacherRepository teacherRepository;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@BeforeEach
+	void setUp() {
+		teacherRepository.deleteAll();
+		cacheManager.getCache(CacheConfig.TEACHERS).clear();
+		for (int i = 0; i < 20; i++) {
+			teacherRepository.save(new Teacher(null, "Teacher", "No. " + i, "teacher" + i + "@school.test", "Mathematics",
+					LocalDate.of(2015, 9, 1).plusDays(i), true, null));
+		}
+	}
+
+	@Test
+	void teacherListIsServedAsCborOnlyWhenAskedFor() throws Exception {
+		byte[] json = mockMvc.perform(get("/api/teachers").header(HttpHeaders.ACCEPT, MediaType.ALL_VALUE))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_JSON))
+				.andReturn().getResponse().getContentAsByteArray();
+		byte[] cbor = mockMvc.perform(get("/api/teachers").header(HttpHeaders.ACCEPT, MediaType.APPLICATION_CBOR_VALUE))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+				.andReturn().getResponse().getContentAsByteArray();
+
+		// The same document, dates as ISO strings in both, in fewer bytes
+		JsonNode fromCbor = new CBORMapper().readTree(cbor);
+		assertThat(fromCbor).isEqualTo(objectMapper.readTree(json)).hasSize(20);
+		assertThat(fromCbor.at("/0/dateOfJoining").asText()).matches("\\d{4}-\\d{2}-\\d{2}");
+		assertThat(cbor.length).isLessThan(json.length);
+	}
+
+	@Test
+	void negotiatedResponsesVaryByAccept() throws Exception {
+		mockMvc.perform(get("/api/teachers").header(HttpHeaders.ACCEPT, MediaType.APPLICATION_CBOR_VALUE))
+				.andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)));
+		Long id = teacherRepository.findAll().get(0).getId();
+		String etag = mockMvc.perform(get("/api/teachers/{id}", id))
+				.andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		// A 304 names the same header, so a cache only takes it as validating the representation it holds
+		mockMvc.perform(get("/api/teachers/{id}", id).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)));
+	}
+}
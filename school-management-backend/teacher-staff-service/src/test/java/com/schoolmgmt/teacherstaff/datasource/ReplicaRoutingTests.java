@@ -0,0 +1,88 @@
+package com.schoolmgmt.teacherstaff.datasource;
+
+import com.schoolmgmt.teacherstaff.model.Teacher;
+import com.schoolmgmt.teacherstaff.repository.TeacherRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Stand-ins for two replicas: a pool on the embedded database itself, and one on a server that is not there
+@SpringBootTest(properties = {
+		"teachers.datasource.replica-urls=${spring.datasource.url},jdbc:h2:tcp://localhost:1/missing",
+		"teachers.datasource.replica-check-interval=PT1H"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReplicaRoutingTests {
+
+	@Autowired
+	private ReplicaDataSource replicaDataSource;
+
+	@Autowired
+	private TeacherRepository teacherRepository;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		teacherRepository.deleteAll();
+		teacherRepository.save(new Teacher(null, "Ada", "Lovelace", "ada@school.test", "Mathematics",
+				LocalDate.of(2015, 9, 1), true, null));
+		replicaDataSource.checkReplicas();
+	}
+
+	@Test
+	void readsGoToHealthyReplicasThatAreNotTooFarBehind() throws Exception {
+		assertThat(replicaDataSource.replicas().get(1).isUsable(Duration.ofDays(1))).isFalse();
+
+		double replicaReads = reads("replica-1");
+		mockMvc.perform(get("/api/teachers")).andExpect(status().isOk());
+		assertThat(reads("replica-1")).isEqualTo(replicaReads + 1);
+		assertThat(reads("replica-2")).isZero();
+
+		replicaDataSource.replicas().get(0).up(Duration.ofSeconds(30));
+		double primaryReads = reads("primary");
+		mockMvc.perform(get("/api/teachers")).andExpect(status().isOk());
+		assertThat(reads("primary")).isEqualTo(primaryReads + 1);
+	}
+
+	@Test
+	void aClientReadsItsOwnWritesFromThePrimary() throws Exception {
+		Cookie wrote = mockMvc.perform(post("/api/teachers").contentType(MediaType.APPLICATION_JSON).content("""
+						{"firstName": "Grace", "lastName": "Hopper", "email": "grace@school.test", "subject": "Computing",
+						 "dateOfJoining": "2016-09-01", "active": true}"""))
+				.andExpect(status().isCreated())
+				.andExpect(cookie().exists(ReadYourWritesFilter.COOKIE))
+				.andReturn().getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+
+		double primaryReads = reads("primary");
+		double replicaReads = reads("replica-1");
+		mockMvc.perform(get("/api/teachers").cookie(wrote)).andExpect(status().isOk());
+		assertThat(reads("primary")).isEqualTo(primaryReads + 1);
+		mockMvc.perform(get("/api/teachers")).andExpect(status().isOk());
+		assertThat(reads("replica-1")).isEqualTo(replicaReads + 1);
+	}
+
+	private double reads(String target) {
+		return meterRegistry.get("datasource.reads").tag("target", target).counter().count();
+	}
+}
@@ -0,0 +1,103 @@
+package com.schoolmgmt.teacherstaff.observability;
+
+import com.schoolmgmt.teacherstaff.config.CacheConfig;
+import com.schoolmgmt.teacherstaff.model.Teacher;
+import com.schoolmgmt.teacherstaff.repository.TeacherRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"observability.slow-request.threshold=PT0S",
+		"observability.slow-request.min-log-interval=PT0S"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+@ExtendWith(OutputCaptureExtension.class)
+class RequestMetricsTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Autowired
+	private TeacherRepository teacherRepository;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	private Long teacherId;
+
+	@BeforeEach
+	void setUp() {
+		teacherRepository.deleteAll();
+		cacheManager.getCache(CacheConfig.TEACHERS).clear();
+		teacherId = teacherRepository.save(new Teacher(null, "Ada", "Lovelace", "ada@school.test", "Mathematics",
+				LocalDate.of(2015, 9, 1), true, null)).getId();
+	}
+
+	@Test
+	void countsStatementsPerEndpointAndTimesServiceCallsIncludingCacheHits(CapturedOutput output) throws Exception {
+		double statementsBefore = statementSummary().map(DistributionSummary::totalAmount).orElse(0.0);
+		long callsBefore = serviceTimer().map(Timer::count).orElse(0L);
+
+		mockMvc.perform(get("/api/teachers/{id}", teacherId)).andExpect(status().isOk());
+		mockMvc.perform(get("/api/teachers/{id}", teacherId)).andExpect(status().isOk());
+
+		// One lookup for the first request, none for the cached second one
+		assertThat(statementSummary().orElseThrow().totalAmount() - statementsBefore).isEqualTo(1);
+		assertThat(serviceTimer().orElseThrow().count() - callsBefore).isEqualTo(2);
+		assertThat(output).contains("Slow request GET /api/teachers/{id} -> 200")
+				.contains("1 SQL statements")
+				.contains("from teachers");
+	}
+
+	@Test
+	void everythingIsExposedForPrometheus() throws Exception {
+		mockMvc.perform(get("/api/teachers/{id}", teacherId)).andExpect(status().isOk());
+
+		String scrape = mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		assertThat(scrape)
+				.contains("http_server_requests_seconds_bucket{")
+				.contains("http_server_requests_sql_statements_count{")
+				.contains("service_calls_seconds_count{")
+				.contains("hikaricp_connections_acquire_seconds_bucket{")
+				.contains("cache_gets_total{")
+				.contains("jvm_gc_");
+	}
+
+	private Optional<DistributionSummary> statementSummary() {
+		return Optional.ofNullable(registry.find("http.server.requests.sql.statements")
+				.tag("uri", "/api/teachers/{id}").summary());
+	}
+
+	private Optional<Timer> serviceTimer() {
+		return Optional.ofNullable(registry.find("service.calls")
+				.tags("class", "TeacherService", "method", "getTeacherById", "outcome", "success").timer());
+	}
+}
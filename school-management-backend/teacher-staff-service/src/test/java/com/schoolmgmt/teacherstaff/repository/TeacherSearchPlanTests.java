@@ -0,0 +1,170 @@
+package com.schoolmgmt.teacherstaff.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.schoolmgmt.teacherstaff.dto.TeacherSearchCriteria;
+import com.schoolmgmt.teacherstaff.service.TeacherService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * EXPLAINs the teacher search against a real PostgreSQL: no filter combination may read teachers with a sequential
+ * scan, and each filter on its own must be answered from its index. Needs a scratch database (the schema is created
+ * and dropped):
+ * <pre>
+ * POSTGRES_TEST_URL='jdbc:postgresql://localhost:5432/teacher_test?user=postgres&amp;password=postgres' ./mvnw test
+ * </pre>
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfEnvironmentVariable(named = "POSTGRES_TEST_URL", matches = ".+")
+class TeacherSearchPlanTests {
+
+	private static final int ROWS = 100_000;
+	private static final int PAGE_SIZE = 20;
+
+	@DynamicPropertySource
+	static void postgres(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", () -> System.getenv("POSTGRES_TEST_URL"));
+		registry.add("spring.datasource.username", () -> "");
+		registry.add("spring.datasource.password", () -> "");
+		registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+		registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+		registry.add("spring.sql.init.mode", () -> "always");
+		// The application's scripts, not the embedded database's: the name prefix indexes are in the first
+		registry.add("spring.sql.init.schema-locations", () -> "classpath:db/teacher-search-indexes.sql,classpath:db/changes.sql");
+		// Render filter values as literals so the captured SQL can be EXPLAINed as-is
+		registry.add("spring.jpa.properties.hibernate.criteria.value_handling_mode", () -> "inline");
+		registry.add("spring.jpa.properties.hibernate.session_factory.statement_inspector", SqlCapture.class::getName);
+	}
+
+	@Autowired
+	private TeacherService teacherService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@BeforeAll
+	void seed() {
+		// Independent columns: 20 subjects, 90% active, ~30 years of joining dates and hex names
+		// (any two-character prefix matches ~1/256 of a column)
+		jdbcTemplate.update("""
+				INSERT INTO teachers (first_name, last_name, email, subject, date_of_joining, active)
+				SELECT md5(g || 'first'), md5(g || 'last'), 'teacher' || g || '@school.test',
+				       'Subject ' || abs(hashtext(g || 'subject')) % 20,
+				       DATE '1995-01-01' + abs(hashtext(g || 'joined')) % 11000,
+				       abs(hashtext(g || 'active')) % 10 <> 0
+				FROM generate_series(1, ?) g""", ROWS);
+		jdbcTemplate.execute("ANALYZE teachers");
+	}
+
+	@Test
+	void noFilterCombinationScansTheWholeTable() throws Exception {
+		List<String> failures = new ArrayList<>();
+		for (TeacherSearchCriteria criteria : allCombinations()) {
+			for (int page : new int[] {0, 20}) {
+				String sql = bindPaging(searchSql(criteria, page), page);
+				JsonNode plan = explain(sql);
+				if (seqScansTeachers(plan)) {
+					failures.add(criteria + " page " + page + "\n" + sql + "\n" + plan.toPrettyString());
+				}
+			}
+		}
+		assertThat(failures).isEmpty();
+	}
+
+	// With LIMIT the planner may rightly prefer walking the primary key, so check the WHERE clause alone with
+	// values selective enough that its index is the cheapest way in
+	@Test
+	void everyFilterIsServedByItsIndex() throws Exception {
+		assertUsesIndexes(new TeacherSearchCriteria("Subject 7", null, null, null, null), "idx_teachers_subject_active");
+		assertUsesIndexes(new TeacherSearchCriteria("Subject 7", false, null, null, null), "idx_teachers_subject_active");
+		assertUsesIndexes(new TeacherSearchCriteria(null, false, null, null, null), "idx_teachers_active_id");
+		assertUsesIndexes(new TeacherSearchCriteria(null, null, "Ab", null, null),
+				"idx_teachers_first_name_prefix", "idx_teachers_last_name_prefix");
+		assertUsesIndexes(new TeacherSearchCriteria(null, null, null, LocalDate.of(2024, 6, 1), null), "idx_teachers_date_of_joining");
+		assertUsesIndexes(new TeacherSearchCriteria(null, null, null, null, LocalDate.of(1996, 3, 31)), "idx_teachers_date_of_joining");
+	}
+
+	private void assertUsesIndexes(TeacherSearchCriteria criteria, String... indexes) throws Exception {
+		String sql = searchSql(criteria, 0);
+		JsonNode plan = explain(sql.substring(0, sql.indexOf(" order by ")));
+		assertThat(plan.findValuesAsText("Index Name")).as("%s%n%s", criteria, plan.toPrettyString()).contains(indexes);
+	}
+
+	private String searchSql(TeacherSearchCriteria criteria, int page) {
+		SqlCapture.SQL.clear();
+		teacherService.searchTeachers(criteria, page, PAGE_SIZE);
+		assertThat(SqlCapture.SQL).hasSize(1);
+		return SqlCapture.SQL.get(0);
+	}
+
+	private static List<TeacherSearchCriteria> allCombinations() {
+		List<TeacherSearchCriteria> combinations = new ArrayList<>();
+		for (Boolean active : new Boolean[] {null, true, false}) {
+			for (int mask = 0; mask < 16; mask++) {
+				combinations.add(new TeacherSearchCriteria(
+						(mask & 1) != 0 ? "Subject 7" : null,
+						active,
+						(mask & 2) != 0 ? "Ab" : null,
+						(mask & 4) != 0 ? LocalDate.of(2010, 1, 1) : null,
+						(mask & 8) != 0 ? LocalDate.of(2010, 3, 31) : null));
+			}
+		}
+		return combinations;
+	}
+
+	// Offset and limit are still bound as JDBC parameters; substitute the values the slice query used
+	private static String bindPaging(String sql, int page) {
+		return sql.replaceFirst("offset \\? rows", "offset " + page * PAGE_SIZE + " rows")
+				.replaceFirst("fetch first \\? rows", "fetch first " + (PAGE_SIZE + 1) + " rows");
+	}
+
+	private JsonNode explain(String sql) throws Exception {
+		String json = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + sql, String.class);
+		return objectMapper.readTree(json).get(0).get("Plan");
+	}
+
+	private static boolean seqScansTeachers(JsonNode node) {
+		if ("Seq Scan".equals(node.path("Node Type").asText()) && "teachers".equals(node.path("Relation Name").asText())) {
+			return true;
+		}
+		for (JsonNode child : node.path("Plans")) {
+			if (seqScansTeachers(child)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public static class SqlCapture implements StatementInspector {
+
+		static final List<String> SQL = new CopyOnWriteArrayList<>();
+
+		@Override
+		public String inspect(String sql) {
+			SQL.add(sql);
+			return sql;
+		}
+	}
+
+}
@@ -0,0 +1,84 @@
+package com.schoolmgmt.teacherstaff.service;
+
+import com.schoolmgmt.teacherstaff.config.CacheConfig;
+import com.schoolmgmt.teacherstaff.dto.TeacherDetail;
+import com.schoolmgmt.teacherstaff.model.Teacher;
+import com.schoolmgmt.teacherstaff.repository.TeacherRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cached teachers are immutable details, dropped by id and by their old email when the teacher changes, and a
+ * read that loaded the teacher before the change cannot put it back.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TeacherCacheTests {
+
+	@Autowired
+	private TeacherService teacherService;
+
+	@Autowired
+	private TeacherRepository teacherRepository;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	private Cache byId;
+
+	private Cache byEmail;
+
+	private Long teacherId;
+
+	@BeforeEach
+	void setUp() {
+		teacherRepository.deleteAll();
+		byId = cacheManager.getCache(CacheConfig.TEACHERS);
+		byEmail = cacheManager.getCache(CacheConfig.TEACHERS_BY_EMAIL);
+		byId.clear();
+		byEmail.clear();
+		teacherId = teacherService.createTeacher(teacher("Lovelace", "ada@school.test")).getId();
+	}
+
+	@Test
+	void anUpdateDropsTheCachedTeacherByIdAndEmail() {
+		TeacherDetail before = teacherService.getTeacherById(teacherId).orElseThrow();
+		teacherService.getTeacherByEmail("ada@school.test");
+		assertThat(byId.get(teacherId, TeacherDetail.class)).isEqualTo(before);
+		assertThat(byEmail.get("ada@school.test", TeacherDetail.class)).isEqualTo(before);
+
+		teacherService.updateTeacher(teacherId, teacher("King", "ada.king@school.test"), null);
+
+		assertThat(byId.get(teacherId)).isNull();
+		assertThat(byEmail.get("ada@school.test")).isNull();
+		TeacherDetail after = teacherService.getTeacherById(teacherId).orElseThrow();
+		assertThat(after.lastName()).isEqualTo("King");
+		assertThat(after.version()).isGreaterThan(before.version());
+		assertThat(teacherService.getTeacherByEmail("ada@school.test")).isEmpty();
+	}
+
+	@Test
+	void aReadFromBeforeAnUpdateDoesNotPutTheOldTeacherBack() {
+		TeacherDetail stale = teacherService.getTeacherById(teacherId).orElseThrow();
+		teacherService.updateTeacher(teacherId, teacher("King", "ada@school.test"), null);
+
+		// What a read that loaded the teacher before the update committed puts once it returns
+		byId.put(teacherId, stale);
+
+		assertThat(byId.get(teacherId)).isNull();
+		assertThat(teacherService.getTeacherById(teacherId).orElseThrow().lastName()).isEqualTo("King");
+	}
+
+	private static Teacher teacher(String lastName, String email) {
+		return new Teacher(null, "Ada", lastName, email, "Mathematics", LocalDate.of(2015, 9, 1), true, null);
+	}
+}
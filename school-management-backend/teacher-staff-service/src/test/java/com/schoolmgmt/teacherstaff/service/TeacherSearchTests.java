@@ -0,0 +1,75 @@
+package com.schoolmgmt.teacherstaff.service;
+
+import com.schoolmgmt.teacherstaff.dto.TeacherSearchCriteria;
+import com.schoolmgmt.teacherstaff.model.Teacher;
+import com.schoolmgmt.teacherstaff.repository.TeacherRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TeacherSearchTests {
+
+	@Autowired
+	private TeacherService teacherService;
+
+	@Autowired
+	private TeacherRepository teacherRepository;
+
+	@BeforeEach
+	void seed() {
+		teacherRepository.deleteAll();
+		teacherRepository.saveAll(List.of(
+				new Teacher(null, "Ada", "Lovelace", "ada@school.test", "Mathematics", LocalDate.of(2015, 9, 1), true, null),
+				new Teacher(null, "Alan", "Turing", "alan@school.test", "Mathematics", LocalDate.of(2018, 1, 8), false, null),
+				new Teacher(null, "Grace", "Hopper", "grace@school.test", "Computing", LocalDate.of(2020, 9, 1), true, null),
+				new Teacher(null, "Marie", "Adams", "marie@school.test", "Chemistry", LocalDate.of(2021, 1, 4), true, null),
+				new Teacher(null, "Ad%", "Wildcard", "wildcard@school.test", "Chemistry", LocalDate.of(2022, 1, 4), true, null)));
+	}
+
+	@Test
+	void filtersAreCombined() {
+		assertThat(lastNames(new TeacherSearchCriteria("Mathematics", true, null, null, null)))
+				.containsExactly("Lovelace");
+		assertThat(lastNames(new TeacherSearchCriteria(null, true, null, LocalDate.of(2016, 1, 1), LocalDate.of(2021, 1, 4))))
+				.containsExactly("Hopper", "Adams");
+		assertThat(lastNames(new TeacherSearchCriteria(" ", null, "", null, null)))
+				.hasSize(5);
+	}
+
+	@Test
+	void namePrefixMatchesFirstOrLastNameIgnoringCase() {
+		assertThat(lastNames(new TeacherSearchCriteria(null, null, "aD", null, null)))
+				.containsExactly("Lovelace", "Adams", "Wildcard");
+		// LIKE wildcards in the prefix are matched literally
+		assertThat(lastNames(new TeacherSearchCriteria(null, null, "ad%", null, null)))
+				.containsExactly("Wildcard");
+	}
+
+	@Test
+	void pagesAreOrderedByIdAndReportWhetherMoreFollow() {
+		TeacherSearchCriteria all = new TeacherSearchCriteria(null, null, null, null, null);
+
+		Slice<Teacher> first = teacherService.searchTeachers(all, 0, 2);
+		Slice<Teacher> last = teacherService.searchTeachers(all, 2, 2);
+
+		assertThat(first.getContent()).extracting(Teacher::getLastName).containsExactly("Lovelace", "Turing");
+		assertThat(first.hasNext()).isTrue();
+		assertThat(last.getContent()).extracting(Teacher::getLastName).containsExactly("Wildcard");
+		assertThat(last.hasNext()).isFalse();
+	}
+
+	private List<String> lastNames(TeacherSearchCriteria criteria) {
+		return teacherService.searchTeachers(criteria, 0, 50).map(Teacher::getLastName).getContent();
+	}
+
+}
@@ -0,0 +1,19 @@
+-- db/changes.sql for the embedded test database: the same tables, without the partial index
+CREATE TABLE IF NOT EXISTS change_events (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    position bigint UNIQUE,
+    aggregate_type varchar(32) NOT NULL,
+    aggregate_id varchar(255) NOT NULL,
+    event_type varchar(32) NOT NULL,
+    payload text,
+    occurred_at timestamp(6) NOT NULL,
+    relayed_at timestamp(6)
+);
+
+CREATE TABLE IF NOT EXISTS change_event_relay (
+    id integer PRIMARY KEY,
+    last_position bigint NOT NULL,
+    pruned_through bigint NOT NULL
+);
+
+INSERT INTO change_event_relay (id, last_position, pruned_through) VALUES (1, 0, 0) ON CONFLICT DO NOTHING;